@@ -23,8 +23,8 @@ import org.apache.logging.log4j.ThreadContext.ContextStack;
 import org.apache.logging.log4j.core.ContextDataInjector;
 import org.apache.logging.log4j.core.time.Clock;
 import org.apache.logging.log4j.core.time.NanoClock;
+import org.apache.logging.log4j.core.util.CallSiteLocator;
 import org.apache.logging.log4j.message.Message;
-import org.apache.logging.log4j.util.StackLocatorUtil;
 import org.apache.logging.log4j.util.StringMap;
 import org.jspecify.annotations.NullMarked;
 import org.jspecify.annotations.Nullable;
@@ -78,7 +78,7 @@ public class RingBufferLogEventTranslator implements EventTranslator<RingBufferL
                     threadName,
                     threadPriority,
                     // compute location if necessary
-                    requiresLocation ? StackLocatorUtil.calcLocation(fqcn) : location,
+                    requiresLocation ? CallSiteLocator.calcLocation(fqcn) : location,
                     clock,
                     nanoClock);
         } finally {
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.AppenderControl;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+class AsyncAppenderEventDispatcherTest {
+
+    private static final int BATCH_SIZE = 16;
+
+    private static LogEvent createEvent(final int index) {
+        return Log4jLogEvent.newBuilder()
+                .setMessage(new SimpleMessage(Integer.toString(index)))
+                .build();
+    }
+
+    @Test
+    void queued_events_are_dispatched_in_batches() throws Exception {
+        final ListAppender first = new ListAppender("first");
+        final ListAppender second = new ListAppender("second");
+        first.start();
+        second.start();
+        final BlockingQueue<LogEvent> queue = new ArrayBlockingQueue<>(1024);
+        final int eventCount = 6 * BATCH_SIZE + 4;
+        for (int i = 0; i < eventCount; i++) {
+            queue.add(createEvent(i));
+        }
+        final AsyncAppenderEventDispatcher dispatcher = new AsyncAppenderEventDispatcher(
+                "test",
+                null,
+                List.of(new AppenderControl(first, null, null), new AppenderControl(second, null, null)),
+                queue,
+                BATCH_SIZE);
+        dispatcher.start();
+        dispatcher.stop(10_000);
+
+        for (final ListAppender appender : List.of(first, second)) {
+            final List<LogEvent> events = appender.getEvents();
+            assertThat(events).hasSize(eventCount);
+            for (int i = 0; i < eventCount; i++) {
+                final LogEvent event = events.get(i);
+                assertThat(event.getMessage().getFormattedMessage()).isEqualTo(Integer.toString(i));
+                // Only the last event leaves the queue empty
+                assertThat(event.isEndOfBatch()).isEqualTo(i == eventCount - 1);
+            }
+        }
+        // 6 batches of 16 events and one batch of 4 events
+        assertThat(dispatcher.getBatchSizeHistogram()).containsExactly(0, 0, 1, 0, 6);
+    }
+
+    @Test
+    void failed_events_are_dispatched_to_error_appender() throws Exception {
+        final ListAppender errors = new ListAppender("errors");
+        errors.start();
+        final Appender failing = new AbstractAppender("failing", null, null, false, Property.EMPTY_ARRAY) {
+            @Override
+            public void append(final LogEvent event) {
+                throw new IllegalStateException("Expected failure");
+            }
+        };
+        failing.start();
+        final BlockingQueue<LogEvent> queue = new ArrayBlockingQueue<>(1024);
+        for (int i = 0; i < 20; i++) {
+            queue.add(createEvent(i));
+        }
+        final AsyncAppenderEventDispatcher dispatcher = new AsyncAppenderEventDispatcher(
+                "test",
+                new AppenderControl(errors, null, null),
+                List.of(new AppenderControl(failing, null, null)),
+                queue,
+                BATCH_SIZE);
+        dispatcher.start();
+        dispatcher.stop(10_000);
+
+        assertThat(errors.getEvents()).hasSize(20);
+    }
+}
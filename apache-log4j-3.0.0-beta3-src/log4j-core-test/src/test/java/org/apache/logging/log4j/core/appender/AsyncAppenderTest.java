@@ -28,6 +28,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LoggingException;
 import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.test.appender.BlockingAppender;
 import org.apache.logging.log4j.core.test.appender.ListAppender;
 import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
 import org.apache.logging.log4j.core.test.junit.Named;
@@ -118,6 +119,55 @@ public class AsyncAppenderTest {
         assertEquals("STDOUT", appender.getErrorRef());
     }
 
+    @Test
+    @LoggerContextSource("log4j-asynch-garbage-free.xml")
+    public void testGarbageFree(final LoggerContext context, @Named("List") final ListAppender appender)
+            throws InterruptedException {
+        rewriteTest(context);
+        exceptionTest(context);
+
+        // The queue holds only 4 preallocated events, which are reused
+        final ExtendedLogger logger = context.getLogger(getClass());
+        for (int i = 0; i < 100; i++) {
+            logger.info("Message {}", i);
+        }
+        final List<String> messages;
+        try {
+            messages = appender.getMessages(100, 2, TimeUnit.SECONDS);
+        } finally {
+            appender.clear();
+        }
+        assertNotNull(messages);
+        assertEquals(100, messages.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(getClass().getName() + " testGarbageFree Message " + i, messages.get(i));
+        }
+        final AsyncAppender asyncAppender = context.getConfiguration().getAppender("Async");
+        assertTrue(asyncAppender.isGarbageFree());
+    }
+
+    @Test
+    @LoggerContextSource("log4j-asynch-garbage-free-queue-full.xml")
+    public void testGarbageFreeQueueFull(
+            final LoggerContext context,
+            @Named("Block") final BlockingAppender blockingAppender,
+            @Named("Errors") final ListAppender errorAppender) {
+        // The dispatcher is blocked by the first event, so the following ones cannot be transferred
+        final ExtendedLogger logger = context.getLogger(getClass());
+        try {
+            for (int i = 0; i < 10; i++) {
+                logger.info("Message {}", i);
+            }
+            final List<String> messages = errorAppender.getMessages();
+            assertFalse(messages.isEmpty());
+            for (final String message : messages) {
+                assertTrue(message.matches("Message \\d+"), message);
+            }
+        } finally {
+            blockingAppender.running = false;
+        }
+    }
+
     @Test
     @LoggerContextSource("BlockingQueueFactory-LinkedTransferQueue.xml")
     public void testLinkedTransferQueue(final LoggerContext context) throws InterruptedException {
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Tests {@link FileAppender} with a lock-free buffer.
+ */
+class FileAppenderConcurrentBufferTest {
+
+    private static final int THREADS = 8;
+
+    private static final int EVENTS_PER_THREAD = 5_000;
+
+    // Small enough to wrap around often and to reject the large events
+    private static final int CONCURRENT_BUFFER_SIZE = 4096;
+
+    private final Configuration configuration = new DefaultConfiguration();
+
+    @TempDir
+    private Path tempDir;
+
+    @ParameterizedTest
+    @CsvSource({"false, false", "true, false", "false, true"})
+    void events_are_written_intact_and_in_order(final boolean bufferedIo, final boolean locking) throws Exception {
+        final Path file = tempDir.resolve("concurrent.log");
+        final FileAppender appender = FileAppender.newBuilder()
+                .setConfiguration(configuration)
+                .setFileName(file.toString())
+                .setName("test")
+                .setBufferedIo(bufferedIo)
+                .setLocking(locking)
+                .setImmediateFlush(!bufferedIo)
+                .setIgnoreExceptions(false)
+                .setConcurrentBufferSize(CONCURRENT_BUFFER_SIZE)
+                .setLayout(PatternLayout.newBuilder()
+                        .setConfiguration(configuration)
+                        .setPattern("%t %m%n")
+                        .build())
+                .build();
+        assertThat(appender.getManager().isConcurrentBufferEnabled()).isTrue();
+        appender.start();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch startLatch = new CountDownLatch(1);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final String threadName = "T" + thread;
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    for (int i = 0; i < EVENTS_PER_THREAD; i++) {
+                        // Every 100th event does not fit into the lock-free buffer
+                        final String message = i % 100 == 0 ? i + " " + "x".repeat(2000) : Integer.toString(i);
+                        appender.append(createEvent(threadName, message));
+                    }
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            appender.stop();
+        }
+
+        final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(THREADS * EVENTS_PER_THREAD);
+        final Map<String, Integer> lastSequenceByThread = new HashMap<>();
+        for (final String line : lines) {
+            final String[] parts = line.split(" ");
+            assertThat(parts[0]).matches("T\\d+");
+            final int sequence = Integer.parseInt(parts[1]);
+            final int expectedSequence = lastSequenceByThread.getOrDefault(parts[0], -1) + 1;
+            assertThat(sequence).as("sequence of %s", parts[0]).isEqualTo(expectedSequence);
+            if (sequence % 100 == 0) {
+                assertThat(parts[2]).hasSize(2000);
+            }
+            lastSequenceByThread.put(parts[0], sequence);
+        }
+    }
+
+    @Test
+    void flush_writes_events_encoded_into_the_byte_buffer() throws Exception {
+        final Path file = tempDir.resolve("large.log");
+        final FileAppender appender = FileAppender.newBuilder()
+                .setConfiguration(configuration)
+                .setFileName(file.toString())
+                .setName("test")
+                .setImmediateFlush(true)
+                .setIgnoreExceptions(false)
+                .setConcurrentBufferSize(CONCURRENT_BUFFER_SIZE)
+                .setLayout(PatternLayout.newBuilder()
+                        .setConfiguration(configuration)
+                        .setPattern("%m%n")
+                        .build())
+                .build();
+        appender.start();
+        try {
+            // Larger than the encoder buffers: the text encoder writes it in chunks into the manager's byte buffer
+            final String message = "x".repeat(20_000);
+            appender.append(createEvent("T0", message));
+            appender.getManager().flush();
+            assertThat(Files.readAllLines(file, StandardCharsets.UTF_8)).containsExactly(message);
+        } finally {
+            appender.stop();
+        }
+    }
+
+    private static LogEvent createEvent(final String threadName, final String message) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("TestLogger")
+                .setLoggerFqcn(FileAppenderConcurrentBufferTest.class.getName())
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(message))
+                .setThreadName(threadName)
+                .build();
+    }
+}
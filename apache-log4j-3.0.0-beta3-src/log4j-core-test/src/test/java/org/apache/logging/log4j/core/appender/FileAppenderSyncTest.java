@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the group commit mode of {@link FileAppender} and {@link RandomAccessFileAppender}.
+ */
+class FileAppenderSyncTest {
+
+    private static final Marker AUDIT = MarkerManager.getMarker("AUDIT");
+
+    private final Configuration configuration = new DefaultConfiguration();
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void file_appender_writes_synced_events_before_returning() throws Exception {
+        final Path file = tempDir.resolve("file.log");
+        final FileAppender appender = FileAppender.newBuilder()
+                .setConfiguration(configuration)
+                .setFileName(file.toString())
+                .setName("test")
+                .setImmediateFlush(false)
+                .setSyncIntervalMillis(20)
+                .setSyncLevel(Level.ERROR)
+                .setSyncMarker(AUDIT.getName())
+                .setLayout(createLayout())
+                .build();
+        assertThat(appender.getManager().isSyncEnabled()).isTrue();
+        assertSyncedEvents(appender, file);
+    }
+
+    @Test
+    void random_access_file_appender_writes_synced_events_before_returning() throws Exception {
+        final Path file = tempDir.resolve("random.log");
+        final RandomAccessFileAppender appender = RandomAccessFileAppender.newBuilder()
+                .setConfiguration(configuration)
+                .setFileName(file.toString())
+                .setName("test")
+                .setImmediateFlush(false)
+                .setSyncIntervalMillis(20)
+                .setSyncLevel(Level.ERROR)
+                .setSyncMarker(AUDIT.getName())
+                .setLayout(createLayout())
+                .build();
+        assertThat(appender.getManager().isSyncEnabled()).isTrue();
+        assertSyncedEvents(appender, file);
+    }
+
+    @Test
+    void concurrent_sync_requests_are_all_released() throws Exception {
+        final Path file = tempDir.resolve("concurrent.log");
+        final FileAppender appender = FileAppender.newBuilder()
+                .setConfiguration(configuration)
+                .setFileName(file.toString())
+                .setName("test")
+                .setImmediateFlush(false)
+                .setSyncIntervalMillis(5)
+                .setLayout(createLayout())
+                .build();
+        appender.start();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        appender.append(createEvent(Level.DEBUG, null, "event"));
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+            // Every event waited for its commit, hence it is in the file
+            assertThat(Files.readAllLines(file, StandardCharsets.UTF_8)).hasSize(200);
+        } finally {
+            executor.shutdown();
+            appender.stop();
+        }
+    }
+
+    @Test
+    void file_manager_forces_the_file_to_storage() throws Exception {
+        final AtomicInteger forced = new AtomicInteger();
+        final FileManager manager = new TestFileManager(tempDir.resolve("forced.log")) {
+            @Override
+            protected void forceToStorage() throws IOException {
+                super.forceToStorage();
+                forced.incrementAndGet();
+            }
+        };
+        try {
+            manager.write(bytes("event"));
+            manager.sync();
+            assertThat(forced.get()).isPositive();
+        } finally {
+            manager.releaseSub(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void file_manager_rejects_wrapped_streams() {
+        final FileManager manager = new TestFileManager(tempDir.resolve("wrapped.log")) {
+            @Override
+            protected OutputStream wrapOutputStream(final FileOutputStream fos) {
+                return new BufferedOutputStream(fos);
+            }
+        };
+        try {
+            manager.write(bytes("event"));
+            assertThatThrownBy(manager::sync)
+                    .isInstanceOf(AppenderLoggingException.class)
+                    .hasCauseInstanceOf(IOException.class);
+        } finally {
+            manager.releaseSub(1, TimeUnit.SECONDS);
+        }
+    }
+
+    private static byte[] bytes(final String message) {
+        return (message + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void assertSyncedEvents(final Appender appender, final Path file) throws Exception {
+        appender.start();
+        try {
+            appender.append(createEvent(Level.INFO, null, "buffered"));
+            assertThat(Files.size(file)).isZero();
+            appender.append(createEvent(Level.ERROR, null, "error"));
+            assertThat(Files.readAllLines(file, StandardCharsets.UTF_8)).containsExactly("buffered", "error");
+            appender.append(createEvent(Level.INFO, AUDIT, "audit"));
+            assertThat(Files.readAllLines(file, StandardCharsets.UTF_8)).containsExactly("buffered", "error", "audit");
+        } finally {
+            appender.stop();
+        }
+    }
+
+    private Layout createLayout() {
+        return PatternLayout.newBuilder()
+                .setConfiguration(configuration)
+                .setPattern("%m%n")
+                .build();
+    }
+
+    /**
+     * A file manager created on demand, with group commits.
+     */
+    private static class TestFileManager extends FileManager {
+
+        TestFileManager(final Path file) {
+            super(
+                    null,
+                    file.toString(),
+                    null,
+                    true,
+                    false,
+                    true,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    false,
+                    ByteBuffer.allocate(1024),
+                    0,
+                    10);
+        }
+    }
+
+    private static LogEvent createEvent(final Level level, final Marker marker, final String message) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("TestLogger")
+                .setLoggerFqcn(FileAppenderSyncTest.class.getName())
+                .setLevel(level)
+                .setMarker(marker)
+                .setMessage(new SimpleMessage(message))
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class GroupCommitterTest {
+
+    @Test
+    void await_commit_returns_after_a_commit() {
+        final AtomicInteger commits = new AtomicInteger();
+        final GroupCommitter committer = new GroupCommitter("test", 10, commits::incrementAndGet);
+        try {
+            final int before = commits.get();
+            committer.awaitCommit();
+            assertThat(commits.get()).isGreaterThan(before);
+        } finally {
+            committer.stop(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void commit_failure_is_reported_to_waiters() {
+        final IOException failure = new IOException("Failure");
+        final GroupCommitter committer = new GroupCommitter("test", 10, () -> {
+            throw failure;
+        });
+        try {
+            assertThatThrownBy(committer::awaitCommit)
+                    .isInstanceOf(AppenderLoggingException.class)
+                    .hasCause(failure);
+        } finally {
+            committer.stop(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void commit_after_stop_runs_on_caller_thread() {
+        final AtomicInteger commits = new AtomicInteger();
+        final GroupCommitter committer = new GroupCommitter("test", 3_600_000, commits::incrementAndGet);
+        assertThat(committer.stop(1, TimeUnit.SECONDS)).isTrue();
+        // No pending request, no final commit
+        assertThat(commits.get()).isZero();
+        committer.awaitCommit();
+        assertThat(commits.get()).isOne();
+    }
+}
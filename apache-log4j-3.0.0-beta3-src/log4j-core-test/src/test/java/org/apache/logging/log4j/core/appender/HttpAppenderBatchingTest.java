@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.apache.logging.log4j.plugins.di.DI;
+import org.apache.logging.log4j.test.junit.UsingStatusListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the batching mode of {@link HttpAppender} against a local HTTP server.
+ */
+@UsingStatusListener // Suppresses `StatusLogger` output, unless there is a failure
+class HttpAppenderBatchingTest {
+
+    private static final String APPENDER_NAME = "TestHttp";
+
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+    /**
+     * Delays the recording of each request, so that an appender not waiting for its requests at shutdown reliably
+     * loses the last batch.
+     */
+    private static final long RESPONSE_DELAY_MILLIS = 100;
+
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            final String body;
+            try (final InputStream input = exchange.getRequestBody()) {
+                body = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            try {
+                Thread.sleep(RESPONSE_DELAY_MILLIS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            requests.add(new Request(
+                    exchange.getRemoteAddress().getPort(),
+                    exchange.getRequestHeaders().getFirst("Content-Type"),
+                    body));
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void events_are_sent_in_newline_delimited_batches() throws Exception {
+        final Configuration config = createConfiguration("NEWLINE", 3, 60_000, "%m%n");
+        try (final LoggerContext loggerContext = createStartedLoggerContext(config)) {
+            final Logger logger = loggerContext.getRootLogger();
+            for (int i = 0; i < 7; i++) {
+                logger.info("m{}", i);
+            }
+        }
+        // Stopping the context sends the partial batch and waits for all the requests to complete
+        assertThat(requests).extracting(Request::getBody).containsExactly("m0\nm1\nm2\n", "m3\nm4\nm5\n", "m6\n");
+        assertThat(requests).extracting(Request::getContentType).allMatch(type -> type.startsWith("text/plain"));
+        // With a single in-flight request the connection is reused
+        assertThat(requests.stream().map(Request::getPort).collect(Collectors.toSet()))
+                .hasSizeLessThan(requests.size());
+    }
+
+    @Test
+    void events_are_sent_as_json_array() throws Exception {
+        final Configuration config = createConfiguration("JSON_ARRAY", 2, 60_000, "{\"message\":\"%m\"}%n");
+        try (final LoggerContext loggerContext = createStartedLoggerContext(config)) {
+            final Logger logger = loggerContext.getRootLogger();
+            logger.info("a");
+            logger.info("b");
+            logger.info("c");
+        }
+        assertThat(requests)
+                .extracting(Request::getBody)
+                .containsExactly("[{\"message\":\"a\"},{\"message\":\"b\"}]", "[{\"message\":\"c\"}]");
+    }
+
+    @Test
+    void partial_batches_are_sent_after_flush_interval() throws Exception {
+        final Configuration config = createConfiguration("NEWLINE", 100, 50, "%m%n");
+        try (final LoggerContext loggerContext = createStartedLoggerContext(config)) {
+            loggerContext.getRootLogger().info("m");
+            await("flushed batch").atMost(10, TimeUnit.SECONDS).until(() -> requests.size() == 1);
+            assertThat(requests.get(0).getBody()).isEqualTo("m\n");
+        }
+    }
+
+    private Configuration createConfiguration(
+            final String batchFormat, final int batchSize, final long flushIntervalMillis, final String pattern) {
+        final ConfigurationBuilder<BuiltConfiguration> configBuilder =
+                ConfigurationBuilderFactory.newConfigurationBuilder()
+                        .setStatusLevel(Level.ERROR)
+                        .setConfigurationName(HttpAppenderBatchingTest.class.getSimpleName());
+        return configBuilder
+                .add(configBuilder
+                        .newAppender(APPENDER_NAME, "Http")
+                        .addAttribute(
+                                "url", "http://localhost:" + server.getAddress().getPort() + "/logs")
+                        .addAttribute("ignoreExceptions", false)
+                        .addAttribute("batchSize", batchSize)
+                        .addAttribute("flushIntervalMillis", flushIntervalMillis)
+                        .addAttribute("maxInFlightRequests", 1)
+                        .addAttribute("batchFormat", batchFormat)
+                        .add(configBuilder.newLayout("PatternLayout").addAttribute("pattern", pattern)))
+                .add(configBuilder.newRootLogger(Level.ALL).add(configBuilder.newAppenderRef(APPENDER_NAME)))
+                .build(false);
+    }
+
+    private static LoggerContext createStartedLoggerContext(final Configuration configuration) {
+        final LoggerContext loggerContext = new LoggerContext(
+                HttpAppenderBatchingTest.class.getSimpleName(), null, (String) null, DI.createInitializedFactory());
+        loggerContext.start(configuration);
+        return loggerContext;
+    }
+
+    private static final class Request {
+
+        private final int port;
+        private final String contentType;
+        private final String body;
+
+        private Request(final int port, final String contentType, final String body) {
+            this.port = port;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        int getPort() {
+            return port;
+        }
+
+        String getContentType() {
+            return contentType;
+        }
+
+        String getBody() {
+            return body;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.apache.logging.log4j.core.appender;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.BufferedReader;
@@ -25,6 +26,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -64,6 +66,38 @@ public class MemoryMappedFileManagerTest {
         }
     }
 
+    @Test
+    public void testSegmentedRemapAfterInitialMapSizeExceeded() throws IOException {
+        final int mapSize = 64; // very small, on purpose
+        final File file = new File(tempDir, "segmented-memory-mapped-file.bin");
+
+        final boolean append = false;
+        final boolean immediateFlush = false;
+        long expectedLength = 0;
+        try (final MemoryMappedFileManager manager = MemoryMappedFileManager.getFileManager(
+                file.getAbsolutePath(), append, immediateFlush, mapSize, null, null, true, null)) {
+            assertTrue(manager.isSegmented(), "segmented");
+            byte[] msg;
+            for (int i = 0; i < 1000; i++) {
+                msg = ("Message " + i + "\n").getBytes();
+                if (i % 2 == 0) {
+                    manager.write(msg, 0, msg.length, false);
+                } else {
+                    manager.writeBytes(ByteBuffer.wrap(msg));
+                }
+                expectedLength += msg.length;
+            }
+        }
+        assertEquals(expectedLength, file.length(), "file truncated to its content");
+
+        try (final BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            for (int i = 0; i < 1000; i++) {
+                assertEquals("Message " + i, reader.readLine());
+            }
+            assertNull(reader.readLine());
+        }
+    }
+
     @Test
     public void testAppendDoesNotOverwriteExistingFile() throws IOException {
         final File file = new File(tempDir, "memory-mapped-file.bin");
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.net.PipelinedDatagramSocketManager;
+import org.apache.logging.log4j.test.junit.UsingStatusListener;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link PipelinedDatagramSocketManager} against a loopback receiver.
+ */
+@UsingStatusListener // Suppresses `StatusLogger` output, unless there is a failure
+class PipelinedDatagramSocketManagerTest {
+
+    private static final int MAX_PACKET_SIZE = 100;
+
+    @Test
+    void events_should_be_packed_in_datagrams_of_max_packet_size() throws Exception {
+        try (final DatagramSocket receiver = createReceiver()) {
+            final PipelinedDatagramSocketManager manager = createManager(receiver, MAX_PACKET_SIZE);
+            try {
+                final List<String> events = lines(200);
+                write(manager, events);
+                final List<String> packets = receive(receiver, events.size());
+                assertThat(packets)
+                        .allSatisfy(packet -> assertThat(packet.length()).isLessThanOrEqualTo(MAX_PACKET_SIZE));
+                assertThat(split(packets)).isEqualTo(events);
+                assertThat(manager.getSentEvents()).isEqualTo(events.size());
+                assertThat(manager.getSentPackets()).isEqualTo(packets.size());
+                assertThat(manager.getDroppedEvents()).isZero();
+            } finally {
+                manager.stop(1, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @Test
+    void events_should_be_sent_in_their_own_datagram_without_max_packet_size() throws Exception {
+        try (final DatagramSocket receiver = createReceiver()) {
+            final PipelinedDatagramSocketManager manager = createManager(receiver, 0);
+            try {
+                final List<String> events = lines(20);
+                write(manager, events);
+                assertThat(receive(receiver, events.size()))
+                        .isEqualTo(events.stream().map(event -> event + '\n').collect(Collectors.toList()));
+                assertThat(manager.getSentPackets()).isEqualTo(events.size());
+            } finally {
+                manager.stop(1, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @Test
+    void events_larger_than_the_buffer_should_be_sent_in_one_datagram() throws Exception {
+        try (final DatagramSocket receiver = createReceiver()) {
+            final PipelinedDatagramSocketManager manager = createManager(receiver, 0, 64);
+            try {
+                final String event = "x".repeat(500) + '\n';
+                // The buffer is drained several times before the flush
+                manager.writeBytes(ByteBuffer.wrap(event.getBytes(StandardCharsets.UTF_8)));
+                manager.flush();
+                assertThat(receive(receiver, 1)).containsExactly(event);
+                assertThat(manager.getSentPackets()).isEqualTo(1);
+            } finally {
+                manager.stop(1, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static DatagramSocket createReceiver() throws Exception {
+        final DatagramSocket receiver = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        receiver.setReceiveBufferSize(1024 * 1024);
+        receiver.setSoTimeout(2000);
+        return receiver;
+    }
+
+    private static PipelinedDatagramSocketManager createManager(
+            final DatagramSocket receiver, final int maxPacketSize) {
+        return createManager(receiver, maxPacketSize, 8192);
+    }
+
+    private static PipelinedDatagramSocketManager createManager(
+            final DatagramSocket receiver, final int maxPacketSize, final int bufferSize) {
+        return PipelinedDatagramSocketManager.getSocketManager(
+                receiver.getLocalAddress().getHostAddress(),
+                receiver.getLocalPort(),
+                PatternLayout.createDefaultLayout(),
+                bufferSize,
+                64 * 1024,
+                maxPacketSize);
+    }
+
+    private static void write(final PipelinedDatagramSocketManager manager, final List<String> lines) {
+        for (final String line : lines) {
+            final byte[] bytes = (line + '\n').getBytes(StandardCharsets.UTF_8);
+            manager.writeBytes(bytes, 0, bytes.length);
+            manager.flush();
+        }
+    }
+
+    /**
+     * Receives datagrams until they contain the given number of lines.
+     */
+    private static List<String> receive(final DatagramSocket receiver, final int lineCount) throws Exception {
+        final List<String> packets = new ArrayList<>();
+        final DatagramPacket packet = new DatagramPacket(new byte[65536], 65536);
+        int received = 0;
+        while (received < lineCount) {
+            receiver.receive(packet);
+            final String content =
+                    new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.UTF_8);
+            packets.add(content);
+            received += (int) content.chars().filter(c -> c == '\n').count();
+        }
+        return packets;
+    }
+
+    private static List<String> split(final List<String> packets) {
+        return packets.stream()
+                .flatMap(packet -> Arrays.stream(packet.split("\n")))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> lines(final int count) {
+        return IntStream.range(0, count).mapToObj(i -> "event-" + i).collect(Collectors.toList());
+    }
+}
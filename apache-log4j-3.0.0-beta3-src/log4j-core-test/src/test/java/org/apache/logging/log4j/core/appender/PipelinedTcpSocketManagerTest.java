@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.net.PipelinedTcpSocketManager;
+import org.apache.logging.log4j.test.junit.UsingStatusListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link PipelinedTcpSocketManager} against a loopback server that drops and restores its connections.
+ */
+@UsingStatusListener // Suppresses `StatusLogger` output, unless there is a failure
+class PipelinedTcpSocketManagerTest {
+
+    private static final int EPHEMERAL_PORT = 0;
+
+    private static final int RECONNECT_DELAY_MILLIS = 100;
+
+    private static final int RING_BUFFER_SIZE = 1024;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void spooled_events_should_be_replayed_in_order_after_reconnection() throws Exception {
+        try (final LineReadingTcpServer server = new LineReadingTcpServer()) {
+            server.start("Main", EPHEMERAL_PORT);
+            final String host = server.getServerSocket().getInetAddress().getHostAddress();
+            final int port = server.getServerSocket().getLocalPort();
+            final PipelinedTcpSocketManager manager = createManager(host, port, tempDir.resolve("spool.log"));
+            try {
+                // Connected
+                final List<String> before = lines("before", 10);
+                write(manager, before);
+                assertThat(server.pollLines(before.size())).isEqualTo(before);
+
+                // Drop the connection and wait until the failure is detected
+                server.close();
+                await("connection failure")
+                        .pollInterval(10, TimeUnit.MILLISECONDS)
+                        .atMost(10, TimeUnit.SECONDS)
+                        .until(() -> {
+                            write(manager, List.of("probe"));
+                            return !manager.isConnected();
+                        });
+
+                // Overflow the ring buffer while disconnected
+                final List<String> during = lines("during", 1000);
+                write(manager, during);
+                assertThat(manager.getSpooledBytes()).isPositive();
+                assertThat(manager.getDroppedEvents()).isZero();
+
+                // Restore the connection
+                server.start("Main", port);
+                final List<String> after = lines("after", 10);
+                write(manager, after);
+                final List<String> expected =
+                        Stream.concat(during.stream(), after.stream()).collect(Collectors.toList());
+                assertThat(pollLinesIgnoringProbes(server, expected.size())).isEqualTo(expected);
+                assertThat(manager.getReplayedBytes()).isPositive();
+                await("spool replay").atMost(10, TimeUnit.SECONDS).until(() -> manager.getSpooledBytes() == 0);
+            } finally {
+                manager.stop(1, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    @Test
+    void events_should_be_dropped_without_spool_file() throws Exception {
+        final PipelinedTcpSocketManager manager = createManager("localhost", unusedPort(), null);
+        try {
+            write(manager, lines("event", 1000));
+            assertThat(manager.getDroppedEvents()).isPositive();
+            assertThat(manager.getPendingBytes()).isLessThanOrEqualTo(RING_BUFFER_SIZE);
+        } finally {
+            manager.stop(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void unsent_events_should_be_kept_in_spool_file_on_stop() throws Exception {
+        final Path spoolFile = tempDir.resolve("spool.log");
+        final List<String> events = lines("event", 1000);
+        final PipelinedTcpSocketManager manager = createManager("localhost", unusedPort(), spoolFile);
+        try {
+            write(manager, events);
+        } finally {
+            manager.stop(1, TimeUnit.SECONDS);
+        }
+        assertThat(Files.readAllLines(spoolFile, StandardCharsets.UTF_8)).isEqualTo(events);
+    }
+
+    private static PipelinedTcpSocketManager createManager(final String host, final int port, final Path spoolFile) {
+        return PipelinedTcpSocketManager.getSocketManager(
+                host,
+                port,
+                0,
+                RECONNECT_DELAY_MILLIS,
+                PatternLayout.createDefaultLayout(),
+                8192,
+                null,
+                RING_BUFFER_SIZE,
+                spoolFile != null ? spoolFile.toString() : null);
+    }
+
+    /**
+     * Polls lines, ignoring the probes: they may be sent again after the reconnection.
+     */
+    private static List<String> pollLinesIgnoringProbes(final LineReadingTcpServer server, final int count)
+            throws InterruptedException {
+        final List<String> lines = new ArrayList<>(count);
+        while (lines.size() < count) {
+            final String line = server.pollLines(1).get(0);
+            if (!line.equals("probe")) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static void write(final PipelinedTcpSocketManager manager, final List<String> lines) {
+        for (final String line : lines) {
+            final byte[] bytes = (line + '\n').getBytes(StandardCharsets.UTF_8);
+            manager.writeBytes(bytes, 0, bytes.length);
+            manager.flush();
+        }
+    }
+
+    private static List<String> lines(final String prefix, final int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + i).collect(Collectors.toList());
+    }
+
+    private static int unusedPort() throws Exception {
+        try (final ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class GzipFileRecoveryTest {
+
+    private static final byte[] FIRST = createContent("first", 2000);
+    private static final byte[] SECOND = createContent("second", 2000);
+
+    @TempDir
+    private Path tempDir;
+
+    private static byte[] createContent(final String prefix, final int lines) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            sb.append(prefix).append(" message ").append(i).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] concat(final byte[]... arrays) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (final byte[] array : arrays) {
+            output.writeBytes(array);
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] decompress(final Path file) throws IOException {
+        try (final InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            return input.readAllBytes();
+        }
+    }
+
+    private static byte[] compress(final byte[] content) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final GZIPOutputStream gzip = new GZIPOutputStream(bytes, true)) {
+            gzip.write(content);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the bytes written by a JVM that died after flushing {@code flushed} and while writing {@code unflushed}.
+     *
+     * @param cut the number of bytes of the unflushed data that reached the file.
+     */
+    private static byte[] unfinishedMember(final byte[] flushed, final byte[] unflushed, final int cut)
+            throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final GZIPOutputStream gzip = new GZIPOutputStream(bytes, true);
+        gzip.write(flushed);
+        gzip.flush();
+        final int flushedLength = bytes.size();
+        gzip.write(unflushed);
+        gzip.flush();
+        return Arrays.copyOf(bytes.toByteArray(), flushedLength + cut);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 100, 1000})
+    void unfinished_member_is_cut_after_last_flush(final int cut) throws Exception {
+        final Path file = Files.write(tempDir.resolve("app.log.gz"), unfinishedMember(FIRST, SECOND, cut));
+
+        assertThat(GzipFileRecovery.recover(file)).isEqualTo(FIRST.length);
+        assertThat(decompress(file)).isEqualTo(FIRST);
+    }
+
+    @Test
+    void previous_members_are_kept() throws Exception {
+        final Path file = Files.write(
+                tempDir.resolve("app.log.gz"), concat(compress(FIRST), unfinishedMember(SECOND, FIRST, 100)));
+
+        assertThat(GzipFileRecovery.recover(file)).isEqualTo(FIRST.length + SECOND.length);
+        assertThat(decompress(file)).isEqualTo(concat(FIRST, SECOND));
+    }
+
+    @Test
+    void member_without_flush_is_discarded() throws Exception {
+        final byte[] complete = compress(FIRST);
+        final byte[] unflushed = compress(SECOND);
+        final Path file = Files.write(
+                tempDir.resolve("app.log.gz"), concat(complete, Arrays.copyOf(unflushed, unflushed.length / 2)));
+
+        assertThat(GzipFileRecovery.recover(file)).isEqualTo(FIRST.length);
+        assertThat(file).hasSize(complete.length);
+    }
+
+    @Test
+    void missing_trailer_is_restored() throws Exception {
+        final byte[] complete = compress(FIRST);
+        final Path file = Files.write(tempDir.resolve("app.log.gz"), Arrays.copyOf(complete, complete.length - 3));
+
+        assertThat(GzipFileRecovery.recover(file)).isEqualTo(FIRST.length);
+        assertThat(file).hasBinaryContent(complete);
+    }
+
+    @Test
+    void complete_file_is_not_modified() throws Exception {
+        final byte[] complete = concat(compress(FIRST), compress(SECOND));
+        final Path file = Files.write(tempDir.resolve("app.log.gz"), complete);
+
+        assertThat(GzipFileRecovery.recover(file)).isEqualTo(FIRST.length + SECOND.length);
+        assertThat(file).hasBinaryContent(complete);
+    }
+
+    @Test
+    void plain_file_is_rejected() throws Exception {
+        final Path file = Files.write(tempDir.resolve("app.log.gz"), FIRST);
+
+        assertThatThrownBy(() -> GzipFileRecovery.recover(file)).isInstanceOf(IOException.class);
+        assertThat(file).hasBinaryContent(FIRST);
+    }
+}
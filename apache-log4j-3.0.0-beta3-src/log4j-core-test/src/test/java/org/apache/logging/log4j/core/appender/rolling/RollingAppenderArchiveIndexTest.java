@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.apache.logging.log4j.core.appender.RollingFileAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@LoggerContextSource(value = "")
+class RollingAppenderArchiveIndexTest {
+
+    private static final int MAX_FILES = 3;
+
+    @TempDir
+    private Path tempDir;
+
+    private RollingFileAppender.Builder newAppenderBuilder(final Configuration config) {
+        return RollingFileAppender.newBuilder()
+                .setName("ArchiveIndex")
+                .setFilePattern(tempDir.resolve("app-%i.log.gz").toString())
+                .setPolicy(new SizeBasedTriggeringPolicy(1024))
+                .setLayout(PatternLayout.newBuilder()
+                        .setPattern("%m%n")
+                        .setConfiguration(config)
+                        .build());
+    }
+
+    private static void log(final RollingFileAppender appender) {
+        for (int i = 0; i < 1000; i++) {
+            appender.append(Log4jLogEvent.newBuilder()
+                    .setMessage(new SimpleMessage("Message " + i))
+                    .build());
+        }
+    }
+
+    private List<String> listLogFiles() throws IOException {
+        try (final Stream<Path> files = Files.list(tempDir)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith("app"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private void assertIndexFileExists() throws IOException {
+        try (final Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .anyMatch(name -> name.startsWith(RolloverFileIndex.FILE_NAME_PREFIX));
+        }
+    }
+
+    @Test
+    void direct_write_keeps_max_files(final Configuration config) throws Exception {
+        final RollingFileAppender appender = newAppenderBuilder(config)
+                .setStrategy(DirectWriteRolloverStrategy.newBuilder()
+                        .setMaxFiles(Integer.toString(MAX_FILES))
+                        .setCompressOnWrite(true)
+                        .setArchiveIndex(true)
+                        .setConfig(config)
+                        .build())
+                .build();
+        try {
+            log(appender);
+        } finally {
+            appender.stop();
+        }
+        final List<String> files = listLogFiles();
+        assertThat(files).hasSize(MAX_FILES).allMatch(name -> name.endsWith(".log.gz"));
+        for (final String file : files) {
+            try (final InputStream input = new GZIPInputStream(Files.newInputStream(tempDir.resolve(file)))) {
+                assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8))
+                        .startsWith("Message ");
+            }
+        }
+        assertIndexFileExists();
+    }
+
+    @Test
+    void fixed_window_keeps_max_files(final Configuration config) throws Exception {
+        final RollingFileAppender appender = newAppenderBuilder(config)
+                .setFileName(tempDir.resolve("app.log").toString())
+                .setStrategy(DefaultRolloverStrategy.newBuilder()
+                        .setMax(Integer.toString(MAX_FILES))
+                        .setArchiveIndex(true)
+                        .setConfig(config)
+                        .build())
+                .build();
+        try {
+            log(appender);
+        } finally {
+            appender.stop();
+        }
+        // The current file and the archived files
+        assertThat(listLogFiles()).containsExactly("app-1.log.gz", "app-2.log.gz", "app-3.log.gz", "app.log");
+        assertIndexFileExists();
+    }
+}
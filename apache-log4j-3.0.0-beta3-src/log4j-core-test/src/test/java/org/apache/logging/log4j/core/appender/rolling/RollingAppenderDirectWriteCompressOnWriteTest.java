@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.logging.log4j.core.appender.RollingFileAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@LoggerContextSource(value = "")
+class RollingAppenderDirectWriteCompressOnWriteTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private RollingFileAppender createAppender(
+            final Configuration config, final long maxSize, final boolean immediateFlush) {
+        return RollingFileAppender.newBuilder()
+                .setName("CompressOnWrite")
+                .setFilePattern(tempDir.resolve("app-%i.log.gz").toString())
+                .setPolicy(new SizeBasedTriggeringPolicy(maxSize))
+                .setStrategy(DirectWriteRolloverStrategy.newBuilder()
+                        .setCompressOnWrite(true)
+                        .setConfig(config)
+                        .build())
+                .setLayout(PatternLayout.newBuilder()
+                        .setPattern("%m%n")
+                        .setConfiguration(config)
+                        .build())
+                .setImmediateFlush(immediateFlush)
+                .build();
+    }
+
+    private static void log(final RollingFileAppender appender, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            appender.append(Log4jLogEvent.newBuilder()
+                    .setMessage(new SimpleMessage("Message " + i))
+                    .build());
+        }
+    }
+
+    private static String messages(final int from, final int to) {
+        return IntStream.range(from, to)
+                .mapToObj(i -> "Message " + i + System.lineSeparator())
+                .collect(Collectors.joining());
+    }
+
+    /**
+     * Reads a GZIP file up to its end, or up to the last flush if it is still being written.
+     */
+    private static String readUpToLastFlush(final Path file) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (final InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            final byte[] buffer = new byte[1024];
+            int count;
+            while ((count = input.read(buffer)) >= 0) {
+                output.write(buffer, 0, count);
+            }
+        } catch (final EOFException e) {
+            // Unfinished GZIP member
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private String readAllFiles() throws IOException {
+        final StringBuilder content = new StringBuilder();
+        try (final Stream<Path> files = Files.list(tempDir)) {
+            for (final Path file :
+                    files.sorted((a, b) -> Integer.compare(index(a), index(b))).collect(Collectors.toList())) {
+                assertThat(file.getFileName().toString()).endsWith(".log.gz");
+                try (final InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+                    content.append(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return content.toString();
+    }
+
+    private static int index(final Path file) {
+        final String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring("app-".length(), name.length() - ".log.gz".length()));
+    }
+
+    @Test
+    void rolled_over_files_are_compressed_while_written(final Configuration config) throws Exception {
+        final RollingFileAppender appender = createAppender(config, 1024, false);
+        try {
+            assertThat(appender.getManager().isCompressingOnWrite()).isTrue();
+            log(appender, 0, 1000);
+        } finally {
+            appender.stop();
+        }
+        try (final Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.count()).isGreaterThan(1);
+        }
+        assertThat(readAllFiles()).isEqualTo(messages(0, 1000));
+    }
+
+    @Test
+    void current_file_is_readable_up_to_last_flush(final Configuration config) throws Exception {
+        final RollingFileAppender appender = createAppender(config, Long.MAX_VALUE, true);
+        try {
+            log(appender, 0, 100);
+            final Path file = Path.of(appender.getManager().getFileName());
+            assertThat(file.getFileName().toString()).isEqualTo("app-1.log.gz");
+            assertThat(readUpToLastFlush(file)).isEqualTo(messages(0, 100));
+        } finally {
+            appender.stop();
+        }
+    }
+
+    @Test
+    void unfinished_file_is_recovered_on_restart(final Configuration config) throws Exception {
+        // Simulates a JVM that died after a flush, while writing the next log events
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final GZIPOutputStream gzip = new GZIPOutputStream(bytes, true);
+        gzip.write(messages(0, 50).getBytes(StandardCharsets.UTF_8));
+        gzip.flush();
+        final int flushed = bytes.size();
+        gzip.write(messages(50, 500).getBytes(StandardCharsets.UTF_8));
+        gzip.flush();
+        final byte[] data = bytes.toByteArray();
+        Files.write(tempDir.resolve("app-1.log.gz"), Arrays.copyOf(data, flushed + (data.length - flushed) / 2));
+
+        final RollingFileAppender appender = createAppender(config, Long.MAX_VALUE, false);
+        try {
+            // The size seen by the triggering policy is the size of the recovered content
+            assertThat(appender.getManager().getFileSize()).isEqualTo(messages(0, 50).length());
+            log(appender, 500, 600);
+        } finally {
+            appender.stop();
+        }
+        assertThat(readAllFiles()).isEqualTo(messages(0, 50) + messages(500, 600));
+    }
+}
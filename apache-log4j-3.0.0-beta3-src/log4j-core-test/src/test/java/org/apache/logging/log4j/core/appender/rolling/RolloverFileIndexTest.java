@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RolloverFileIndexTest {
+
+    private static final String FILE_PATTERN = "app-%i.log.gz";
+
+    private static final Pattern PATTERN = Pattern.compile("\\Qapp-\\E(0?\\d+)\\Q.log\\E.*");
+
+    @TempDir
+    private Path tempDir;
+
+    @BeforeEach
+    void createFiles() throws IOException {
+        for (int i = 1; i <= 3; i++) {
+            createFile("app-" + i + ".log.gz");
+        }
+        createFile("other.log");
+    }
+
+    private void createFile(final String name) throws IOException {
+        Files.write(tempDir.resolve(name), name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private RolloverFileIndex newIndex() {
+        return new RolloverFileIndex(tempDir, PATTERN, FILE_PATTERN);
+    }
+
+    @Test
+    void index_is_built_from_directory() {
+        final RolloverFileIndex index = newIndex();
+        assertThat(index.getFiles(null)).containsOnlyKeys(1, 2, 3).containsEntry(2, tempDir.resolve("app-2.log.gz"));
+        assertThat(index.getFile()).exists();
+        assertThat(index.getFile().getFileName().toString()).startsWith(RolloverFileIndex.FILE_NAME_PREFIX);
+    }
+
+    @Test
+    void current_file_is_excluded() {
+        assertThat(newIndex().getFiles(tempDir.resolve("app-3.log.gz"))).containsOnlyKeys(1, 2);
+    }
+
+    @Test
+    void persisted_index_is_used_without_listing_directory() throws IOException {
+        newIndex().getFiles(null);
+        // Not reported to the index
+        createFile("app-9.log.gz");
+
+        assertThat(newIndex().getFiles(null)).containsOnlyKeys(1, 2, 3);
+    }
+
+    @Test
+    void changes_are_persisted() throws IOException {
+        final RolloverFileIndex index = newIndex();
+        index.getFiles(null);
+        Files.delete(tempDir.resolve("app-1.log.gz"));
+        index.remove(1);
+        createFile("app-4.log.gz");
+        index.add(4, "app-4.log.gz", "app-4.log");
+
+        assertThat(newIndex().getFiles(null))
+                .containsOnlyKeys(2, 3, 4)
+                .containsEntry(4, tempDir.resolve("app-4.log.gz"));
+    }
+
+    @Test
+    void index_is_rebuilt_if_oldest_file_changed() throws IOException {
+        newIndex().getFiles(null);
+        createFile("app-9.log.gz");
+        Files.write(tempDir.resolve("app-1.log.gz"), new byte[] {1}, StandardOpenOption.APPEND);
+
+        assertThat(newIndex().getFiles(null)).containsOnlyKeys(1, 2, 3, 9);
+    }
+
+    @Test
+    void index_is_rebuilt_if_any_file_is_missing() throws IOException {
+        newIndex().getFiles(null);
+        createFile("app-9.log.gz");
+        Files.delete(tempDir.resolve("app-2.log.gz"));
+
+        assertThat(newIndex().getFiles(null)).containsOnlyKeys(1, 3, 9);
+    }
+
+    @Test
+    void pending_file_is_found_before_its_compression() throws IOException {
+        final RolloverFileIndex index = newIndex();
+        index.getFiles(null);
+        createFile("app-4.log");
+        index.add(4, "app-4.log.gz", "app-4.log");
+        assertThat(index.getFiles(null)).containsEntry(4, tempDir.resolve("app-4.log"));
+
+        createFile("app-4.log.gz");
+        Files.delete(tempDir.resolve("app-4.log"));
+        assertThat(index.getFiles(null)).containsEntry(4, tempDir.resolve("app-4.log.gz"));
+    }
+
+    @Test
+    void index_is_rebuilt_if_pending_file_is_missing() throws IOException {
+        final RolloverFileIndex index = newIndex();
+        index.getFiles(null);
+        createFile("app-5.log.gz");
+        index.add(4, "app-4.log.gz", "app-4.log");
+
+        assertThat(index.getFiles(null)).containsOnlyKeys(1, 2, 3, 5);
+    }
+
+    @Test
+    void invalidated_index_is_rebuilt() throws IOException {
+        final RolloverFileIndex index = newIndex();
+        index.getFiles(null);
+        createFile("app-9.log.gz");
+        index.invalidate();
+
+        assertThat(index.getFiles(null)).containsOnlyKeys(1, 2, 3, 9);
+    }
+
+    @Test
+    void index_is_rebuilt_if_pattern_changed() throws IOException {
+        newIndex().getFiles(null);
+        createFile("app-2024-1.log.gz");
+
+        final Pattern pattern = Pattern.compile("\\Qapp-2024-\\E(0?\\d+)\\Q.log\\E.*");
+        assertThat(new RolloverFileIndex(tempDir, pattern, FILE_PATTERN).getFiles(null))
+                .containsOnlyKeys(1)
+                .containsEntry(1, tempDir.resolve("app-2024-1.log.gz"));
+    }
+}
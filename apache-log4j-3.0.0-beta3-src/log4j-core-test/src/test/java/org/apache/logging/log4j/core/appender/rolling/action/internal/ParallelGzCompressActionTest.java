@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ParallelGzCompressActionTest {
+
+    private static final int BLOCK_SIZE = 4096;
+
+    @TempDir
+    private Path tempDir;
+
+    private static byte[] createContent(final int length) {
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; sb.length() < length; i++) {
+            sb.append("2024-01-01 00:00:00 INFO [main] Message number ")
+                    .append(i)
+                    .append('\n');
+        }
+        return sb.substring(0, length).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] decompress(final Path file) throws IOException {
+        try (final InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            return input.readAllBytes();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, BLOCK_SIZE - 1, BLOCK_SIZE, 10 * BLOCK_SIZE + 123})
+    void compressed_file_is_a_valid_gzip_file(final int length) throws Exception {
+        final byte[] content = createContent(length);
+        final Path source = Files.write(tempDir.resolve("app.log"), content);
+        final Path destination = tempDir.resolve("app.log.gz");
+
+        assertThat(new ParallelGzCompressAction(source, destination, Deflater.DEFAULT_COMPRESSION, 4, BLOCK_SIZE)
+                        .execute())
+                .isTrue();
+
+        assertThat(source).doesNotExist();
+        assertThat(decompress(destination)).isEqualTo(content);
+    }
+
+    @Test
+    void missing_source_is_ignored() throws Exception {
+        final Path destination = tempDir.resolve("missing.log.gz");
+        assertThat(new ParallelGzCompressAction(
+                                tempDir.resolve("missing.log"),
+                                destination,
+                                Deflater.DEFAULT_COMPRESSION,
+                                2,
+                                BLOCK_SIZE)
+                        .execute())
+                .isFalse();
+        assertThat(destination).doesNotExist();
+    }
+}
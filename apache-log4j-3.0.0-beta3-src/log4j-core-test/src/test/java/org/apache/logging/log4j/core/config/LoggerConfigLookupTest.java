@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.logging.log4j.Level;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Tests how {@link AbstractConfiguration#getLoggerConfig(String)} finds the configuration of the nearest ancestor.
+ */
+class LoggerConfigLookupTest {
+
+    private static AbstractConfiguration createConfiguration() {
+        final AbstractConfiguration configuration = new DefaultConfiguration();
+        for (final String name : new String[] {"a", "a.b", "a.b.c", "a.bc.d", "x..y", "tenant.42.orders"}) {
+            configuration.addLogger(name, new LoggerConfig(name, Level.INFO, true, configuration));
+        }
+        return configuration;
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "a,a",
+        "a.b,a.b",
+        "a.b.c,a.b.c",
+        "a.b.c.d.e,a.b.c",
+        "a.bc,a",
+        "a.bc.d,a.bc.d",
+        "a.b.cd,a.b",
+        "ab,''",
+        "b.a,''",
+        "x..y.z,x..y",
+        "x..z,''",
+        "x.y,''",
+        "tenant.42.orders.eu,tenant.42.orders",
+        "tenant.43.orders,''",
+        "a.,a",
+        ".a,''",
+        "'',''"
+    })
+    void finds_nearest_configured_ancestor(final String loggerName, final String expectedConfigName) {
+        final AbstractConfiguration configuration = createConfiguration();
+        assertThat(configuration.getLoggerConfig(loggerName).getName()).isEqualTo(expectedConfigName);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"a.b.c.d,a.b.c", "a.b.x,a"})
+    void reflects_removed_loggers(final String loggerName, final String expectedConfigName) {
+        final AbstractConfiguration configuration = createConfiguration();
+        configuration.removeLogger("a.b");
+        configuration.removeLogger("a.b.c");
+        configuration.addLogger("a.b.c", new LoggerConfig("a.b.c", Level.INFO, true, configuration));
+        assertThat(configuration.getLoggerConfig(loggerName).getName()).isEqualTo(expectedConfigName);
+        assertThat(configuration.getLoggerConfig("a.b.c").getParent().getName()).isEqualTo("a");
+    }
+}
@@ -17,14 +17,26 @@
 package org.apache.logging.log4j.core.filter;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.junit.jupiter.api.Test;
 
 public class CompositeFilterTest {
 
+    private static final Marker MARKER = MarkerManager.getMarker("CompositeFilterTest");
+
     @Test
     public void testConcatenation() {
         final Filter a = DenyAllFilter.newBuilder().setOnMatch(Result.ACCEPT).build();
@@ -45,4 +57,92 @@ public class CompositeFilterTest {
         final CompositeFilter concat2 = singleA.addFilter(singleB.addFilter(singleC));
         assertArrayEquals(expected, concat2.getFiltersArray());
     }
+
+    private static Filter marker(final Result onMatch, final Result onMismatch) {
+        return MarkerFilter.createFilter(MARKER.getName(), onMatch, onMismatch);
+    }
+
+    private static Filter threshold(final Result onMatch, final Result onMismatch) {
+        return ThresholdFilter.createFilter(Level.INFO, onMatch, onMismatch);
+    }
+
+    private static void addUncompiled(final Filter[] filters, final List<Filter> chain) {
+        for (final Filter filter : filters) {
+            if (filter instanceof CompositeFilter) {
+                addUncompiled(((CompositeFilter) filter).getFiltersArray(), chain);
+            } else {
+                chain.add(filter);
+            }
+        }
+    }
+
+    private static Result filterSequentially(final List<Filter> chain, final Function<Filter, Result> filterFunction) {
+        for (final Filter filter : chain) {
+            final Result result = filterFunction.apply(filter);
+            if (result != Result.NEUTRAL) {
+                return result;
+            }
+        }
+        return Result.NEUTRAL;
+    }
+
+    private static void assertCompiled(final Filter[] expected, final Filter... filters) {
+        final CompositeFilter composite = CompositeFilter.createFilters(filters);
+        assertArrayEquals(filters, composite.getFiltersArray());
+        assertArrayEquals(expected, composite.getCompiledFilters());
+        // Same results as the uncompiled chain
+        final List<Filter> reference = new ArrayList<>();
+        addUncompiled(filters, reference);
+        for (final Level level : Level.values()) {
+            for (final Marker marker : new Marker[] {null, MARKER}) {
+                final LogEvent event = Log4jLogEvent.newBuilder()
+                        .setLevel(level)
+                        .setMarker(marker)
+                        .setMessage(new SimpleMessage("Message"))
+                        .build();
+                assertEquals(
+                        filterSequentially(reference, filter -> filter.filter(event)),
+                        composite.filter(event),
+                        event.toString());
+                assertEquals(
+                        filterSequentially(
+                                reference, filter -> filter.filter(null, level, marker, "Message", (Object[]) null)),
+                        composite.filter(null, level, marker, "Message", (Object[]) null),
+                        event.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testCompilationFlattensAndRemovesNeutralFilters() {
+        final Filter marker = marker(Result.ACCEPT, Result.NEUTRAL);
+        final Filter threshold = threshold(Result.NEUTRAL, Result.DENY);
+        final Filter neutral = marker(Result.NEUTRAL, Result.NEUTRAL);
+        assertCompiled(
+                new Filter[] {marker, threshold},
+                NeutralFilter.INSTANCE,
+                CompositeFilter.createFilters(new Filter[] {marker, neutral}),
+                threshold);
+    }
+
+    @Test
+    public void testCompilationHoistsLevelFilters() {
+        final Filter marker = marker(Result.NEUTRAL, Result.DENY);
+        final Filter threshold = threshold(Result.NEUTRAL, Result.DENY);
+        assertCompiled(new Filter[] {threshold, marker}, marker, threshold);
+        // Not if the results differ
+        final Filter acceptMarker = marker(Result.ACCEPT, Result.NEUTRAL);
+        assertCompiled(new Filter[] {acceptMarker, threshold}, acceptMarker, threshold);
+        // Not over stateful filters
+        final Filter burst = BurstFilter.newBuilder().setLevel(Level.WARN).build();
+        assertCompiled(new Filter[] {marker, burst, threshold}, marker, burst, threshold);
+    }
+
+    @Test
+    public void testCompilationRemovesUnreachableFilters() {
+        final Filter marker = marker(Result.ACCEPT, Result.NEUTRAL);
+        final Filter denyAll = DenyAllFilter.newBuilder().build();
+        final Filter threshold = threshold(Result.NEUTRAL, Result.DENY);
+        assertCompiled(new Filter[] {marker, denyAll}, marker, denyAll, threshold);
+    }
 }
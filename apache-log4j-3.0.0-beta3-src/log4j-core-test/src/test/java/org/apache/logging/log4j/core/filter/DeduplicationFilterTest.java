@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.apache.logging.log4j.core.filter.FilterTestUtils.countAccepted;
+import static org.apache.logging.log4j.core.filter.FilterTestUtils.eventBuilder;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.filter.FilterTestUtils.ManualNanoClock;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.junit.jupiter.api.Test;
+
+class DeduplicationFilterTest {
+
+    private final ManualNanoClock clock = new ManualNanoClock();
+
+    private DeduplicationFilter.Builder newBuilder() {
+        return DeduplicationFilter.newBuilder().setMaxEvents(3).setInterval(60).setClock(clock);
+    }
+
+    private static LogEvent event(final String loggerName, final String format, final Throwable t) {
+        return eventBuilder(loggerName, Level.ERROR)
+                .setMessage(new ParameterizedMessage(format, Math.random()))
+                .setThrown(t)
+                .build();
+    }
+
+    private static Exception exception() {
+        return new IllegalStateException("Failure");
+    }
+
+    @Test
+    void similar_events_are_limited_per_interval() {
+        final DeduplicationFilter filter = newBuilder().build();
+        assertThat(countAccepted(filter, event("logger", "Value {}", null), 10)).isEqualTo(3);
+        // Only the pattern of the message is compared
+        assertThat(countAccepted(filter, event("logger", "Value {}", null), 10)).isZero();
+        assertThat(filter.getSuppressed()).isEqualTo(17);
+
+        clock.advance(60, TimeUnit.SECONDS);
+        assertThat(countAccepted(filter, event("logger", "Value {}", null), 10)).isEqualTo(3);
+    }
+
+    @Test
+    void different_events_are_counted_separately() {
+        final DeduplicationFilter filter = newBuilder().build();
+        assertThat(countAccepted(filter, event("logger", "Value {}", null), 10)).isEqualTo(3);
+        assertThat(countAccepted(filter, event("other", "Value {}", null), 10)).isEqualTo(3);
+        assertThat(countAccepted(filter, event("logger", "Other value {}", null), 10))
+                .isEqualTo(3);
+        assertThat(countAccepted(filter, event("logger", "Value {}", exception()), 10))
+                .isEqualTo(3);
+        assertThat(countAccepted(filter, event("logger", "Value {}", new IllegalArgumentException()), 10))
+                .isEqualTo(3);
+    }
+
+    @Test
+    void stack_frames_are_compared() {
+        final DeduplicationFilter filter = newBuilder().build();
+        // Created on different lines
+        final Exception first = new IllegalStateException();
+        final Exception second = new IllegalStateException();
+        assertThat(countAccepted(filter, event("logger", "Value {}", first), 10))
+                .isEqualTo(3);
+        assertThat(countAccepted(filter, event("logger", "Value {}", second), 10))
+                .isEqualTo(3);
+        // Same stack frames
+        final Exception[] same = new Exception[2];
+        for (int i = 0; i < same.length; i++) {
+            same[i] = new IllegalStateException();
+        }
+        assertThat(countAccepted(filter, event("logger", "Value {}", same[0]), 10))
+                .isEqualTo(3);
+        assertThat(countAccepted(filter, event("logger", "Value {}", same[1]), 10))
+                .isZero();
+
+        final DeduplicationFilter classOnly = newBuilder().setStackDepth(0).build();
+        assertThat(countAccepted(classOnly, event("logger", "Value {}", first), 10))
+                .isEqualTo(3);
+        assertThat(countAccepted(classOnly, event("logger", "Value {}", second), 10))
+                .isZero();
+    }
+
+    @Test
+    void used_slots_are_shared() {
+        final DeduplicationFilter filter = newBuilder().setSize(1).build();
+        assertThat(countAccepted(filter, event("logger", "Value {}", null), 2)).isEqualTo(2);
+        assertThat(countAccepted(filter, event("logger", "Other value {}", null), 10))
+                .isEqualTo(1);
+
+        // The slot is not reused until its rejected events have been summarized
+        clock.advance(60, TimeUnit.SECONDS);
+        assertThat(countAccepted(filter, event("logger", "Other value {}", null), 10))
+                .isEqualTo(3);
+        assertThat(filter.getSuppressed()).isEqualTo(16);
+        filter.summarize();
+        assertThat(filter.getSuppressed()).isZero();
+
+        clock.advance(60, TimeUnit.SECONDS);
+        assertThat(countAccepted(filter, event("logger", "Other value {}", null), 10))
+                .isEqualTo(3);
+        assertThat(countAccepted(filter, event("logger", "Value {}", null), 10)).isZero();
+    }
+
+    @Test
+    @LoggerContextSource("log4j-deduplication.xml")
+    void summary_is_logged(final LoggerContext context, @Named("ListAppender") final ListAppender app) {
+        assertThat(app.getFilter()).isInstanceOf(DeduplicationFilter.class);
+        final DeduplicationFilter filter = (DeduplicationFilter) app.getFilter();
+        for (int i = 0; i < 20; i++) {
+            context.getLogger("first").warn("Value {}", i);
+            context.getLogger("second").error("Failure", exception());
+        }
+        assertThat(app.getMessages()).hasSize(10);
+        app.clear();
+
+        filter.summarize();
+        assertThat(app.getMessages())
+                .containsExactlyInAnyOrder(
+                        "WARN  first Suppressed 15 events similar to: Value {}" + System.lineSeparator(),
+                        "ERROR second Suppressed 15 events similar to: Failure (java.lang.IllegalStateException)"
+                                + System.lineSeparator());
+        assertThat(filter.getSuppressed()).isZero();
+    }
+
+    @Test
+    @LoggerContextSource("log4j-deduplication.xml")
+    void last_summary_is_logged_on_stop(final LoggerContext context, @Named("ListAppender") final ListAppender app) {
+        final DeduplicationFilter filter = (DeduplicationFilter) app.getFilter();
+        for (int i = 0; i < 20; i++) {
+            context.getLogger("first").warn("Value {}", i);
+        }
+        app.clear();
+
+        filter.stop();
+        assertThat(app.getMessages())
+                .containsExactly("WARN  first Suppressed 15 events similar to: Value {}" + System.lineSeparator());
+        assertThat(filter.getSuppressed()).isZero();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.time.NanoClock;
+import org.apache.logging.log4j.message.SimpleMessage;
+
+/**
+ * Helpers shared by the tests of the time-based filters.
+ */
+final class FilterTestUtils {
+
+    private FilterTestUtils() {}
+
+    /**
+     * Returns a builder of events with the given logger name and level.
+     */
+    static Log4jLogEvent.Builder eventBuilder(final String loggerName, final Level level) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName(loggerName)
+                .setLevel(level)
+                .setMessage(new SimpleMessage("Message"));
+    }
+
+    /**
+     * Submits the same event {@code count} times to the filter.
+     *
+     * @return The number of times the event was not denied.
+     */
+    static int countAccepted(final Filter filter, final LogEvent event, final int count) {
+        int accepted = 0;
+        for (int i = 0; i < count; i++) {
+            if (filter.filter(event) == Result.NEUTRAL) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * A clock that only moves when told to.
+     */
+    static final class ManualNanoClock implements NanoClock {
+
+        private long nanoTime;
+
+        @Override
+        public long nanoTime() {
+            return nanoTime;
+        }
+
+        void advance(final long duration, final TimeUnit unit) {
+            nanoTime += unit.toNanos(duration);
+        }
+    }
+}
@@ -69,6 +69,29 @@ public class MapFilterTest {
         assertSame(Filter.Result.NEUTRAL, filter.filter(null, Level.ERROR, null, msg, null));
     }
 
+    @Test
+    public void testManyValues() {
+        final KeyValuePair[] pairs = new KeyValuePair[10_001];
+        for (int i = 0; i < 10_000; i++) {
+            pairs[i] = new KeyValuePair("tenant", "tenant-" + i);
+        }
+        pairs[10_000] = new KeyValuePair("user", "alice");
+        final MapFilter filter = MapFilter.createFilter(pairs, "and", null, null);
+        assertNotNull(filter);
+        final StringMapMessage msg = new StringMapMessage();
+        msg.put("user", "alice");
+        for (int i = 0; i < 10_000; i += 99) {
+            msg.put("tenant", "tenant-" + i);
+            assertSame(Filter.Result.NEUTRAL, filter.filter(null, Level.DEBUG, null, msg, null));
+            // Lookup without a String
+            assertTrue(filter.containsValue(0, new StringBuilder("tenant-").append(i)));
+        }
+        msg.put("tenant", "tenant-10000");
+        assertSame(Filter.Result.DENY, filter.filter(null, Level.DEBUG, null, msg, null));
+        assertFalse(filter.containsValue(0, null));
+        assertFalse(filter.containsValue(1, "bob"));
+    }
+
     @Test
     @LoggerContextSource("log4j2-mapfilter.xml")
     public void testConfig(final Configuration config, @Named("LIST") final ListAppender app) {
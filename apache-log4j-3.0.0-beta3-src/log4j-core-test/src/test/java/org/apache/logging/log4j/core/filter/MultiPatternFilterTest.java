@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.filter.MultiPatternFilter.MatchPattern;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class MultiPatternFilterTest {
+
+    private static MultiPatternMatcher matcher(final boolean ignoreCase, final String... literals) {
+        return new MultiPatternMatcher(Arrays.asList(literals), Collections.emptyList(), ignoreCase);
+    }
+
+    private static MultiPatternMatcher regexMatcher(final String... regexes) {
+        final List<Pattern> patterns =
+                Arrays.stream(regexes).map(Pattern::compile).toList();
+        return new MultiPatternMatcher(Collections.emptyList(), patterns, false);
+    }
+
+    @Test
+    void literals_are_found() {
+        final MultiPatternMatcher matcher = matcher(false, "he", "she", "his", "hers", "été");
+        assertThat(matcher.find("ushers")).isTrue();
+        assertThat(matcher.find("this")).isTrue();
+        assertThat(matcher.find(new StringBuilder("an ahishe"))).isTrue();
+        assertThat(matcher.find("l'été")).isTrue();
+        assertThat(matcher.find("l'étè")).isFalse();
+        assertThat(matcher.find("hi s")).isFalse();
+        assertThat(matcher.find("")).isFalse();
+        assertThat(matcher(false, "").find("")).isTrue();
+        assertThat(matcher(false).find("text")).isFalse();
+    }
+
+    @Test
+    void case_is_ignored() {
+        assertThat(matcher(false, "Error").find("ERROR")).isFalse();
+        final MultiPatternMatcher matcher = matcher(true, "Error", "ÉTÉ");
+        assertThat(matcher.find("An ERROR")).isTrue();
+        assertThat(matcher.find("L'été")).isTrue();
+        assertThat(matcher.find("Erro")).isFalse();
+    }
+
+    @Test
+    void regexes_are_found() {
+        final MultiPatternMatcher matcher = regexMatcher("timeout after \\d+ ms", "^\\w+ failed$", "us(er)?name");
+        assertThat(matcher.find("Connection timeout after 30 ms.")).isTrue();
+        assertThat(matcher.find("timeout after ms")).isFalse();
+        assertThat(matcher.find("Login failed")).isTrue();
+        assertThat(matcher.find("The login failed")).isFalse();
+        assertThat(matcher.find("Invalid username")).isTrue();
+        assertThat(matcher.find("Invalid usname")).isTrue();
+        assertThat(matcher.find("Invalid name")).isFalse();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "'abc', 'abc'",
+        "'timeout after \\d+ ms', 'timeout after '",
+        "'ab?cd', 'cd'",
+        "'abc*def', 'def'",
+        "'abc+def', 'abc'",
+        "'a{0,2}bcd', 'bcd'",
+        "'ab{2}', 'ab'",
+        "'foo\\.bar', 'foo.bar'",
+        "'x(abc)*y', 'x'",
+        "'[abc]+def', 'def'",
+        "'[]a]xyz', 'xyz'",
+        "'a|b', ''",
+        "'(?i)abc', ''",
+        "'.*', ''",
+    })
+    void required_literals_are_extracted(final String regex, final String expected) {
+        assertThat(MultiPatternMatcher.requiredLiteral(regex)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "'\\x41BC', 'BC'",
+        "'\\x{41}BC', 'BC'",
+        "'caf\\u00e9 au lait', ' au lait'",
+        "'\\0101BC', 'BC'",
+        "'\\cAxyz', 'xyz'",
+        "'ab\\k<name>cde', 'cde'",
+        "'\\p{Lu}xyz', 'xyz'",
+        "'\\pLxyz', 'xyz'",
+        "'\\P{L}xy', 'xy'",
+        "'\\N{LATIN SMALL LETTER E WITH ACUTE}te', 'te'",
+        "'(a)\\12bc', 'bc'",
+        "'\\Qa.b\\E*c', 'a.'",
+        "'x\\Q(a)\\Ey', 'x(a)y'",
+        "'[\\Q]\\E]abc', 'abc'",
+    })
+    void escape_sequences_are_not_required_literals(final String regex, final String expected) {
+        assertThat(MultiPatternMatcher.requiredLiteral(regex)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "'\\x41BC', 'ABC'",
+        "'\\x{41}BC', 'ABC'",
+        "'caf\\u00e9 au lait', 'un café au lait'",
+        "'\\0101BC', 'ABC'",
+        "'\\cAxyz', '\u0001xyz'",
+        "'(?<name>a)\\k<name>bc', 'aabc'",
+        "'\\p{Lu}xyz', 'Axyz'",
+        "'\\pLxyz', 'axyz'",
+        "'\\P{L}xy', '1xy'",
+        "'\\N{LATIN SMALL LETTER E WITH ACUTE}te', '\u00e9te'",
+        "'(a)\\12bc', 'aa2bc'",
+        "'\\Qa.b\\E*c', 'a.c'",
+    })
+    void regexes_with_escape_sequences_are_found(final String regex, final String text) {
+        assertThat(Pattern.compile(regex).matcher(text).find()).isTrue();
+        assertThat(regexMatcher(regex).find(text)).isTrue();
+    }
+
+    private static LogEvent event(final String format, final Object... params) {
+        return Log4jLogEvent.newBuilder()
+                .setLevel(Level.INFO)
+                .setMessage(new ParameterizedMessage(format, params))
+                .build();
+    }
+
+    @Test
+    void filter_uses_formatted_or_raw_message() {
+        final MultiPatternFilter.Builder builder = MultiPatternFilter.newBuilder()
+                .setPatterns(MatchPattern.createPattern("secret", null), MatchPattern.createPattern(null, "\\{}$"))
+                .setOnMatch(Result.DENY)
+                .setOnMismatch(Result.NEUTRAL);
+        final MultiPatternFilter filter = builder.build();
+        assertThat(filter.filter(event("The {} is {}", "password", "secret"))).isEqualTo(Result.DENY);
+        assertThat(filter.filter(event("The {} is {}", "password", "public"))).isEqualTo(Result.NEUTRAL);
+
+        final MultiPatternFilter rawFilter = builder.setUseRawMsg(true).build();
+        assertThat(rawFilter.filter(event("The {} is {}", "password", "secret")))
+                .isEqualTo(Result.DENY);
+        assertThat(rawFilter.filter(event("The {} is secret", "password"))).isEqualTo(Result.DENY);
+        assertThat(rawFilter.filter(event("The {} is public", "password"))).isEqualTo(Result.NEUTRAL);
+    }
+
+    @Test
+    void invalid_patterns_are_rejected() {
+        assertThat(MatchPattern.createPattern(null, null)).isNull();
+        assertThat(MatchPattern.createPattern("literal", "regex")).isNull();
+        assertThat(MultiPatternFilter.newBuilder().build()).isNull();
+        assertThat(MultiPatternFilter.newBuilder()
+                        .setPatterns(MatchPattern.createPattern(null, "(unclosed"))
+                        .build())
+                .isNull();
+    }
+
+    @Test
+    @LoggerContextSource("log4j-multipattern.xml")
+    void configuration(final LoggerContext context, @Named("ListAppender") final ListAppender app) {
+        assertThat(app.getFilter()).isInstanceOf(MultiPatternFilter.class);
+        final org.apache.logging.log4j.Logger logger = context.getLogger(MultiPatternFilterTest.class);
+        logger.info("Request {} failed: {}", 1, "connection RESET");
+        logger.info("Request {} failed: {}", 2, "timeout after 30 ms");
+        logger.info("Request {} failed: {}", 3, "broken pipe");
+        logger.info("Request {} failed: {}", 4, "timeout");
+        assertThat(app.getMessages()).containsExactly("Request 4 failed: timeout");
+    }
+}
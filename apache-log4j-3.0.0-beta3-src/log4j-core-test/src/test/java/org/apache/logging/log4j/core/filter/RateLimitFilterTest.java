@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.apache.logging.log4j.core.filter.FilterTestUtils.countAccepted;
+import static org.apache.logging.log4j.core.filter.FilterTestUtils.eventBuilder;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.filter.FilterTestUtils.ManualNanoClock;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.test.appender.ListAppender;
+import org.apache.logging.log4j.core.test.junit.LoggerContextSource;
+import org.apache.logging.log4j.core.test.junit.Named;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.api.Test;
+
+class RateLimitFilterTest {
+
+    private final ManualNanoClock clock = new ManualNanoClock();
+
+    private RateLimitFilter.Builder newBuilder() {
+        return RateLimitFilter.newBuilder()
+                .setLevel(Level.INFO)
+                .setRate(10)
+                .setMaxBurst(5)
+                .setClock(clock);
+    }
+
+    private static LogEvent event(final String loggerName, final Level level, final String user) {
+        final StringMap contextData = ContextDataFactory.createContextData();
+        if (user != null) {
+            contextData.putValue("user", user);
+        }
+        return eventBuilder(loggerName, level).setContextData(contextData).build();
+    }
+
+    @Test
+    void burst_is_limited_and_refilled_at_rate() {
+        final RateLimitFilter filter = newBuilder().build();
+        final LogEvent event = event("logger", Level.INFO, null);
+
+        assertThat(filter.getAvailable()).isEqualTo(5);
+        assertThat(countAccepted(filter, event, 10)).isEqualTo(5);
+        assertThat(filter.getAvailable()).isZero();
+
+        // Two events at 10 events per second
+        clock.advance(200, TimeUnit.MILLISECONDS);
+        assertThat(filter.getAvailable()).isEqualTo(2);
+        assertThat(countAccepted(filter, event, 10)).isEqualTo(2);
+
+        // Never more than the burst
+        clock.advance(60, TimeUnit.SECONDS);
+        assertThat(filter.getAvailable()).isEqualTo(5);
+        assertThat(countAccepted(filter, event, 10)).isEqualTo(5);
+
+        filter.clear();
+        assertThat(filter.getAvailable()).isEqualTo(5);
+    }
+
+    @Test
+    void more_specific_levels_are_not_limited() {
+        final RateLimitFilter filter = newBuilder().build();
+        assertThat(countAccepted(filter, event("logger", Level.INFO, null), 10)).isEqualTo(5);
+        assertThat(countAccepted(filter, event("logger", Level.WARN, null), 10)).isEqualTo(10);
+        assertThat(countAccepted(filter, event("logger", Level.DEBUG, null), 10))
+                .isZero();
+    }
+
+    @Test
+    void loggers_are_limited_separately() {
+        final RateLimitFilter filter = newBuilder().setPerLogger(true).build();
+        assertThat(countAccepted(filter, event("first", Level.INFO, null), 10)).isEqualTo(5);
+        assertThat(countAccepted(filter, event("second", Level.INFO, null), 10)).isEqualTo(5);
+        assertThat(countAccepted(filter, event("first", Level.INFO, null), 10)).isZero();
+    }
+
+    @Test
+    void context_values_are_limited_separately() {
+        final RateLimitFilter filter = newBuilder().setContextKey("user").build();
+        assertThat(countAccepted(filter, event("logger", Level.INFO, "alice"), 10))
+                .isEqualTo(5);
+        assertThat(countAccepted(filter, event("logger", Level.INFO, "bob"), 10))
+                .isEqualTo(5);
+        // Events without value share a bucket
+        assertThat(countAccepted(filter, event("first", Level.INFO, null), 10)).isEqualTo(5);
+        assertThat(countAccepted(filter, event("second", Level.INFO, null), 10)).isZero();
+    }
+
+    @Test
+    void keys_over_the_maximum_share_a_bucket() {
+        final RateLimitFilter filter =
+                newBuilder().setPerLogger(true).setMaxKeys(1).build();
+        assertThat(countAccepted(filter, event("first", Level.INFO, null), 10)).isEqualTo(5);
+        assertThat(countAccepted(filter, event("second", Level.INFO, null), 10)).isEqualTo(5);
+        assertThat(countAccepted(filter, event("third", Level.INFO, null), 10)).isZero();
+
+        // The bucket of the first logger is full again and can be replaced
+        clock.advance(1, TimeUnit.SECONDS);
+        assertThat(countAccepted(filter, event("third", Level.INFO, null), 10)).isEqualTo(5);
+    }
+
+    @Test
+    void full_key_table_only_evicts_full_buckets() {
+        final RateLimitFilter filter =
+                newBuilder().setPerLogger(true).setMaxKeys(100).build();
+        for (int i = 0; i < 100; i++) {
+            assertThat(countAccepted(filter, event("logger" + i, Level.INFO, null), 10))
+                    .isEqualTo(5);
+        }
+        // Unseen loggers share a bucket
+        int accepted = 0;
+        for (int i = 0; i < 1000; i++) {
+            accepted += countAccepted(filter, event("other" + i, Level.INFO, null), 1);
+        }
+        assertThat(accepted).isEqualTo(5);
+        assertThat(filter.toString()).endsWith("keys=100");
+
+        // Once full again, the buckets of the first loggers make room for new ones
+        clock.advance(1, TimeUnit.SECONDS);
+        for (int i = 0; i < 100; i++) {
+            assertThat(countAccepted(filter, event("new" + i, Level.INFO, null), 10))
+                    .isEqualTo(5);
+        }
+        accepted = 0;
+        for (int i = 0; i < 100; i++) {
+            accepted += countAccepted(filter, event("logger" + i, Level.INFO, null), 1);
+        }
+        assertThat(accepted).isEqualTo(5);
+        assertThat(filter.toString()).endsWith("keys=100");
+    }
+
+    @Test
+    void both_keys_are_rejected() {
+        assertThat(newBuilder().setPerLogger(true).setContextKey("user").build())
+                .isNull();
+    }
+
+    @Test
+    void concurrent_events_do_not_exceed_the_burst() throws Exception {
+        final RateLimitFilter filter = newBuilder().setMaxBurst(1000).build();
+        final LogEvent event = event("logger", Level.INFO, null);
+        final AtomicInteger accepted = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                accepted.addAndGet(countAccepted(filter, event, 1000));
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(accepted).hasValue(1000);
+    }
+
+    @Test
+    @LoggerContextSource("log4j-ratelimit.xml")
+    void configuration(final LoggerContext context, @Named("ListAppender") final ListAppender app) {
+        assertThat(app.getFilter()).isInstanceOf(RateLimitFilter.class);
+        for (int i = 0; i < 20; i++) {
+            context.getLogger("first").info("First");
+            context.getLogger("second").info("Second");
+            context.getLogger("second").warn("Warning");
+        }
+        assertThat(app.getMessages()).hasSize(40);
+    }
+}
@@ -26,9 +26,15 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Locale;
+import java.util.TimeZone;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.ThreadContext;
@@ -39,6 +45,7 @@ import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.ConfigurationProcessor;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.net.Facility;
 import org.apache.logging.log4j.core.test.BasicConfigurationFactory;
@@ -57,9 +64,13 @@ import org.apache.logging.log4j.plugins.model.PluginNamespace;
 import org.apache.logging.log4j.plugins.model.PluginType;
 import org.apache.logging.log4j.test.junit.UsingAnyThreadContext;
 import org.apache.logging.log4j.util.Lazy;
+import org.apache.logging.log4j.util.StringMap;
 import org.apache.logging.log4j.util.Strings;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.jupiter.api.parallel.Resources;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 @UsingAnyThreadContext
@@ -707,4 +718,111 @@ class Rfc5424LayoutTest {
                 Rfc5424Layout.newBuilder().setConfiguration(CONFIGURATION).build();
         assertThat(layout.getLocalHostName()).isEqualTo(fqdn);
     }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1_710_054_000_000L, 1_730_613_600_000L})
+    @ResourceLock(Resources.TIME_ZONE)
+    void timestamps_around_DST_changes(final long transitionMillis) {
+        final TimeZone defaultTimeZone = TimeZone.getDefault();
+        final ZoneId zone = ZoneId.of("America/New_York");
+        TimeZone.setDefault(TimeZone.getTimeZone(zone));
+        try {
+            final Rfc5424Layout layout =
+                    Rfc5424Layout.newBuilder().setConfiguration(CONFIGURATION).build();
+            final DateTimeFormatter formatter =
+                    DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX").withZone(zone);
+            final long end = transitionMillis + 7_200_000L;
+            for (long millis = transitionMillis - 7_200_000L; millis < end; millis += 420_123L) {
+                final LogEvent event = Log4jLogEvent.newBuilder()
+                        .setLevel(Level.INFO)
+                        .setTimeMillis(millis)
+                        .setMessage(new SimpleMessage("Hello"))
+                        .build();
+                final String expected = " " + formatter.format(Instant.ofEpochMilli(millis)) + " ";
+                final SpyByteBufferDestination destination = new SpyByteBufferDestination(1024, 1024);
+                layout.encode(event, destination);
+                destination.drain(destination.getByteBuffer());
+                final String encoded = new String(
+                        destination.drained.array(), 0, destination.drained.position(), StandardCharsets.UTF_8);
+                assertThat(encoded).contains(expected);
+                assertThat(layout.toSerializable(event)).contains(expected);
+            }
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+
+    /**
+     * The structured data elements of the garbage-free code path must be in the order of the generic code path: the
+     * element of the message comes before the MDC element.
+     */
+    @ParameterizedTest
+    @CsvSource({
+        "RequestContext, Transfer",
+        "RequestContext, Audit",
+        "RequestContext, Login",
+        "RequestContext, Extra",
+        "RequestContext, a",
+        "RequestContext, b",
+        "RequestContext, RequestContext",
+        "MDC, Transfer",
+        "MDC, Audit",
+        "MDC, Login",
+        "MDC, b",
+        "MDC, MDC"
+    })
+    void encode_should_match_toSerializable(final String mdcId, final String sdId) {
+        final Rfc5424Layout layout = Rfc5424Layout.newBuilder()
+                .setFacility(Facility.LOCAL0)
+                .setId("Event")
+                .setEin("18060")
+                .setIncludeMDC(true)
+                .setMdcId(mdcId)
+                .setEscapeNL("#012")
+                .setAppName("ATM")
+                .setExcludes("key1")
+                .setConfiguration(CONFIGURATION)
+                .build();
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("key1", "excluded");
+        contextData.putValue("loginId", "JohnDoe");
+        contextData.putValue("escaped", "Testing \n \" ] \"");
+        final StructuredDataMessage message = new StructuredDataMessage(sdId, "Transfer\nComplete", "Audit");
+        message.put("ToAccount", "123456");
+        message.put("Amount", "200.00");
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLevel(Level.INFO)
+                .setTimeMillis(1_700_000_000_123L)
+                .setContextData(contextData)
+                .setMessage(message)
+                .build();
+
+        final String serialized = layout.toSerializable(event);
+        final SpyByteBufferDestination destination = new SpyByteBufferDestination(1024, 1024);
+        layout.encode(event, destination);
+        destination.drain(destination.getByteBuffer());
+        final String encoded =
+                new String(destination.drained.array(), 0, destination.drained.position(), StandardCharsets.UTF_8);
+        assertThat(encoded).isEqualTo(serialized);
+        if (!mdcId.equals(sdId)) {
+            assertThat(serialized.indexOf("[" + sdId + "@")).isLessThan(serialized.indexOf("[" + mdcId + "@"));
+        }
+        assertThat(serialized)
+                .contains("loginId=\"JohnDoe\"")
+                .contains("escaped=\"Testing #012 \\\" \\] \\\"\"")
+                .contains("Amount=\"200.00\" ToAccount=\"123456\"")
+                .doesNotContain("key1")
+                .endsWith(" Transfer#012Complete");
+
+        // A collection message is formatted by the generic code path, the structured data must be the same
+        final LogEvent collectionEvent = Log4jLogEvent.newBuilder()
+                .setLevel(Level.INFO)
+                .setTimeMillis(1_700_000_000_123L)
+                .setContextData(contextData)
+                .setMessage(new StructuredDataCollectionMessage(Collections.singletonList(message)))
+                .build();
+        final String generic = layout.toSerializable(collectionEvent);
+        assertThat(serialized.substring(serialized.indexOf('['), serialized.lastIndexOf(']')))
+                .isEqualTo(generic.substring(generic.indexOf('['), generic.lastIndexOf(']')));
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import static org.apache.logging.log4j.util.Strings.LINE_SEPARATOR;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import foo.TestFriendlyException;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.core.impl.ThrowableFormatOptions;
+import org.apache.logging.log4j.core.util.StackTraceCache;
+import org.apache.logging.log4j.test.junit.SetTestProperty;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * {@link ThrowableCachingRenderer} tests.
+ */
+class ThrowableCachingRendererTest {
+
+    private static final Throwable EXCEPTION = TestFriendlyException.INSTANCE;
+
+    static Stream<ThrowableStackTraceRenderer<?>> renderers() {
+        final ThrowableFormatOptions fullOptions = ThrowableFormatOptions.newInstance(new String[] {"full"});
+        final ThrowableFormatOptions shortOptions = ThrowableFormatOptions.newInstance(new String[] {"short"});
+        return Stream.of(
+                ThrowableStackTraceRendererFactory.INSTANCE.createStackTraceRenderer(fullOptions),
+                ThrowableStackTraceRendererFactory.INSTANCE.createStackTraceRenderer(shortOptions),
+                ThrowableExtendedStackTraceRendererFactory.INSTANCE.createStackTraceRenderer(fullOptions),
+                ThrowableInvertedStackTraceRendererFactory.INSTANCE.createStackTraceRenderer(fullOptions));
+    }
+
+    @ParameterizedTest
+    @MethodSource("renderers")
+    void cached_rendering_should_match_the_delegate(final ThrowableStackTraceRenderer<?> delegate) {
+        final StackTraceCache cache = new StackTraceCache(16);
+        final ThrowableRenderer renderer = new ThrowableCachingRenderer(delegate, cache);
+        final String expectedRendering = render(delegate, "FATAL");
+        assertThat(render(renderer, "FATAL")).isEqualTo(expectedRendering);
+        assertThat(render(renderer, "FATAL")).isEqualTo(expectedRendering);
+        assertThat(render(renderer, "")).isEqualTo(render(delegate, ""));
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(2);
+    }
+
+    private static String render(final ThrowableRenderer renderer, final String prefix) {
+        final StringBuilder buffer = new StringBuilder(prefix);
+        renderer.renderThrowable(buffer, EXCEPTION, LINE_SEPARATOR);
+        return buffer.toString();
+    }
+
+    @Test
+    void cache_should_be_disabled_by_default() {
+        final ThrowablePatternConverter converter = ThrowablePatternConverter.newInstance(null, null);
+        assertThat(converter.getStackTraceCache()).isNull();
+    }
+
+    @Test
+    @SetTestProperty(key = "log4j.stackTraceCache.size", value = "16")
+    void cache_should_be_enabled_by_property() {
+        final ThrowablePatternConverter converter = ThrowablePatternConverter.newInstance(null, null);
+        assertThat(converter.getStackTraceCache()).isNotNull();
+        final ThrowablePatternConverter propertyConverter =
+                ThrowablePatternConverter.newInstance(null, new String[] {"short.message"});
+        assertThat(propertyConverter.getStackTraceCache()).isNull();
+    }
+}
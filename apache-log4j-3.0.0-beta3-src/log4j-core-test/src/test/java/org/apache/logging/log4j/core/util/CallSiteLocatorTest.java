@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CallSiteLocatorTest {
+
+    /**
+     * Plays the role of a logger: the location is the caller of its methods.
+     */
+    private static final class Locator {
+
+        private static StackTraceElement locate() {
+            return CallSiteLocator.calcLocation(Locator.class.getName());
+        }
+    }
+
+    private static StackTraceElement locateAt(final int depth) {
+        return depth > 0 ? locateAt(depth - 1) : Locator.locate();
+    }
+
+    private static StackTraceElement locate(final int ignored) {
+        return Locator.locate();
+    }
+
+    private static StackTraceElement locate(final String ignored) {
+        return Locator.locate();
+    }
+
+    @Test
+    void location_should_be_the_caller_of_the_logger() {
+        final StackTraceElement expected = new Throwable().getStackTrace()[0];
+        final StackTraceElement actual = Locator.locate();
+        assertThat(actual).isNotNull();
+        assertThat(actual.getClassName()).isEqualTo(expected.getClassName());
+        assertThat(actual.getMethodName()).isEqualTo(expected.getMethodName());
+        assertThat(actual.getFileName()).isEqualTo(expected.getFileName());
+        assertThat(actual.getLineNumber()).isEqualTo(expected.getLineNumber() + 1);
+    }
+
+    @Test
+    void location_should_not_depend_on_the_depth_of_the_previous_call_sites() {
+        final List<StackTraceElement> locations = new ArrayList<>();
+        for (final int depth : new int[] {0, 100, 0, 20, 10, 0}) {
+            locations.add(locateAt(depth));
+        }
+        assertThat(locations).allSatisfy(location -> {
+            assertThat(location.getMethodName()).isEqualTo("locateAt");
+            assertThat(location.getLineNumber()).isEqualTo(locations.get(0).getLineNumber());
+        });
+    }
+
+    @Test
+    void locations_of_different_call_sites_should_differ() {
+        final StackTraceElement first = Locator.locate();
+        final StackTraceElement second = Locator.locate();
+        assertThat(second.getLineNumber()).isEqualTo(first.getLineNumber() + 1);
+    }
+
+    @Test
+    void locations_of_overloaded_methods_should_differ() {
+        final StackTraceElement intLocation = locate(0);
+        final StackTraceElement stringLocation = locate("");
+        assertThat(intLocation.getMethodName()).isEqualTo(stringLocation.getMethodName());
+        assertThat(intLocation.getLineNumber()).isNotEqualTo(stringLocation.getLineNumber());
+    }
+
+    @Test
+    void location_should_be_null_if_the_logger_is_not_on_the_stack() {
+        assertThat(CallSiteLocator.calcLocation("com.example.MissingLogger")).isNull();
+    }
+}
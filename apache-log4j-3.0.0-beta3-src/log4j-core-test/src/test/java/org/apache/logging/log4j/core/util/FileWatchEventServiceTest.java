@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.core.config.ConfigurationScheduler;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileWatchEventServiceTest {
+
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    @TempDir
+    private Path tempDir;
+
+    private ConfigurationScheduler scheduler;
+    private FileWatchEventService service;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ConfigurationScheduler();
+        service = new FileWatchEventService(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    private WatchManager newWatchManager(final int intervalSeconds) {
+        final WatchManager watchManager = new WatchManager(scheduler, StatusLogger.getLogger(), service);
+        watchManager.setIntervalSeconds(intervalSeconds);
+        return watchManager;
+    }
+
+    private Path createFile(final String name) throws IOException {
+        final Path file = tempDir.resolve(name);
+        Files.write(file, name.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        return file;
+    }
+
+    private static void modify(final Path file, final int count) throws IOException {
+        final long lastModified = Files.getLastModifiedTime(file).toMillis();
+        Files.write(file, new byte[] {(byte) count});
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified + 1000L * count));
+    }
+
+    private static boolean isWatchThreadAlive() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().contains("FileWatchEventService"));
+    }
+
+    @Test
+    void modification_is_notified_without_polling() throws Exception {
+        final Path file = createFile("log4j2.xml");
+        // The polling interval is longer than the test
+        final WatchManager watchManager = newWatchManager(3600);
+        final BlockingQueue<File> queue = new LinkedBlockingQueue<>();
+        watchManager.watchFile(file.toFile(), queue::add);
+        scheduler.start();
+        watchManager.start();
+        try {
+            assertThat(service.isWatching(watchManager, new Source(file))).isTrue();
+            modify(file, 1);
+            assertThat(queue.poll(5, TimeUnit.SECONDS)).isEqualTo(file.toFile());
+        } finally {
+            watchManager.stop();
+        }
+        assertThat(service.isWatching(watchManager, new Source(file))).isFalse();
+    }
+
+    @Test
+    void burst_of_modifications_is_notified_once() throws Exception {
+        final Path file = createFile("log4j2.xml");
+        final WatchManager watchManager = newWatchManager(3600);
+        final BlockingQueue<File> queue = new LinkedBlockingQueue<>();
+        watchManager.watchFile(file.toFile(), queue::add);
+        scheduler.start();
+        watchManager.start();
+        try {
+            for (int i = 1; i <= 5; i++) {
+                modify(file, i);
+            }
+            assertThat(queue.poll(5, TimeUnit.SECONDS)).isEqualTo(file.toFile());
+            assertThat(queue.poll(3 * DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)).isNull();
+        } finally {
+            watchManager.stop();
+        }
+    }
+
+    @Test
+    void managers_sharing_a_directory_are_notified() throws Exception {
+        final Path first = createFile("first.xml");
+        final Path second = createFile("second.xml");
+        final WatchManager firstManager = newWatchManager(3600);
+        final WatchManager secondManager = newWatchManager(3600);
+        final BlockingQueue<File> firstQueue = new LinkedBlockingQueue<>();
+        final BlockingQueue<File> secondQueue = new LinkedBlockingQueue<>();
+        firstManager.watchFile(first.toFile(), firstQueue::add);
+        secondManager.watchFile(second.toFile(), secondQueue::add);
+        scheduler.start();
+        firstManager.start();
+        secondManager.start();
+        try {
+            modify(second, 1);
+            assertThat(secondQueue.poll(5, TimeUnit.SECONDS)).isEqualTo(second.toFile());
+            assertThat(firstQueue).isEmpty();
+
+            // Still watched after the other manager stops
+            firstManager.stop();
+            modify(second, 2);
+            assertThat(secondQueue.poll(5, TimeUnit.SECONDS)).isEqualTo(second.toFile());
+        } finally {
+            firstManager.stop();
+            secondManager.stop();
+        }
+    }
+
+    @Test
+    void file_added_after_start_is_watched() throws Exception {
+        final Path file = createFile("log4j2.xml");
+        final WatchManager watchManager = newWatchManager(3600);
+        scheduler.start();
+        watchManager.start();
+        try {
+            final BlockingQueue<File> queue = new LinkedBlockingQueue<>();
+            watchManager.watchFile(file.toFile(), queue::add);
+            modify(file, 1);
+            assertThat(queue.poll(5, TimeUnit.SECONDS)).isEqualTo(file.toFile());
+
+            watchManager.unwatchFile(file.toFile());
+            assertThat(service.isWatching(watchManager, new Source(file))).isFalse();
+        } finally {
+            watchManager.stop();
+        }
+    }
+
+    @Test
+    void file_of_deleted_directory_is_polled() throws Exception {
+        final Path directory = Files.createDirectory(tempDir.resolve("config"));
+        final Path file = directory.resolve("log4j2.xml");
+        Files.write(file, new byte[] {0});
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        final WatchManager watchManager = newWatchManager(1);
+        final BlockingQueue<File> queue = new LinkedBlockingQueue<>();
+        watchManager.watchFile(file.toFile(), queue::add);
+        scheduler.start();
+        watchManager.start();
+        try {
+            assertThat(service.isWatching(watchManager, new Source(file))).isTrue();
+            Files.delete(file);
+            Files.delete(directory);
+            await().atMost(Duration.ofSeconds(5)).until(() -> !service.isWatching(watchManager, new Source(file)));
+            queue.clear();
+
+            // Still monitored once the directory is created again
+            Files.createDirectory(directory);
+            Files.write(file, new byte[] {1});
+            assertThat(queue.poll(5, TimeUnit.SECONDS)).isEqualTo(file.toFile());
+        } finally {
+            watchManager.stop();
+        }
+    }
+
+    @Test
+    void other_sources_are_polled() throws Exception {
+        final Path file = createFile("log4j2.xml");
+        final WatchManager watchManager = newWatchManager(1);
+        final Source source = mock(Source.class);
+        final Watcher watcher = mock(Watcher.class);
+        when(watcher.isModified()).thenReturn(true);
+        final Watcher fileWatcher = mock(Watcher.class);
+        watchManager.watch(source, watcher);
+        watchManager.watch(new Source(file), fileWatcher);
+        scheduler.start();
+        watchManager.start();
+        try {
+            verify(watcher, timeout(5000)).modified();
+            // Only checked on notifications
+            verify(fileWatcher, after(2500).never()).isModified();
+        } finally {
+            watchManager.stop();
+        }
+    }
+
+    @Test
+    void thread_stops_when_no_file_is_watched() throws Exception {
+        final Path file = createFile("log4j2.xml");
+        final WatchManager watchManager = newWatchManager(3600);
+        watchManager.watchFile(file.toFile(), ignored -> {});
+        scheduler.start();
+        watchManager.start();
+        assertThat(isWatchThreadAlive()).isTrue();
+        watchManager.stop();
+        await().atMost(Duration.ofSeconds(5)).until(() -> !isWatchThreadAlive());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class StackTraceCacheTest {
+
+    private static List<Throwable> createThrowables(final String message) {
+        final List<Throwable> throwables = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            throwables.add(new IllegalStateException(message, new RuntimeException("cause")));
+        }
+        return throwables;
+    }
+
+    @Test
+    void keys_of_throwables_with_the_same_stack_trace_should_be_equal() {
+        final StackTraceCache cache = new StackTraceCache(16);
+        final List<Throwable> throwables = createThrowables("message");
+        final StackTraceCache.Key key = cache.createKey(throwables.get(0), "\n");
+        assertThat(key).isNotNull().isEqualTo(cache.createKey(throwables.get(1), "\n"));
+        assertThat(key).hasSameHashCodeAs(cache.createKey(throwables.get(1), "\n"));
+    }
+
+    @Test
+    void keys_should_depend_on_the_discriminator() {
+        final StackTraceCache cache = new StackTraceCache(16);
+        final Throwable throwable = createThrowables("message").get(0);
+        assertThat(cache.createKey(throwable, "\n")).isNotEqualTo(cache.createKey(throwable, "\r\n"));
+    }
+
+    @Test
+    void keys_should_depend_on_the_messages() {
+        final StackTraceCache cache = new StackTraceCache(16);
+        final Throwable throwable = createThrowables("message").get(0);
+        final Throwable otherThrowable = new IllegalStateException("other message", throwable.getCause());
+        otherThrowable.setStackTrace(throwable.getStackTrace());
+        assertThat(cache.createKey(throwable, "\n")).isNotEqualTo(cache.createKey(otherThrowable, "\n"));
+    }
+
+    @Test
+    void keys_should_depend_on_the_stack_traces() {
+        final StackTraceCache cache = new StackTraceCache(16);
+        final Throwable throwable = createThrowables("message").get(0);
+        final Throwable otherThrowable = createThrowables("message").get(0);
+        assertThat(cache.createKey(throwable, "\n")).isNotEqualTo(cache.createKey(otherThrowable, "\n"));
+    }
+
+    @Test
+    void keys_should_depend_on_the_shape_of_the_graph() {
+        final StackTraceCache cache = new StackTraceCache(16);
+        final RuntimeException other = new RuntimeException("other");
+        final List<Throwable> throwables = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            throwables.add(new IllegalStateException("message"));
+        }
+        throwables.get(0).initCause(other);
+        throwables.get(1).addSuppressed(other);
+        assertThat(cache.createKey(throwables.get(0), "\n")).isNotEqualTo(cache.createKey(throwables.get(1), "\n"));
+    }
+
+    @Test
+    void circular_references_should_be_supported() {
+        final StackTraceCache cache = new StackTraceCache(16);
+        final List<Throwable> throwables = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            final RuntimeException cause = new RuntimeException("cause");
+            final IllegalStateException throwable = new IllegalStateException("message", cause);
+            cause.addSuppressed(throwable);
+            throwables.add(throwable);
+        }
+        final StackTraceCache.Key key = cache.createKey(throwables.get(0), "\n");
+        assertThat(key).isNotNull().isEqualTo(cache.createKey(throwables.get(1), "\n"));
+    }
+
+    @Test
+    void throwables_overriding_toString_should_not_be_cached() {
+        final StackTraceCache cache = new StackTraceCache(16);
+        final Throwable throwable = new RuntimeException() {
+            @Override
+            public String toString() {
+                return "custom";
+            }
+        };
+        assertThat(cache.createKey(throwable, "\n")).isNull();
+        assertThat(cache.createKey(new RuntimeException(throwable), "\n")).isNull();
+    }
+
+    @Test
+    void lookups_should_be_counted() {
+        final StackTraceCache cache = new StackTraceCache(16);
+        final List<Throwable> throwables = createThrowables("message");
+        final StackTraceCache.Key key = cache.createKey(throwables.get(0), "\n");
+        assertThat(cache.get(key)).isNull();
+        cache.put(key, "rendering");
+        assertThat(cache.get(cache.createKey(throwables.get(1), "\n"))).isEqualTo("rendering");
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void colliding_renderings_should_be_replaced() {
+        final StackTraceCache cache = new StackTraceCache(1);
+        final StackTraceCache.Key key = cache.createKey(new RuntimeException("first"), "\n");
+        final StackTraceCache.Key otherKey = cache.createKey(new RuntimeException("second"), "\n");
+        cache.put(key, "first");
+        cache.put(otherKey, "second");
+        assertThat(cache.get(key)).isNull();
+        assertThat(cache.get(otherKey)).isEqualTo("second");
+    }
+
+    @Test
+    void size_should_be_positive() {
+        assertThatThrownBy(() -> new StackTraceCache(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("was expecting a positive size: 0");
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.logging.log4j.core.appender;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TransferQueue;
@@ -39,7 +40,9 @@ import org.apache.logging.log4j.core.config.ConfigurationException;
 import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.filter.AbstractFilterable;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
 import org.apache.logging.log4j.kit.logger.AbstractLogger;
+import org.apache.logging.log4j.message.ReusableMessage;
 import org.apache.logging.log4j.plugins.Configurable;
 import org.apache.logging.log4j.plugins.Factory;
 import org.apache.logging.log4j.plugins.Plugin;
@@ -60,9 +63,16 @@ import org.apache.logging.log4j.util.InternalApi;
 public final class AsyncAppender extends AbstractAppender {
 
     private static final int DEFAULT_QUEUE_SIZE = 1024;
+    private static final int DEFAULT_BATCH_SIZE = 128;
 
     private final BlockingQueue<LogEvent> queue;
+    /**
+     * Preallocated events that are not queued, if the appender is garbage-free.
+     */
+    private final BlockingQueue<MutableLogEvent> freeEvents;
+
     private final int queueSize;
+    private final int batchSize;
     private final boolean blocking;
     private final long shutdownTimeout;
     private final Configuration config;
@@ -79,16 +89,20 @@ public final class AsyncAppender extends AbstractAppender {
             final AppenderRef[] appenderRefs,
             final String errorRef,
             final int queueSize,
+            final int batchSize,
             final boolean blocking,
             final boolean ignoreExceptions,
             final long shutdownTimeout,
             final Configuration config,
             final boolean includeLocation,
             final BlockingQueueFactory blockingQueueFactory,
+            final boolean garbageFree,
             final Property[] properties) {
         super(name, filter, null, ignoreExceptions, properties);
         this.queue = blockingQueueFactory.create(queueSize);
+        this.freeEvents = garbageFree ? createFreeEvents(queueSize) : null;
         this.queueSize = queueSize;
+        this.batchSize = batchSize;
         this.blocking = blocking;
         this.shutdownTimeout = shutdownTimeout;
         this.config = config;
@@ -97,6 +111,21 @@ public final class AsyncAppender extends AbstractAppender {
         this.includeLocation = includeLocation;
     }
 
+    /**
+     * Creates the pool of preallocated events.
+     * <p>
+     *     All the logging threads take events from the pool, so it does not use the configured
+     *     {@link BlockingQueueFactory}, whose queues might only support a single consumer.
+     * </p>
+     */
+    private static BlockingQueue<MutableLogEvent> createFreeEvents(final int queueSize) {
+        final BlockingQueue<MutableLogEvent> freeEvents = new ArrayBlockingQueue<>(queueSize);
+        for (int i = 0; i < queueSize; i++) {
+            freeEvents.add(new MutableLogEvent());
+        }
+        return freeEvents;
+    }
+
     @Override
     public void start() {
         final Map<String, Appender> map = config.getAppenders();
@@ -118,7 +147,8 @@ public final class AsyncAppender extends AbstractAppender {
             }
         }
         if (appenders.size() > 0) {
-            dispatcher = new AsyncAppenderEventDispatcher(getName(), errorAppender, appenders, queue);
+            dispatcher =
+                    new AsyncAppenderEventDispatcher(getName(), errorAppender, appenders, queue, batchSize, freeEvents);
         } else if (errorRef == null) {
             throw new ConfigurationException("No appenders are available for AsyncAppender " + getName());
         }
@@ -164,35 +194,84 @@ public final class AsyncAppender extends AbstractAppender {
         }
         // Modifications to the original `logEvent`:
         // 1. Format message, if it is not thread-safe.
-        InternalAsyncUtil.makeMessageImmutable(logEvent.getMessage());
+        //    Reusable messages are formatted anyway when they are copied into a preallocated event.
+        if (freeEvents == null || !(logEvent.getMessage() instanceof ReusableMessage)) {
+            InternalAsyncUtil.makeMessageImmutable(logEvent.getMessage());
+        }
         // 2. Compute location, unless disabled.
         InternalAsyncUtil.makeLocationImmutable(this, logEvent);
-        final LogEvent memento = logEvent.toMemento();
-        if (!transfer(memento)) {
+        final LogEvent memento = freeEvents != null ? copyToFreeEvent(logEvent) : logEvent.toMemento();
+        if (memento == null || !transfer(memento)) {
+            // The values of the original event have been moved into the preallocated event, if there is one
+            final LogEvent fallback = memento != null ? memento : logEvent;
             if (blocking) {
                 if (AbstractLogger.getRecursionDepth() > 1) { // LOG4J2-1518, LOG4J2-2031
                     // If queue is full AND we are in a recursive call, call appender directly to prevent deadlock
                     AsyncQueueFullMessageUtil.logWarningToStatusLogger();
-                    logMessageInCurrentThread(logEvent);
+                    logMessageInCurrentThread(fallback);
                 } else {
                     // delegate to the event router (which may discard, enqueue and block, or log in current thread)
-                    final EventRoute route = asyncQueueFullPolicy.getRoute(dispatcher.getId(), memento.getLevel());
+                    final EventRoute route = asyncQueueFullPolicy.getRoute(dispatcher.getId(), logEvent.getLevel());
                     switch (route) {
                         case DISCARD:
                             break;
                         case ENQUEUE:
-                            logMessageInBackgroundThread(memento);
-                            break;
+                            if (memento != null) {
+                                logMessageInBackgroundThread(memento);
+                            } else {
+                                enqueueToFreeEvent(logEvent);
+                            }
+                            // the queued event must not be released
+                            return;
                         case SYNCHRONOUS:
-                            logMessageInCurrentThread(memento);
+                            logMessageInCurrentThread(fallback);
                             break;
                         default:
                     }
                 }
             } else {
                 error("Appender " + getName() + " is unable to write primary appenders. queue is full");
-                logToErrorAppenderIfNecessary(false, memento);
+                logToErrorAppenderIfNecessary(false, fallback);
             }
+            releaseEvent(memento);
+        }
+    }
+
+    /**
+     * Copies the event into a preallocated event, if one is available.
+     *
+     * @return the copy or {@code null} if all the preallocated events are in use
+     */
+    private MutableLogEvent copyToFreeEvent(final LogEvent logEvent) {
+        final MutableLogEvent event = freeEvents.poll();
+        if (event != null) {
+            event.moveValuesFrom(logEvent);
+        }
+        return event;
+    }
+
+    private void enqueueToFreeEvent(final LogEvent logEvent) {
+        final MutableLogEvent event;
+        try {
+            // wait for a preallocated event to be released by the dispatcher
+            event = freeEvents.take();
+        } catch (final InterruptedException ignored) {
+            LOGGER.warn("Interrupted while waiting for a free LogEvent in AsyncAppender {}", getName());
+            Thread.currentThread().interrupt();
+            logToErrorAppenderIfNecessary(false, logEvent);
+            return;
+        }
+        event.moveValuesFrom(logEvent);
+        logMessageInBackgroundThread(event);
+    }
+
+    /**
+     * Gives back a preallocated event that could not be queued.
+     */
+    private void releaseEvent(final LogEvent logEvent) {
+        if (freeEvents != null && logEvent instanceof final MutableLogEvent event) {
+            event.clear();
+            freeEvents.offer(event);
         }
     }
 
@@ -226,6 +305,9 @@ public final class AsyncAppender extends AbstractAppender {
         } catch (final InterruptedException ignored) {
             final boolean appendSuccessful = handleInterruptedException(logEvent);
             logToErrorAppenderIfNecessary(appendSuccessful, logEvent);
+            if (!appendSuccessful) {
+                releaseEvent(logEvent);
+            }
         }
     }
 
@@ -281,6 +363,12 @@ public final class AsyncAppender extends AbstractAppender {
         @PluginBuilderAttribute
         private int bufferSize = DEFAULT_QUEUE_SIZE;
 
+        @PluginBuilderAttribute
+        private int batchSize = DEFAULT_BATCH_SIZE;
+
+        @PluginBuilderAttribute
+        private boolean garbageFree;
+
         /**
          * Name of the appender to use in references
          */
@@ -325,6 +413,26 @@ public final class AsyncAppender extends AbstractAppender {
             return this;
         }
 
+        /**
+         * @param batchSize the maximum number of events dispatched to the appenders at once
+         * @return this builder
+         * @since 3.0.0
+         */
+        public Builder setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * @param garbageFree whether the events are copied into preallocated events, instead of new immutable copies
+         * @return this builder
+         * @since 3.0.0
+         */
+        public Builder setGarbageFree(final boolean garbageFree) {
+            this.garbageFree = garbageFree;
+            return this;
+        }
+
         public Builder setName(final String name) {
             this.name = name;
             return this;
@@ -352,18 +460,24 @@ public final class AsyncAppender extends AbstractAppender {
 
         @Override
         public AsyncAppender build() {
+            if (batchSize < 1) {
+                LOGGER.warn("Invalid batchSize {} for AsyncAppender {}, using {}", batchSize, name, DEFAULT_BATCH_SIZE);
+                batchSize = DEFAULT_BATCH_SIZE;
+            }
             return new AsyncAppender(
                     name,
                     getFilter(),
                     appenderRefs,
                     errorRef,
                     bufferSize,
+                    batchSize,
                     blocking,
                     ignoreExceptions,
                     shutdownTimeout,
                     configuration,
                     includeLocation,
                     blockingQueueFactory,
+                    garbageFree,
                     getPropertyArray());
         }
     }
@@ -414,6 +528,42 @@ public final class AsyncAppender extends AbstractAppender {
         return queueSize;
     }
 
+    /**
+     * Returns the maximum number of events dispatched to the appenders at once.
+     *
+     * @return the maximum size of a batch
+     * @since 3.0.0
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns the histogram of the sizes of the batches of events dispatched to the appenders.
+     * <p>
+     * Element {@code i} of the returned array counts the batches whose size is between {@code 2^i} and
+     * {@code 2^(i+1) - 1}.
+     * </p>
+     *
+     * @return the number of batches by size, or an empty array if the appender is not started
+     * @since 3.0.0
+     */
+    public long[] getBatchSizeHistogram() {
+        final AsyncAppenderEventDispatcher dispatcher = this.dispatcher;
+        return dispatcher != null ? dispatcher.getBatchSizeHistogram() : new long[0];
+    }
+
+    /**
+     * Returns {@code true} if this AsyncAppender copies the log events into a fixed set of preallocated events,
+     * instead of creating an immutable copy of each event.
+     *
+     * @return whether this AsyncAppender is garbage-free in steady state
+     * @since 3.0.0
+     */
+    public boolean isGarbageFree() {
+        return freeEvents != null;
+    }
+
     public int getQueueRemainingCapacity() {
         return queue.remainingCapacity();
     }
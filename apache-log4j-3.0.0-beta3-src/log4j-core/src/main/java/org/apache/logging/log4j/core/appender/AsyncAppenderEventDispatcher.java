@@ -16,14 +16,19 @@
  */
 package org.apache.logging.log4j.core.appender;
 
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.AppenderControl;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
 import org.apache.logging.log4j.core.util.Log4jThread;
 import org.apache.logging.log4j.status.StatusLogger;
 
@@ -41,19 +46,48 @@ class AsyncAppenderEventDispatcher extends Log4jThread {
 
     private final BlockingQueue<LogEvent> queue;
 
+    /**
+     * Receives the dispatched events, if the queued events are preallocated.
+     */
+    private final BlockingQueue<MutableLogEvent> freeEvents;
+
     private final AtomicBoolean stoppedRef;
 
+    private final Batch batch;
+
+    private final boolean[] succeeded;
+
+    /**
+     * Number of dispatched batches, whose size is between {@code 2^i} and {@code 2^(i+1) - 1} for bucket {@code i}.
+     */
+    private final AtomicLongArray batchSizeHistogram;
+
     AsyncAppenderEventDispatcher(
             final String name,
             final AppenderControl errorAppender,
             final List<AppenderControl> appenders,
-            final BlockingQueue<LogEvent> queue) {
+            final BlockingQueue<LogEvent> queue,
+            final int batchSize) {
+        this(name, errorAppender, appenders, queue, batchSize, null);
+    }
+
+    AsyncAppenderEventDispatcher(
+            final String name,
+            final AppenderControl errorAppender,
+            final List<AppenderControl> appenders,
+            final BlockingQueue<LogEvent> queue,
+            final int batchSize,
+            final BlockingQueue<MutableLogEvent> freeEvents) {
         super("AsyncAppenderEventDispatcher-" + THREAD_COUNTER.incrementAndGet() + "-" + name);
         this.setDaemon(true);
         this.errorAppender = errorAppender;
         this.appenders = appenders;
         this.queue = queue;
+        this.freeEvents = freeEvents;
         this.stoppedRef = new AtomicBoolean();
+        this.batch = new Batch(batchSize);
+        this.succeeded = new boolean[batchSize];
+        this.batchSizeHistogram = new AtomicLongArray(Integer.SIZE - Integer.numberOfLeadingZeros(batchSize));
     }
 
     @Override
@@ -65,40 +99,98 @@ class AsyncAppenderEventDispatcher extends Log4jThread {
 
     private void dispatchAll() {
         while (!stoppedRef.get()) {
-            final LogEvent event;
             try {
-                event = queue.take();
+                batch.add(queue.take());
             } catch (final InterruptedException ignored) {
                 // Restore the interrupted flag cleared when the exception is caught.
                 interrupt();
                 break;
             }
-            if (event == STOP_EVENT) {
+            // Take the events queued in the meantime without blocking
+            queue.drainTo(batch, batch.capacity() - 1);
+            final boolean stopped = batch.stopped;
+            dispatchBatch();
+            if (stopped) {
                 break;
             }
-            event.setEndOfBatch(queue.isEmpty());
-            dispatch(event);
         }
         LOGGER.trace("{} has stopped.", getName());
     }
 
     private void dispatchRemaining() {
         int eventCount = 0;
-        while (true) {
-            // Note the non-blocking Queue#poll() method!
-            final LogEvent event = queue.poll();
-            if (event == null) {
-                break;
+        // Note the non-blocking BlockingQueue#drainTo() method!
+        // Events that managed to be submitted after the sentinel are allowed.
+        while (queue.drainTo(batch, batch.capacity()) > 0) {
+            eventCount += batch.size;
+            dispatchBatch();
+        }
+        LOGGER.trace("{} has processed the last {} remaining event(s).", getName(), eventCount);
+    }
+
+    /**
+     * Dispatches the events of the batch to the registered appenders, one appender at a time, and clears the batch.
+     * <p>
+     * Preallocated events are released once they have been dispatched.
+     * </p>
+     * <p>
+     * Only the last event of the batch can be marked as the end of a batch, if no other event is queued.
+     * </p>
+     */
+    private void dispatchBatch() {
+        final LogEvent[] events = batch.events;
+        final int size = batch.size;
+        if (size > 0) {
+            for (int i = 0; i < size - 1; i++) {
+                events[i].setEndOfBatch(false);
             }
-            // Allow events that managed to be submitted after the sentinel.
-            if (event == STOP_EVENT) {
-                continue;
+            events[size - 1].setEndOfBatch(queue.isEmpty());
+            Arrays.fill(succeeded, 0, size, false);
+            // noinspection ForLoopReplaceableByForEach (avoid iterator instantion)
+            for (int appenderIndex = 0; appenderIndex < appenders.size(); appenderIndex++) {
+                final AppenderControl control = appenders.get(appenderIndex);
+                for (int i = 0; i < size; i++) {
+                    try {
+                        control.callAppender(events[i]);
+                        succeeded[i] = true;
+                    } catch (final Throwable error) {
+                        // If no appender is successful, the error appender will get it.
+                        // It is okay to simply log it here.
+                        LOGGER.trace("{} has failed to call appender {}", getName(), control.getAppenderName(), error);
+                    }
+                }
+            }
+            if (errorAppender != null) {
+                for (int i = 0; i < size; i++) {
+                    if (!succeeded[i]) {
+                        dispatchToErrorAppender(events[i]);
+                    }
+                }
+            }
+            batchSizeHistogram.incrementAndGet(31 - Integer.numberOfLeadingZeros(size));
+            if (freeEvents != null) {
+                for (int i = 0; i < size; i++) {
+                    final MutableLogEvent event = (MutableLogEvent) events[i];
+                    event.clear();
+                    freeEvents.offer(event);
+                }
             }
-            event.setEndOfBatch(queue.isEmpty());
-            dispatch(event);
-            eventCount++;
         }
-        LOGGER.trace("{} has processed the last {} remaining event(s).", getName(), eventCount);
+        batch.clear();
+    }
+
+    /**
+     * Returns the histogram of the sizes of the dispatched batches.
+     * <p>
+     * Bucket {@code i} counts the batches whose size is between {@code 2^i} and {@code 2^(i+1) - 1}.
+     * </p>
+     */
+    long[] getBatchSizeHistogram() {
+        final long[] histogram = new long[batchSizeHistogram.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = batchSizeHistogram.get(i);
+        }
+        return histogram;
     }
 
     /**
@@ -124,17 +216,18 @@ class AsyncAppenderEventDispatcher extends Log4jThread {
 
         // Fallback to the error appender if none has succeeded so far.
         if (!succeeded && errorAppender != null) {
-            try {
-                errorAppender.callAppender(event);
-            } catch (final Throwable error) {
-                // If the error appender also fails, there is nothing further
-                // we can do about it.
-                LOGGER.trace(
-                        "{} has failed to call the error appender {}",
-                        getName(),
-                        errorAppender.getAppenderName(),
-                        error);
-            }
+            dispatchToErrorAppender(event);
+        }
+    }
+
+    private void dispatchToErrorAppender(final LogEvent event) {
+        try {
+            errorAppender.callAppender(event);
+        } catch (final Throwable error) {
+            // If the error appender also fails, there is nothing further
+            // we can do about it.
+            LOGGER.trace(
+                    "{} has failed to call the error appender {}", getName(), errorAppender.getAppenderName(), error);
         }
     }
 
@@ -167,4 +260,54 @@ class AsyncAppenderEventDispatcher extends Log4jThread {
         // Wait for the completion.
         join(timeoutMillis);
     }
+
+    /**
+     * A reusable array of events, filled by {@link BlockingQueue#drainTo(java.util.Collection, int)}.
+     * <p>
+     * The stop event is not added to the batch, but recorded.
+     * </p>
+     */
+    private static final class Batch extends AbstractCollection<LogEvent> {
+
+        private final LogEvent[] events;
+
+        private int size;
+
+        private boolean stopped;
+
+        private Batch(final int capacity) {
+            this.events = new LogEvent[capacity];
+        }
+
+        private int capacity() {
+            return events.length;
+        }
+
+        @Override
+        public boolean add(final LogEvent event) {
+            if (event == STOP_EVENT) {
+                stopped = true;
+            } else {
+                events[size++] = event;
+            }
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(events, 0, size, null);
+            size = 0;
+            stopped = false;
+        }
+
+        @Override
+        public Iterator<LogEvent> iterator() {
+            return Arrays.asList(events).subList(0, size).iterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
 }
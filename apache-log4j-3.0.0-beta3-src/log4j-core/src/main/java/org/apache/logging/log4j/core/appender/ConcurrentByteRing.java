@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A multi-producer, single-consumer ring of variable length byte records in direct memory.
+ * <p>
+ * Producers reserve space for a record by advancing the tail with a CAS, copy their bytes into the reserved region
+ * and publish the record by writing its length into the record header. A single consumer, which must be externally
+ * synchronized, reads the published records in claim order and releases their space.
+ * </p>
+ * <p>
+ * Each record starts with an 8-byte header holding the length of its payload; records are aligned to 8 bytes.
+ * A record that does not fit before the end of the ring is preceded by a padding record, whose header holds the
+ * negated length of the padding.
+ * </p>
+ */
+final class ConcurrentByteRing {
+
+    /**
+     * Receives the payloads of the records read by {@link #drain(Consumer)}.
+     */
+    @FunctionalInterface
+    interface Consumer {
+
+        /**
+         * Consumes a payload.
+         *
+         * @param buffer the ring buffer, which must not be modified
+         * @param offset the index of the payload in the buffer
+         * @param length the length of the payload
+         */
+        void accept(ByteBuffer buffer, int offset, int length);
+    }
+
+    private static final VarHandle INT_HANDLE =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private static final int HEADER_LENGTH = 8;
+
+    private static final int ALIGNMENT = 8;
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private static final int MAX_SPINS = 100;
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    private final int maxPayloadLength;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param requestedCapacity the minimum capacity of the ring in bytes
+     * @param maxPayloadLength the length of the largest record accepted, which is also limited to a quarter of the
+     *                         capacity
+     */
+    ConcurrentByteRing(final int requestedCapacity, final int maxPayloadLength) {
+        this.capacity = capacityFor(requestedCapacity);
+        this.mask = capacity - 1;
+        this.maxPayloadLength = Math.min(capacity / 4 - HEADER_LENGTH, maxPayloadLength);
+        // Aligning the buffer allows atomic access to the record headers
+        this.buffer = ByteBuffer.allocateDirect(capacity + ALIGNMENT)
+                .alignedSlice(ALIGNMENT)
+                .order(ByteOrder.nativeOrder());
+    }
+
+    private static int capacityFor(final int requestedCapacity) {
+        final int capacity = Math.max(MIN_CAPACITY, requestedCapacity);
+        final int highestOneBit = Integer.highestOneBit(capacity);
+        return highestOneBit == capacity ? capacity : highestOneBit << 1;
+    }
+
+    /**
+     * Returns the capacity of the ring in bytes.
+     *
+     * @return the capacity
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the position after the last claimed record.
+     * <p>
+     * All the records written before this method is called are contained in a {@link #drain(Consumer)} call that
+     * returns a position greater or equal to the result.
+     * </p>
+     *
+     * @return the position after the last claimed record
+     */
+    long getTailPosition() {
+        return tail.get();
+    }
+
+    /**
+     * Returns {@code true} if there are no claimed records left to drain.
+     *
+     * @return {@code true} if the ring is empty
+     */
+    boolean isEmpty() {
+        return head == tail.get();
+    }
+
+    /**
+     * Copies the given bytes into the ring, if there is enough space.
+     *
+     * @param data the bytes to copy
+     * @param offset the offset of the first byte to copy
+     * @param length the number of bytes to copy
+     * @return {@code true} if the bytes were copied, {@code false} if the ring is full or the record too large
+     */
+    boolean tryWrite(final byte[] data, final int offset, final int length) {
+        final int index = claim(length);
+        if (index < 0) {
+            return false;
+        }
+        buffer.put(index + HEADER_LENGTH, data, offset, length);
+        INT_HANDLE.setRelease(buffer, index, length);
+        return true;
+    }
+
+    /**
+     * Copies the remaining bytes of the given buffer into the ring, if there is enough space.
+     * <p>
+     * On success, the position of {@code data} is advanced to its limit.
+     * </p>
+     *
+     * @param data the bytes to copy
+     * @return {@code true} if the bytes were copied, {@code false} if the ring is full or the record too large
+     */
+    boolean tryWrite(final ByteBuffer data) {
+        final int length = data.remaining();
+        final int index = claim(length);
+        if (index < 0) {
+            return false;
+        }
+        buffer.put(index + HEADER_LENGTH, data, data.position(), length);
+        data.position(data.limit());
+        INT_HANDLE.setRelease(buffer, index, length);
+        return true;
+    }
+
+    /**
+     * Reserves space for a record.
+     *
+     * @return the index of the record header or {@code -1} if there is not enough space
+     */
+    private int claim(final int length) {
+        if (length <= 0 || length > maxPayloadLength) {
+            return -1;
+        }
+        final int recordLength = align(HEADER_LENGTH + length);
+        long currentTail;
+        int index;
+        int padding;
+        do {
+            currentTail = tail.get();
+            index = (int) (currentTail & mask);
+            final int toEnd = capacity - index;
+            padding = recordLength > toEnd ? toEnd : 0;
+            if (currentTail + padding + recordLength - head > capacity) {
+                return -1;
+            }
+        } while (!tail.compareAndSet(currentTail, currentTail + padding + recordLength));
+        if (padding > 0) {
+            INT_HANDLE.setRelease(buffer, index, -padding);
+            return 0;
+        }
+        return index;
+    }
+
+    /**
+     * Passes all the records claimed before this call to the given consumer, waiting for producers that are still
+     * copying their bytes, and releases their space.
+     * <p>
+     * This method must not be called concurrently.
+     * </p>
+     *
+     * @param consumer the receiver of the record payloads
+     * @return the position up to which records have been drained
+     */
+    long drain(final Consumer consumer) {
+        long position = head;
+        final long limit = tail.get();
+        while (position < limit) {
+            final int index = (int) (position & mask);
+            final int header = awaitHeader(index);
+            final int recordLength;
+            if (header < 0) {
+                recordLength = -header;
+            } else {
+                consumer.accept(buffer, index + HEADER_LENGTH, header);
+                recordLength = align(HEADER_LENGTH + header);
+            }
+            // Headers of later records might reuse this region: clear it before releasing it
+            clear(index, recordLength);
+            position += recordLength;
+        }
+        head = position;
+        return position;
+    }
+
+    private int awaitHeader(final int index) {
+        int header;
+        int spins = 0;
+        while ((header = (int) INT_HANDLE.getAcquire(buffer, index)) == 0) {
+            if (++spins < MAX_SPINS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return header;
+    }
+
+    private void clear(final int index, final int length) {
+        for (int i = index; i < index + length; i += ALIGNMENT) {
+            buffer.putLong(i, 0L);
+        }
+    }
+
+    private static int align(final int length) {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
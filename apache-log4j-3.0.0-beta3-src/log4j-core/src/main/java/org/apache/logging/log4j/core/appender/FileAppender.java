@@ -19,9 +19,13 @@ package org.apache.logging.log4j.core.appender;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Property;
 import org.apache.logging.log4j.core.net.Advertiser;
 import org.apache.logging.log4j.plugins.Configurable;
@@ -76,6 +80,18 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
         @PluginBuilderAttribute
         private String fileGroup;
 
+        @PluginBuilderAttribute
+        private int concurrentBufferSize;
+
+        @PluginBuilderAttribute
+        private long syncIntervalMillis;
+
+        @PluginBuilderAttribute
+        private Level syncLevel;
+
+        @PluginBuilderAttribute
+        private String syncMarker;
+
         @Override
         public FileAppender build() {
             boolean bufferedIo = isBufferedIo();
@@ -101,6 +117,8 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
                     filePermissions,
                     fileOwner,
                     fileGroup,
+                    concurrentBufferSize,
+                    syncIntervalMillis,
                     getConfiguration());
             if (manager == null) {
                 return null;
@@ -115,7 +133,9 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
                     isIgnoreExceptions(),
                     !bufferedIo || isImmediateFlush(),
                     advertise ? getConfiguration().getAdvertiser() : null,
-                    getPropertyArray());
+                    getPropertyArray(),
+                    syncLevel,
+                    syncMarker != null ? MarkerManager.getMarker(syncMarker) : null);
         }
 
         public String getAdvertiseUri() {
@@ -154,6 +174,22 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
             return fileGroup;
         }
 
+        public int getConcurrentBufferSize() {
+            return concurrentBufferSize;
+        }
+
+        public long getSyncIntervalMillis() {
+            return syncIntervalMillis;
+        }
+
+        public Level getSyncLevel() {
+            return syncLevel;
+        }
+
+        public String getSyncMarker() {
+            return syncMarker;
+        }
+
         public B setAdvertise(final boolean advertise) {
             this.advertise = advertise;
             return asBuilder();
@@ -198,6 +234,55 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
             this.fileGroup = fileGroup;
             return asBuilder();
         }
+
+        /**
+         * Sets the size in bytes of the lock-free buffer that threads copy their encoded events into, instead of
+         * contending for the manager lock.
+         *
+         * @param concurrentBufferSize the size of the lock-free buffer, or {@code 0} to disable it
+         * @return this builder
+         * @since 3.0.0
+         */
+        public B setConcurrentBufferSize(final int concurrentBufferSize) {
+            this.concurrentBufferSize = concurrentBufferSize;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the interval between two group commits, which force the content of the file to the storage device.
+         *
+         * @param syncIntervalMillis the interval in milliseconds, or {@code 0} to disable group commits
+         * @return this builder
+         * @since 3.0.0
+         */
+        public B setSyncIntervalMillis(final long syncIntervalMillis) {
+            this.syncIntervalMillis = syncIntervalMillis;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the least specific level of the events that wait for the next group commit.
+         *
+         * @param syncLevel a level or {@code null}
+         * @return this builder
+         * @since 3.0.0
+         */
+        public B setSyncLevel(final Level syncLevel) {
+            this.syncLevel = syncLevel;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the name of the marker of the events that wait for the next group commit.
+         *
+         * @param syncMarker a marker name or {@code null}
+         * @return this builder
+         * @since 3.0.0
+         */
+        public B setSyncMarker(final String syncMarker) {
+            this.syncMarker = syncMarker;
+            return asBuilder();
+        }
     }
 
     @PluginFactory
@@ -211,6 +296,10 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
 
     private final Object advertisement;
 
+    private final Level syncLevel;
+
+    private final Marker syncMarker;
+
     private FileAppender(
             final String name,
             final Layout layout,
@@ -220,7 +309,9 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
             final boolean ignoreExceptions,
             final boolean immediateFlush,
             final Advertiser advertiser,
-            final Property[] properties) {
+            final Property[] properties,
+            final Level syncLevel,
+            final Marker syncMarker) {
 
         super(name, layout, filter, ignoreExceptions, immediateFlush, properties, manager);
         if (advertiser != null) {
@@ -234,6 +325,23 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
         }
         this.fileName = filename;
         this.advertiser = advertiser;
+        this.syncLevel = syncLevel;
+        this.syncMarker = syncMarker;
+    }
+
+    /**
+     * Appends the event and, if group commits are enabled and the event requires it, waits until the event is
+     * forced to the storage device.
+     *
+     * @param event The LogEvent.
+     */
+    @Override
+    public void append(final LogEvent event) {
+        super.append(event);
+        final FileManager manager = getManager();
+        if (manager.isSyncEnabled() && GroupCommitter.isCommitRequired(event, syncLevel, syncMarker)) {
+            manager.sync();
+        }
     }
 
     /**
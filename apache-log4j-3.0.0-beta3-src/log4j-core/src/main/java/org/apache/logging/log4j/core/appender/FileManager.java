@@ -80,7 +80,49 @@ public class FileManager extends OutputStreamManager {
             final String fileGroup,
             final boolean writeHeader,
             final ByteBuffer buffer) {
-        super(loggerContext, os, fileName, createOnDemand, layout, writeHeader, buffer);
+        this(
+                loggerContext,
+                fileName,
+                os,
+                append,
+                locking,
+                createOnDemand,
+                advertiseURI,
+                layout,
+                filePermissions,
+                fileOwner,
+                fileGroup,
+                writeHeader,
+                buffer,
+                0,
+                0);
+    }
+
+    /**
+     * @param concurrentBufferSize the size of the lock-free buffer, or {@code 0} to disable it
+     * @param syncIntervalMillis the interval between two group commits, or {@code 0} to disable them
+     * @since 3.0.0
+     */
+    @SuppressFBWarnings(
+            value = "OVERLY_PERMISSIVE_FILE_PERMISSION",
+            justification = "File permissions are specified in the configuration file.")
+    protected FileManager(
+            final LoggerContext loggerContext,
+            final String fileName,
+            final OutputStream os,
+            final boolean append,
+            final boolean locking,
+            final boolean createOnDemand,
+            final String advertiseURI,
+            final Layout layout,
+            final String filePermissions,
+            final String fileOwner,
+            final String fileGroup,
+            final boolean writeHeader,
+            final ByteBuffer buffer,
+            final int concurrentBufferSize,
+            final long syncIntervalMillis) {
+        super(loggerContext, os, fileName, createOnDemand, layout, writeHeader, buffer, concurrentBufferSize);
         this.isAppend = append;
         this.createOnDemand = createOnDemand;
         this.isLocking = locking;
@@ -113,6 +155,53 @@ public class FileManager extends OutputStreamManager {
 
         // Supported and defined
         this.attributeViewEnabled = this.filePermissions != null || this.fileOwner != null || this.fileGroup != null;
+        enableGroupCommits(syncIntervalMillis);
+    }
+
+    /**
+     * Returns the FileManager.
+     * @param fileName The name of the file to manage.
+     * @param append true if the file should be appended to, false if it should be overwritten.
+     * @param locking true if the file should be locked while writing, false otherwise.
+     * @param bufferedIo true if the contents should be buffered as they are written.
+     * @param createOnDemand true if you want to lazy-create the file (a.k.a. on-demand.)
+     * @param advertiseUri the URI to use when advertising the file
+     * @param layout The layout
+     * @param bufferSize buffer size for buffered IO
+     * @param filePermissions File permissions
+     * @param fileOwner File owner
+     * @param fileGroup File group
+     * @param configuration The configuration.
+     * @return A FileManager for the File.
+     */
+    public static FileManager getFileManager(
+            final String fileName,
+            final boolean append,
+            final boolean locking,
+            final boolean bufferedIo,
+            final boolean createOnDemand,
+            final String advertiseUri,
+            final Layout layout,
+            final int bufferSize,
+            final String filePermissions,
+            final String fileOwner,
+            final String fileGroup,
+            final Configuration configuration) {
+        return getFileManager(
+                fileName,
+                append,
+                locking,
+                bufferedIo,
+                createOnDemand,
+                advertiseUri,
+                layout,
+                bufferSize,
+                filePermissions,
+                fileOwner,
+                fileGroup,
+                0,
+                0,
+                configuration);
     }
 
     /**
@@ -128,8 +217,11 @@ public class FileManager extends OutputStreamManager {
      * @param filePermissions File permissions
      * @param fileOwner File owner
      * @param fileGroup File group
+     * @param concurrentBufferSize size of the lock-free buffer, or {@code 0} to disable it
+     * @param syncIntervalMillis interval between two group commits, or {@code 0} to disable them
      * @param configuration The configuration.
      * @return A FileManager for the File.
+     * @since 3.0.0
      */
     public static FileManager getFileManager(
             final String fileName,
@@ -143,6 +235,8 @@ public class FileManager extends OutputStreamManager {
             final String filePermissions,
             final String fileOwner,
             final String fileGroup,
+            final int concurrentBufferSize,
+            final long syncIntervalMillis,
             final Configuration configuration) {
 
         if (locking && bufferedIo) {
@@ -163,6 +257,8 @@ public class FileManager extends OutputStreamManager {
                                 filePermissions,
                                 fileOwner,
                                 fileGroup,
+                                concurrentBufferSize,
+                                syncIntervalMillis,
                                 configuration),
                         FACTORY));
     }
@@ -177,16 +273,32 @@ public class FileManager extends OutputStreamManager {
         final File file = new File(filename);
         createParentDir(file);
         final FileOutputStream fos = new FileOutputStream(file, isAppend);
-        if (file.exists() && file.length() == 0) {
+        final boolean newFile = file.exists() && file.length() == 0;
+        if (newFile) {
             try {
                 final FileTime now = FileTime.fromMillis(System.currentTimeMillis());
                 Files.setAttribute(file.toPath(), "creationTime", now);
             } catch (final Exception ex) {
                 LOGGER.warn("Unable to set current file time for {}", filename);
             }
-            writeHeader(fos);
+        }
+        final OutputStream os = wrapOutputStream(fos);
+        if (newFile) {
+            writeHeader(os);
         }
         defineAttributeView(Paths.get(filename));
+        return os;
+    }
+
+    /**
+     * Wraps the stream writing to the file, before the header is written.
+     *
+     * @param fos the stream writing to the file.
+     * @return the stream to write to.
+     * @throws IOException if the stream cannot be wrapped.
+     * @since 3.0.0
+     */
+    protected OutputStream wrapOutputStream(final FileOutputStream fos) throws IOException {
         return fos;
     }
 
@@ -207,7 +319,9 @@ public class FileManager extends OutputStreamManager {
 
     @Override
     protected void write(final byte[] bytes, final int offset, final int length, final boolean immediateFlush) {
-        if (isLocking) {
+        // With a lock-free buffer the bytes are only staged here:
+        // the file is locked when they are committed by writeToDestination().
+        if (isLocking && !isConcurrentBufferEnabled()) {
             writeLock.lock();
             try {
                 final FileChannel channel = ((FileOutputStream) getOutputStream()).getChannel();
@@ -346,6 +460,28 @@ public class FileManager extends OutputStreamManager {
         return attributeViewEnabled;
     }
 
+    /**
+     * Forces the content of the file to the storage device.
+     * <p>
+     * Streams that wrap the file stream, e.g. to compress it, are rejected: they might hold data that was not
+     * handed to the operating system.
+     * </p>
+     *
+     * @throws IOException if the content cannot be forced to the storage device.
+     * @since 3.0.0
+     */
+    @Override
+    protected void forceToStorage() throws IOException {
+        if (hasOutputStream()) {
+            final OutputStream os = getOutputStream();
+            if (!(os instanceof FileOutputStream)) {
+                throw new IOException(
+                        "Unable to force the content of a " + os.getClass().getName() + " to the storage device");
+            }
+            ((FileOutputStream) os).getChannel().force(false);
+        }
+    }
+
     /**
      * FileManager's content format is specified by: <code>Key: "fileURI" Value: provided "advertiseURI" param</code>.
      *
@@ -372,6 +508,8 @@ public class FileManager extends OutputStreamManager {
         private final String filePermissions;
         private final String fileOwner;
         private final String fileGroup;
+        private final int concurrentBufferSize;
+        private final long syncIntervalMillis;
 
         /**
          * Constructor.
@@ -385,6 +523,8 @@ public class FileManager extends OutputStreamManager {
          * @param filePermissions File permissions
          * @param fileOwner File owner
          * @param fileGroup File group
+         * @param concurrentBufferSize Size of the lock-free buffer.
+         * @param syncIntervalMillis Interval between two group commits.
          * @param configuration the configuration
          */
         public FactoryData(
@@ -398,6 +538,8 @@ public class FileManager extends OutputStreamManager {
                 final String filePermissions,
                 final String fileOwner,
                 final String fileGroup,
+                final int concurrentBufferSize,
+                final long syncIntervalMillis,
                 final Configuration configuration) {
             super(configuration);
             this.append = append;
@@ -410,6 +552,8 @@ public class FileManager extends OutputStreamManager {
             this.filePermissions = filePermissions;
             this.fileOwner = fileOwner;
             this.fileGroup = fileGroup;
+            this.concurrentBufferSize = concurrentBufferSize;
+            this.syncIntervalMillis = syncIntervalMillis;
         }
     }
 
@@ -449,7 +593,9 @@ public class FileManager extends OutputStreamManager {
                         data.fileOwner,
                         data.fileGroup,
                         writeHeader,
-                        byteBuffer);
+                        byteBuffer,
+                        data.concurrentBufferSize,
+                        data.syncIntervalMillis);
                 if (fos != null && fm.attributeViewEnabled) {
                     fm.defineAttributeView(file.toPath());
                 }
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.util.ExecutorServices;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Forces the content of a file to the storage device once per commit interval, on behalf of all the threads that
+ * requested durability since the previous commit.
+ * <p>
+ * Threads call {@link #awaitCommit()} after their data has been handed to the operating system and are parked until
+ * a commit that started after their request has completed. If that commit fails, they all receive the failure.
+ * </p>
+ */
+final class GroupCommitter {
+
+    /**
+     * Forces the file content to the storage device.
+     */
+    @FunctionalInterface
+    interface Commit {
+
+        void commit() throws IOException;
+    }
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private final String name;
+    private final Commit commit;
+    private final ScheduledExecutorService executor;
+    private final Lock lock = new ReentrantLock();
+    private final Condition commitCompleted = lock.newCondition();
+    // The following fields are guarded by `lock`
+    private Round nextRound = new Round();
+    private boolean stopped;
+
+    GroupCommitter(final String name, final long intervalMillis, final Commit commit) {
+        this.name = name;
+        this.commit = commit;
+        final ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(
+                1, Log4jThreadFactory.createDaemonThreadFactory("GroupCommitter-" + name));
+        scheduledExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor = scheduledExecutor;
+        executor.scheduleWithFixedDelay(this::commitRequested, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns {@code true} if the given event must be durable before the logging call returns.
+     *
+     * @param event a log event
+     * @param level the least specific level that requires durability or {@code null}
+     * @param marker the marker that requires durability or {@code null}
+     * @return {@code true} if the event requires durability
+     */
+    static boolean isCommitRequired(final LogEvent event, final Level level, final Marker marker) {
+        if (level == null && marker == null) {
+            return true;
+        }
+        if (level != null && event.getLevel().isMoreSpecificThan(level)) {
+            return true;
+        }
+        return marker != null && event.getMarker() != null && event.getMarker().isInstanceOf(marker);
+    }
+
+    /**
+     * Waits until all the data handed to the operating system before this call has been forced to the storage
+     * device.
+     *
+     * @throws AppenderLoggingException if the data could not be forced to the storage device
+     */
+    void awaitCommit() {
+        lock.lock();
+        try {
+            if (!stopped) {
+                final Round round = nextRound;
+                round.requested = true;
+                while (!round.completed && !stopped) {
+                    commitCompleted.awaitUninterruptibly();
+                }
+                if (round.completed) {
+                    if (round.failure != null) {
+                        throw newCommitException(round.failure);
+                    }
+                    return;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        // The committer has stopped: commit on the caller thread
+        final Exception failure = commitNow();
+        if (failure != null) {
+            throw newCommitException(failure);
+        }
+    }
+
+    private void commitRequested() {
+        final Round round;
+        lock.lock();
+        try {
+            round = nextRound;
+            if (!round.requested) {
+                return;
+            }
+            // Later requests wait for the next commit
+            nextRound = new Round();
+        } finally {
+            lock.unlock();
+        }
+        final Exception failure = commitNow();
+        lock.lock();
+        try {
+            round.completed = true;
+            round.failure = failure;
+            commitCompleted.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces the content to the storage device.
+     *
+     * @return the failure or {@code null} if the commit succeeded
+     */
+    private Exception commitNow() {
+        try {
+            commit.commit();
+            return null;
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.error("Unable to force the content of {} to the storage device", name, e);
+            return e;
+        }
+    }
+
+    private AppenderLoggingException newCommitException(final Exception failure) {
+        return new AppenderLoggingException(
+                "Unable to force the content of " + name + " to the storage device", failure);
+    }
+
+    /**
+     * Stops the background committer, after a final commit for pending requests.
+     *
+     * @param timeout the maximum time to wait for the background committer
+     * @param timeUnit the unit of {@code timeout}
+     * @return {@code true} if the background committer stopped in time
+     */
+    boolean stop(final long timeout, final TimeUnit timeUnit) {
+        final boolean result = ExecutorServices.shutdown(executor, timeout, timeUnit, toString());
+        commitRequested();
+        lock.lock();
+        try {
+            stopped = true;
+            commitCompleted.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupCommitter[" + name + "]";
+    }
+
+    /**
+     * The requests served by the same commit.
+     */
+    private static final class Round {
+
+        private boolean requested;
+        private boolean completed;
+        private Exception failure;
+    }
+}
@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.core.appender;
 
 import java.net.URL;
+import java.net.http.HttpClient;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.core.Appender;
@@ -39,6 +40,12 @@ import org.apache.logging.log4j.plugins.validation.constraints.Required;
 @Plugin("Http")
 public final class HttpAppender extends AbstractAppender {
 
+    private static final int DEFAULT_BATCH_BYTES = 1024 * 1024;
+
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+    private static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 4;
+
     /**
      * Builds HttpAppender instances.
      * @param <B> The type to build
@@ -68,19 +75,55 @@ public final class HttpAppender extends AbstractAppender {
         @PluginBuilderAttribute
         private boolean verifyHostname = true;
 
+        @PluginBuilderAttribute
+        private int batchSize = 0;
+
+        @PluginBuilderAttribute
+        private int batchBytes = DEFAULT_BATCH_BYTES;
+
+        @PluginBuilderAttribute
+        private long flushIntervalMillis = DEFAULT_FLUSH_INTERVAL_MILLIS;
+
+        @PluginBuilderAttribute
+        private int maxInFlightRequests = DEFAULT_MAX_IN_FLIGHT_REQUESTS;
+
+        @PluginBuilderAttribute
+        private HttpClientManager.BatchFormat batchFormat = HttpClientManager.BatchFormat.NEWLINE;
+
+        @PluginBuilderAttribute
+        private HttpClient.Version httpVersion = HttpClient.Version.HTTP_1_1;
+
         @Override
         public HttpAppender build() {
-            final HttpManager httpManager = new HttpURLConnectionManager(
-                    getConfiguration(),
-                    getConfiguration().getLoggerContext(),
-                    getName(),
-                    url,
-                    method,
-                    connectTimeoutMillis,
-                    readTimeoutMillis,
-                    headers,
-                    sslConfiguration,
-                    verifyHostname);
+            final HttpManager httpManager = batchSize > 0
+                    ? new HttpClientManager(
+                            getConfiguration(),
+                            getConfiguration().getLoggerContext(),
+                            getName(),
+                            url,
+                            method,
+                            connectTimeoutMillis,
+                            readTimeoutMillis,
+                            headers,
+                            sslConfiguration,
+                            verifyHostname,
+                            httpVersion,
+                            batchSize,
+                            batchBytes,
+                            flushIntervalMillis,
+                            maxInFlightRequests,
+                            batchFormat)
+                    : new HttpURLConnectionManager(
+                            getConfiguration(),
+                            getConfiguration().getLoggerContext(),
+                            getName(),
+                            url,
+                            method,
+                            connectTimeoutMillis,
+                            readTimeoutMillis,
+                            headers,
+                            sslConfiguration,
+                            verifyHostname);
             return new HttpAppender(
                     getName(), getLayout(), getFilter(), isIgnoreExceptions(), httpManager, getPropertyArray());
         }
@@ -113,6 +156,30 @@ public final class HttpAppender extends AbstractAppender {
             return verifyHostname;
         }
 
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public int getBatchBytes() {
+            return batchBytes;
+        }
+
+        public long getFlushIntervalMillis() {
+            return flushIntervalMillis;
+        }
+
+        public int getMaxInFlightRequests() {
+            return maxInFlightRequests;
+        }
+
+        public HttpClientManager.BatchFormat getBatchFormat() {
+            return batchFormat;
+        }
+
+        public HttpClient.Version getHttpVersion() {
+            return httpVersion;
+        }
+
         public B setUrl(final URL url) {
             this.url = url;
             return asBuilder();
@@ -147,6 +214,43 @@ public final class HttpAppender extends AbstractAppender {
             this.verifyHostname = verifyHostname;
             return asBuilder();
         }
+
+        /**
+         * Sets the maximum number of events sent in a single request.
+         * <p>
+         * If positive, events are sent in batches using {@link HttpClientManager}, otherwise each event is sent in
+         * its own request.
+         * </p>
+         */
+        public B setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+            return asBuilder();
+        }
+
+        public B setBatchBytes(final int batchBytes) {
+            this.batchBytes = batchBytes;
+            return asBuilder();
+        }
+
+        public B setFlushIntervalMillis(final long flushIntervalMillis) {
+            this.flushIntervalMillis = flushIntervalMillis;
+            return asBuilder();
+        }
+
+        public B setMaxInFlightRequests(final int maxInFlightRequests) {
+            this.maxInFlightRequests = maxInFlightRequests;
+            return asBuilder();
+        }
+
+        public B setBatchFormat(final HttpClientManager.BatchFormat batchFormat) {
+            this.batchFormat = batchFormat;
+            return asBuilder();
+        }
+
+        public B setHttpVersion(final HttpClient.Version httpVersion) {
+            this.httpVersion = httpVersion;
+            return asBuilder();
+        }
     }
 
     /**
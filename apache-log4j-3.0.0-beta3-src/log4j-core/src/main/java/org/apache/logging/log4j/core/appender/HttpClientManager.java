@@ -0,0 +1,471 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.async.AsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.EventRoute;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.ConfigurationException;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.net.ssl.SslConfiguration;
+import org.apache.logging.log4j.core.util.ExecutorServices;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+import org.apache.logging.log4j.plugins.di.Key;
+
+/**
+ * Sends log events in batches using {@link HttpClient}, which keeps connections open between requests.
+ * <p>
+ * Events are encoded on the calling thread and accumulated into a batch. A batch is sent once it contains
+ * {@code batchSize} events or {@code batchBytes} bytes, or when {@code flushIntervalMillis} elapses. At most
+ * {@code maxInFlightRequests} requests are outstanding at any time; when this limit is reached the configured
+ * {@link AsyncQueueFullPolicy} decides whether to wait for a free slot, send the batch on the current thread or
+ * discard it.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+public class HttpClientManager extends HttpManager {
+
+    /**
+     * The way encoded events are combined into a request body.
+     */
+    public enum BatchFormat {
+        /**
+         * Events are separated by a line feed.
+         */
+        NEWLINE,
+        /**
+         * Events are the elements of a JSON array. Trailing line separators of the events are removed.
+         */
+        JSON_ARRAY
+    }
+
+    private static final Charset CHARSET = StandardCharsets.US_ASCII;
+
+    private static final int MIN_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * The time to wait for the outstanding requests on stop, if no timeout is given.
+     */
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 30_000;
+
+    private final HttpClient client;
+    private final URI uri;
+    private final String method;
+    private final Duration readTimeout;
+    private final Property[] headers;
+    private final int batchSize;
+    private final int batchBytes;
+    private final long flushIntervalMillis;
+    private final int maxInFlightRequests;
+    private final BatchFormat batchFormat;
+    private final Semaphore inFlightRequests;
+    private final AsyncQueueFullPolicy asyncQueueFullPolicy;
+    private final AtomicLong discardCount = new AtomicLong();
+    private ScheduledExecutorService flusher;
+    private volatile long flusherThreadId = -1;
+    private volatile String contentType;
+
+    // Guarded by writeLock
+    private Batch batch;
+
+    public HttpClientManager(
+            final Configuration configuration,
+            final LoggerContext loggerContext,
+            final String name,
+            final URL url,
+            final String method,
+            final int connectTimeoutMillis,
+            final int readTimeoutMillis,
+            final Property[] headers,
+            final SslConfiguration sslConfiguration,
+            final boolean verifyHostname,
+            final HttpClient.Version httpVersion,
+            final int batchSize,
+            final int batchBytes,
+            final long flushIntervalMillis,
+            final int maxInFlightRequests,
+            final BatchFormat batchFormat) {
+        super(configuration, loggerContext, name);
+        if (!(url.getProtocol().equalsIgnoreCase("http") || url.getProtocol().equalsIgnoreCase("https"))) {
+            throw new ConfigurationException("URL must have scheme http or https");
+        }
+        final boolean isHttps = url.getProtocol().equalsIgnoreCase("https");
+        if (sslConfiguration != null && !isHttps) {
+            throw new ConfigurationException("SSL configuration can only be specified with URL scheme https");
+        }
+        if (isHttps && !verifyHostname) {
+            throw new ConfigurationException("Hostname verification can not be disabled when batching is enabled");
+        }
+        if (batchSize <= 0) {
+            throw new ConfigurationException("Batch size must be positive, found " + batchSize);
+        }
+        if (maxInFlightRequests <= 0) {
+            throw new ConfigurationException(
+                    "Maximum number of in-flight requests must be positive, found " + maxInFlightRequests);
+        }
+        try {
+            this.uri = url.toURI();
+        } catch (final URISyntaxException e) {
+            throw new ConfigurationException("Invalid URL " + url, e);
+        }
+        this.method = Objects.requireNonNull(method, "method");
+        this.readTimeout = readTimeoutMillis > 0 ? Duration.ofMillis(readTimeoutMillis) : null;
+        this.headers = headers != null ? headers : new Property[0];
+        this.batchSize = batchSize;
+        this.batchBytes = batchBytes > 0 ? batchBytes : Integer.MAX_VALUE;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxInFlightRequests = maxInFlightRequests;
+        this.batchFormat = Objects.requireNonNull(batchFormat, "batchFormat");
+        this.inFlightRequests = new Semaphore(maxInFlightRequests);
+        this.asyncQueueFullPolicy = configuration.getComponent(Key.forClass(AsyncQueueFullPolicy.class));
+        final HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(httpVersion != null ? httpVersion : HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER);
+        if (connectTimeoutMillis > 0) {
+            builder.connectTimeout(Duration.ofMillis(connectTimeoutMillis));
+        }
+        if (sslConfiguration != null) {
+            builder.sslContext(sslConfiguration.getSslContext());
+        }
+        this.client = builder.build();
+        this.batch = newBatch();
+    }
+
+    @Override
+    public void startup() {
+        if (flushIntervalMillis > 0 && flusher == null) {
+            flusher = Executors.newSingleThreadScheduledExecutor(
+                    Log4jThreadFactory.createDaemonThreadFactory("HttpClientManager"));
+            flusher.scheduleWithFixedDelay(
+                    this::flushFromBackgroundThread, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void send(final Layout layout, final LogEvent event) throws IOException {
+        if (contentType == null) {
+            contentType = layout.getContentType();
+        }
+        Batch fullBatch = null;
+        writeLock.lock();
+        try {
+            batch.append(layout, event);
+            if (batch.count >= batchSize || batch.size() >= batchBytes) {
+                fullBatch = batch;
+                batch = newBatch();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+    }
+
+    /**
+     * Sends the events accumulated so far, without waiting for the response.
+     *
+     * @throws IOException if the batch had to be sent synchronously and the request failed
+     */
+    public void flush() throws IOException {
+        final Batch pendingBatch;
+        writeLock.lock();
+        try {
+            if (batch.count == 0) {
+                return;
+            }
+            pendingBatch = batch;
+            batch = newBatch();
+        } finally {
+            writeLock.unlock();
+        }
+        dispatch(pendingBatch);
+    }
+
+    /**
+     * Returns the number of events discarded, because all request slots were taken and the
+     * {@link AsyncQueueFullPolicy} chose to discard them.
+     *
+     * @return the number of discarded events
+     */
+    public long getDiscardCount() {
+        return discardCount.get();
+    }
+
+    public BatchFormat getBatchFormat() {
+        return batchFormat;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    private void flushFromBackgroundThread() {
+        flusherThreadId = Thread.currentThread().getId();
+        try {
+            flush();
+        } catch (final Exception e) {
+            logError("Unable to send batch to " + uri, e);
+        }
+    }
+
+    private Batch newBatch() {
+        return new Batch(Math.max(MIN_BUFFER_SIZE, Math.min(batchBytes, 256 * 1024)));
+    }
+
+    private void dispatch(final Batch pendingBatch) throws IOException {
+        final HttpRequest request = createRequest(pendingBatch);
+        if (inFlightRequests.tryAcquire()) {
+            sendAsync(request, pendingBatch.count);
+            return;
+        }
+        final EventRoute route = asyncQueueFullPolicy.getRoute(flusherThreadId, pendingBatch.level);
+        switch (route) {
+            case DISCARD:
+                discardCount.addAndGet(pendingBatch.count);
+                break;
+            case ENQUEUE:
+                try {
+                    inFlightRequests.acquire();
+                } catch (final InterruptedException e) {
+                    // Restore the interrupted flag and send without waiting for a free slot
+                    Thread.currentThread().interrupt();
+                    sendSync(request);
+                    break;
+                }
+                sendAsync(request, pendingBatch.count);
+                break;
+            case SYNCHRONOUS:
+                sendSync(request);
+                break;
+            default:
+        }
+    }
+
+    private HttpRequest createRequest(final Batch pendingBatch) {
+        final byte[] body = pendingBatch.finish();
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(body, 0, pendingBatch.size()));
+        if (readTimeout != null) {
+            builder.timeout(readTimeout);
+        }
+        final String type = contentType;
+        if (type != null) {
+            builder.header("Content-Type", type);
+        }
+        for (final Property header : headers) {
+            builder.header(
+                    header.getName(),
+                    header.isValueNeedsLookup()
+                            ? getConfiguration().getStrSubstitutor().replace(header.getValue())
+                            : header.getValue());
+        }
+        return builder.build();
+    }
+
+    private void sendAsync(final HttpRequest request, final int count) {
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, error) -> {
+            inFlightRequests.release();
+            if (error != null) {
+                logError("Unable to send batch of " + count + " events to " + uri, error);
+            } else if (!isSuccessful(response)) {
+                logError("Unable to send batch of " + count + " events to " + uri + ": " + describe(response), null);
+            }
+        });
+    }
+
+    private void sendSync(final HttpRequest request) throws IOException {
+        final HttpResponse<byte[]> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while sending batch to " + uri, e);
+        }
+        if (!isSuccessful(response)) {
+            throw new IOException(describe(response));
+        }
+    }
+
+    private static boolean isSuccessful(final HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+
+    private static String describe(final HttpResponse<byte[]> response) {
+        final byte[] body = response.body();
+        return body != null && body.length > 0
+                ? response.statusCode() + " - " + new String(body, CHARSET)
+                : String.valueOf(response.statusCode());
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        // HTTP managers are not shared through the manager registry, hence `releaseSub()` would never be called
+        boolean stopped = super.stop(timeout, timeUnit);
+        try {
+            flush();
+        } catch (final IOException e) {
+            logError("Unable to send batch to " + uri, e);
+            stopped = false;
+        }
+        if (flusher != null) {
+            stopped &= ExecutorServices.shutdown(flusher, timeout, timeUnit, toString());
+            flusher = null;
+        }
+        // Wait for all outstanding requests, including the final batch, to complete.
+        // A request that hangs, e.g. without `readTimeoutMillis`, must not hang the shutdown.
+        final long timeoutMillis = timeout > 0 ? timeUnit.toMillis(timeout) : DEFAULT_SHUTDOWN_TIMEOUT_MILLIS;
+        try {
+            if (inFlightRequests.tryAcquire(maxInFlightRequests, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                inFlightRequests.release(maxInFlightRequests);
+            } else {
+                LOGGER.warn(
+                        "HttpClientManager ({}) stopped before {} requests completed.",
+                        getName(),
+                        maxInFlightRequests - inFlightRequests.availablePermits());
+                stopped = false;
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped = false;
+        }
+        if (discardCount.get() > 0) {
+            LOGGER.trace("HttpClientManager ({}) discarded {} events.", getName(), discardCount.get());
+        }
+        return stopped;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpClientManager{name=" + getName() + ", uri=" + uri + ", batchFormat=" + batchFormat + '}';
+    }
+
+    /**
+     * A growable buffer collecting the encoded events of one request body.
+     */
+    private final class Batch implements ByteBufferDestination {
+
+        private ByteBuffer buffer;
+        private int count;
+        private Level level;
+
+        private Batch(final int initialCapacity) {
+            this.buffer = ByteBuffer.allocate(initialCapacity);
+        }
+
+        private void append(final Layout layout, final LogEvent event) {
+            if (batchFormat == BatchFormat.JSON_ARRAY) {
+                ensureRemaining(1);
+                buffer.put(count == 0 ? (byte) '[' : (byte) ',');
+                final int start = buffer.position();
+                layout.encode(event, this);
+                int end = buffer.position();
+                while (end > start && isLineSeparator(buffer.get(end - 1))) {
+                    end--;
+                }
+                buffer.position(end);
+            } else {
+                final int start = buffer.position();
+                layout.encode(event, this);
+                if (buffer.position() == start || buffer.get(buffer.position() - 1) != '\n') {
+                    ensureRemaining(1);
+                    buffer.put((byte) '\n');
+                }
+            }
+            count++;
+            if (level == null || event.getLevel().isMoreSpecificThan(level)) {
+                level = event.getLevel();
+            }
+        }
+
+        private byte[] finish() {
+            if (batchFormat == BatchFormat.JSON_ARRAY) {
+                ensureRemaining(1);
+                buffer.put((byte) ']');
+            }
+            return buffer.array();
+        }
+
+        private int size() {
+            return buffer.position();
+        }
+
+        private boolean isLineSeparator(final byte b) {
+            return b == '\n' || b == '\r';
+        }
+
+        private void ensureRemaining(final int length) {
+            if (buffer.remaining() < length) {
+                final ByteBuffer larger =
+                        ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length));
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            ensureRemaining(buffer.capacity());
+            return buffer;
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            ensureRemaining(data.remaining());
+            buffer.put(data);
+        }
+
+        @Override
+        public void writeBytes(final byte[] data, final int offset, final int length) {
+            ensureRemaining(length);
+            buffer.put(data, offset, length);
+        }
+    }
+}
@@ -65,6 +65,9 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
         @PluginBuilderAttribute("advertiseURI")
         private String advertiseURI;
 
+        @PluginBuilderAttribute("segmented")
+        private boolean segmented;
+
         @Override
         public MemoryMappedFileAppender build() {
             final String name = getName();
@@ -83,7 +86,14 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
             final Configuration configuration = getConfiguration();
             final LoggerContext loggerContext = configuration.getLoggerContext();
             final MemoryMappedFileManager manager = MemoryMappedFileManager.getFileManager(
-                    fileName, append, isImmediateFlush(), actualRegionLength, advertiseURI, layout, loggerContext);
+                    fileName,
+                    append,
+                    isImmediateFlush(),
+                    actualRegionLength,
+                    advertiseURI,
+                    layout,
+                    segmented,
+                    loggerContext);
             if (manager == null) {
                 return null;
             }
@@ -124,6 +134,19 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
             this.advertiseURI = advertiseURI;
             return asBuilder();
         }
+
+        /**
+         * Sets whether regions are mapped ahead of time and unmapped by a background thread, instead of being
+         * remapped by the logging thread that fills the current region.
+         *
+         * @param segmented {@code true} to map regions in the background
+         * @return this builder
+         * @since 3.0.0
+         */
+        public B setSegmented(final boolean segmented) {
+            this.segmented = segmented;
+            return asBuilder();
+        }
     }
 
     private static final int BIT_POSITION_1GB = 30; // 2^30 ~= 1GB
@@ -32,10 +32,17 @@ import java.security.PrivilegedExceptionAction;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.util.Closer;
+import org.apache.logging.log4j.core.util.ExecutorServices;
 import org.apache.logging.log4j.core.util.FileUtils;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
 import org.apache.logging.log4j.plugins.util.ReflectionUtil;
 
 // Lines too long...
@@ -63,6 +70,12 @@ public class MemoryMappedFileManager extends OutputStreamManager {
     private static final int MAX_REMAP_COUNT = 10;
     private static final MemoryMappedFileManagerFactory FACTORY = new MemoryMappedFileManagerFactory();
     private static final double NANOS_PER_MILLISEC = 1000.0 * 1000.0;
+    private static final int MAX_SEGMENT_OVERLAP = 4096;
+
+    /**
+     * The time to wait for the pending segment tasks on close, if no timeout is given.
+     */
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 1000;
 
     private final boolean immediateFlush;
     private final int regionLength;
@@ -70,7 +83,45 @@ public class MemoryMappedFileManager extends OutputStreamManager {
     private final RandomAccessFile randomAccessFile;
     private MappedByteBuffer mappedBuffer;
     private long mappingOffset;
+    // The following fields are only used in segmented mode
+    private final ExecutorService segmentExecutor;
+    private final int segmentOverlap;
+    private Future<MappedByteBuffer> nextSegment;
+    private long nextSegmentOffset;
+    private MappedByteBuffer retiredSegment;
+    private long shutdownTimeoutMillis = DEFAULT_SHUTDOWN_TIMEOUT_MILLIS;
+
+    protected MemoryMappedFileManager(
+            final RandomAccessFile file,
+            final String fileName,
+            final OutputStream os,
+            final boolean immediateFlush,
+            final long position,
+            final int regionLength,
+            final String advertiseURI,
+            final Layout layout,
+            final boolean writeHeader,
+            final LoggerContext loggerContext)
+            throws IOException {
+        this(
+                file,
+                fileName,
+                os,
+                immediateFlush,
+                position,
+                regionLength,
+                advertiseURI,
+                layout,
+                writeHeader,
+                false,
+                loggerContext);
+    }
 
+    /**
+     * @param segmented if {@code true}, the next region is mapped by a background thread before the current one is
+     *                  full and full regions are unmapped by the same thread
+     * @since 3.0.0
+     */
     protected MemoryMappedFileManager(
             final RandomAccessFile file,
             final String fileName,
@@ -81,6 +132,7 @@ public class MemoryMappedFileManager extends OutputStreamManager {
             final String advertiseURI,
             final Layout layout,
             final boolean writeHeader,
+            final boolean segmented,
             final LoggerContext loggerContext)
             throws IOException {
 
@@ -92,6 +144,14 @@ public class MemoryMappedFileManager extends OutputStreamManager {
         this.mappedBuffer = mmap(randomAccessFile.getChannel(), getFileName(), position, regionLength);
         this.byteBuffer = mappedBuffer;
         this.mappingOffset = position;
+        this.segmentOverlap = Math.min(regionLength / 4, MAX_SEGMENT_OVERLAP);
+        if (segmented) {
+            this.segmentExecutor = Executors.newSingleThreadExecutor(
+                    Log4jThreadFactory.createDaemonThreadFactory("MemoryMappedFileManager"));
+            prefetchSegment();
+        } else {
+            this.segmentExecutor = null;
+        }
     }
 
     /**
@@ -113,11 +173,38 @@ public class MemoryMappedFileManager extends OutputStreamManager {
             final String advertiseURI,
             final Layout layout,
             final LoggerContext loggerContext) {
+        return getFileManager(
+                fileName, append, immediateFlush, regionLength, advertiseURI, layout, false, loggerContext);
+    }
+
+    /**
+     * Returns the MemoryMappedFileManager.
+     *
+     * @param fileName The name of the file to manage.
+     * @param append true if the file should be appended to, false if it should be overwritten.
+     * @param immediateFlush true if the contents should be flushed to disk on every write
+     * @param regionLength The mapped region length.
+     * @param advertiseURI the URI to use when advertising the file
+     * @param layout The layout.
+     * @param segmented true if regions should be mapped and unmapped by a background thread.
+     * @return A MemoryMappedFileManager for the File.
+     * @since 3.0.0
+     */
+    public static MemoryMappedFileManager getFileManager(
+            final String fileName,
+            final boolean append,
+            final boolean immediateFlush,
+            final int regionLength,
+            final String advertiseURI,
+            final Layout layout,
+            final boolean segmented,
+            final LoggerContext loggerContext) {
         return narrow(
                 MemoryMappedFileManager.class,
                 getManager(
                         fileName,
-                        new FactoryData(append, immediateFlush, regionLength, advertiseURI, layout, loggerContext),
+                        new FactoryData(
+                                append, immediateFlush, regionLength, advertiseURI, layout, segmented, loggerContext),
                         FACTORY));
     }
 
@@ -144,6 +231,10 @@ public class MemoryMappedFileManager extends OutputStreamManager {
     }
 
     private void remap() {
+        if (segmentExecutor != null) {
+            switchSegment();
+            return;
+        }
         final long offset = this.mappingOffset + mappedBuffer.position();
         final int length = mappedBuffer.remaining() + regionLength;
         try {
@@ -171,6 +262,95 @@ public class MemoryMappedFileManager extends OutputStreamManager {
         }
     }
 
+    /**
+     * Maps the region that follows the current one on the background thread.
+     * <p>
+     * The next region overlaps the end of the current one, so that the write position can move to the next region
+     * even if some bytes at the end of the current region are left unused.
+     * </p>
+     */
+    private void prefetchSegment() {
+        final long offset = mappingOffset + mappedBuffer.capacity() - segmentOverlap;
+        nextSegmentOffset = offset;
+        nextSegment = segmentExecutor.submit(() -> mapSegment(offset));
+    }
+
+    private MappedByteBuffer mapSegment(final long offset) throws IOException {
+        final long fileLength = offset + regionLength;
+        if (randomAccessFile.length() < fileLength) {
+            LOGGER.debug("{} {} extending {} to {}", getClass().getSimpleName(), getName(), getFileName(), fileLength);
+            randomAccessFile.setLength(fileLength);
+        }
+        return mmap(randomAccessFile.getChannel(), getFileName(), offset, regionLength);
+    }
+
+    /**
+     * Replaces the current region with the one mapped in the background.
+     */
+    private void switchSegment() {
+        final long position = mappingOffset + mappedBuffer.position();
+        long segmentOffset = nextSegmentOffset;
+        MappedByteBuffer segment = awaitNextSegment();
+        if (segment == null || position < segmentOffset) {
+            // Should not happen: fall back to a synchronous mapping
+            if (segment != null) {
+                retireSegment(segment);
+            }
+            segmentOffset = position;
+            try {
+                segment = mapSegment(position);
+            } catch (final IOException ex) {
+                logError("Unable to remap", ex);
+                return;
+            }
+        }
+        retireSegment(mappedBuffer);
+        segment.position((int) (position - segmentOffset));
+        mappedBuffer = segment;
+        byteBuffer = segment;
+        mappingOffset = segmentOffset;
+        prefetchSegment();
+    }
+
+    private MappedByteBuffer awaitNextSegment() {
+        final Future<MappedByteBuffer> future = nextSegment;
+        nextSegment = null;
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (final ExecutionException ex) {
+            logError("Unable to map the next region", ex.getCause());
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+        }
+        return null;
+    }
+
+    /**
+     * Unmaps the region retired by the previous switch on the background thread.
+     * <p>
+     * The last retired region stays mapped until the next switch, since encoders might still hold a reference to it.
+     * </p>
+     */
+    private void retireSegment(final MappedByteBuffer segment) {
+        final MappedByteBuffer previous = retiredSegment;
+        retiredSegment = segment;
+        if (previous != null) {
+            segmentExecutor.execute(() -> unmapQuietly(previous));
+        }
+    }
+
+    private void unmapQuietly(final MappedByteBuffer segment) {
+        try {
+            unsafeUnmap(segment);
+        } catch (final Exception ex) {
+            logError("Unable to unmap MappedBuffer", ex);
+        }
+    }
+
     @Override
     public void flush() {
         writeLock.lock();
@@ -181,10 +361,21 @@ public class MemoryMappedFileManager extends OutputStreamManager {
         }
     }
 
+    @Override
+    public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        if (timeout > 0) {
+            shutdownTimeoutMillis = timeUnit.toMillis(timeout);
+        }
+        return super.releaseSub(timeout, timeUnit);
+    }
+
     @Override
     public boolean closeOutputStream() {
         writeLock.lock();
         try {
+            if (segmentExecutor != null) {
+                closeSegments();
+            }
             final long position = mappedBuffer.position();
             final long length = mappingOffset + position;
             try {
@@ -211,6 +402,20 @@ public class MemoryMappedFileManager extends OutputStreamManager {
         }
     }
 
+    private void closeSegments() {
+        final MappedByteBuffer segment = awaitNextSegment();
+        // Waits for the pending unmap tasks
+        ExecutorServices.shutdown(
+                segmentExecutor, shutdownTimeoutMillis, TimeUnit.MILLISECONDS, getClass().getSimpleName());
+        if (segment != null) {
+            unmapQuietly(segment);
+        }
+        if (retiredSegment != null) {
+            unmapQuietly(retiredSegment);
+            retiredSegment = null;
+        }
+    }
+
     public static MappedByteBuffer mmap(
             final FileChannel fileChannel, final String fileName, final long start, final int size) throws IOException {
         for (int i = 1; ; i++) {
@@ -276,6 +481,16 @@ public class MemoryMappedFileManager extends OutputStreamManager {
         return regionLength;
     }
 
+    /**
+     * Returns {@code true} if regions are mapped and unmapped by a background thread.
+     *
+     * @return whether this manager maps its regions in the background
+     * @since 3.0.0
+     */
+    public boolean isSegmented() {
+        return segmentExecutor != null;
+    }
+
     /**
      * Returns {@code true} if the content of the buffer should be forced to the storage device on every write,
      * {@code false} otherwise.
@@ -331,6 +546,7 @@ public class MemoryMappedFileManager extends OutputStreamManager {
         private final int regionLength;
         private final String advertiseURI;
         private final Layout layout;
+        private final boolean segmented;
         private final LoggerContext loggerContext;
 
         /**
@@ -341,6 +557,7 @@ public class MemoryMappedFileManager extends OutputStreamManager {
          * @param regionLength length of the mapped region
          * @param advertiseURI the URI to use when advertising the file
          * @param layout The layout.
+         * @param segmented map and unmap regions in the background
          */
         public FactoryData(
                 final boolean append,
@@ -348,12 +565,14 @@ public class MemoryMappedFileManager extends OutputStreamManager {
                 final int regionLength,
                 final String advertiseURI,
                 final Layout layout,
+                final boolean segmented,
                 final LoggerContext loggerContext) {
             this.append = append;
             this.immediateFlush = immediateFlush;
             this.regionLength = regionLength;
             this.advertiseURI = advertiseURI;
             this.layout = layout;
+            this.segmented = segmented;
             this.loggerContext = loggerContext;
         }
     }
@@ -400,6 +619,7 @@ public class MemoryMappedFileManager extends OutputStreamManager {
                         data.advertiseURI,
                         data.layout,
                         writeHeader,
+                        data.segmented,
                         data.loggerContext);
             } catch (final Exception ex) {
                 LOGGER.error("MemoryMappedFileManager (" + name + ") " + ex, ex);
@@ -37,6 +37,11 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
     protected ByteBuffer byteBuffer;
     private volatile OutputStream outputStream;
     private boolean skipFooter;
+    private final ConcurrentByteRing ring;
+    private final ConcurrentByteRing.Consumer ringConsumer;
+    private volatile long flushedRingPosition;
+    private volatile boolean unflushedLockedWrites;
+    private GroupCommitter committer;
 
     protected OutputStreamManager(
             final OutputStream os, final String streamName, final Layout layout, final boolean writeHeader) {
@@ -63,6 +68,32 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
             final Layout layout,
             final boolean writeHeader,
             final ByteBuffer byteBuffer) {
+        this(loggerContext, os, streamName, createOnDemand, layout, writeHeader, byteBuffer, 0);
+    }
+
+    /**
+     * Creates a manager that optionally accepts encoded events without taking its lock.
+     * <p>
+     * If {@code concurrentBufferSize} is positive, encoded events are copied into a lock-free buffer of that size,
+     * which is drained into the byte buffer by the next thread that writes while holding the lock or flushes the
+     * manager. Threads only take the lock if the lock-free buffer is full or the event does not fit in it.
+     * </p><p>
+     * In this mode the byte buffer and the lock-free buffer are guarded by the monitor of this manager, which
+     * {@link ByteBufferDestination} encoders already hold while writing into the byte buffer.
+     * </p>
+     *
+     * @param concurrentBufferSize the size in bytes of the lock-free buffer, or {@code 0} to disable it
+     * @since 3.0.0
+     */
+    protected OutputStreamManager(
+            final LoggerContext loggerContext,
+            final OutputStream os,
+            final String streamName,
+            final boolean createOnDemand,
+            final Layout layout,
+            final boolean writeHeader,
+            final ByteBuffer byteBuffer,
+            final int concurrentBufferSize) {
         super(loggerContext, streamName);
         if (createOnDemand && os != null) {
             LOGGER.error(
@@ -72,6 +103,14 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         this.layout = layout;
         this.byteBuffer = Objects.requireNonNull(byteBuffer, "byteBuffer");
         this.outputStream = os;
+        if (concurrentBufferSize > 0) {
+            // Records must fit into the byte buffer, so that each write to the destination contains whole events
+            this.ring = new ConcurrentByteRing(concurrentBufferSize, this.byteBuffer.capacity());
+            this.ringConsumer = this::copyFromRing;
+        } else {
+            this.ring = null;
+            this.ringConsumer = null;
+        }
         if (writeHeader) {
             writeHeader(os);
         }
@@ -109,8 +148,9 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
      */
     @Override
     public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        final boolean committerStopped = committer == null || committer.stop(timeout, timeUnit);
         writeFooter();
-        return closeOutputStream();
+        return closeOutputStream() && committerStopped;
     }
 
     protected void writeHeader(final OutputStream os) {
@@ -162,6 +202,55 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         this.outputStream = os;
     }
 
+    /**
+     * Periodically forces the content of the stream to the storage device with {@link #forceToStorage()}.
+     * <p>
+     * Subclasses that support it call this method from their constructor.
+     * </p>
+     *
+     * @param syncIntervalMillis the interval between two group commits, or {@code 0} to disable them
+     * @since 3.0.0
+     */
+    protected final void enableGroupCommits(final long syncIntervalMillis) {
+        if (syncIntervalMillis > 0) {
+            committer = new GroupCommitter(getName(), syncIntervalMillis, this::forceToStorage);
+        }
+    }
+
+    /**
+     * Forces the content handed to the operating system to the storage device.
+     *
+     * @throws IOException if the content cannot be forced to the storage device.
+     * @since 3.0.0
+     */
+    protected void forceToStorage() throws IOException {
+        throw new IOException(getClass().getSimpleName() + " cannot force its content to the storage device");
+    }
+
+    /**
+     * Returns {@code true} if the content of the stream is periodically forced to the storage device.
+     *
+     * @return {@code true} if group commits are enabled
+     * @since 3.0.0
+     */
+    public boolean isSyncEnabled() {
+        return committer != null;
+    }
+
+    /**
+     * Flushes the buffered content and, if group commits are enabled, waits until it is forced to the storage
+     * device by the next group commit.
+     *
+     * @throws AppenderLoggingException if the content could not be forced to the storage device.
+     * @since 3.0.0
+     */
+    public void sync() {
+        flush();
+        if (committer != null) {
+            committer.awaitCommit();
+        }
+    }
+
     /**
      * Some output streams synchronize writes while others do not.
      * @param bytes The serialized Log event.
@@ -186,6 +275,16 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         write(data, offset, length, false);
     }
 
+    /**
+     * Returns {@code true} if this manager accepts encoded events without taking its lock.
+     *
+     * @return {@code true} if a lock-free buffer is in use
+     * @since 3.0.0
+     */
+    public boolean isConcurrentBufferEnabled() {
+        return ring != null;
+    }
+
     /**
      * Some output streams synchronize writes while others do not. Synchronizing here insures that
      * log events won't be intertwined.
@@ -208,29 +307,50 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
      * @throws AppenderLoggingException if an error occurs.
      */
     protected void write(final byte[] bytes, final int offset, final int length, final boolean immediateFlush) {
+        if (ring != null) {
+            writeToRing(bytes, offset, length, immediateFlush);
+            return;
+        }
         // TODO: consider only locking from public methods?
         writeLock.lock();
         try {
-            if (immediateFlush && byteBuffer.position() == 0) {
-                writeToDestination(bytes, offset, length);
-                flushDestination();
-                return;
-            }
-            if (length >= byteBuffer.capacity()) {
-                // if request length exceeds buffer capacity, flush the buffer and write the data directly
+            writeToBuffer(bytes, offset, length, immediateFlush);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void writeToRing(final byte[] bytes, final int offset, final int length, final boolean immediateFlush) {
+        if (ring.tryWrite(bytes, offset, length)) {
+            if (immediateFlush) {
                 flush();
-                writeToDestination(bytes, offset, length);
-            } else {
-                if (length > byteBuffer.remaining()) {
-                    flush();
-                }
-                byteBuffer.put(bytes, offset, length);
             }
-            if (immediateFlush) {
+            return;
+        }
+        synchronized (this) {
+            drainRing();
+            writeToBuffer(bytes, offset, length, immediateFlush);
+        }
+    }
+
+    private void writeToBuffer(final byte[] bytes, final int offset, final int length, final boolean immediateFlush) {
+        if (immediateFlush && byteBuffer.position() == 0) {
+            writeToDestination(bytes, offset, length);
+            flushDestination();
+            return;
+        }
+        if (length >= byteBuffer.capacity()) {
+            // if request length exceeds buffer capacity, flush the buffer and write the data directly
+            flush();
+            writeToDestination(bytes, offset, length);
+        } else {
+            if (length > byteBuffer.remaining()) {
                 flush();
             }
-        } finally {
-            writeLock.unlock();
+            byteBuffer.put(bytes, offset, length);
+        }
+        if (immediateFlush) {
+            flush();
         }
     }
 
@@ -296,6 +416,10 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
      * Flushes any buffers.
      */
     public void flush() {
+        if (ring != null) {
+            flushRing();
+            return;
+        }
         writeLock.lock();
         try {
             flushBuffer(byteBuffer);
@@ -305,7 +429,63 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         }
     }
 
+    /**
+     * Flushes the lock-free buffer, unless all the events written before this call were already flushed by another
+     * thread.
+     */
+    private void flushRing() {
+        final long target = ring.getTailPosition();
+        if (flushedRingPosition >= target && !unflushedLockedWrites) {
+            return;
+        }
+        synchronized (this) {
+            if (flushedRingPosition >= target && !unflushedLockedWrites) {
+                return;
+            }
+            final long position = ring.drain(ringConsumer);
+            flushBuffer(byteBuffer);
+            flushDestination();
+            unflushedLockedWrites = false;
+            flushedRingPosition = position;
+        }
+    }
+
+    /**
+     * Moves the events in the lock-free buffer to the byte buffer.
+     * <p>
+     * Must be called while holding the monitor of this manager, before any other content is written to the byte
+     * buffer, so that each thread's events keep their order.
+     * </p>
+     */
+    private void drainRing() {
+        if (ring != null) {
+            unflushedLockedWrites = true;
+            if (!ring.isEmpty()) {
+                ring.drain(ringConsumer);
+            }
+        }
+    }
+
+    private void copyFromRing(final ByteBuffer buffer, final int offset, final int length) {
+        // Records are never larger than the byte buffer: do not split them between two writes to the destination
+        if (length > byteBuffer.remaining()) {
+            flushBuffer(byteBuffer);
+        }
+        byteBuffer.put(byteBuffer.position(), buffer, offset, length);
+        byteBuffer.position(byteBuffer.position() + length);
+    }
+
     protected boolean closeOutputStream() {
+        if (ring != null) {
+            // The monitor must be taken before the write lock, like encoders do
+            synchronized (this) {
+                return closeOutputStreamLocked();
+            }
+        }
+        return closeOutputStreamLocked();
+    }
+
+    private boolean closeOutputStreamLocked() {
         writeLock.lock();
         try {
             flush();
@@ -333,6 +513,14 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
      */
     @Override
     public ByteBuffer getByteBuffer() {
+        if (ring != null) {
+            // Encoders hold the monitor while writing directly into the byte buffer:
+            // previously claimed events must be moved in front of their output,
+            // and the next flush must not be skipped.
+            synchronized (this) {
+                drainRing();
+            }
+        }
         return byteBuffer;
     }
 
@@ -355,6 +543,9 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
      */
     @Override
     public ByteBuffer drain(final ByteBuffer buf) {
+        if (ring != null) {
+            unflushedLockedWrites = true;
+        }
         flushBuffer(buf);
         return buf;
     }
@@ -364,6 +555,15 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         if (data.remaining() == 0) {
             return;
         }
+        if (ring != null) {
+            if (!ring.tryWrite(data)) {
+                synchronized (this) {
+                    drainRing();
+                    ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+                }
+            }
+            return;
+        }
         writeLock.lock();
         try {
             ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
@@ -19,9 +19,13 @@ package org.apache.logging.log4j.core.appender;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.net.Advertiser;
 import org.apache.logging.log4j.plugins.Configurable;
 import org.apache.logging.log4j.plugins.Plugin;
@@ -56,6 +60,15 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
         @PluginBuilderAttribute("advertiseURI")
         private String advertiseURI;
 
+        @PluginBuilderAttribute("syncIntervalMillis")
+        private long syncIntervalMillis;
+
+        @PluginBuilderAttribute("syncLevel")
+        private Level syncLevel;
+
+        @PluginBuilderAttribute("syncMarker")
+        private String syncMarker;
+
         public Builder() {
             setBufferSize(RandomAccessFileManager.DEFAULT_BUFFER_SIZE);
         }
@@ -75,7 +88,7 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
             final Layout layout = getOrCreateLayout();
             final boolean immediateFlush = isImmediateFlush();
             final RandomAccessFileManager manager = RandomAccessFileManager.getFileManager(
-                    fileName, append, immediateFlush, getBufferSize(), advertiseURI, layout, null);
+                    fileName, append, immediateFlush, getBufferSize(), advertiseURI, layout, syncIntervalMillis, null);
             if (manager == null) {
                 return null;
             }
@@ -88,7 +101,9 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
                     fileName,
                     isIgnoreExceptions(),
                     immediateFlush,
-                    advertise ? getConfiguration().getAdvertiser() : null);
+                    advertise ? getConfiguration().getAdvertiser() : null,
+                    syncLevel,
+                    syncMarker != null ? MarkerManager.getMarker(syncMarker) : null);
         }
 
         public B setFileName(final String fileName) {
@@ -110,11 +125,49 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
             this.advertiseURI = advertiseURI;
             return asBuilder();
         }
+
+        /**
+         * Sets the interval between two group commits, which force the content of the file to the storage device.
+         *
+         * @param syncIntervalMillis the interval in milliseconds, or {@code 0} to disable group commits
+         * @return this builder
+         * @since 3.0.0
+         */
+        public B setSyncIntervalMillis(final long syncIntervalMillis) {
+            this.syncIntervalMillis = syncIntervalMillis;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the least specific level of the events that wait for the next group commit.
+         *
+         * @param syncLevel a level or {@code null}
+         * @return this builder
+         * @since 3.0.0
+         */
+        public B setSyncLevel(final Level syncLevel) {
+            this.syncLevel = syncLevel;
+            return asBuilder();
+        }
+
+        /**
+         * Sets the name of the marker of the events that wait for the next group commit.
+         *
+         * @param syncMarker a marker name or {@code null}
+         * @return this builder
+         * @since 3.0.0
+         */
+        public B setSyncMarker(final String syncMarker) {
+            this.syncMarker = syncMarker;
+            return asBuilder();
+        }
     }
 
     private final String fileName;
     private Object advertisement;
     private final Advertiser advertiser;
+    private final Level syncLevel;
+    private final Marker syncMarker;
 
     private RandomAccessFileAppender(
             final String name,
@@ -124,7 +177,9 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
             final String filename,
             final boolean ignoreExceptions,
             final boolean immediateFlush,
-            final Advertiser advertiser) {
+            final Advertiser advertiser,
+            final Level syncLevel,
+            final Marker syncMarker) {
 
         super(name, layout, filter, ignoreExceptions, immediateFlush, null, manager);
         if (advertiser != null) {
@@ -136,6 +191,23 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
         }
         this.fileName = filename;
         this.advertiser = advertiser;
+        this.syncLevel = syncLevel;
+        this.syncMarker = syncMarker;
+    }
+
+    /**
+     * Appends the event and, if group commits are enabled and the event requires it, waits until the event is
+     * forced to the storage device.
+     *
+     * @param event The LogEvent.
+     */
+    @Override
+    public void append(final LogEvent event) {
+        super.append(event);
+        final RandomAccessFileManager manager = getManager();
+        if (manager.isSyncEnabled() && GroupCommitter.isCommitRequired(event, syncLevel, syncMarker)) {
+            manager.sync();
+        }
     }
 
     @Override
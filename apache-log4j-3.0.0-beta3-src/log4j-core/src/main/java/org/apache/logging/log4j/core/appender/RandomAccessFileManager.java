@@ -51,9 +51,27 @@ public class RandomAccessFileManager extends OutputStreamManager {
             final String advertiseURI,
             final Layout layout,
             final boolean writeHeader) {
+        this(loggerContext, file, fileName, os, bufferSize, advertiseURI, layout, writeHeader, 0);
+    }
+
+    /**
+     * @param syncIntervalMillis the interval between two group commits, or {@code 0} to disable them
+     * @since 3.0.0
+     */
+    protected RandomAccessFileManager(
+            final LoggerContext loggerContext,
+            final RandomAccessFile file,
+            final String fileName,
+            final OutputStream os,
+            final int bufferSize,
+            final String advertiseURI,
+            final Layout layout,
+            final boolean writeHeader,
+            final long syncIntervalMillis) {
         super(loggerContext, os, fileName, false, layout, writeHeader, ByteBuffer.wrap(new byte[bufferSize]));
         this.randomAccessFile = file;
         this.advertiseURI = advertiseURI;
+        enableGroupCommits(syncIntervalMillis);
     }
 
     /**
@@ -78,11 +96,46 @@ public class RandomAccessFileManager extends OutputStreamManager {
             final String advertiseURI,
             final Layout layout,
             final Configuration configuration) {
+        return getFileManager(fileName, append, immediateFlush, bufferSize, advertiseURI, layout, 0, configuration);
+    }
+
+    /**
+     * Returns the RandomAccessFileManager.
+     *
+     * @param fileName The name of the file to manage.
+     * @param append true if the file should be appended to, false if it should
+     *            be overwritten.
+     * @param immediateFlush true if the contents should be flushed to disk on every
+     *            write
+     * @param bufferSize The buffer size.
+     * @param advertiseURI the URI to use when advertising the file
+     * @param layout The layout.
+     * @param syncIntervalMillis The interval between two group commits, or {@code 0} to disable them.
+     * @param configuration The configuration.
+     * @return A RandomAccessFileManager for the File.
+     * @since 3.0.0
+     */
+    public static RandomAccessFileManager getFileManager(
+            final String fileName,
+            final boolean append,
+            final boolean immediateFlush,
+            final int bufferSize,
+            final String advertiseURI,
+            final Layout layout,
+            final long syncIntervalMillis,
+            final Configuration configuration) {
         return narrow(
                 RandomAccessFileManager.class,
                 getManager(
                         fileName,
-                        new FactoryData(append, immediateFlush, bufferSize, advertiseURI, layout, configuration),
+                        new FactoryData(
+                                append,
+                                immediateFlush,
+                                bufferSize,
+                                advertiseURI,
+                                layout,
+                                syncIntervalMillis,
+                                configuration),
                         FACTORY));
     }
 
@@ -106,6 +159,11 @@ public class RandomAccessFileManager extends OutputStreamManager {
         }
     }
 
+    @Override
+    protected void forceToStorage() throws IOException {
+        randomAccessFile.getChannel().force(false);
+    }
+
     @Override
     public boolean closeOutputStream() {
         writeLock.lock();
@@ -162,13 +220,33 @@ public class RandomAccessFileManager extends OutputStreamManager {
         private final int bufferSize;
         private final String advertiseURI;
         private final Layout layout;
+        private final long syncIntervalMillis;
+
+        /**
+         * Constructor.
+         *
+         * @param append Append status.
+         * @param bufferSize size of the buffer
+         * @param configuration The configuration.
+         */
+        public FactoryData(
+                final boolean append,
+                final boolean immediateFlush,
+                final int bufferSize,
+                final String advertiseURI,
+                final Layout layout,
+                final Configuration configuration) {
+            this(append, immediateFlush, bufferSize, advertiseURI, layout, 0, configuration);
+        }
 
         /**
          * Constructor.
          *
          * @param append Append status.
          * @param bufferSize size of the buffer
+         * @param syncIntervalMillis interval between two group commits
          * @param configuration The configuration.
+         * @since 3.0.0
          */
         public FactoryData(
                 final boolean append,
@@ -176,6 +254,7 @@ public class RandomAccessFileManager extends OutputStreamManager {
                 final int bufferSize,
                 final String advertiseURI,
                 final Layout layout,
+                final long syncIntervalMillis,
                 final Configuration configuration) {
             super(configuration);
             this.append = append;
@@ -183,6 +262,7 @@ public class RandomAccessFileManager extends OutputStreamManager {
             this.bufferSize = bufferSize;
             this.advertiseURI = advertiseURI;
             this.layout = layout;
+            this.syncIntervalMillis = syncIntervalMillis;
         }
     }
 
@@ -228,7 +308,8 @@ public class RandomAccessFileManager extends OutputStreamManager {
                         data.bufferSize,
                         data.advertiseURI,
                         data.layout,
-                        writeHeader);
+                        writeHeader,
+                        data.syncIntervalMillis);
             } catch (final Exception ex) {
                 LOGGER.error("RandomAccessFileManager (" + name + ") " + ex, ex);
             }
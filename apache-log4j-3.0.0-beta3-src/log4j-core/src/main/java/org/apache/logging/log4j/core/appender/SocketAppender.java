@@ -27,6 +27,8 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.net.AbstractSocketManager;
 import org.apache.logging.log4j.core.net.Advertiser;
 import org.apache.logging.log4j.core.net.DatagramSocketManager;
+import org.apache.logging.log4j.core.net.PipelinedDatagramSocketManager;
+import org.apache.logging.log4j.core.net.PipelinedTcpSocketManager;
 import org.apache.logging.log4j.core.net.Protocol;
 import org.apache.logging.log4j.core.net.SocketOptions;
 import org.apache.logging.log4j.core.net.SslSocketManager;
@@ -84,6 +86,12 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
         @ValidPort
         private int port;
 
+        @PluginBuilderAttribute
+        private int maxPacketSize = PipelinedDatagramSocketManager.DEFAULT_MAX_PACKET_SIZE;
+
+        @PluginBuilderAttribute
+        private boolean pipelined;
+
         @PluginBuilderAttribute
         private Protocol protocol = Protocol.TCP;
 
@@ -91,6 +99,9 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
         @PluginAliases({"reconnectDelay", "reconnectionDelay", "delayMillis", "reconnectionDelayMillis"})
         private int reconnectDelayMillis;
 
+        @PluginBuilderAttribute
+        private int ringBufferSize = PipelinedTcpSocketManager.DEFAULT_RING_BUFFER_SIZE;
+
         @PluginElement("SocketOptions")
         private SocketOptions socketOptions;
 
@@ -98,6 +109,9 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
         @PluginAliases({"SslConfig"})
         private SslConfiguration sslConfiguration;
 
+        @PluginBuilderAttribute
+        private String spoolFile;
+
         public boolean getAdvertise() {
             return advertise;
         }
@@ -126,6 +140,22 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
             return immediateFail;
         }
 
+        public int getMaxPacketSize() {
+            return maxPacketSize;
+        }
+
+        public boolean isPipelined() {
+            return pipelined;
+        }
+
+        public int getRingBufferSize() {
+            return ringBufferSize;
+        }
+
+        public String getSpoolFile() {
+            return spoolFile;
+        }
+
         public B setAdvertise(final boolean advertise) {
             this.advertise = advertise;
             return asBuilder();
@@ -146,6 +176,31 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
             return asBuilder();
         }
 
+        /**
+         * @param maxPacketSize The maximum size in bytes of a datagram containing several events of a pipelined UDP
+         *                      connection, or {@code 0} to send each event in its own datagram.
+         * @return this builder
+         * @since 3.0.0
+         */
+        public B setMaxPacketSize(final int maxPacketSize) {
+            this.maxPacketSize = maxPacketSize;
+            return asBuilder();
+        }
+
+        /**
+         * Sends the events of TCP and UDP connections from a background thread, so that the logging threads never
+         * wait for the network.
+         *
+         * @param pipelined Whether to use a {@link PipelinedTcpSocketManager} or a
+         *                  {@link PipelinedDatagramSocketManager}.
+         * @return this builder
+         * @since 3.0.0
+         */
+        public B setPipelined(final boolean pipelined) {
+            this.pipelined = pipelined;
+            return asBuilder();
+        }
+
         public B setPort(final int port) {
             this.port = port;
             return asBuilder();
@@ -161,6 +216,16 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
             return asBuilder();
         }
 
+        /**
+         * @param ringBufferSize The size in bytes of the buffer of a pipelined connection.
+         * @return this builder
+         * @since 3.0.0
+         */
+        public B setRingBufferSize(final int ringBufferSize) {
+            this.ringBufferSize = ringBufferSize;
+            return asBuilder();
+        }
+
         public B setSocketOptions(final SocketOptions socketOptions) {
             this.socketOptions = socketOptions;
             return asBuilder();
@@ -171,6 +236,16 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
             return asBuilder();
         }
 
+        /**
+         * @param spoolFile The file that receives the events when the buffer of a pipelined connection is full.
+         * @return this builder
+         * @since 3.0.0
+         */
+        public B setSpoolFile(final String spoolFile) {
+            this.spoolFile = spoolFile;
+            return asBuilder();
+        }
+
         public int getReconnectDelayMillis() {
             return reconnectDelayMillis;
         }
@@ -224,7 +299,11 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
                     getImmediateFail(),
                     layout,
                     getBufferSize(),
-                    getSocketOptions());
+                    getSocketOptions(),
+                    isPipelined(),
+                    getRingBufferSize(),
+                    getSpoolFile(),
+                    getMaxPacketSize());
 
             return new SocketAppender(
                     name,
@@ -295,6 +374,52 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
             final Layout layout,
             final int bufferSize,
             final SocketOptions socketOptions) {
+        return createSocketManager(
+                name,
+                protocol,
+                host,
+                port,
+                connectTimeoutMillis,
+                sslConfig,
+                reconnectDelayMillis,
+                immediateFail,
+                layout,
+                bufferSize,
+                socketOptions,
+                false,
+                0,
+                null,
+                0);
+    }
+
+    /**
+     * Creates an AbstractSocketManager for TCP, UDP, and SSL.
+     *
+     * @param pipelined Whether TCP and UDP events are sent by a {@link PipelinedTcpSocketManager} or a
+     *                  {@link PipelinedDatagramSocketManager}.
+     * @param ringBufferSize The size of the buffer of a pipelined connection.
+     * @param spoolFile The spool file of a pipelined TCP connection or {@code null}.
+     * @param maxPacketSize The maximum size of a datagram containing several events of a pipelined UDP connection.
+     * @throws IllegalArgumentException
+     *             if the protocol cannot be handled.
+     * @since 3.0.0
+     */
+    protected static AbstractSocketManager createSocketManager(
+            final String name,
+            Protocol protocol,
+            final String host,
+            final int port,
+            final int connectTimeoutMillis,
+            final SslConfiguration sslConfig,
+            final int reconnectDelayMillis,
+            final boolean immediateFail,
+            final Layout layout,
+            final int bufferSize,
+            final SocketOptions socketOptions,
+            final boolean pipelined,
+            final int ringBufferSize,
+            final String spoolFile,
+            final int maxPacketSize) {
         if (protocol == Protocol.TCP && sslConfig != null) {
             // Upgrade TCP to SSL if an SSL config is specified.
             protocol = Protocol.SSL;
@@ -302,8 +427,23 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
         if (protocol != Protocol.SSL && sslConfig != null) {
             LOGGER.info("Appender {} ignoring SSL configuration for {} protocol", name, protocol);
         }
+        if (pipelined && protocol == Protocol.SSL) {
+            LOGGER.warn("Appender {} ignoring pipelined attribute for {} protocol", name, protocol);
+        }
         switch (protocol) {
             case TCP:
+                if (pipelined) {
+                    return PipelinedTcpSocketManager.getSocketManager(
+                            host,
+                            port,
+                            connectTimeoutMillis,
+                            reconnectDelayMillis,
+                            layout,
+                            bufferSize,
+                            socketOptions,
+                            ringBufferSize,
+                            spoolFile);
+                }
                 return TcpSocketManager.getSocketManager(
                         host,
                         port,
@@ -314,6 +454,10 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
                         bufferSize,
                         socketOptions);
             case UDP:
+                if (pipelined) {
+                    return PipelinedDatagramSocketManager.getSocketManager(
+                            host, port, layout, bufferSize, ringBufferSize, maxPacketSize);
+                }
                 return DatagramSocketManager.getSocketManager(host, port, layout, bufferSize);
             case SSL:
                 return SslSocketManager.getSocketManager(
@@ -159,7 +159,11 @@ public class SyslogAppender extends SocketAppender {
                     getImmediateFail(),
                     layout,
                     Constants.ENCODER_BYTE_BUFFER_SIZE,
-                    null);
+                    null,
+                    isPipelined(),
+                    getRingBufferSize(),
+                    getSpoolFile(),
+                    getMaxPacketSize());
 
             return new SyslogAppender(
                     name,
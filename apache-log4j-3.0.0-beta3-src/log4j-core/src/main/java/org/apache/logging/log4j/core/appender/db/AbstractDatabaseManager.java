@@ -237,7 +237,13 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
      *
      * @param event The event to write to the database.
      */
-    public final synchronized void write(final LogEvent event) {
+    public final void write(final LogEvent event) {
+        if (!writeUnsynchronized(event)) {
+            writeSynchronized(event);
+        }
+    }
+
+    private synchronized void writeSynchronized(final LogEvent event) {
         if (isBuffered()) {
             buffer(event);
         } else {
@@ -245,6 +251,18 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
         }
     }
 
+    /**
+     * Hands the event over without holding the lock of this manager. Managers that write events on their own threads
+     * override this method, so that logging threads do not wait for each other.
+     *
+     * @param event The event to write to the database.
+     * @return {@code true} if the event was handed over, {@code false} to buffer or write it while holding the lock.
+     * @since 3.0.0
+     */
+    protected boolean writeUnsynchronized(final LogEvent event) {
+        return false;
+    }
+
     protected Layout getLayout() {
         return layout;
     }
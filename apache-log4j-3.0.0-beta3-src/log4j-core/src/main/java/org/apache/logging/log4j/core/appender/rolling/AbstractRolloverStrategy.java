@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.SortedMap;
@@ -52,11 +53,40 @@ public abstract class AbstractRolloverStrategy implements RolloverStrategy {
 
     private final CompressActionFactoryProvider compressActionFactoryProvider;
     protected final StrSubstitutor strSubstitutor;
+    private final boolean archiveIndex;
+
+    /**
+     * The index of the archived files matching the last pattern, if {@link #archiveIndex} is enabled.
+     */
+    private RolloverFileIndex fileIndex;
 
     protected AbstractRolloverStrategy(
             CompressActionFactoryProvider compressActionFactoryProvider, final StrSubstitutor strSubstitutor) {
+        this(compressActionFactoryProvider, strSubstitutor, false);
+    }
+
+    /**
+     * @param archiveIndex whether the archived files are tracked in a persistent index, instead of listing their
+     *                     directory on each rollover
+     * @since 3.0.0
+     */
+    protected AbstractRolloverStrategy(
+            final CompressActionFactoryProvider compressActionFactoryProvider,
+            final StrSubstitutor strSubstitutor,
+            final boolean archiveIndex) {
         this.compressActionFactoryProvider = compressActionFactoryProvider;
         this.strSubstitutor = strSubstitutor;
+        this.archiveIndex = archiveIndex;
+    }
+
+    /**
+     * Returns whether the archived files are tracked in a persistent index.
+     *
+     * @return {@code true} if the directory of the archived files is only listed if the index does not match it
+     * @since 3.0.0
+     */
+    public boolean isArchiveIndex() {
+        return archiveIndex;
     }
 
     public StrSubstitutor getStrSubstitutor() {
@@ -102,7 +132,6 @@ public abstract class AbstractRolloverStrategy implements RolloverStrategy {
             justification = "The file path should be specified in the configuration file.")
     protected SortedMap<Integer, Path> getEligibleFiles(
             final String currentFile, final String path, final String logfilePattern, final boolean isAscending) {
-        final TreeMap<Integer, Path> eligibleFiles = new TreeMap<>();
         final File file = new File(path);
         File parent = file.getParentFile();
         if (parent == null) {
@@ -111,7 +140,7 @@ public abstract class AbstractRolloverStrategy implements RolloverStrategy {
             parent.mkdirs();
         }
         if (!PATTERN_COUNTER.matcher(logfilePattern).find()) {
-            return eligibleFiles;
+            return new TreeMap<>();
         }
         final Path dir = parent.toPath();
         String fileName = file.getName();
@@ -130,6 +159,14 @@ public abstract class AbstractRolloverStrategy implements RolloverStrategy {
         final Path current = currentFile.length() > 0 ? new File(currentFile).toPath() : null;
         LOGGER.debug("Current file: {}", currentFile);
 
+        final TreeMap<Integer, Path> eligibleFiles = archiveIndex
+                ? getFileIndex(dir, pattern, logfilePattern).getFiles(current)
+                : listEligibleFiles(dir, pattern, current);
+        return isAscending ? eligibleFiles : eligibleFiles.descendingMap();
+    }
+
+    private static TreeMap<Integer, Path> listEligibleFiles(final Path dir, final Pattern pattern, final Path current) {
+        final TreeMap<Integer, Path> eligibleFiles = new TreeMap<>();
         try (final DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
             for (final Path entry : stream) {
                 final Matcher matcher = pattern.matcher(entry.toFile().getName());
@@ -147,6 +184,106 @@ public abstract class AbstractRolloverStrategy implements RolloverStrategy {
         } catch (final IOException ioe) {
             throw new LoggingException("Error reading folder " + dir + " " + ioe.getMessage(), ioe);
         }
-        return isAscending ? eligibleFiles : eligibleFiles.descendingMap();
+        return eligibleFiles;
+    }
+
+    private synchronized RolloverFileIndex getFileIndex(
+            final Path dir, final Pattern pattern, final String logfilePattern) {
+        if (fileIndex == null || !fileIndex.matches(dir, pattern)) {
+            fileIndex = new RolloverFileIndex(dir, pattern, logfilePattern);
+        }
+        return fileIndex;
+    }
+
+    /**
+     * Returns the index of the archived files, if the given file belongs to it.
+     */
+    @SuppressFBWarnings(
+            value = "PATH_TRAVERSAL_IN",
+            justification = "The file path should be specified in the configuration file.")
+    private synchronized RolloverFileIndex getFileIndex(final String fileName) {
+        if (fileIndex != null) {
+            Path dir = Paths.get(fileName).getParent();
+            if (dir == null) {
+                dir = Paths.get(".");
+            }
+            if (dir.toAbsolutePath()
+                    .normalize()
+                    .equals(fileIndex.getDirectory().toAbsolutePath().normalize())) {
+                return fileIndex;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Deletes an eligible file and removes it from the index of the archived files.
+     *
+     * @param index the index of the file
+     * @param path the file
+     * @throws IOException if the file cannot be deleted
+     * @since 3.0.0
+     */
+    protected void deleteEligibleFile(final int index, final Path path) throws IOException {
+        try {
+            Files.delete(path);
+        } catch (final IOException e) {
+            invalidateArchiveIndex();
+            throw e;
+        }
+        final RolloverFileIndex fileIndex = getFileIndex(path.toString());
+        if (fileIndex != null) {
+            fileIndex.remove(index);
+        }
+    }
+
+    /**
+     * Records in the index of the archived files that a file was created with the given index.
+     * <p>
+     * The file may not exist yet under its name, e.g. if it is going to be compressed.
+     * </p>
+     *
+     * @param index the index of the file
+     * @param fileName the final name of the file
+     * @since 3.0.0
+     */
+    @SuppressFBWarnings(
+            value = "PATH_TRAVERSAL_IN",
+            justification = "The file path should be specified in the configuration file.")
+    protected void eligibleFileAdded(final int index, final String fileName) {
+        final RolloverFileIndex fileIndex = getFileIndex(fileName);
+        if (fileIndex != null) {
+            final int suffixLength = suffixLength(fileName);
+            final String name = new File(fileName).getName();
+            fileIndex.add(index, name, suffixLength > 0 ? name.substring(0, name.length() - suffixLength) : null);
+        }
+    }
+
+    /**
+     * Records in the index of the archived files that a file was renamed.
+     *
+     * @param oldIndex the previous index of the file
+     * @param newIndex the new index of the file
+     * @param fileName the new name of the file
+     * @since 3.0.0
+     */
+    protected void eligibleFileRenamed(final int oldIndex, final int newIndex, final String fileName) {
+        final RolloverFileIndex fileIndex = getFileIndex(fileName);
+        if (fileIndex != null) {
+            fileIndex.remove(oldIndex);
+            eligibleFileAdded(newIndex, fileName);
+        }
+    }
+
+    /**
+     * Forces the directory of the archived files to be listed again on the next rollover, e.g. after a failed
+     * operation on the eligible files.
+     *
+     * @since 3.0.0
+     */
+    protected synchronized void invalidateArchiveIndex() {
+        if (fileIndex != null) {
+            fileIndex.invalidate();
+        }
     }
 }
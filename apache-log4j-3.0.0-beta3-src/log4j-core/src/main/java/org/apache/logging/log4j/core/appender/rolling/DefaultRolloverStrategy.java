@@ -19,7 +19,6 @@ package org.apache.logging.log4j.core.appender.rolling;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
@@ -27,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.core.appender.rolling.action.AbstractAction;
 import org.apache.logging.log4j.core.appender.rolling.action.Action;
 import org.apache.logging.log4j.core.appender.rolling.action.CompositeAction;
 import org.apache.logging.log4j.core.appender.rolling.action.CompressActionFactory;
@@ -106,6 +106,9 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
         @PluginBuilderAttribute(value = "tempCompressedFilePattern")
         private String tempCompressedFilePattern;
 
+        @PluginBuilderAttribute(value = "archiveIndex")
+        private boolean archiveIndex;
+
         @PluginConfiguration
         private Configuration config;
 
@@ -151,6 +154,7 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
                     customActions,
                     stopCustomActionsOnError,
                     tempCompressedFilePattern,
+                    archiveIndex,
                     configuration);
         }
 
@@ -245,6 +249,23 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
             return this;
         }
 
+        public boolean isArchiveIndex() {
+            return archiveIndex;
+        }
+
+        /**
+         * Defines whether the archived files are tracked in a persistent index, instead of listing their directory on
+         * each rollover.
+         *
+         * @param archiveIndex whether to keep an index of the archived files in a hidden file of their directory
+         * @return This builder for chaining convenience
+         * @since 3.0.0
+         */
+        public Builder setArchiveIndex(final boolean archiveIndex) {
+            this.archiveIndex = archiveIndex;
+            return this;
+        }
+
         public Configuration getConfig() {
             return config;
         }
@@ -290,6 +311,7 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
      * @param stopCustomActionsOnError whether to stop executing asynchronous actions if an error occurs
      * @param tempCompressedFilePatternString File pattern of the working file
      *                                     used during compression, if null no temporary file are used
+     * @param archiveIndex whether the archived files are tracked in a persistent index
      */
     private DefaultRolloverStrategy(
             final int minIndex,
@@ -299,8 +321,9 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
             final Action[] customActions,
             final boolean stopCustomActionsOnError,
             final String tempCompressedFilePatternString,
+            final boolean archiveIndex,
             final Configuration configuration) {
-        super(CompressActionFactoryProvider.newInstance(configuration), strSubstitutor);
+        super(CompressActionFactoryProvider.newInstance(configuration), strSubstitutor, archiveIndex);
         this.minIndex = minIndex;
         this.maxIndex = maxIndex;
         this.useMax = useMax;
@@ -362,7 +385,7 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
                 LOGGER.debug("Eligible files: {}", eligibleFiles);
                 final Integer key = eligibleFiles.firstKey();
                 LOGGER.debug("Deleting {}", eligibleFiles.get(key).toFile().getAbsolutePath());
-                Files.delete(eligibleFiles.get(key));
+                deleteEligibleFile(key, eligibleFiles.get(key));
                 eligibleFiles.remove(key);
                 renameFiles = true;
             } catch (final IOException ioe) {
@@ -386,10 +409,13 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
                 try {
                     LOGGER.debug("DefaultRolloverStrategy.purgeAscending executing {}", action);
                     if (!action.execute()) {
+                        invalidateArchiveIndex();
                         return -1;
                     }
+                    eligibleFileRenamed(entry.getKey(), entry.getKey() - 1, renameTo);
                 } catch (final Exception ex) {
                     LOGGER.warn("Exception during purge in RollingFileAppender", ex);
+                    invalidateArchiveIndex();
                     return -1;
                 }
             }
@@ -422,7 +448,7 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
             try {
                 final Integer key = eligibleFiles.firstKey();
                 LOGGER.debug("Deleting {}", eligibleFiles.get(key).toFile().getAbsolutePath());
-                Files.delete(eligibleFiles.get(key));
+                deleteEligibleFile(key, eligibleFiles.get(key));
                 eligibleFiles.remove(key);
             } catch (final IOException ioe) {
                 LOGGER.error("Unable to delete {}, {}", eligibleFiles.firstKey(), ioe.getMessage(), ioe);
@@ -444,10 +470,13 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
             try {
                 LOGGER.debug("DefaultRolloverStrategy.purgeDescending executing {}", action);
                 if (!action.execute()) {
+                    invalidateArchiveIndex();
                     return -1;
                 }
+                eligibleFileRenamed(entry.getKey(), entry.getKey() + 1, renameTo);
             } catch (final Exception ex) {
                 LOGGER.warn("Exception during purge in RollingFileAppender", ex);
+                invalidateArchiveIndex();
                 return -1;
             }
         }
@@ -546,11 +575,47 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
                 new FileRenameAction(new File(currentFileName), new File(renameTo), manager.isRenameEmptyFiles());
 
         final Action asyncAction = merge(compressAction, customActions, stopCustomActionsOnError);
-        return new RolloverDescriptionImpl(currentFileName, false, renameAction, asyncAction);
+        final Action syncAction =
+                isArchiveIndex() ? new IndexingRenameAction(renameAction, fileIndex, compressedName) : renameAction;
+        return new RolloverDescriptionImpl(currentFileName, false, syncAction, asyncAction);
     }
 
     @Override
     public String toString() {
-        return "DefaultRolloverStrategy(min=" + minIndex + ", max=" + maxIndex + ", useMax=" + useMax + ")";
+        return "DefaultRolloverStrategy(min=" + minIndex + ", max=" + maxIndex + ", useMax=" + useMax
+                + ", archiveIndex=" + isArchiveIndex() + ")";
+    }
+
+    /**
+     * Renames the active file and records the archived file in the index once the rename succeeded.
+     */
+    private final class IndexingRenameAction extends AbstractAction {
+
+        private final FileRenameAction renameAction;
+        private final int index;
+        private final String fileName;
+
+        private IndexingRenameAction(final FileRenameAction renameAction, final int index, final String fileName) {
+            this.renameAction = renameAction;
+            this.index = index;
+            this.fileName = fileName;
+        }
+
+        @Override
+        public boolean execute() throws IOException {
+            if (!renameAction.execute()) {
+                return false;
+            }
+            // Empty files are deleted instead of renamed
+            if (renameAction.getDestination().exists()) {
+                eligibleFileAdded(index, fileName);
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return renameAction.toString();
+        }
     }
 }
@@ -19,7 +19,6 @@ package org.apache.logging.log4j.core.appender.rolling;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
@@ -52,6 +51,11 @@ import org.apache.logging.log4j.plugins.PluginFactory;
  * on the file pattern, however the DirectWriteRolloverStrategy writes directly to a file and does not rename it
  * during rollover, except if it is compressed, in which case it will add the appropriate file extension.
  * </p>
+ * <p>
+ * If {@code compressOnWrite} is enabled and the file pattern ends with {@code .gz}, the log events are compressed
+ * while they are written and no compression is needed on rollover. Each flush of the appender is a GZIP sync flush,
+ * so the file can be read up to the last flush while it is written.
+ * </p>
  *
  * @since 2.8
  */
@@ -61,6 +65,8 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
 
     private static final int DEFAULT_MAX_FILES = 7;
 
+    private static final String GZIP_EXTENSION = ".gz";
+
     /**
      * Builds DirectWriteRolloverStrategy instances.
      */
@@ -77,6 +83,12 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
         @PluginBuilderAttribute(value = "tempCompressedFilePattern")
         private String tempCompressedFilePattern;
 
+        @PluginBuilderAttribute(value = "compressOnWrite")
+        private boolean compressOnWrite;
+
+        @PluginBuilderAttribute(value = "archiveIndex")
+        private boolean archiveIndex;
+
         @PluginConfiguration
         private Configuration config;
 
@@ -98,6 +110,8 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
                     customActions,
                     stopCustomActionsOnError,
                     tempCompressedFilePattern,
+                    compressOnWrite,
+                    archiveIndex,
                     config);
         }
 
@@ -161,6 +175,39 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
             return this;
         }
 
+        public boolean isCompressOnWrite() {
+            return compressOnWrite;
+        }
+
+        /**
+         * Defines whether the log events are compressed while they are written, instead of on rollover.
+         *
+         * @param compressOnWrite whether to write a GZIP file directly, requires a file pattern ending in {@code .gz}
+         * @return This builder for chaining convenience
+         * @since 3.0.0
+         */
+        public Builder setCompressOnWrite(final boolean compressOnWrite) {
+            this.compressOnWrite = compressOnWrite;
+            return this;
+        }
+
+        public boolean isArchiveIndex() {
+            return archiveIndex;
+        }
+
+        /**
+         * Defines whether the archived files are tracked in a persistent index, instead of listing their directory on
+         * each rollover.
+         *
+         * @param archiveIndex whether to keep an index of the archived files in a hidden file of their directory
+         * @return This builder for chaining convenience
+         * @since 3.0.0
+         */
+        public Builder setArchiveIndex(final boolean archiveIndex) {
+            this.archiveIndex = archiveIndex;
+            return this;
+        }
+
         public Configuration getConfig() {
             return config;
         }
@@ -192,6 +239,7 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
     private volatile String currentFileName;
     private int nextIndex = -1;
     private final PatternProcessor tempCompressedFilePattern;
+    private final boolean compressOnWrite;
 
     /**
      * Constructs a new instance.
@@ -201,6 +249,8 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
      * @param stopCustomActionsOnError whether to stop executing asynchronous actions if an error occurs
      * @param tempCompressedFilePatternString File pattern of the working file
      *                                     used during compression, if null no temporary file are used
+     * @param compressOnWrite whether the log events are compressed while they are written
+     * @param archiveIndex whether the archived files are tracked in a persistent index
      */
     private DirectWriteRolloverStrategy(
             final int maxFiles,
@@ -208,14 +258,17 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
             final Action[] customActions,
             final boolean stopCustomActionsOnError,
             final String tempCompressedFilePatternString,
+            final boolean compressOnWrite,
+            final boolean archiveIndex,
             final Configuration configuration) {
-        super(CompressActionFactoryProvider.newInstance(configuration), strSubstitutor);
+        super(CompressActionFactoryProvider.newInstance(configuration), strSubstitutor, archiveIndex);
         this.maxFiles = maxFiles;
         this.stopCustomActionsOnError = stopCustomActionsOnError;
         this.customActions = customActions == null ? Collections.emptyList() : Arrays.asList(customActions);
         this.tempCompressedFilePattern = tempCompressedFilePatternString != null
                 ? new PatternProcessor(configuration, tempCompressedFilePatternString)
                 : null;
+        this.compressOnWrite = compressOnWrite;
     }
 
     public List<Action> getCustomActions() {
@@ -234,13 +287,31 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
         return tempCompressedFilePattern;
     }
 
+    /**
+     * @since 3.0.0
+     */
+    public boolean isCompressOnWrite() {
+        return compressOnWrite;
+    }
+
+    /**
+     * Returns whether the manager writes GZIP files directly, which requires a file pattern ending in {@code .gz}.
+     */
+    boolean isCompressingOnWrite(final RollingFileManager manager) {
+        if (!compressOnWrite || !manager.supportsCompressOnWrite()) {
+            return false;
+        }
+        final CompressActionFactory compressActionFactory = manager.getCompressActionFactory();
+        return compressActionFactory != null && GZIP_EXTENSION.equals(compressActionFactory.getExtension());
+    }
+
     private int purge(final RollingFileManager manager) {
         final SortedMap<Integer, Path> eligibleFiles = getEligibleFiles(manager);
         LOGGER.debug("Found {} eligible files, max is  {}", eligibleFiles.size(), maxFiles);
         while (eligibleFiles.size() >= maxFiles) {
             try {
                 final Integer key = eligibleFiles.firstKey();
-                Files.delete(eligibleFiles.get(key));
+                deleteEligibleFile(key, eligibleFiles.get(key));
                 eligibleFiles.remove(key);
             } catch (final IOException ioe) {
                 LOGGER.error("Unable to delete {}", eligibleFiles.firstKey(), ioe);
@@ -259,8 +330,10 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
             // LOG4J2-3339 - Always use the current time for new direct write files.
             manager.getPatternProcessor().setCurrentFileTime(System.currentTimeMillis());
             manager.getPatternProcessor().formatFileName(strSubstitutor, buf, true, fileIndex);
-            final int suffixLength = suffixLength(buf.toString());
+            // The compressed file is written directly
+            final int suffixLength = isCompressingOnWrite(manager) ? 0 : suffixLength(buf.toString());
             currentFileName = suffixLength > 0 ? buf.substring(0, buf.length() - suffixLength) : buf.toString();
+            eligibleFileAdded(fileIndex, buf.toString());
         }
         return currentFileName;
     }
@@ -297,7 +370,8 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
         String compressedName = sourceName;
         currentFileName = null;
         nextIndex = fileIndex + 1;
-        final CompressActionFactory compressActionFactory = manager.getCompressActionFactory();
+        final CompressActionFactory compressActionFactory =
+                isCompressingOnWrite(manager) ? null : manager.getCompressActionFactory();
         if (compressActionFactory != null) {
             compressedName += compressActionFactory.getExtension();
             if (tempCompressedFilePattern != null) {
@@ -342,6 +416,7 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
 
     @Override
     public String toString() {
-        return "DirectWriteRolloverStrategy(maxFiles=" + maxFiles + ')';
+        return "DirectWriteRolloverStrategy(maxFiles=" + maxFiles + ", compressOnWrite=" + compressOnWrite
+                + ", archiveIndex=" + isArchiveIndex() + ')';
     }
 }
@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Repairs a GZIP file whose last member was not finished, because the JVM writing it died.
+ * <p>
+ * Files compressed on write by the {@link DirectWriteRolloverStrategy} are flushed with {@link Deflater#SYNC_FLUSH},
+ * which ends each flush with an empty stored block. The repair cuts the unfinished member after its last complete
+ * flush and terminates it, so that the file can be read by any GZIP reader and new members can be appended to it.
+ * </p>
+ */
+final class GzipFileRecovery {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final int HEADER_LENGTH = 10;
+    private static final int TRAILER_LENGTH = 8;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The LEN and NLEN fields of the empty stored block written by a sync flush.
+     */
+    private static final int SYNC_MARKER = 0x0000ffff;
+
+    /**
+     * An empty final block with fixed Huffman codes.
+     */
+    private static final byte[] FINAL_BLOCK = {3, 0};
+
+    /**
+     * Number of flush points kept as candidates for the end of an unfinished member.
+     */
+    private static final int MAX_FLUSH_POINTS = 16;
+
+    private GzipFileRecovery() {}
+
+    /**
+     * Repairs the given file if its last member is not finished.
+     *
+     * @param path a GZIP file.
+     * @return the length of the uncompressed content of the repaired file.
+     * @throws IOException if the file is not a GZIP file or cannot be repaired.
+     */
+    static long recover(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = 0;
+            long length = 0;
+            while (position < channel.size()) {
+                final Member member = readMember(channel, position);
+                if (member.end >= 0) {
+                    position = member.end;
+                    length += member.length;
+                    continue;
+                }
+                final FlushPoint flushPoint = findLastFlushPoint(channel, position, member.flushPoints);
+                if (flushPoint == null) {
+                    LOGGER.warn("Discarding unfinished GZIP member of {} at offset {}", path, position);
+                    channel.truncate(position);
+                } else {
+                    LOGGER.warn(
+                            "Truncating unfinished GZIP member of {} after {} bytes of content",
+                            path,
+                            length + flushPoint.length);
+                    channel.truncate(flushPoint.offset);
+                    final ByteBuffer end = ByteBuffer.allocate(
+                            flushPoint.finished ? TRAILER_LENGTH : FINAL_BLOCK.length + TRAILER_LENGTH);
+                    if (!flushPoint.finished) {
+                        end.put(FINAL_BLOCK);
+                    }
+                    putIntLE(end, (int) flushPoint.crc);
+                    putIntLE(end, (int) flushPoint.length);
+                    end.flip();
+                    writeFully(channel, end, flushPoint.offset);
+                    length += flushPoint.length;
+                }
+                break;
+            }
+            return length;
+        }
+    }
+
+    /**
+     * Decompresses the member starting at the given position.
+     */
+    private static Member readMember(final FileChannel channel, final long start) throws IOException {
+        final Member member = new Member();
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        if (readFully(channel, header, start) < HEADER_LENGTH) {
+            // Truncated header
+            return member;
+        }
+        if ((header.get(0) & 0xff) != 0x1f || (header.get(1) & 0xff) != 0x8b || header.get(2) != Deflater.DEFLATED) {
+            throw new IOException("Not a GZIP member at offset " + start);
+        }
+        if (header.get(3) != 0) {
+            throw new IOException("Unsupported GZIP header flags at offset " + start);
+        }
+        final Inflater inflater = new Inflater(true);
+        final CRC32 crc = new CRC32();
+        try {
+            final byte[] input = new byte[BUFFER_SIZE];
+            final byte[] output = new byte[BUFFER_SIZE];
+            final ByteBuffer inputBuffer = ByteBuffer.wrap(input);
+            long position = start + HEADER_LENGTH;
+            int window = -1;
+            while (true) {
+                inputBuffer.clear();
+                final int read = channel.read(inputBuffer, position);
+                if (read <= 0) {
+                    // Unfinished member
+                    return member;
+                }
+                int segmentStart = 0;
+                for (int i = 0; i < read; i++) {
+                    window = (window << 8) | (input[i] & 0xff);
+                    final boolean flushPoint = window == SYNC_MARKER;
+                    if (flushPoint || i == read - 1) {
+                        inflater.setInput(input, segmentStart, i + 1 - segmentStart);
+                        if (!inflate(inflater, crc, output)) {
+                            // Corrupted data after the last flush
+                            return member;
+                        }
+                        if (inflater.finished()) {
+                            final long end = position + i + 1 - inflater.getRemaining();
+                            return readTrailer(channel, member, end, crc.getValue(), inflater.getBytesWritten());
+                        }
+                        if (flushPoint) {
+                            member.addFlushPoint(new FlushPoint(
+                                    position + i + 1, inflater.getBytesWritten(), crc.getValue(), false));
+                        }
+                        segmentStart = i + 1;
+                    }
+                }
+                position += read;
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static boolean inflate(final Inflater inflater, final CRC32 crc, final byte[] output) {
+        try {
+            // Stops when the input is consumed, once all the pending output has been read
+            while (!inflater.finished()) {
+                final int count = inflater.inflate(output);
+                if (count == 0) {
+                    break;
+                }
+                crc.update(output, 0, count);
+            }
+            return true;
+        } catch (final DataFormatException e) {
+            return false;
+        }
+    }
+
+    private static Member readTrailer(
+            final FileChannel channel, final Member member, final long end, final long crc, final long length)
+            throws IOException {
+        final ByteBuffer trailer = ByteBuffer.allocate(TRAILER_LENGTH);
+        if (readFully(channel, trailer, end) < TRAILER_LENGTH) {
+            // The compressed data is complete, only the trailer is missing
+            member.addFlushPoint(new FlushPoint(end, length, crc, true));
+            return member;
+        }
+        trailer.flip();
+        if (getIntLE(trailer) != (int) crc || getIntLE(trailer) != (int) length) {
+            throw new IOException("Corrupted GZIP member ending at offset " + end);
+        }
+        member.end = end + TRAILER_LENGTH;
+        member.length = length;
+        return member;
+    }
+
+    /**
+     * Returns the last flush point after which the member can be terminated.
+     * <p>
+     * Since the sync marker can also appear inside compressed data, each candidate is checked by decompressing the
+     * terminated member.
+     * </p>
+     */
+    private static FlushPoint findLastFlushPoint(
+            final FileChannel channel, final long start, final Deque<FlushPoint> flushPoints) throws IOException {
+        final Iterator<FlushPoint> iterator = flushPoints.descendingIterator();
+        while (iterator.hasNext()) {
+            final FlushPoint flushPoint = iterator.next();
+            if (flushPoint.finished || canTerminate(channel, start, flushPoint)) {
+                return flushPoint;
+            }
+        }
+        return null;
+    }
+
+    private static boolean canTerminate(final FileChannel channel, final long start, final FlushPoint flushPoint)
+            throws IOException {
+        final Inflater inflater = new Inflater(true);
+        try {
+            final byte[] input = new byte[BUFFER_SIZE];
+            final byte[] output = new byte[BUFFER_SIZE];
+            final CRC32 crc = new CRC32();
+            long position = start + HEADER_LENGTH;
+            while (position < flushPoint.offset) {
+                final int read = channel.read(
+                        ByteBuffer.wrap(input, 0, (int) Math.min(BUFFER_SIZE, flushPoint.offset - position)), position);
+                if (read <= 0) {
+                    return false;
+                }
+                inflater.setInput(input, 0, read);
+                if (!inflate(inflater, crc, output) || inflater.finished()) {
+                    return false;
+                }
+                position += read;
+            }
+            inflater.setInput(FINAL_BLOCK);
+            return inflate(inflater, crc, output)
+                    && inflater.finished()
+                    && inflater.getBytesWritten() == flushPoint.length
+                    && crc.getValue() == flushPoint.crc;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int readFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+            throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, position + total);
+            if (read <= 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+            throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+        channel.force(false);
+    }
+
+    private static int getIntLE(final ByteBuffer buffer) {
+        return (buffer.get() & 0xff)
+                | (buffer.get() & 0xff) << 8
+                | (buffer.get() & 0xff) << 16
+                | (buffer.get() & 0xff) << 24;
+    }
+
+    private static void putIntLE(final ByteBuffer buffer, final int value) {
+        buffer.put((byte) value)
+                .put((byte) (value >>> 8))
+                .put((byte) (value >>> 16))
+                .put((byte) (value >>> 24));
+    }
+
+    /**
+     * A GZIP member: either complete, with its end offset and the length of its content, or unfinished, with the
+     * points where it was flushed.
+     */
+    private static final class Member {
+
+        private long end = -1;
+        private long length;
+        private final Deque<FlushPoint> flushPoints = new ArrayDeque<>();
+
+        private void addFlushPoint(final FlushPoint flushPoint) {
+            if (flushPoints.size() == MAX_FLUSH_POINTS) {
+                flushPoints.removeFirst();
+            }
+            flushPoints.addLast(flushPoint);
+        }
+    }
+
+    /**
+     * A point where the compressed data of a member can be cut.
+     *
+     * @param offset   the offset in the file after the flushed data.
+     * @param length   the length of the content flushed so far.
+     * @param crc      the CRC-32 of the content flushed so far.
+     * @param finished whether the compressed data is complete and only the trailer is missing.
+     */
+    private record FlushPoint(long offset, long length, long crc, boolean finished) {}
+}
@@ -34,6 +34,7 @@ import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.zip.GZIPOutputStream;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LifeCycle;
 import org.apache.logging.log4j.core.LogEvent;
@@ -70,6 +71,10 @@ public class RollingFileManager extends FileManager {
     private volatile boolean initialized;
     private volatile String fileName;
     private final boolean directWrite;
+    /**
+     * The compressed file repaired by {@link #initialize()}, which is not repaired again when it is opened.
+     */
+    private volatile String recoveredFileName;
     private final CopyOnWriteArrayList<RolloverListener> rolloverListeners = new CopyOnWriteArrayList<>();
 
     /* This executor pool will create a new Thread for every work async action to be performed. Using it allows
@@ -148,10 +153,18 @@ public class RollingFileManager extends FileManager {
                 // LOG4J2-2485: Initialize size from the most recently written file.
                 final File file = new File(getFileName());
                 if (file.exists()) {
-                    size = file.length();
+                    // The size of a compressed file is the size of its uncompressed content
+                    size = isCompressingOnWrite() ? recoverCompressedFile(file) : file.length();
                 } else {
                     ((DirectFileRolloverStrategy) rolloverStrategy).clearCurrentFileName();
                 }
+                if (rolloverStrategy instanceof DirectWriteRolloverStrategy
+                        && ((DirectWriteRolloverStrategy) rolloverStrategy).isCompressOnWrite()
+                        && !isCompressingOnWrite()) {
+                    LOGGER.warn(
+                            "compressOnWrite requires a file pattern ending in .gz, {} will be compressed on rollover",
+                            getName());
+                }
             }
             triggeringPolicy.initialize(this);
             if (triggeringPolicy instanceof LifeCycle) {
@@ -271,6 +284,65 @@ public class RollingFileManager extends FileManager {
         return patternProcessor.getCompressActionFactory();
     }
 
+    /**
+     * Returns whether the log events are compressed while they are written.
+     *
+     * @return {@code true} if the current file is a GZIP file written directly.
+     * @since 3.0.0
+     */
+    public boolean isCompressingOnWrite() {
+        return rolloverStrategy instanceof DirectWriteRolloverStrategy
+                && ((DirectWriteRolloverStrategy) rolloverStrategy).isCompressingOnWrite(this);
+    }
+
+    @Override
+    @SuppressFBWarnings(
+            value = "PATH_TRAVERSAL_IN",
+            justification = "The name of the accessed files is based on a configuration value.")
+    protected OutputStream createOutputStream() throws IOException {
+        final String currentFileName = getFileName();
+        if (isCompressingOnWrite() && !currentFileName.equals(recoveredFileName)) {
+            size = recoverCompressedFile(new File(currentFileName));
+        }
+        recoveredFileName = null;
+        return super.createOutputStream();
+    }
+
+    /**
+     * Repairs a compressed file that will be appended to, since the previous JVM may have died before finishing its
+     * last GZIP member.
+     *
+     * @return the length of the uncompressed content that remains in the file once it is opened.
+     */
+    private long recoverCompressedFile(final File file) {
+        if (!isAppend() || file.length() == 0) {
+            return 0;
+        }
+        recoveredFileName = file.getPath();
+        try {
+            return GzipFileRecovery.recover(file.toPath());
+        } catch (final IOException e) {
+            logError("Unable to recover compressed file " + file, e);
+            return file.length();
+        }
+    }
+
+    @Override
+    protected OutputStream wrapOutputStream(final FileOutputStream fos) throws IOException {
+        // Each flush of the manager is a sync flush, so the file is readable up to the last flush
+        return isCompressingOnWrite()
+                ? new GZIPOutputStream(
+                        fos, getBufferSize() > 0 ? getBufferSize() : Constants.ENCODER_BYTE_BUFFER_SIZE, true)
+                : fos;
+    }
+
+    /**
+     * Returns whether this manager writes through {@link #createOutputStream()}, which can compress the log events.
+     */
+    boolean supportsCompressOnWrite() {
+        return true;
+    }
+
     // override to make visible for unit tests
     @Override
     protected void write(final byte[] bytes, final int offset, final int length, final boolean immediateFlush) {
@@ -230,6 +230,12 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
         }
     }
 
+    @Override
+    boolean supportsCompressOnWrite() {
+        // The RandomAccessFile does not go through createOutputStream()
+        return false;
+    }
+
     /**
      * Returns the buffer capacity.
      *
@@ -0,0 +1,376 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LoggingException;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * Index of the archived files of a rollover strategy, persisted in a hidden file of their directory.
+ * <p>
+ * The rollover strategy reports the files it creates, renames and deletes, and the index records these changes in a
+ * journal. The directory is only listed again if the index does not match its content.
+ * </p>
+ * <p>
+ * Files reported by the rollover strategy are <em>pending</em> until they are seen on disk with their final name: a
+ * file can still be compressed, in which case it is found under its uncompressed name. Pending files are checked each
+ * time the index is read. The size and modification time of the other files are checked when the index is loaded.
+ * </p>
+ */
+final class RolloverFileIndex {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    static final String FILE_NAME_PREFIX = ".log4j-rollover-index-";
+
+    private static final String HEADER = "# Log4j rollover index v1";
+
+    private static final char ADDED = '+';
+    private static final char REMOVED = '-';
+    private static final char SEPARATOR = '\t';
+
+    /**
+     * Number of obsolete journal records tolerated before the index file is rewritten.
+     */
+    private static final int COMPACTION_THRESHOLD = 64;
+
+    private final Path directory;
+    private final Pattern pattern;
+    private final Path file;
+
+    /**
+     * The archived files by index, or {@code null} if the index must be loaded.
+     */
+    private TreeMap<Integer, Entry> entries;
+
+    /**
+     * Whether the persisted index must be ignored, because it did not match the directory.
+     */
+    private boolean stale;
+
+    private int journalLength;
+
+    /**
+     * @param directory      the directory of the archived files
+     * @param pattern        matches the names of the archived files, with the index in the first group
+     * @param logfilePattern the file pattern of the appender, which identifies the index file
+     */
+    RolloverFileIndex(final Path directory, final Pattern pattern, final String logfilePattern) {
+        this.directory = directory;
+        this.pattern = pattern;
+        this.file = directory.resolve(FILE_NAME_PREFIX + Integer.toHexString(logfilePattern.hashCode()));
+    }
+
+    boolean matches(final Path directory, final Pattern pattern) {
+        return this.directory.equals(directory) && this.pattern.pattern().equals(pattern.pattern());
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the archived files by index.
+     *
+     * @param current the file to exclude, or {@code null}
+     * @return a new mutable map
+     */
+    synchronized TreeMap<Integer, Path> getFiles(final Path current) {
+        if (entries == null) {
+            if (stale || !load()) {
+                rebuild();
+            }
+        }
+        TreeMap<Integer, Path> files = resolve(current);
+        if (files == null) {
+            LOGGER.debug("Rollover index {} does not match directory {}, listing it", file, directory);
+            rebuild();
+            files = resolve(current);
+        }
+        return files != null ? files : new TreeMap<>();
+    }
+
+    /**
+     * Records a file created by the rollover strategy.
+     *
+     * @param index         the index of the file
+     * @param name          the final name of the file
+     * @param alternateName the name of the file before its compression, or {@code null}
+     */
+    synchronized void add(final int index, final String name, final String alternateName) {
+        if (entries == null) {
+            return;
+        }
+        final Entry entry = new Entry(name, alternateName, -1, -1);
+        if (!entry.equals(entries.put(index, entry))) {
+            append(record(index, entry));
+        }
+    }
+
+    synchronized void remove(final int index) {
+        if (entries != null && entries.remove(index) != null) {
+            append(REMOVED + "" + SEPARATOR + index);
+        }
+    }
+
+    /**
+     * Forces the directory to be listed again, the next time the index is read.
+     */
+    synchronized void invalidate() {
+        entries = null;
+        stale = true;
+    }
+
+    /**
+     * Returns the paths of the indexed files, or {@code null} if a pending file cannot be found.
+     */
+    private TreeMap<Integer, Path> resolve(final Path current) {
+        final TreeMap<Integer, Path> files = new TreeMap<>();
+        final Integer lastIndex = entries.isEmpty() ? null : entries.lastKey();
+        for (final Map.Entry<Integer, Entry> mapEntry : entries.entrySet()) {
+            final Integer index = mapEntry.getKey();
+            final Entry entry = mapEntry.getValue();
+            final Path path;
+            if (entry.isPending()) {
+                final Path finalPath = directory.resolve(entry.name);
+                final Path alternatePath = entry.alternateName != null ? directory.resolve(entry.alternateName) : null;
+                final BasicFileAttributes attributes = readAttributes(finalPath);
+                if (alternatePath != null && Files.exists(alternatePath)) {
+                    // Not compressed yet
+                    path = alternatePath;
+                } else if (attributes != null) {
+                    path = finalPath;
+                    // The last file may still be written
+                    if (!index.equals(lastIndex)) {
+                        final Entry settled = new Entry(
+                                entry.name,
+                                null,
+                                attributes.size(),
+                                attributes.lastModifiedTime().toMillis());
+                        mapEntry.setValue(settled);
+                        append(record(index, settled));
+                    }
+                } else {
+                    return null;
+                }
+            } else {
+                path = directory.resolve(entry.name);
+            }
+            if (!path.equals(current)) {
+                files.put(index, path);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Loads the persisted index and checks that it matches the directory.
+     *
+     * @return {@code true} if the index was loaded
+     */
+    private boolean load() {
+        final TreeMap<Integer, Entry> loaded = new TreeMap<>();
+        int records = 0;
+        try (final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine()) || !pattern.pattern().equals(reader.readLine())) {
+                return false;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] fields = line.split(String.valueOf(SEPARATOR), -1);
+                final int index = Integer.parseInt(fields[1]);
+                if (fields[0].charAt(0) == ADDED) {
+                    loaded.put(
+                            index,
+                            new Entry(
+                                    fields[4],
+                                    fields[5].isEmpty() ? null : fields[5],
+                                    Long.parseLong(fields[2]),
+                                    Long.parseLong(fields[3])));
+                } else {
+                    loaded.remove(index);
+                }
+                records++;
+            }
+        } catch (final NoSuchFileException e) {
+            return false;
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.warn("Unable to read rollover index {}, listing directory {}", file, directory, e);
+            return false;
+        }
+        for (final Entry entry : loaded.values()) {
+            if (!isValid(entry)) {
+                LOGGER.debug("Rollover index {} does not match directory {}", file, directory);
+                return false;
+            }
+        }
+        entries = loaded;
+        journalLength = records;
+        return true;
+    }
+
+    /**
+     * Checks an entry of a loaded index against the attributes of its file.
+     */
+    private boolean isValid(final Entry entry) {
+        if (entry.isPending()) {
+            // Checked when the index is read
+            return true;
+        }
+        final BasicFileAttributes attributes = readAttributes(directory.resolve(entry.name));
+        return attributes != null
+                && attributes.size() == entry.size
+                && attributes.lastModifiedTime().toMillis() == entry.lastModified;
+    }
+
+    /**
+     * Lists the directory and rewrites the index.
+     */
+    private void rebuild() {
+        final TreeMap<Integer, Entry> scanned = new TreeMap<>();
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (final Path path : stream) {
+                final String name = path.getFileName().toString();
+                final Matcher matcher = pattern.matcher(name);
+                if (matcher.matches() && !name.startsWith(FILE_NAME_PREFIX)) {
+                    try {
+                        final int index = Integer.parseInt(matcher.group(1));
+                        final BasicFileAttributes attributes = readAttributes(path);
+                        if (attributes != null) {
+                            scanned.put(
+                                    index,
+                                    new Entry(
+                                            name,
+                                            null,
+                                            attributes.size(),
+                                            attributes.lastModifiedTime().toMillis()));
+                        }
+                    } catch (final NumberFormatException ex) {
+                        LOGGER.debug("Ignoring file {} which matches pattern but the index is invalid.", name);
+                    }
+                }
+            }
+        } catch (final IOException ioe) {
+            throw new LoggingException("Error reading folder " + directory + " " + ioe.getMessage(), ioe);
+        }
+        entries = scanned;
+        stale = false;
+        compact();
+    }
+
+    private void append(final String record) {
+        if (journalLength > 2 * entries.size() + COMPACTION_THRESHOLD) {
+            compact();
+            return;
+        }
+        try (final BufferedWriter writer = Files.newBufferedWriter(
+                file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(record);
+            writer.write('\n');
+            journalLength++;
+        } catch (final IOException e) {
+            LOGGER.warn("Unable to update rollover index {}", file, e);
+            // The index will be rebuilt on restart
+            deleteFile();
+        }
+    }
+
+    /**
+     * Rewrites the index file with one record per file.
+     */
+    private void compact() {
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (final BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.write('\n');
+                writer.write(pattern.pattern());
+                writer.write('\n');
+                for (final Map.Entry<Integer, Entry> entry : entries.entrySet()) {
+                    writer.write(record(entry.getKey(), entry.getValue()));
+                    writer.write('\n');
+                }
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            journalLength = entries.size();
+        } catch (final IOException e) {
+            LOGGER.warn("Unable to write rollover index {}", file, e);
+            deleteFile();
+        }
+    }
+
+    private void deleteFile() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException e) {
+            LOGGER.warn("Unable to delete rollover index {}", file, e);
+        }
+    }
+
+    private static String record(final int index, final Entry entry) {
+        return ADDED + "" + SEPARATOR + index + SEPARATOR + entry.size + SEPARATOR + entry.lastModified + SEPARATOR
+                + entry.name + SEPARATOR + (entry.alternateName != null ? entry.alternateName : "");
+    }
+
+    private static BasicFileAttributes readAttributes(final Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * An archived file.
+     *
+     * @param name          the name of the file.
+     * @param alternateName the name of the file before its compression, or {@code null}.
+     * @param size          the size of the file, or {@code -1} if the file is pending.
+     * @param lastModified  the last modification time of the file, or {@code -1} if the file is pending.
+     */
+    private record Entry(String name, String alternateName, long size, long lastModified) {
+
+        private boolean isPending() {
+            return size < 0;
+        }
+    }
+}
@@ -22,6 +22,9 @@ import java.util.zip.Deflater;
 import org.apache.logging.log4j.core.appender.rolling.action.Action;
 import org.apache.logging.log4j.core.appender.rolling.action.CompressActionFactory;
 import org.apache.logging.log4j.core.appender.rolling.action.CompressActionFactoryProvider;
+import org.apache.logging.log4j.core.impl.CoreProperties.GzipCompressionProperties;
+import org.apache.logging.log4j.kit.env.PropertyEnvironment;
+import org.apache.logging.log4j.plugins.Inject;
 import org.apache.logging.log4j.plugins.Namespace;
 import org.apache.logging.log4j.plugins.Ordered;
 import org.apache.logging.log4j.plugins.Plugin;
@@ -34,10 +37,28 @@ import org.jspecify.annotations.Nullable;
 @NullMarked
 public class JreCompressActionFactoryProvider implements CompressActionFactoryProvider {
 
+    private final GzipCompressionProperties gzipProperties;
+
+    public JreCompressActionFactoryProvider() {
+        this(PropertyEnvironment.getGlobal());
+    }
+
+    @Inject
+    public JreCompressActionFactoryProvider(final PropertyEnvironment environment) {
+        this.gzipProperties = environment.getProperty(GzipCompressionProperties.class);
+    }
+
     @Override
     public @Nullable CompressActionFactory createFactoryForAlgorithm(String extension) {
         return switch (extension) {
-            case GzCompressActionFactory.NAME -> new GzCompressActionFactory();
+            case GzCompressActionFactory.NAME -> {
+                final int threads = gzipProperties.threads() > 0
+                        ? gzipProperties.threads()
+                        : Runtime.getRuntime().availableProcessors();
+                yield threads > 1
+                        ? new ParallelGzCompressActionFactory(threads, gzipProperties.blockSize())
+                        : new GzCompressActionFactory();
+            }
             case ZipCompressActionFactory.NAME -> new ZipCompressActionFactory();
             default -> null;
         };
@@ -58,6 +79,27 @@ public class JreCompressActionFactoryProvider implements CompressActionFactoryPr
         }
     }
 
+    private static final class ParallelGzCompressActionFactory implements CompressActionFactory {
+
+        private final int threads;
+        private final int blockSize;
+
+        private ParallelGzCompressActionFactory(final int threads, final int blockSize) {
+            this.threads = threads;
+            this.blockSize = blockSize;
+        }
+
+        @Override
+        public Action createCompressAction(Path source, Path destination, Map<String, String> options) {
+            return new ParallelGzCompressAction(source, destination, Deflater.DEFAULT_COMPRESSION, threads, blockSize);
+        }
+
+        @Override
+        public String getAlgorithmName() {
+            return GzCompressActionFactory.NAME;
+        }
+    }
+
     private static final class ZipCompressActionFactory implements CompressActionFactory {
 
         static final String NAME = "zip";
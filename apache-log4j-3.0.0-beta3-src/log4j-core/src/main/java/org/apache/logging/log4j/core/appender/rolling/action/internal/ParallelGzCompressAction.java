@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action.internal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.apache.logging.log4j.core.appender.rolling.action.AbstractCompressAction;
+
+/**
+ * Compresses a file using GZ compression on multiple threads.
+ * <p>
+ * The file is split in blocks, which are compressed in parallel into independent GZIP members. The members are
+ * concatenated in order, which is a valid GZIP file.
+ * </p>
+ */
+public final class ParallelGzCompressAction extends AbstractCompressAction {
+
+    /**
+     * GZIP compression level to use.
+     *
+     * @see Deflater#setLevel(int)
+     */
+    private final int compressionLevel;
+
+    private final int threads;
+
+    private final int blockSize;
+
+    /**
+     * Create new instance of ParallelGzCompressAction.
+     *
+     * @param source       file to compress, may not be null.
+     * @param destination  compressed file, may not be null.
+     * @param compressionLevel
+     *                     Gzip deflater compression level.
+     * @param threads      number of threads compressing the file.
+     * @param blockSize    size in bytes of the blocks compressed in parallel.
+     */
+    public ParallelGzCompressAction(
+            final Path source,
+            final Path destination,
+            final int compressionLevel,
+            final int threads,
+            final int blockSize) {
+        super(source, destination);
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive: " + blockSize);
+        }
+        this.compressionLevel = compressionLevel;
+        this.threads = threads;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    protected OutputStream wrapOutputStream(final OutputStream stream) {
+        return new ParallelGzipOutputStream(stream, compressionLevel, threads, blockSize);
+    }
+
+    @Override
+    protected String getAlgorithmName() {
+        return "GZ";
+    }
+
+    /**
+     * An output stream that compresses each block of data into a GZIP member on a {@link ForkJoinPool}.
+     * <p>
+     * At most two blocks per thread are in flight, which bounds the memory used.
+     * </p>
+     */
+    static final class ParallelGzipOutputStream extends OutputStream {
+
+        private static final byte[] HEADER = {
+            (byte) 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0,
+        };
+
+        private static final int TRAILER_LENGTH = 8;
+
+        private final OutputStream out;
+        private final int compressionLevel;
+        private final int blockSize;
+        private final int maxPendingBlocks;
+        private final ForkJoinPool pool;
+        private final Queue<Future<ByteBuffer>> pendingBlocks = new ArrayDeque<>();
+        private byte[] block;
+        private int count;
+        private boolean empty = true;
+        private boolean closed;
+
+        ParallelGzipOutputStream(
+                final OutputStream out, final int compressionLevel, final int threads, final int blockSize) {
+            this.out = out;
+            this.compressionLevel = compressionLevel;
+            this.blockSize = blockSize;
+            this.maxPendingBlocks = 2 * threads;
+            this.pool = new ForkJoinPool(threads);
+            this.block = new byte[blockSize];
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            block[count++] = (byte) b;
+            if (count == blockSize) {
+                submitBlock();
+            }
+        }
+
+        @Override
+        public void write(final byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                final int chunk = Math.min(len, blockSize - count);
+                System.arraycopy(b, off, block, count, chunk);
+                count += chunk;
+                off += chunk;
+                len -= chunk;
+                if (count == blockSize) {
+                    submitBlock();
+                }
+            }
+        }
+
+        /**
+         * Compresses the pending data into a GZIP member and waits for all the members to be written.
+         */
+        @Override
+        public void flush() throws IOException {
+            if (count > 0) {
+                submitBlock();
+            }
+            while (!pendingBlocks.isEmpty()) {
+                writePendingBlock();
+            }
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try (out) {
+                // An empty file still needs a GZIP member
+                if (count > 0 || empty) {
+                    submitBlock();
+                }
+                while (!pendingBlocks.isEmpty()) {
+                    writePendingBlock();
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        private void submitBlock() throws IOException {
+            final byte[] data = block;
+            final int length = count;
+            pendingBlocks.add(pool.submit(() -> compress(data, length, compressionLevel)));
+            block = new byte[blockSize];
+            count = 0;
+            empty = false;
+            while (pendingBlocks.size() > maxPendingBlocks) {
+                writePendingBlock();
+            }
+        }
+
+        private void writePendingBlock() throws IOException {
+            final ByteBuffer member;
+            try {
+                member = pendingBlocks.remove().get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while compressing GZIP block");
+            } catch (final ExecutionException e) {
+                throw new IOException("Unable to compress GZIP block", e.getCause());
+            }
+            out.write(member.array(), member.arrayOffset(), member.limit());
+        }
+
+        /**
+         * Compresses a block of data into a complete GZIP member.
+         */
+        static ByteBuffer compress(final byte[] data, final int length, final int compressionLevel) {
+            final Deflater deflater = new Deflater(compressionLevel, true);
+            try {
+                deflater.setInput(data, 0, length);
+                deflater.finish();
+                byte[] member = new byte[HEADER.length + length + (length >> 3) + 64 + TRAILER_LENGTH];
+                System.arraycopy(HEADER, 0, member, 0, HEADER.length);
+                int position = HEADER.length;
+                while (!deflater.finished()) {
+                    if (position == member.length - TRAILER_LENGTH) {
+                        member = Arrays.copyOf(member, member.length * 2);
+                    }
+                    position += deflater.deflate(member, position, member.length - TRAILER_LENGTH - position);
+                }
+                final CRC32 crc = new CRC32();
+                crc.update(data, 0, length);
+                writeIntLE(member, position, (int) crc.getValue());
+                writeIntLE(member, position + 4, length);
+                return ByteBuffer.wrap(member, 0, position + TRAILER_LENGTH);
+            } finally {
+                deflater.end();
+            }
+        }
+
+        private static void writeIntLE(final byte[] buffer, final int offset, final int value) {
+            buffer[offset] = (byte) value;
+            buffer[offset + 1] = (byte) (value >>> 8);
+            buffer[offset + 2] = (byte) (value >>> 16);
+            buffer[offset + 3] = (byte) (value >>> 24);
+        }
+    }
+}
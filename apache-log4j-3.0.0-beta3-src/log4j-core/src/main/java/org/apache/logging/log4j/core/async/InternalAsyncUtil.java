@@ -19,10 +19,10 @@ package org.apache.logging.log4j.core.async;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AsyncAppender;
 import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.util.CallSiteLocator;
 import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.message.AsynchronouslyFormattable;
 import org.apache.logging.log4j.message.Message;
-import org.apache.logging.log4j.util.StackLocatorUtil;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -82,6 +82,6 @@ public final class InternalAsyncUtil {
      */
     public static @Nullable StackTraceElement getLocation(
             final String fqcn, final @Nullable StackTraceElement location, final boolean requiresLocation) {
-        return location != null ? location : requiresLocation ? StackLocatorUtil.calcLocation(fqcn) : null;
+        return location != null ? location : requiresLocation ? CallSiteLocator.calcLocation(fqcn) : null;
     }
 }
@@ -54,6 +54,7 @@ import org.apache.logging.log4j.core.config.arbiters.Arbiter;
 import org.apache.logging.log4j.core.config.arbiters.SelectArbiter;
 import org.apache.logging.log4j.core.filter.AbstractFilterable;
 import org.apache.logging.log4j.core.impl.CoreProperties.ConfigurationProperties;
+import org.apache.logging.log4j.core.impl.CoreProperties.ConfigurationWatchProperties;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 import org.apache.logging.log4j.core.lookup.ConfigurationStrSubstitutor;
 import org.apache.logging.log4j.core.lookup.Interpolator;
@@ -67,6 +68,7 @@ import org.apache.logging.log4j.core.script.ScriptManager;
 import org.apache.logging.log4j.core.script.ScriptManagerFactory;
 import org.apache.logging.log4j.core.time.NanoClock;
 import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.core.util.FileWatchEventService;
 import org.apache.logging.log4j.core.util.Source;
 import org.apache.logging.log4j.core.util.WatchManager;
 import org.apache.logging.log4j.core.util.Watcher;
@@ -151,6 +153,8 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
     private String name;
     private ConcurrentMap<String, Appender> appenders = new ConcurrentHashMap<>();
     private ConcurrentMap<String, LoggerConfig> loggerConfigs = new ConcurrentHashMap<>();
+    // Rebuilt by setParents() after each change to loggerConfigs
+    private volatile LoggerConfigIndex loggerConfigIndex = LoggerConfigIndex.EMPTY;
     private List<CustomLevelConfig> customLevels = List.of();
     private final ConcurrentMap<String, String> properties = new ConcurrentHashMap<>();
     // TODO(ms): consider initializing these final fields via injectMembers (and make non-final)
@@ -190,7 +194,12 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
         this.configurationScheduler = parentInstanceFactory.getInstance(ConfigurationScheduler.class);
         this.environment = environment;
         this.instanceFactory = parentInstanceFactory.newChildInstanceFactory();
-        this.watchManager = new WatchManager(configurationScheduler, LOGGER);
+        this.watchManager = new WatchManager(
+                configurationScheduler,
+                LOGGER,
+                environment.getProperty(ConfigurationWatchProperties.class).useWatchService()
+                        ? FileWatchEventService.getInstance(environment)
+                        : null);
 
         configurationProcessor = new ConfigurationProcessor(instanceFactory);
         instanceFactory.registerBinding(Configuration.KEY, Lazy.weak(this));
@@ -1049,26 +1058,8 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
      */
     @Override
     public LoggerConfig getLoggerConfig(final String loggerName) {
-        LoggerConfig loggerConfig = loggerConfigs.get(loggerName);
-        if (loggerConfig != null) {
-            return loggerConfig;
-        }
-        String substr = loggerName;
-        while ((substr = getSubName(substr)) != null) {
-            loggerConfig = loggerConfigs.get(substr);
-            if (loggerConfig != null) {
-                return loggerConfig;
-            }
-        }
-        return root;
-    }
-
-    private static @Nullable String getSubName(final String name) {
-        if (Strings.isEmpty(name)) {
-            return null;
-        }
-        final int i = name.lastIndexOf('.');
-        return i > 0 ? name.substring(0, i) : Strings.EMPTY;
+        final LoggerConfig loggerConfig = loggerConfigIndex.find(loggerName);
+        return loggerConfig != null ? loggerConfig : root;
     }
 
     @Override
@@ -1175,6 +1166,7 @@ public abstract class AbstractConfiguration extends AbstractFilterable implement
     }
 
     private void setParents() {
+        loggerConfigIndex = new LoggerConfigIndex(loggerConfigs);
         for (final Map.Entry<String, LoggerConfig> entry : loggerConfigs.entrySet()) {
             final LoggerConfig logger = entry.getValue();
             String key = entry.getKey();
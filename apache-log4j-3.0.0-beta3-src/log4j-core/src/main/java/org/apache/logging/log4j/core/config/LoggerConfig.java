@@ -34,6 +34,7 @@ import org.apache.logging.log4j.core.filter.AbstractFilterable;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.impl.LogEventFactory;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.util.CallSiteLocator;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.plugins.Configurable;
 import org.apache.logging.log4j.plugins.Plugin;
@@ -44,7 +45,6 @@ import org.apache.logging.log4j.plugins.PluginFactory;
 import org.apache.logging.log4j.plugins.di.Key;
 import org.apache.logging.log4j.plugins.validation.constraints.Required;
 import org.apache.logging.log4j.util.PerformanceSensitive;
-import org.apache.logging.log4j.util.StackLocatorUtil;
 import org.apache.logging.log4j.util.Strings;
 import org.jspecify.annotations.Nullable;
 
@@ -466,7 +466,7 @@ public class LoggerConfig extends AbstractFilterable {
     }
 
     private StackTraceElement location(final String fqcn) {
-        return requiresLocation() ? StackLocatorUtil.calcLocation(fqcn) : null;
+        return requiresLocation() ? CallSiteLocator.calcLocation(fqcn) : null;
     }
 
     /**
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An immutable prefix tree of logger configurations, indexed by the dot-separated segments of their names.
+ * <p>
+ * Finding the configuration of a logger walks the segments of the logger name and remembers the deepest
+ * configuration found, without allocating intermediate strings.
+ * </p>
+ */
+final class LoggerConfigIndex {
+
+    static final LoggerConfigIndex EMPTY = new LoggerConfigIndex(Map.of());
+
+    private final Node root = new Node();
+
+    LoggerConfigIndex(final Map<String, LoggerConfig> loggerConfigs) {
+        for (final Map.Entry<String, LoggerConfig> entry : loggerConfigs.entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+        root.compact();
+    }
+
+    private void add(final String name, final LoggerConfig loggerConfig) {
+        Node node = root;
+        if (!name.isEmpty()) {
+            int start = 0;
+            int end;
+            do {
+                end = segmentEnd(name, start);
+                node = node.addChild(name.substring(start, end));
+                start = end + 1;
+            } while (end < name.length());
+        }
+        node.loggerConfig = loggerConfig;
+    }
+
+    /**
+     * Finds the configuration of the logger with the given name or of its nearest ancestor.
+     *
+     * @param loggerName a logger name
+     * @return the configuration of the nearest logger or {@code null} if none matches
+     */
+    @Nullable
+    LoggerConfig find(final String loggerName) {
+        Node node = root;
+        LoggerConfig match = root.loggerConfig;
+        final int length = loggerName.length();
+        if (length == 0) {
+            return match;
+        }
+        int start = 0;
+        while (true) {
+            final int end = segmentEnd(loggerName, start);
+            node = node.getChild(loggerName, start, end);
+            if (node == null) {
+                return match;
+            }
+            if (node.loggerConfig != null) {
+                match = node.loggerConfig;
+            }
+            if (end == length) {
+                return match;
+            }
+            start = end + 1;
+        }
+    }
+
+    private static int segmentEnd(final String name, final int start) {
+        final int end = name.indexOf('.', start);
+        return end < 0 ? name.length() : end;
+    }
+
+    private static int hash(final CharSequence chars, final int start, final int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + chars.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Node {
+
+        private static final String[] NO_SEGMENTS = new String[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private @Nullable LoggerConfig loggerConfig;
+        // Only used while the index is built
+        private @Nullable Map<String, Node> pendingChildren;
+        // Open-addressing hash table of the children, indexed by segment
+        private String[] segments = NO_SEGMENTS;
+        private Node[] children = NO_CHILDREN;
+
+        private Node addChild(final String segment) {
+            if (pendingChildren == null) {
+                pendingChildren = new HashMap<>();
+            }
+            return pendingChildren.computeIfAbsent(segment, ignored -> new Node());
+        }
+
+        private void compact() {
+            if (pendingChildren == null) {
+                return;
+            }
+            final int capacity = Integer.highestOneBit(Math.max(1, pendingChildren.size() * 2 - 1)) << 1;
+            segments = new String[capacity];
+            children = new Node[capacity];
+            final int mask = capacity - 1;
+            for (final Map.Entry<String, Node> entry : pendingChildren.entrySet()) {
+                final String segment = entry.getKey();
+                int index = hash(segment, 0, segment.length()) & mask;
+                while (segments[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                segments[index] = segment;
+                children[index] = entry.getValue();
+                entry.getValue().compact();
+            }
+            pendingChildren = null;
+        }
+
+        private @Nullable Node getChild(final String name, final int start, final int end) {
+            if (segments.length == 0) {
+                return null;
+            }
+            final int mask = segments.length - 1;
+            final int length = end - start;
+            int index = hash(name, start, end) & mask;
+            String segment;
+            while ((segment = segments[index]) != null) {
+                if (segment.length() == length && name.regionMatches(start, segment, 0, length)) {
+                    return children[index];
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+    }
+}
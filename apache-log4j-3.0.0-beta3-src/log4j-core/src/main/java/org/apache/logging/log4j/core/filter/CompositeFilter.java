@@ -37,6 +37,12 @@ import org.apache.logging.log4j.util.PerformanceSensitive;
 
 /**
  * Composes and invokes one or more filters.
+ * <p>
+ * The filters are compiled into a simpler chain when the composite filter is created: nested composite filters are
+ * flattened, filters that always return {@link Result#NEUTRAL} are removed, filters that can never be reached are
+ * removed, and filters on the level of the events are evaluated before other filters, when this does not change the
+ * result.
+ * </p>
  */
 @Configurable(printObject = true)
 @Plugin("Filters")
@@ -46,8 +52,141 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     private static final Filter[] EMPTY_FILTERS = Filter.EMPTY_ARRAY;
     private final Filter[] filters;
 
+    /**
+     * The filters that are evaluated.
+     */
+    private final Filter[] chain;
+
     private CompositeFilter(final Filter[] filters) {
         this.filters = filters == null ? EMPTY_FILTERS : filters;
+        this.chain = compile(this.filters);
+    }
+
+    /**
+     * Compiles filters into an equivalent chain of filters, that is faster to evaluate.
+     *
+     * @param filters The filters to compile.
+     * @return An array of filters that returns the same results as {@code filters}.
+     */
+    static Filter[] compile(final Filter[] filters) {
+        final List<Filter> chain = new ArrayList<>(filters.length);
+        flatten(filters, chain);
+        // Segment of filters that can be evaluated in any order
+        int segmentStart = 0;
+        Result segmentResult = null;
+        for (int i = 0; i < chain.size(); i++) {
+            final Filter filter = chain.get(i);
+            final Result result = getConstantResult(filter);
+            if (result == Result.NEUTRAL) {
+                chain.remove(i--);
+                continue;
+            }
+            if (result != null) {
+                // The following filters can not be reached
+                chain.subList(i + 1, chain.size()).clear();
+                break;
+            }
+            final Result filterResult = getSingleResult(filter);
+            if (filterResult == null || filterResult != segmentResult) {
+                hoistLevelFilters(chain.subList(segmentStart, i));
+                segmentStart = filterResult == null ? i + 1 : i;
+                segmentResult = filterResult;
+            }
+        }
+        hoistLevelFilters(chain.subList(segmentStart, chain.size()));
+        return chain.toArray(EMPTY_FILTERS);
+    }
+
+    private static void flatten(final Filter[] filters, final List<Filter> chain) {
+        for (final Filter filter : filters) {
+            if (filter instanceof CompositeFilter) {
+                flatten(((CompositeFilter) filter).filters, chain);
+            } else if (filter != null) {
+                chain.add(filter);
+            }
+        }
+    }
+
+    /**
+     * Returns the result of a filter that does not depend on the event.
+     *
+     * @return the result of the filter or {@code null} if it depends on the event.
+     */
+    private static Result getConstantResult(final Filter filter) {
+        if (filter.getClass() == NeutralFilter.class) {
+            return Result.NEUTRAL;
+        }
+        if (filter instanceof DenyAllFilter) {
+            return Result.DENY;
+        }
+        if (isStateless(filter) && filter.getOnMatch() == Result.NEUTRAL && filter.getOnMismatch() == Result.NEUTRAL) {
+            return Result.NEUTRAL;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the only result, besides {@link Result#NEUTRAL}, of a stateless filter.
+     * <p>
+     * The order of consecutive filters with the same single result does not change the result of the chain.
+     * </p>
+     *
+     * @return the result of the filter that is not neutral or {@code null} if the order of the filter matters.
+     */
+    private static Result getSingleResult(final Filter filter) {
+        if (!isStateless(filter)) {
+            return null;
+        }
+        final Result onMatch = filter.getOnMatch();
+        final Result onMismatch = filter.getOnMismatch();
+        if (onMatch == Result.NEUTRAL || onMatch == onMismatch) {
+            return onMismatch;
+        }
+        return onMismatch == Result.NEUTRAL ? onMatch : null;
+    }
+
+    /**
+     * Returns whether the filter has no side effects and only returns {@link Filter#getOnMatch()},
+     * {@link Filter#getOnMismatch()} or {@link Result#NEUTRAL}.
+     */
+    private static boolean isStateless(final Filter filter) {
+        final Class<?> clazz = filter.getClass();
+        return isLevelFilter(filter)
+                || clazz == DynamicThresholdFilter.class
+                || clazz == MapFilter.class
+                || clazz == MarkerFilter.class
+                || clazz == MultiPatternFilter.class
+                || clazz == NoMarkerFilter.class
+                || clazz == RegexFilter.class
+                || clazz == StringMatchFilter.class
+                || clazz == StructuredDataFilter.class
+                || clazz == ThreadContextMapFilter.class
+                || clazz == TimeFilter.class;
+    }
+
+    private static boolean isLevelFilter(final Filter filter) {
+        return filter instanceof ThresholdFilter
+                || filter instanceof LevelRangeFilter
+                || filter instanceof LevelMatchFilter;
+    }
+
+    private static void hoistLevelFilters(final List<Filter> segment) {
+        if (segment.size() > 1) {
+            final List<Filter> ordered = new ArrayList<>(segment.size());
+            for (final Filter filter : segment) {
+                if (isLevelFilter(filter)) {
+                    ordered.add(filter);
+                }
+            }
+            for (final Filter filter : segment) {
+                if (!isLevelFilter(filter)) {
+                    ordered.add(filter);
+                }
+            }
+            for (int i = 0; i < ordered.size(); i++) {
+                segment.set(i, ordered.get(i));
+            }
+        }
     }
 
     public CompositeFilter addFilter(final Filter filter) {
@@ -110,6 +249,13 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
         return filters.length;
     }
 
+    /**
+     * Returns the filters that are evaluated. Used for unit testing.
+     */
+    Filter[] getCompiledFilters() {
+        return chain;
+    }
+
     @Override
     public void start() {
         this.setStarting();
@@ -168,8 +314,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(
             final Logger logger, final Level level, final Marker marker, final String msg, final Object... params) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, params);
+        for (int i = 0; i < chain.length; i++) {
+            result = chain[i].filter(logger, level, marker, msg, params);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -195,8 +341,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(
             final Logger logger, final Level level, final Marker marker, final String msg, final Object p0) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0);
+        for (int i = 0; i < chain.length; i++) {
+            result = chain[i].filter(logger, level, marker, msg, p0);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -228,8 +374,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p0,
             final Object p1) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1);
+        for (int i = 0; i < chain.length; i++) {
+            result = chain[i].filter(logger, level, marker, msg, p0, p1);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -263,8 +409,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p1,
             final Object p2) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2);
+        for (int i = 0; i < chain.length; i++) {
+            result = chain[i].filter(logger, level, marker, msg, p0, p1, p2);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -300,8 +446,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p2,
             final Object p3) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3);
+        for (int i = 0; i < chain.length; i++) {
+            result = chain[i].filter(logger, level, marker, msg, p0, p1, p2, p3);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -339,8 +485,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p3,
             final Object p4) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4);
+        for (int i = 0; i < chain.length; i++) {
+            result = chain[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -380,8 +526,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p4,
             final Object p5) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5);
+        for (int i = 0; i < chain.length; i++) {
+            result = chain[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -423,8 +569,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p5,
             final Object p6) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6);
+        for (int i = 0; i < chain.length; i++) {
+            result = chain[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -468,8 +614,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p6,
             final Object p7) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7);
+        for (int i = 0; i < chain.length; i++) {
+            result = chain[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -515,8 +661,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p7,
             final Object p8) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8);
+        for (int i = 0; i < chain.length; i++) {
+            result = chain[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -564,8 +710,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p8,
             final Object p9) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
+        for (int i = 0; i < chain.length; i++) {
+            result = chain[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -592,8 +738,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(
             final Logger logger, final Level level, final Marker marker, final Object msg, final Throwable t) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, t);
+        for (int i = 0; i < chain.length; i++) {
+            result = chain[i].filter(logger, level, marker, msg, t);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -620,8 +766,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(
             final Logger logger, final Level level, final Marker marker, final Message msg, final Throwable t) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(logger, level, marker, msg, t);
+        for (int i = 0; i < chain.length; i++) {
+            result = chain[i].filter(logger, level, marker, msg, t);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
@@ -639,8 +785,8 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final LogEvent event) {
         Result result = Result.NEUTRAL;
-        for (int i = 0; i < filters.length; i++) {
-            result = filters[i].filter(event);
+        for (int i = 0; i < chain.length; i++) {
+            result = chain[i].filter(event);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
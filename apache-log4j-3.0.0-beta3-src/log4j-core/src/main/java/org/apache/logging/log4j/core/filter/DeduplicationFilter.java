@@ -0,0 +1,591 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.time.NanoClock;
+import org.apache.logging.log4j.core.time.SystemNanoClock;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.plugins.Configurable;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * The <code>DeduplicationFilter</code> limits the number of similar log events.
+ *
+ * <p>
+ * Two events are similar if they have the same logger, the same message pattern and the same exception class, thrown
+ * from the same {@code stackDepth} stack frames. In each {@code interval}, the first {@code maxEvents} similar events
+ * match and the following ones do not. At the end of each interval, a summary event with the
+ * {@link #SUMMARY_MARKER} marker reports the number of events that were rejected, through the logger and at the level
+ * of the rejected events. Summary events are never rejected by this filter.
+ * </p>
+ * <p>
+ * The events are counted in a table of {@code size} slots, indexed by a hash of their fingerprint. The memory used by
+ * the filter does not depend on the number of distinct events: a slot is reused by another kind of events once it
+ * has not been used for a whole interval, until then events of different kinds that share a slot also share their
+ * count. Filtering an event does not allocate any object, except the copy of the stack trace of its exception, if
+ * {@code stackDepth} is positive.
+ * </p>
+ * <p>
+ * For example, the following configuration lets through at most 10 similar events per minute.
+ * </p>
+ * <code>
+ * &lt;Console name="console"&gt;<br>
+ * &nbsp;&lt;PatternLayout pattern="%-5p %d{dd-MMM-yyyy HH:mm:ss} %x %t %m%n"/&gt;<br>
+ * &nbsp;&lt;Filters&gt;<br>
+ * &nbsp;&nbsp;&lt;DeduplicationFilter maxEvents="10" interval="60"/&gt;<br>
+ * &nbsp;&lt;/Filters&gt;<br>
+ * &lt;/Console&gt;<br>
+ * </code><br>
+ *
+ * @since 3.0.0
+ */
+@Configurable(elementType = Filter.ELEMENT_TYPE, printObject = true)
+@Plugin
+@PerformanceSensitive("allocation")
+public final class DeduplicationFilter extends AbstractFilter {
+
+    /**
+     * The marker of the summary events.
+     */
+    public static final Marker SUMMARY_MARKER = MarkerManager.getMarker("DEDUPLICATION_SUMMARY");
+
+    private static final int DEFAULT_MAX_EVENTS = 10;
+
+    private static final int DEFAULT_INTERVAL_SECONDS = 60;
+
+    private static final int DEFAULT_SIZE = 1024;
+
+    private static final int DEFAULT_STACK_DEPTH = 3;
+
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final int maxEvents;
+
+    private final long intervalSeconds;
+
+    private final long intervalNanos;
+
+    private final int stackDepth;
+
+    private final Slot[] slots;
+
+    private final int mask;
+
+    private final Configuration configuration;
+
+    private final NanoClock clock;
+
+    private ScheduledFuture<?> future;
+
+    private DeduplicationFilter(
+            final int maxEvents,
+            final long intervalSeconds,
+            final int size,
+            final int stackDepth,
+            final Configuration configuration,
+            final NanoClock clock,
+            final Result onMatch,
+            final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.maxEvents = maxEvents;
+        this.intervalSeconds = intervalSeconds;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(intervalSeconds);
+        this.stackDepth = stackDepth;
+        this.slots = new Slot[size];
+        final long now = clock.nanoTime();
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot(now - intervalNanos);
+        }
+        this.mask = size - 1;
+        this.configuration = configuration;
+        this.clock = clock;
+    }
+
+    @Override
+    public void start() {
+        if (configuration != null) {
+            future = configuration
+                    .getScheduler()
+                    .scheduleWithFixedDelay(this::summarize, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+        super.start();
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+            // Reports the events suppressed since the last summary
+            summarize();
+        }
+        return super.stop(timeout, timeUnit);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object... params) {
+        return filter(
+                logger,
+                level,
+                marker,
+                msg,
+                params != null && params.length > 0 ? getThrowable(params[params.length - 1]) : null);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Object msg, final Throwable t) {
+        final String format = msg instanceof String
+                ? (String) msg
+                : msg != null ? msg.getClass().getName() : null;
+        return filter(logger, level, marker, format, t);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Message msg, final Throwable t) {
+        return filter(logger, level, marker, msg != null ? msg.getFormat() : null, t);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        final Message message = event.getMessage();
+        return filter(
+                event.getLoggerName(),
+                event.getLevel(),
+                event.getMarker(),
+                message != null ? message.getFormat() : null,
+                event.getThrown());
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object p0) {
+        return filter(logger, level, marker, msg, getThrowable(p0));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1) {
+        return filter(logger, level, marker, msg, getThrowable(p1));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2) {
+        return filter(logger, level, marker, msg, getThrowable(p2));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3) {
+        return filter(logger, level, marker, msg, getThrowable(p3));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4) {
+        return filter(logger, level, marker, msg, getThrowable(p4));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5) {
+        return filter(logger, level, marker, msg, getThrowable(p5));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6) {
+        return filter(logger, level, marker, msg, getThrowable(p6));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7) {
+        return filter(logger, level, marker, msg, getThrowable(p7));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8) {
+        return filter(logger, level, marker, msg, getThrowable(p8));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8,
+            final Object p9) {
+        return filter(logger, level, marker, msg, getThrowable(p9));
+    }
+
+    private static Throwable getThrowable(final Object param) {
+        return param instanceof Throwable ? (Throwable) param : null;
+    }
+
+    private Result filter(
+            final Logger logger, final Level level, final Marker marker, final String format, final Throwable t) {
+        return filter(logger != null ? logger.getName() : null, level, marker, format, t);
+    }
+
+    private Result filter(
+            final String loggerName, final Level level, final Marker marker, final String format, final Throwable t) {
+        if (marker != null && marker.isInstanceOf(SUMMARY_MARKER)) {
+            return onMatch;
+        }
+        final long fingerprint = fingerprint(loggerName, format, t);
+        final Slot slot = slots[(int) (fingerprint ^ (fingerprint >>> 32)) & mask];
+        final long now = clock.nanoTime();
+        if (slot.fingerprint != fingerprint) {
+            slot.claim(fingerprint, loggerName, level, format, t, now, intervalNanos);
+        }
+        final long windowStart = slot.windowStart.get();
+        if (now - windowStart >= intervalNanos && slot.windowStart.compareAndSet(windowStart, now)) {
+            slot.count.set(0);
+        }
+        if (slot.count.incrementAndGet() <= maxEvents) {
+            return onMatch;
+        }
+        slot.suppressed.incrementAndGet();
+        return onMismatch;
+    }
+
+    private long fingerprint(final String loggerName, final String format, final Throwable t) {
+        long hash = mix(0, loggerName != null ? loggerName.hashCode() : 0);
+        hash = mix(hash, format != null ? format.hashCode() : 0);
+        if (t != null) {
+            hash = mix(hash, t.getClass().getName().hashCode());
+            if (stackDepth > 0) {
+                final StackTraceElement[] stackTrace = t.getStackTrace();
+                final int depth = Math.min(stackDepth, stackTrace.length);
+                for (int i = 0; i < depth; i++) {
+                    hash = mix(hash, stackTrace[i].hashCode());
+                }
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(final long hash, final int value) {
+        return (hash + value) * HASH_MULTIPLIER;
+    }
+
+    /**
+     * Logs a summary event for each kind of events that were rejected since the last summary.
+     */
+    void summarize() {
+        final LoggerContext loggerContext = configuration != null ? configuration.getLoggerContext() : null;
+        for (final Slot slot : slots) {
+            if (slot.suppressed.get() > 0) {
+                final String loggerName;
+                final Level level;
+                final String description;
+                final long suppressed;
+                synchronized (slot) {
+                    loggerName = slot.loggerName;
+                    level = slot.level;
+                    description = slot.throwableClass != null
+                            ? slot.format + " (" + slot.throwableClass.getName() + ")"
+                            : slot.format;
+                    suppressed = slot.suppressed.getAndSet(0);
+                }
+                if (loggerContext != null) {
+                    loggerContext
+                            .getLogger(loggerName != null ? loggerName : "")
+                            .log(
+                                    level != null ? level : Level.WARN,
+                                    SUMMARY_MARKER,
+                                    "Suppressed {} events similar to: {}",
+                                    suppressed,
+                                    description);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of events rejected since the last summary. Used for unit testing.
+     * @return The number of rejected events.
+     */
+    long getSuppressed() {
+        long suppressed = 0;
+        for (final Slot slot : slots) {
+            suppressed += slot.suppressed.get();
+        }
+        return suppressed;
+    }
+
+    @Override
+    public String toString() {
+        return "maxEvents=" + maxEvents + ", interval=" + intervalSeconds + ", size=" + slots.length + ", stackDepth="
+                + stackDepth;
+    }
+
+    /**
+     * The counts of a kind of events.
+     */
+    private static final class Slot {
+
+        private volatile long fingerprint;
+
+        private final AtomicLong windowStart;
+
+        /**
+         * The number of events in the current window.
+         */
+        private final AtomicInteger count = new AtomicInteger();
+
+        /**
+         * The number of events rejected since the last summary.
+         */
+        private final AtomicLong suppressed = new AtomicLong();
+
+        // Description of the events, for the summary
+        private String loggerName;
+        private Level level;
+        private String format;
+        private Class<?> throwableClass;
+
+        private Slot(final long windowStart) {
+            this.windowStart = new AtomicLong(windowStart);
+        }
+
+        /**
+         * Assigns the slot to a new kind of events, unless it is still used.
+         */
+        private synchronized void claim(
+                final long fingerprint,
+                final String loggerName,
+                final Level level,
+                final String format,
+                final Throwable t,
+                final long now,
+                final long intervalNanos) {
+            if (this.fingerprint == fingerprint || now - windowStart.get() < intervalNanos || suppressed.get() > 0) {
+                return;
+            }
+            this.loggerName = loggerName;
+            this.level = level;
+            this.format = format;
+            this.throwableClass = t != null ? t.getClass() : null;
+            this.fingerprint = fingerprint;
+            windowStart.set(now);
+            count.set(0);
+        }
+    }
+
+    @PluginFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractFilterBuilder<Builder>
+            implements org.apache.logging.log4j.plugins.util.Builder<DeduplicationFilter> {
+
+        @PluginBuilderAttribute
+        private int maxEvents = DEFAULT_MAX_EVENTS;
+
+        @PluginBuilderAttribute
+        private long interval = DEFAULT_INTERVAL_SECONDS;
+
+        @PluginBuilderAttribute
+        private int size = DEFAULT_SIZE;
+
+        @PluginBuilderAttribute
+        private int stackDepth = DEFAULT_STACK_DEPTH;
+
+        @PluginConfiguration
+        private Configuration configuration;
+
+        private NanoClock clock;
+
+        /**
+         * Sets the number of similar events that match in each interval.
+         * @param maxEvents the number of similar events that match in each interval.
+         * @return this
+         */
+        public Builder setMaxEvents(final int maxEvents) {
+            this.maxEvents = maxEvents;
+            return this;
+        }
+
+        /**
+         * Sets the duration of the interval in seconds, which is also the period of the summary events.
+         * @param interval the duration of the interval in seconds.
+         * @return this
+         */
+        public Builder setInterval(final long interval) {
+            this.interval = interval;
+            return this;
+        }
+
+        /**
+         * Sets the number of slots of the table of counts. It is rounded up to a power of two.
+         * @param size the number of kinds of events that are counted separately.
+         * @return this
+         */
+        public Builder setSize(final int size) {
+            this.size = size;
+            return this;
+        }
+
+        /**
+         * Sets the number of stack frames of the exceptions that are used to compare events.
+         * @param stackDepth the number of stack frames. If {@code 0}, only the class of the exceptions is used.
+         * @return this
+         */
+        public Builder setStackDepth(final int stackDepth) {
+            this.stackDepth = stackDepth;
+            return this;
+        }
+
+        /**
+         * Sets the configuration, which schedules the summary events.
+         * @param configuration the configuration.
+         * @return this
+         */
+        public Builder setConfiguration(final Configuration configuration) {
+            this.configuration = configuration;
+            return this;
+        }
+
+        Builder setClock(final NanoClock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        @Override
+        public DeduplicationFilter build() {
+            if (maxEvents < 0) {
+                maxEvents = DEFAULT_MAX_EVENTS;
+            }
+            if (interval <= 0) {
+                interval = DEFAULT_INTERVAL_SECONDS;
+            }
+            final int tableSize = size > 1 ? Integer.highestOneBit(Math.min(size, 1 << 30) - 1) << 1 : 1;
+            if (configuration != null) {
+                configuration.getScheduler().incrementScheduledItems();
+            }
+            return new DeduplicationFilter(
+                    maxEvents,
+                    interval,
+                    tableSize,
+                    Math.max(stackDepth, 0),
+                    configuration,
+                    clock != null ? clock : new SystemNanoClock(),
+                    getOnMatch(),
+                    getOnMismatch());
+        }
+    }
+}
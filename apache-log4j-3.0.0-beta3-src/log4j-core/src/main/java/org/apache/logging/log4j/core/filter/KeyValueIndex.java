@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.List;
+import org.apache.logging.log4j.util.IndexedReadOnlyStringMap;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * The allowed values of each key of a {@link MapFilter}, stored in open-addressed hash sets.
+ * <p>
+ * The values can be looked up with any {@link CharSequence}, without creating a {@link String}.
+ * </p>
+ */
+@PerformanceSensitive("allocation")
+final class KeyValueIndex {
+
+    private final String[] keys;
+
+    /**
+     * The values of each key, with linear probing. The size of each table is a power of two, at least twice the
+     * number of values.
+     */
+    private final String[][] tables;
+
+    /**
+     * Creates an index.
+     *
+     * @param map A map with {@code List<String>} values.
+     */
+    KeyValueIndex(final IndexedReadOnlyStringMap map) {
+        final int size = map.size();
+        keys = new String[size];
+        tables = new String[size][];
+        for (int i = 0; i < size; i++) {
+            keys[i] = map.getKeyAt(i);
+            final List<String> values = map.getValueAt(i);
+            final String[] table = new String[Integer.highestOneBit(Math.max(values.size(), 1)) << 2];
+            for (final String value : values) {
+                if (value != null && !contains(table, value)) {
+                    table[indexOf(table, value)] = value;
+                }
+            }
+            tables[i] = table;
+        }
+    }
+
+    /**
+     * Returns the number of keys.
+     */
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the key at an index.
+     */
+    String getKeyAt(final int index) {
+        return keys[index];
+    }
+
+    /**
+     * Returns whether a value is allowed for the key at an index.
+     *
+     * @param index The index of the key.
+     * @param value A value.
+     * @return {@code true} if the value is one of the values of the key.
+     */
+    boolean contains(final int index, final CharSequence value) {
+        return value != null && contains(tables[index], value);
+    }
+
+    private static boolean contains(final String[] table, final CharSequence value) {
+        final int mask = table.length - 1;
+        final int hash = hashCode(value);
+        int slot = spread(hash) & mask;
+        String candidate;
+        while ((candidate = table[slot]) != null) {
+            if (candidate.hashCode() == hash && candidate.contentEquals(value)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the first free slot for a value.
+     */
+    private static int indexOf(final String[] table, final String value) {
+        final int mask = table.length - 1;
+        int slot = spread(value.hashCode()) & mask;
+        while (table[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Computes the same hash code as {@link String#hashCode()}.
+     */
+    private static int hashCode(final CharSequence value) {
+        if (value instanceof String) {
+            return value.hashCode();
+        }
+        int hash = 0;
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + value.charAt(i);
+        }
+        return hash;
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
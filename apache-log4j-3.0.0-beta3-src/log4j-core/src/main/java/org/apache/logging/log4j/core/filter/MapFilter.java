@@ -49,6 +49,7 @@ import org.apache.logging.log4j.util.SortedArrayStringMap;
 public class MapFilter extends AbstractFilter {
 
     private final IndexedStringMap map;
+    private final KeyValueIndex index;
     private final boolean isAnd;
 
     protected MapFilter(
@@ -61,6 +62,7 @@ public class MapFilter extends AbstractFilter {
         for (final Map.Entry<String, List<String>> entry : map.entrySet()) {
             this.map.putValue(entry.getKey(), entry.getValue());
         }
+        this.index = new KeyValueIndex(this.map);
     }
 
     @Override
@@ -83,9 +85,9 @@ public class MapFilter extends AbstractFilter {
 
     protected boolean filter(final MapMessage<?, ?> mapMessage) {
         boolean match = false;
-        for (int i = 0; i < map.size(); i++) {
-            final String toMatch = mapMessage.get(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
+        for (int i = 0; i < index.size(); i++) {
+            final String toMatch = mapMessage.get(index.getKeyAt(i));
+            match = index.contains(i, toMatch);
 
             if ((!isAnd && match) || (isAnd && !match)) {
                 break;
@@ -96,9 +98,9 @@ public class MapFilter extends AbstractFilter {
 
     protected boolean filter(final Map<String, String> data) {
         boolean match = false;
-        for (int i = 0; i < map.size(); i++) {
-            final String toMatch = data.get(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
+        for (int i = 0; i < index.size(); i++) {
+            final String toMatch = data.get(index.getKeyAt(i));
+            match = index.contains(i, toMatch);
 
             if ((!isAnd && match) || (isAnd && !match)) {
                 break;
@@ -109,9 +111,9 @@ public class MapFilter extends AbstractFilter {
 
     protected boolean filter(final ReadOnlyStringMap data) {
         boolean match = false;
-        for (int i = 0; i < map.size(); i++) {
-            final String toMatch = data.getValue(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
+        for (int i = 0; i < index.size(); i++) {
+            final String toMatch = data.getValue(index.getKeyAt(i));
+            match = index.contains(i, toMatch);
 
             if ((!isAnd && match) || (isAnd && !match)) {
                 break;
@@ -284,6 +286,20 @@ public class MapFilter extends AbstractFilter {
         return isAnd;
     }
 
+    /**
+     * Returns whether a value is one of the values of a key.
+     * <p>
+     * The values are looked up in a hash index, so the cost of this method does not depend on the number of values.
+     * </p>
+     * @param index the index of the key in {@link #getStringMap()}
+     * @param value a value or {@code null}
+     * @return {@code true} if the value is one of the values of the key
+     * @since 3.0.0
+     */
+    protected boolean containsValue(final int index, final CharSequence value) {
+        return this.index.contains(index, value);
+    }
+
     /**
      * Returns the IndexedStringMap with {@code List<String>} values that this MapFilter was constructed with.
      * @return the IndexedStringMap with {@code List<String>} values to match against
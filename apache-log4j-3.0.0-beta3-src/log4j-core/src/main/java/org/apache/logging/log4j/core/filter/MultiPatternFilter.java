@@ -0,0 +1,455 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.kit.recycler.Recycler;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.plugins.Configurable;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginAttribute;
+import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.plugins.PluginElement;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.StringBuilders;
+
+/**
+ * This filter returns the onMatch result if the message contains any of a set of literals or of matches of a set of
+ * regular expressions.
+ * <p>
+ * All the patterns are searched in a single pass over the message, so this filter is faster than a chain of
+ * {@link StringMatchFilter}s or {@link RegexFilter}s. If the message supports it, the message is formatted into a
+ * recycled {@link StringBuilder} instead of a new {@link String}.
+ * </p>
+ * <p>
+ * Contrary to the {@link RegexFilter}, the regular expressions do not need to match the whole message.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+@Configurable(elementType = Filter.ELEMENT_TYPE, printObject = true)
+@Plugin
+@PerformanceSensitive("allocation")
+public final class MultiPatternFilter extends AbstractFilter {
+
+    private static final int DEFAULT_STRING_BUILDER_SIZE = 1024;
+
+    private static final int MAX_STRING_BUILDER_SIZE = 4096;
+
+    private final MatchPattern[] patterns;
+
+    private final MultiPatternMatcher matcher;
+
+    private final boolean useRawMessage;
+
+    private final Recycler<StringBuilder> recycler;
+
+    private MultiPatternFilter(
+            final MatchPattern[] patterns,
+            final MultiPatternMatcher matcher,
+            final boolean useRawMessage,
+            final Recycler<StringBuilder> recycler,
+            final Result onMatch,
+            final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.patterns = patterns;
+        this.matcher = matcher;
+        this.useRawMessage = useRawMessage;
+        this.recycler = recycler;
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object... params) {
+        if (useRawMessage || params == null || params.length == 0) {
+            return filter(msg);
+        }
+        return filter(logger.getMessageFactory().newMessage(msg, params));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Object msg, final Throwable t) {
+        if (msg == null) {
+            return onMismatch;
+        }
+        return filter(logger.getMessageFactory().newMessage(msg));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Message msg, final Throwable t) {
+        return filter(msg);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        return filter(event.getMessage());
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object p0) {
+        return useRawMessage ? filter(msg) : filter(logger.getMessageFactory().newMessage(msg, p0));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1) {
+        return useRawMessage ? filter(msg) : filter(logger.getMessageFactory().newMessage(msg, p0, p1));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2) {
+        return useRawMessage ? filter(msg) : filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3) {
+        return useRawMessage ? filter(msg) : filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4) {
+        return useRawMessage ? filter(msg) : filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5) {
+        return useRawMessage ? filter(msg) : filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6) {
+        return useRawMessage
+                ? filter(msg)
+                : filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7) {
+        return useRawMessage
+                ? filter(msg)
+                : filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8) {
+        return useRawMessage
+                ? filter(msg)
+                : filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7, p8));
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8,
+            final Object p9) {
+        return useRawMessage
+                ? filter(msg)
+                : filter(logger.getMessageFactory().newMessage(msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9));
+    }
+
+    private Result filter(final Message msg) {
+        if (msg == null) {
+            return onMismatch;
+        }
+        if (useRawMessage) {
+            return filter(msg.getFormat());
+        }
+        if (recycler != null && msg instanceof StringBuilderFormattable) {
+            final StringBuilder buffer = recycler.acquire();
+            try {
+                ((StringBuilderFormattable) msg).formatTo(buffer);
+                return filter(buffer);
+            } finally {
+                recycler.release(buffer);
+            }
+        }
+        return filter(msg.getFormattedMessage());
+    }
+
+    private Result filter(final CharSequence text) {
+        if (text == null) {
+            return onMismatch;
+        }
+        return matcher.find(text) ? onMatch : onMismatch;
+    }
+
+    @Override
+    public String toString() {
+        return "useRaw=" + useRawMessage + ", patterns=" + Arrays.toString(patterns);
+    }
+
+    /**
+     * A literal or a regular expression searched by a {@link MultiPatternFilter}.
+     */
+    @Configurable(printObject = true)
+    @Plugin
+    public static final class MatchPattern {
+
+        private final String literal;
+
+        private final String regex;
+
+        private MatchPattern(final String literal, final String regex) {
+            this.literal = literal;
+            this.regex = regex;
+        }
+
+        /**
+         * Returns the literal to search.
+         *
+         * @return the literal or {@code null} if this is a regular expression.
+         */
+        public String getLiteral() {
+            return literal;
+        }
+
+        /**
+         * Returns the regular expression to search.
+         *
+         * @return the regular expression or {@code null} if this is a literal.
+         */
+        public String getRegex() {
+            return regex;
+        }
+
+        @Override
+        public String toString() {
+            return literal != null ? literal : "/" + regex + "/";
+        }
+
+        /**
+         * Creates a pattern.
+         *
+         * @param literal The literal to search.
+         * @param regex The regular expression to search.
+         * @return The pattern or {@code null} if not exactly one of the parameters is provided.
+         */
+        @PluginFactory
+        public static MatchPattern createPattern(
+                @PluginAttribute final String literal, @PluginAttribute final String regex) {
+            if ((literal == null) == (regex == null)) {
+                LOGGER.error("Either a literal or a regular expression must be provided for MatchPattern");
+                return null;
+            }
+            return new MatchPattern(literal, regex);
+        }
+    }
+
+    @PluginFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractFilterBuilder<Builder>
+            implements org.apache.logging.log4j.plugins.util.Builder<MultiPatternFilter> {
+
+        @PluginElement
+        private MatchPattern[] patterns;
+
+        @PluginBuilderAttribute
+        private boolean ignoreCase;
+
+        @PluginBuilderAttribute
+        private boolean useRawMsg;
+
+        @PluginConfiguration
+        private Configuration configuration;
+
+        /**
+         * Sets the literals and regular expressions to search.
+         * @param patterns the patterns to search.
+         * @return this
+         */
+        public Builder setPatterns(final MatchPattern... patterns) {
+            this.patterns = patterns;
+            return this;
+        }
+
+        /**
+         * Sets whether the case of the characters is ignored.
+         * @param ignoreCase if {@code true}, the case of the characters is ignored.
+         * @return this
+         */
+        public Builder setIgnoreCase(final boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+            return this;
+        }
+
+        /**
+         * Sets whether the message format is searched instead of the formatted message.
+         * @param useRawMsg if {@code true}, {@link Message#getFormat()} is searched.
+         * @return this
+         */
+        public Builder setUseRawMsg(final boolean useRawMsg) {
+            this.useRawMsg = useRawMsg;
+            return this;
+        }
+
+        /**
+         * Sets the configuration, which provides the recycler of string builders.
+         * @param configuration the configuration.
+         * @return this
+         */
+        public Builder setConfiguration(final Configuration configuration) {
+            this.configuration = configuration;
+            return this;
+        }
+
+        @Override
+        public MultiPatternFilter build() {
+            if (patterns == null || patterns.length == 0) {
+                LOGGER.error("At least one MatchPattern must be provided for MultiPatternFilter");
+                return null;
+            }
+            final List<String> literals = new ArrayList<>();
+            final List<Pattern> regexes = new ArrayList<>();
+            final int flags = ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
+            for (final MatchPattern pattern : patterns) {
+                if (pattern == null) {
+                    continue;
+                }
+                if (pattern.literal != null) {
+                    literals.add(pattern.literal);
+                } else {
+                    try {
+                        regexes.add(Pattern.compile(pattern.regex, flags));
+                    } catch (final PatternSyntaxException e) {
+                        LOGGER.error("Invalid regular expression {} for MultiPatternFilter", pattern.regex, e);
+                        return null;
+                    }
+                }
+            }
+            final Recycler<StringBuilder> recycler = configuration != null
+                    ? configuration
+                            .getRecyclerFactory()
+                            .create(() -> new StringBuilder(DEFAULT_STRING_BUILDER_SIZE), buffer -> {
+                                StringBuilders.trimToMaxSize(buffer, MAX_STRING_BUILDER_SIZE);
+                                buffer.setLength(0);
+                            })
+                    : null;
+            return new MultiPatternFilter(
+                    patterns,
+                    new MultiPatternMatcher(literals, regexes, ignoreCase),
+                    useRawMsg,
+                    recycler,
+                    getOnMatch(),
+                    getOnMismatch());
+        }
+    }
+}
@@ -0,0 +1,442 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Finds any of a set of literals and regular expressions in a text, scanning the text once.
+ * <p>
+ * The literals are compiled into an Aho-Corasick automaton. For each regular expression, a literal that is part of
+ * every match is extracted and added to the automaton: the regular expression is only evaluated if this literal is
+ * found. The regular expressions without such a literal are evaluated on every text that does not contain a literal.
+ * </p>
+ */
+@PerformanceSensitive("allocation")
+final class MultiPatternMatcher {
+
+    private static final int ASCII = 128;
+
+    private static final int[] NO_REGEXES = new int[0];
+
+    private final boolean ignoreCase;
+
+    private final boolean matchesAll;
+
+    /**
+     * The transitions of the automaton for ASCII characters, indexed by {@code state * 128 + char}.
+     */
+    private final int[] asciiTransitions;
+
+    /**
+     * The characters of the other transitions of each state, in ascending order.
+     */
+    private final char[][] keys;
+
+    /**
+     * The targets of the other transitions of each state.
+     */
+    private final int[][] targets;
+
+    private final int[] failures;
+
+    /**
+     * Whether a literal ends in each state.
+     */
+    private final boolean[] literalOutputs;
+
+    /**
+     * The indexes of the regular expressions to evaluate in each state.
+     */
+    private final int[][] regexOutputs;
+
+    private final Pattern[] regexes;
+
+    /**
+     * The indexes of the regular expressions without a required literal.
+     */
+    private final int[] unconditionalRegexes;
+
+    /**
+     * Creates a matcher.
+     *
+     * @param literals The literals to find.
+     * @param regexes The regular expressions to find.
+     * @param ignoreCase If {@code true}, the case of the literals is ignored. The regular expressions must have been
+     *                   compiled with the {@link Pattern#CASE_INSENSITIVE} and {@link Pattern#UNICODE_CASE} flags.
+     */
+    MultiPatternMatcher(final List<String> literals, final List<Pattern> regexes, final boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        this.regexes = regexes.toArray(new Pattern[0]);
+        // Build the trie
+        final List<Map<Character, Integer>> children = new ArrayList<>();
+        final List<Boolean> literalEnds = new ArrayList<>();
+        final List<List<Integer>> regexEnds = new ArrayList<>();
+        children.add(new TreeMap<>());
+        literalEnds.add(false);
+        regexEnds.add(new ArrayList<>());
+        boolean emptyLiteral = false;
+        for (final String literal : literals) {
+            if (literal.isEmpty()) {
+                emptyLiteral = true;
+            } else {
+                literalEnds.set(addKey(literal, children, literalEnds, regexEnds), true);
+            }
+        }
+        this.matchesAll = emptyLiteral;
+        final List<Integer> unconditional = new ArrayList<>();
+        for (int i = 0; i < this.regexes.length; i++) {
+            final String required = requiredLiteral(this.regexes[i].pattern());
+            if (required.isEmpty()) {
+                unconditional.add(i);
+            } else {
+                regexEnds
+                        .get(addKey(required, children, literalEnds, regexEnds))
+                        .add(i);
+            }
+        }
+        this.unconditionalRegexes =
+                unconditional.stream().mapToInt(Integer::intValue).toArray();
+
+        // Compute the failure links in breadth-first order and resolve the ASCII transitions
+        final int size = children.size();
+        this.failures = new int[size];
+        this.asciiTransitions = new int[size * ASCII];
+        this.keys = new char[size][];
+        this.targets = new int[size][];
+        this.literalOutputs = new boolean[size];
+        this.regexOutputs = new int[size][];
+        final Queue<Integer> queue = new ArrayDeque<>();
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            final int state = queue.remove();
+            final int failure = failures[state];
+            literalOutputs[state] = literalEnds.get(state) || (state != 0 && literalOutputs[failure]);
+            final List<Integer> outputs = regexEnds.get(state);
+            if (state != 0) {
+                for (final int regex : regexOutputs[failure]) {
+                    if (!outputs.contains(regex)) {
+                        outputs.add(regex);
+                    }
+                }
+            }
+            regexOutputs[state] = outputs.isEmpty()
+                    ? NO_REGEXES
+                    : outputs.stream().mapToInt(Integer::intValue).toArray();
+            if (state != 0) {
+                System.arraycopy(asciiTransitions, failure * ASCII, asciiTransitions, state * ASCII, ASCII);
+            }
+            final Map<Character, Integer> stateChildren = children.get(state);
+            keys[state] = new char[stateChildren.size()];
+            targets[state] = new int[stateChildren.size()];
+            int index = 0;
+            for (final Map.Entry<Character, Integer> entry : stateChildren.entrySet()) {
+                final char c = entry.getKey();
+                final int child = entry.getValue();
+                keys[state][index] = c;
+                targets[state][index++] = child;
+                failures[child] = state == 0 ? 0 : transition(failure, c);
+                if (c < ASCII) {
+                    asciiTransitions[state * ASCII + c] = child;
+                }
+                queue.add(child);
+            }
+        }
+    }
+
+    private int addKey(
+            final String key,
+            final List<Map<Character, Integer>> children,
+            final List<Boolean> literalEnds,
+            final List<List<Integer>> regexEnds) {
+        int state = 0;
+        for (int i = 0; i < key.length(); i++) {
+            final char c = normalize(key.charAt(i));
+            final Integer next = children.get(state).get(c);
+            if (next != null) {
+                state = next;
+            } else {
+                final int child = children.size();
+                children.add(new TreeMap<>());
+                literalEnds.add(false);
+                regexEnds.add(new ArrayList<>());
+                children.get(state).put(c, child);
+                state = child;
+            }
+        }
+        return state;
+    }
+
+    private char normalize(final char c) {
+        if (!ignoreCase) {
+            return c;
+        }
+        if (c < ASCII) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private int transition(final int from, final char c) {
+        if (c < ASCII) {
+            return asciiTransitions[from * ASCII + c];
+        }
+        int state = from;
+        while (true) {
+            final int index = Arrays.binarySearch(keys[state], c);
+            if (index >= 0) {
+                return targets[state][index];
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failures[state];
+        }
+    }
+
+    /**
+     * Returns whether the text contains any literal or a match of any regular expression.
+     * <p>
+     * Each of the first 64 regular expressions is evaluated at most once per text. The following ones are evaluated
+     * each time their required literal is found in the text, which only costs time if the regular expression does not
+     * match: the search stops at the first match.
+     * </p>
+     *
+     * @param text A text.
+     * @return {@code true} if a pattern was found.
+     */
+    boolean find(final CharSequence text) {
+        if (matchesAll) {
+            return true;
+        }
+        // The first 64 regular expressions are only evaluated once
+        long evaluated = 0;
+        int state = 0;
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            state = transition(state, normalize(text.charAt(i)));
+            if (literalOutputs[state]) {
+                return true;
+            }
+            for (final int regex : regexOutputs[state]) {
+                final long bit = regex < Long.SIZE ? 1L << regex : 0;
+                if ((evaluated & bit) == 0) {
+                    evaluated |= bit;
+                    if (regexes[regex].matcher(text).find()) {
+                        return true;
+                    }
+                }
+            }
+        }
+        for (final int regex : unconditionalRegexes) {
+            if (regexes[regex].matcher(text).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a literal that is contained in every match of a regular expression.
+     * <p>
+     * The regular expression is analyzed conservatively: an empty string is returned for expressions with
+     * alternatives or embedded flags, and the content of groups and character classes is ignored.
+     * </p>
+     *
+     * @param regex A regular expression.
+     * @return The longest literal found or an empty string.
+     */
+    static String requiredLiteral(final String regex) {
+        if (regex.indexOf('|') >= 0 || regex.contains("(?")) {
+            return "";
+        }
+        String best = "";
+        final StringBuilder run = new StringBuilder();
+        int depth = 0;
+        final int length = regex.length();
+        for (int i = 0; i < length; i++) {
+            final char c = regex.charAt(i);
+            char literal = 0;
+            boolean isLiteral = false;
+            switch (c) {
+                case '\\':
+                    if (i + 1 < length && regex.charAt(i + 1) == 'Q') {
+                        // Quoted characters are literals, up to `\E`
+                        final int end = quoteEnd(regex, i + 2);
+                        if (depth == 0) {
+                            run.append(regex, i + 2, end);
+                        }
+                        i = Math.min(end + 1, length - 1);
+                        continue;
+                    }
+                    if (i + 1 < length && !Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                        literal = regex.charAt(++i);
+                        isLiteral = true;
+                    } else if (i + 1 < length) {
+                        // Predefined classes, code points, back references, boundaries, etc.
+                        i = skipEscape(regex, i + 1);
+                    }
+                    break;
+                case '(':
+                    depth++;
+                    break;
+                case ')':
+                    depth--;
+                    break;
+                case '[':
+                    i = skipCharacterClass(regex, i);
+                    break;
+                case '?':
+                case '*':
+                    // The previous character is optional
+                    if (depth == 0 && run.length() > 0) {
+                        run.setLength(run.length() - 1);
+                    }
+                    break;
+                case '{':
+                    if (depth == 0 && run.length() > 0 && i + 1 < length && regex.charAt(i + 1) == '0') {
+                        run.setLength(run.length() - 1);
+                    }
+                    while (i < length && regex.charAt(i) != '}') {
+                        i++;
+                    }
+                    break;
+                case '+':
+                case '.':
+                case '^':
+                case '$':
+                    break;
+                default:
+                    literal = c;
+                    isLiteral = true;
+            }
+            if (depth != 0) {
+                continue;
+            }
+            if (isLiteral) {
+                // A quantifier may follow
+                run.append(literal);
+            } else {
+                if (run.length() > best.length()) {
+                    best = run.toString();
+                }
+                run.setLength(0);
+            }
+        }
+        if (run.length() > best.length()) {
+            best = run.toString();
+        }
+        return best;
+    }
+
+    /**
+     * Returns the index of the {@code \E} ending a quote, or the length of the regular expression.
+     */
+    private static int quoteEnd(final String regex, final int start) {
+        final int end = regex.indexOf("\\E", start);
+        return end < 0 ? regex.length() : end;
+    }
+
+    /**
+     * Returns the index of the last character of an escape sequence starting with a letter or a digit.
+     *
+     * @param regex A regular expression.
+     * @param start The index of the character following the backslash.
+     */
+    private static int skipEscape(final String regex, final int start) {
+        final int last = regex.length() - 1;
+        final char c = regex.charAt(start);
+        switch (c) {
+            case 'x':
+                // `\xhh` or `\x{h...h}`
+                return start < last && regex.charAt(start + 1) == '{'
+                        ? skipTo(regex, start + 1, '}')
+                        : Math.min(start + 2, last);
+            case 'u':
+                // A `u` followed by four hexadecimal digits
+                return Math.min(start + 4, last);
+            case '0':
+                // `\0n`, `\0nn` or `\0mnn`
+                int i = start;
+                while (i < last && i - start < 3 && regex.charAt(i + 1) >= '0' && regex.charAt(i + 1) <= '7') {
+                    i++;
+                }
+                return i;
+            case 'c':
+                // `\cX`
+                return Math.min(start + 1, last);
+            case 'k':
+                // `\k<name>`
+                return skipTo(regex, start + 1, '>');
+            case 'p':
+            case 'P':
+                // `\pL` or `\p{name}`
+                return start < last && regex.charAt(start + 1) == '{'
+                        ? skipTo(regex, start + 1, '}')
+                        : Math.min(start + 1, last);
+            case 'N':
+                // `\N{name}`
+                return skipTo(regex, start + 1, '}');
+            default:
+                if (c >= '1' && c <= '9') {
+                    // Back reference: skipping all the digits is conservative
+                    int end = start;
+                    while (end < last && Character.isDigit(regex.charAt(end + 1))) {
+                        end++;
+                    }
+                    return end;
+                }
+                return start;
+        }
+    }
+
+    private static int skipTo(final String regex, final int start, final char end) {
+        final int index = regex.indexOf(end, start);
+        return index < 0 ? regex.length() - 1 : index;
+    }
+
+    private static int skipCharacterClass(final String regex, final int start) {
+        int i = start + 1;
+        int depth = 1;
+        // A closing bracket at the start is a literal
+        if (i < regex.length() && regex.charAt(i) == '^') {
+            i++;
+        }
+        if (i < regex.length() && regex.charAt(i) == ']') {
+            i++;
+        }
+        for (; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i = i + 1 < regex.length() && regex.charAt(i + 1) == 'Q' ? quoteEnd(regex, i + 2) + 1 : i + 1;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i;
+            }
+        }
+        return i;
+    }
+}
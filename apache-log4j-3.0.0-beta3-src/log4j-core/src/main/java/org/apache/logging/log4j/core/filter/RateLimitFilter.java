@@ -0,0 +1,569 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.ContextDataInjector;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.impl.ContextDataInjectorFactory;
+import org.apache.logging.log4j.core.time.NanoClock;
+import org.apache.logging.log4j.core.time.SystemNanoClock;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.plugins.Configurable;
+import org.apache.logging.log4j.plugins.Inject;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * The <code>RateLimitFilter</code> limits the rate of the log events, like {@link BurstFilter}, without locks.
+ *
+ * <p>
+ * The filter is a token bucket, implemented with the generic cell rate algorithm: the state of the bucket is the
+ * theoretical arrival time of the next event, stored in a single {@code long}. An event is accepted if this time is
+ * not further in the future than {@code maxBurst} events, in which case it is pushed back by one event interval with
+ * a compare-and-set. Rejecting an event only reads the state, so a burst of rejected events does not cause any
+ * contention.
+ * </p>
+ * <p>
+ * By default all the events share the same bucket. With the {@code perLogger} attribute each logger has its own
+ * bucket, with the {@code contextKey} attribute each value of the given context data key has its own bucket. At most
+ * {@code maxKeys} buckets are kept: buckets that are full again are dropped to make room for new keys, the other keys
+ * share a single bucket.
+ * </p>
+ * <p>
+ * For example, the following configuration limits the INFO (and below) log statements of each logger to a burst of
+ * 100 with an average rate of 16 per second.
+ * </p>
+ * <code>
+ * &lt;Console name="console"&gt;<br>
+ * &nbsp;&lt;PatternLayout pattern="%-5p %d{dd-MMM-yyyy HH:mm:ss} %x %t %m%n"/&gt;<br>
+ * &nbsp;&lt;Filters&gt;<br>
+ * &nbsp;&nbsp;&lt;RateLimitFilter level="INFO" rate="16" maxBurst="100" perLogger="true"/&gt;<br>
+ * &nbsp;&lt;/Filters&gt;<br>
+ * &lt;/Console&gt;<br>
+ * </code><br>
+ *
+ * @since 3.0.0
+ */
+@Configurable(elementType = Filter.ELEMENT_TYPE, printObject = true)
+@Plugin
+@PerformanceSensitive("allocation")
+public final class RateLimitFilter extends AbstractFilter {
+
+    private static final long NANOS_IN_SECONDS = 1000000000;
+
+    private static final int DEFAULT_RATE = 10;
+
+    private static final int DEFAULT_RATE_MULTIPLE = 100;
+
+    private static final int DEFAULT_MAX_KEYS = 1024;
+
+    private final Level level;
+
+    /**
+     * The number of nanoseconds between two events at the average rate.
+     */
+    private final long interval;
+
+    /**
+     * How far in the future the theoretical arrival time can be, for an event to be accepted.
+     */
+    private final long tolerance;
+
+    private final long maxBurst;
+
+    private final boolean perLogger;
+
+    private final String contextKey;
+
+    private final int maxKeys;
+
+    private final ContextDataInjector injector;
+
+    private final NanoClock clock;
+
+    /**
+     * The bucket shared by all the events, or by the events without key.
+     */
+    private final AtomicLong bucket;
+
+    /**
+     * The buckets of the keys.
+     */
+    private final ConcurrentMap<Object, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * The time before which the buckets of the keys are not scanned for full buckets.
+     */
+    private final AtomicLong nextEviction;
+
+    private RateLimitFilter(
+            final Level level,
+            final float rate,
+            final long maxBurst,
+            final boolean perLogger,
+            final String contextKey,
+            final int maxKeys,
+            final ContextDataInjector injector,
+            final NanoClock clock,
+            final Result onMatch,
+            final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.level = level;
+        this.interval = Math.max((long) (NANOS_IN_SECONDS / rate), 1);
+        // Prevents overflows with very long intervals
+        this.tolerance = maxBurst - 1 < Long.MAX_VALUE / 4 / interval ? interval * (maxBurst - 1) : Long.MAX_VALUE / 4;
+        this.maxBurst = maxBurst;
+        this.perLogger = perLogger;
+        this.contextKey = contextKey;
+        this.maxKeys = maxKeys;
+        this.injector = injector;
+        this.clock = clock;
+        this.bucket = new AtomicLong(clock.nanoTime());
+        this.nextEviction = new AtomicLong(clock.nanoTime());
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object... params) {
+        return filter(logger, level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Object msg, final Throwable t) {
+        return filter(logger, level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final Message msg, final Throwable t) {
+        return filter(logger, level);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        final Level level = event.getLevel();
+        if (!isLimited(level)) {
+            return onMatch;
+        }
+        final Object key;
+        if (perLogger) {
+            key = event.getLoggerName();
+        } else if (contextKey != null) {
+            key = event.getContextData().getValue(contextKey);
+        } else {
+            key = null;
+        }
+        return tryAcquire(getBucket(key)) ? onMatch : onMismatch;
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger, final Level level, final Marker marker, final String msg, final Object p0) {
+        return filter(logger, level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1) {
+        return filter(logger, level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2) {
+        return filter(logger, level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3) {
+        return filter(logger, level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4) {
+        return filter(logger, level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5) {
+        return filter(logger, level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6) {
+        return filter(logger, level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7) {
+        return filter(logger, level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8) {
+        return filter(logger, level);
+    }
+
+    @Override
+    public Result filter(
+            final Logger logger,
+            final Level level,
+            final Marker marker,
+            final String msg,
+            final Object p0,
+            final Object p1,
+            final Object p2,
+            final Object p3,
+            final Object p4,
+            final Object p5,
+            final Object p6,
+            final Object p7,
+            final Object p8,
+            final Object p9) {
+        return filter(logger, level);
+    }
+
+    private boolean isLimited(final Level level) {
+        return this.level.isMoreSpecificThan(level);
+    }
+
+    private Result filter(final Logger logger, final Level level) {
+        if (!isLimited(level)) {
+            return onMatch;
+        }
+        final Object key;
+        if (perLogger) {
+            key = logger != null ? logger.getName() : null;
+        } else if (contextKey != null) {
+            key = injector.getValue(contextKey);
+        } else {
+            key = null;
+        }
+        return tryAcquire(getBucket(key)) ? onMatch : onMismatch;
+    }
+
+    private AtomicLong getBucket(final Object key) {
+        if (key == null) {
+            return bucket;
+        }
+        final AtomicLong keyBucket = buckets.get(key);
+        return keyBucket != null ? keyBucket : addBucket(key);
+    }
+
+    private AtomicLong addBucket(final Object key) {
+        if (buckets.size() >= maxKeys) {
+            evictFullBuckets();
+            if (buckets.size() >= maxKeys) {
+                return bucket;
+            }
+        }
+        return buckets.computeIfAbsent(key, ignored -> new AtomicLong(clock.nanoTime()));
+    }
+
+    /**
+     * Removes the buckets that are full again, since they behave like new ones.
+     * <p>
+     * The buckets are scanned by a single thread, at most once per event interval and not before the earliest time a
+     * bucket can be full, so that a table full of keys does not make each decision scan all the keys.
+     * </p>
+     */
+    private void evictFullBuckets() {
+        final long now = clock.nanoTime();
+        final long next = nextEviction.get();
+        if (next - now > 0 || !nextEviction.compareAndSet(next, now + interval)) {
+            return;
+        }
+        long minDelay = Long.MAX_VALUE;
+        final Iterator<AtomicLong> iterator = buckets.values().iterator();
+        while (iterator.hasNext()) {
+            final long delay = iterator.next().get() - now;
+            if (delay <= 0) {
+                iterator.remove();
+            } else if (delay < minDelay) {
+                minDelay = delay;
+            }
+        }
+        if (minDelay != Long.MAX_VALUE && minDelay > interval) {
+            nextEviction.set(now + minDelay);
+        }
+    }
+
+    /**
+     * Takes a token from a bucket.
+     *
+     * @param bucket The theoretical arrival time of the next event.
+     * @return {@code true} if a token was available.
+     */
+    private boolean tryAcquire(final AtomicLong bucket) {
+        final long now = clock.nanoTime();
+        long arrival = bucket.get();
+        while (true) {
+            final long start = arrival - now > 0 ? arrival : now;
+            if (start - now > tolerance) {
+                return false;
+            }
+            final long witness = bucket.compareAndExchange(arrival, start + interval);
+            if (witness == arrival) {
+                return true;
+            }
+            arrival = witness;
+        }
+    }
+
+    /**
+     * Returns the number of events that can be accepted immediately by the bucket shared by all the events.
+     *
+     * @return The number of available tokens.
+     */
+    public long getAvailable() {
+        final long delay = bucket.get() - clock.nanoTime();
+        if (delay <= 0) {
+            return maxBurst;
+        }
+        return Math.max((tolerance - delay) / interval + 1, 0);
+    }
+
+    /**
+     * Refills all the buckets.
+     */
+    public void clear() {
+        bucket.set(clock.nanoTime());
+        buckets.clear();
+        nextEviction.set(clock.nanoTime());
+    }
+
+    @Override
+    public String toString() {
+        return "level=" + level + ", interval=" + interval + ", maxBurst=" + maxBurst + ", perLogger=" + perLogger
+                + ", contextKey=" + contextKey + ", keys=" + buckets.size();
+    }
+
+    @PluginFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractFilterBuilder<Builder>
+            implements org.apache.logging.log4j.plugins.util.Builder<RateLimitFilter> {
+
+        @PluginBuilderAttribute
+        private Level level = Level.WARN;
+
+        @PluginBuilderAttribute
+        private float rate = DEFAULT_RATE;
+
+        @PluginBuilderAttribute
+        private long maxBurst;
+
+        @PluginBuilderAttribute
+        private boolean perLogger;
+
+        @PluginBuilderAttribute
+        private String contextKey;
+
+        @PluginBuilderAttribute
+        private int maxKeys = DEFAULT_MAX_KEYS;
+
+        private ContextDataInjector contextDataInjector;
+
+        private NanoClock clock;
+
+        /**
+         * Sets the logging level to use.
+         * @param level the logging level to use.
+         * @return this
+         */
+        public Builder setLevel(final Level level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets the average number of events per second to allow.
+         * @param rate the average number of events per second to allow. This must be a positive number.
+         * @return this
+         */
+        public Builder setRate(final float rate) {
+            this.rate = rate;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of events that can occur before events are filtered for exceeding the average rate.
+         * @param maxBurst the maximum number of events that can occur before events are filtered. The default is
+         * 100 times the rate.
+         * @return this
+         */
+        public Builder setMaxBurst(final long maxBurst) {
+            this.maxBurst = maxBurst;
+            return this;
+        }
+
+        /**
+         * Sets whether each logger is limited separately.
+         * @param perLogger if {@code true}, each logger is limited separately.
+         * @return this
+         */
+        public Builder setPerLogger(final boolean perLogger) {
+            this.perLogger = perLogger;
+            return this;
+        }
+
+        /**
+         * Sets the context data key whose values are limited separately.
+         * @param contextKey a context data key.
+         * @return this
+         */
+        public Builder setContextKey(final String contextKey) {
+            this.contextKey = contextKey;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of loggers or context data values that are limited separately.
+         * @param maxKeys the maximum number of keys. The default is 1024.
+         * @return this
+         */
+        public Builder setMaxKeys(final int maxKeys) {
+            this.maxKeys = maxKeys;
+            return this;
+        }
+
+        @Inject
+        public Builder setContextDataInjector(final ContextDataInjector contextDataInjector) {
+            this.contextDataInjector = contextDataInjector;
+            return this;
+        }
+
+        Builder setClock(final NanoClock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        @Override
+        public RateLimitFilter build() {
+            if (perLogger && contextKey != null) {
+                LOGGER.error("RateLimitFilter cannot be configured with both perLogger and contextKey");
+                return null;
+            }
+            if (this.rate <= 0) {
+                this.rate = DEFAULT_RATE;
+            }
+            if (this.maxBurst <= 0) {
+                this.maxBurst = (long) (this.rate * DEFAULT_RATE_MULTIPLE);
+            }
+            final ContextDataInjector injector =
+                    contextDataInjector != null ? contextDataInjector : ContextDataInjectorFactory.createInjector();
+            return new RateLimitFilter(
+                    level,
+                    rate,
+                    maxBurst,
+                    perLogger,
+                    contextKey,
+                    Math.max(maxKeys, 0),
+                    injector,
+                    clock != null ? clock : new SystemNanoClock(),
+                    getOnMatch(),
+                    getOnMismatch());
+        }
+    }
+}
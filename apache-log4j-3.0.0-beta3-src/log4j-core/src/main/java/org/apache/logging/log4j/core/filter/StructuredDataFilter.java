@@ -88,12 +88,7 @@ public final class StructuredDataFilter extends MapFilter {
         try {
             for (int i = 0; i < map.size(); i++) {
                 final StringBuilder toMatch = getValue(sb, message, map.getKeyAt(i));
-                if (toMatch != null) {
-                    final List<String> candidates = map.getValueAt(i);
-                    match = listContainsValue(candidates, toMatch);
-                } else {
-                    match = false;
-                }
+                match = containsValue(i, toMatch);
                 if ((!isAnd() && match) || (isAnd() && !match)) {
                     break;
                 }
@@ -130,28 +125,6 @@ public final class StructuredDataFilter extends MapFilter {
         return sb;
     }
 
-    private boolean listContainsValue(final List<String> candidates, final StringBuilder toMatch) {
-        if (toMatch == null) {
-            for (int i = 0; i < candidates.size(); i++) {
-                final String candidate = candidates.get(i);
-                if (candidate == null) {
-                    return true;
-                }
-            }
-        } else {
-            for (int i = 0; i < candidates.size(); i++) {
-                final String candidate = candidates.get(i);
-                if (candidate == null) {
-                    return false;
-                }
-                if (StringBuilders.equals(candidate, 0, candidate.length(), toMatch, 0, toMatch.length())) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
     /**
      * Creates the StructuredDataFilter.
      * @param pairs Key and value pairs.
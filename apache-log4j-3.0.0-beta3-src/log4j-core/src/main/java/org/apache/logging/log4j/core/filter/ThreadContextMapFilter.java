@@ -118,7 +118,7 @@ public class ThreadContextMapFilter extends MapFilter {
             final IndexedReadOnlyStringMap map = getStringMap();
             for (int i = 0; i < map.size(); i++) {
                 final String toMatch = getContextValue(map.getKeyAt(i));
-                match = toMatch != null && map.<List<String>>getValueAt(i).contains(toMatch);
+                match = containsValue(i, toMatch);
                 if ((!isAnd() && match) || (isAnd() && !match)) {
                     break;
                 }
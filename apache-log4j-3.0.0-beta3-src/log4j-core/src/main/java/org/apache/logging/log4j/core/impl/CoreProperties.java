@@ -75,6 +75,17 @@ public final class CoreProperties {
     public record BasicAuthenticationProperties(
             String username, String password, Class<? extends PasswordDecryptor> passwordDecryptor) {}
 
+    /**
+     * Properties to tune the GZIP compression of archived log files.
+     *
+     * @param threads The number of threads that compress a file. If greater than {@code 1}, the file is split in
+     *                blocks, which are compressed in parallel. If {@code 0}, all the available processors are used.
+     * @param blockSize The size in bytes of the blocks compressed in parallel.
+     */
+    @Log4jProperty(name = "compress.gzip")
+    public record GzipCompressionProperties(
+            @Log4jProperty(defaultValue = "1") int threads, @Log4jProperty(defaultValue = "1048576") int blockSize) {}
+
     /**
      * Properties related to the retrieval of a configuration.
      *
@@ -107,6 +118,19 @@ public final class CoreProperties {
             boolean usePreciseClock,
             @Log4jProperty(defaultValue = "5000") long waitMillisBeforeStopOldConfig) {}
 
+    /**
+     * Properties related to the monitoring of configuration files.
+     *
+     * @param useWatchService If {@code true} the configuration files are monitored using the notifications of the
+     *                        file system, instead of being polled every {@code monitorInterval} seconds. Other
+     *                        configuration sources are still polled.
+     * @param debounceMillis The number of milliseconds without notification to wait, before checking a modified
+     *                       configuration file.
+     */
+    @Log4jProperty(name = "configuration.watch")
+    public record ConfigurationWatchProperties(
+            boolean useWatchService, @Log4jProperty(defaultValue = "100") long debounceMillis) {}
+
     /**
      * Properties to tune garbage collection.
      */
@@ -149,6 +173,14 @@ public final class CoreProperties {
     @Log4jProperty(name = "loader")
     public record LoaderProperties(boolean ignoreTccl) {}
 
+    /**
+     * @param cache If {@code true}, the depth of the call sites of each logger is cached to walk the stack in fewer
+     *              and smaller batches.
+     * @see org.apache.logging.log4j.core.util.CallSiteLocator
+     */
+    @Log4jProperty(name = "location")
+    public record LocationProperties(@Log4jProperty(defaultValue = "true") boolean cache) {}
+
     /**
      * @param contextData Configuration for the context data.
      * @param factory The {@link LogEventFactory} to use.
@@ -175,6 +207,15 @@ public final class CoreProperties {
     @Log4jProperty(name = "message")
     public record MessageProperties(@Nullable Class<? extends MessageFactory> factory) {}
 
+    /**
+     * @param size The number of stack trace renderings cached by each stack trace converter of {@code PatternLayout}
+     *             and each stringified stack trace resolver of {@code JsonTemplateLayout}, {@code 0} to disable the
+     *             cache.
+     * @see org.apache.logging.log4j.core.util.StackTraceCache
+     */
+    @Log4jProperty(name = "stackTraceCache")
+    public record StackTraceCacheProperties(int size) {}
+
     /**
      * @param level The default level of the status logger.
      */
@@ -28,12 +28,12 @@ import org.apache.logging.log4j.core.time.Clock;
 import org.apache.logging.log4j.core.time.ClockFactory;
 import org.apache.logging.log4j.core.time.Instant;
 import org.apache.logging.log4j.core.time.MutableInstant;
+import org.apache.logging.log4j.core.util.CallSiteLocator;
 import org.apache.logging.log4j.message.LoggerNameAwareMessage;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.ReusableMessage;
 import org.apache.logging.log4j.message.TimestampMessage;
 import org.apache.logging.log4j.util.ReadOnlyStringMap;
-import org.apache.logging.log4j.util.StackLocatorUtil;
 import org.apache.logging.log4j.util.StringMap;
 import org.apache.logging.log4j.util.Strings;
 import org.jspecify.annotations.Nullable;
@@ -488,7 +488,7 @@ public class Log4jLogEvent implements LogEvent {
     @Override
     public StackTraceElement getSource() {
         if (source == null && loggerFqcn != null) {
-            source = includeLocation ? StackLocatorUtil.calcLocation(loggerFqcn) : null;
+            source = includeLocation ? CallSiteLocator.calcLocation(loggerFqcn) : null;
         }
         return peekSource();
     }
@@ -26,6 +26,7 @@ import org.apache.logging.log4j.core.time.Clock;
 import org.apache.logging.log4j.core.time.Instant;
 import org.apache.logging.log4j.core.time.MutableInstant;
 import org.apache.logging.log4j.core.time.NanoClock;
+import org.apache.logging.log4j.core.util.CallSiteLocator;
 import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.kit.recycler.Recycler;
 import org.apache.logging.log4j.message.Message;
@@ -34,7 +35,6 @@ import org.apache.logging.log4j.message.ParameterVisitable;
 import org.apache.logging.log4j.message.ReusableMessage;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.message.TimestampMessage;
-import org.apache.logging.log4j.util.StackLocatorUtil;
 import org.apache.logging.log4j.util.StringBuilders;
 import org.apache.logging.log4j.util.StringMap;
 import org.apache.logging.log4j.util.Strings;
@@ -362,7 +362,7 @@ public class MutableLogEvent implements ReusableLogEvent, ReusableMessage, Param
     @Override
     public StackTraceElement getSource() {
         if (source == null && loggerFqcn != null) {
-            return source = includeLocation ? StackLocatorUtil.calcLocation(loggerFqcn) : null;
+            return source = includeLocation ? CallSiteLocator.calcLocation(loggerFqcn) : null;
         }
         return peekSource();
     }
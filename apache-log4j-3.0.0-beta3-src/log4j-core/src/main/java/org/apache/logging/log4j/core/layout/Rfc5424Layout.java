@@ -22,19 +22,18 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.TimeZone;
 import java.util.TreeMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LoggingException;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
-import org.apache.logging.log4j.core.appender.TlsSyslogFrame;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.layout.internal.ExcludeChecker;
 import org.apache.logging.log4j.core.layout.internal.IncludeChecker;
@@ -59,8 +58,11 @@ import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.plugins.PluginElement;
 import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 import org.apache.logging.log4j.util.StringBuilders;
 import org.apache.logging.log4j.util.Strings;
+import org.apache.logging.log4j.util.TriConsumer;
 
 /**
  * Formats a log event in accordance with RFC 5424.
@@ -101,7 +103,10 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     private static final String LF = "\n";
     private static final int TWO_DIGITS = 10;
     private static final int THREE_DIGITS = 100;
+    private static final int MILLIS_PER_SECOND = 1000;
+    private static final int SECONDS_PER_MINUTE = 60;
     private static final int MILLIS_PER_MINUTE = 60000;
+    private static final int MILLIS_PER_HOUR = 3600000;
     private static final int MINUTES_PER_HOUR = 60;
     private static final String COMPONENT_KEY = "RFC5424-Converter";
 
@@ -125,9 +130,23 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     private final String escapeNewLine;
     private final boolean useTlsMessageFormat;
 
-    private long lastTimestamp = -1;
-    private String timestampStr;
-    private final Lock timestampComputationLock = new ReentrantLock();
+    private final String escapeNewLineText;
+    private final TimeZone timeZone = TimeZone.getDefault();
+
+    /**
+     * The formatted date, hour and time zone offset of the last timestamp.
+     */
+    private volatile TimestampCache timestampCache;
+
+    /**
+     * The fields after the timestamp that are the same for all events: hostname, application name and process id.
+     */
+    private final String staticFields;
+
+    private final String mdcSdIdString;
+    private final ParamAppender mdcParamAppender;
+    private final ParamAppender eventParamAppender;
+    private final ParamAppender checkedEventParamAppender;
 
     private final List<PatternFormatter> exceptionFormatters;
     private final Map<String, FieldFormatter> fieldFormatters;
@@ -161,6 +180,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         this.enterpriseNumber = ein;
         this.includeMdc = includeMDC;
         this.includeNewLine = includeNL;
+        this.escapeNewLineText = escapeNL;
         this.escapeNewLine = escapeNL == null ? null : Matcher.quoteReplacement(escapeNL);
         this.mdcId = mdcId != null ? mdcId : id == null ? DEFAULT_MDCID : id;
         this.mdcSdId = new StructuredDataId(this.mdcId, enterpriseNumber, null, null);
@@ -218,11 +238,24 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         configName = Strings.isNotEmpty(name) ? name : null;
         this.fieldFormatters = createFieldFormatters(loggerFields, config);
         this.procId = ProcessIdUtil.getProcessId();
+        final StringBuilder fields = new StringBuilder();
+        appendSpace(fields);
+        appendHostName(fields);
+        appendSpace(fields);
+        appendAppName(fields);
+        appendSpace(fields);
+        appendProcessId(fields);
+        appendSpace(fields);
+        this.staticFields = fields.toString();
+        this.mdcSdIdString = mdcSdId.toString();
+        this.mdcParamAppender = new ParamAppender(this.mdcPrefix, listChecker);
+        this.eventParamAppender = new ParamAppender(this.eventPrefix, ListChecker.NOOP_CHECKER);
+        this.checkedEventParamAppender = new ParamAppender(this.eventPrefix, listChecker);
     }
 
     private Map<String, FieldFormatter> createFieldFormatters(
             final LoggerFields[] loggerFields, final Configuration config) {
-        final Map<String, FieldFormatter> sdIdMap = new HashMap<>(loggerFields == null ? 0 : loggerFields.length);
+        final Map<String, FieldFormatter> sdIdMap = new LinkedHashMap<>();
         if (loggerFields != null) {
             for (final LoggerFields loggerField : loggerFields) {
                 final StructuredDataId key = loggerField.getSdId() == null ? mdcSdId : loggerField.getSdId();
@@ -292,28 +325,226 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     public String toSerializable(final LogEvent event) {
         final StringBuilder buf = stringBuilderRecycler.acquire();
         try {
-            appendPriority(buf, event.getLevel());
-            appendTimestamp(buf, event.getTimeMillis());
-            appendSpace(buf);
-            appendHostName(buf);
-            appendSpace(buf);
-            appendAppName(buf);
-            appendSpace(buf);
-            appendProcessId(buf);
-            appendSpace(buf);
-            appendMessageId(buf, event.getMessage());
-            appendSpace(buf);
-            appendStructuredElements(buf, event);
-            appendMessage(buf, event);
-            if (useTlsMessageFormat) {
-                return new TlsSyslogFrame(buf.toString()).toString();
-            }
+            format(event, buf);
             return buf.toString();
         } finally {
             stringBuilderRecycler.release(buf);
         }
     }
 
+    /**
+     * Encodes a {@link LogEvent} in conformance with the RFC 5424 Syslog specification.
+     * <p>
+     * Unless {@code LoggerFields} are configured or the message is a {@link StructuredDataCollectionMessage}, the
+     * event is formatted without allocating temporary objects.
+     * </p>
+     *
+     * @param event The LogEvent.
+     * @param destination The destination.
+     */
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final StringBuilder buf = stringBuilderRecycler.acquire();
+        try {
+            format(event, buf);
+            final Encoder<StringBuilder> encoder = stringBuilderEncoderRecycler.acquire();
+            try {
+                encoder.encode(buf, destination);
+            } finally {
+                stringBuilderEncoderRecycler.release(encoder);
+            }
+        } finally {
+            stringBuilderRecycler.release(buf);
+        }
+    }
+
+    private void format(final LogEvent event, final StringBuilder buf) {
+        if (!useTlsMessageFormat) {
+            formatMessage(event, buf);
+            return;
+        }
+        final StringBuilder message = stringBuilderRecycler.acquire();
+        try {
+            formatMessage(event, message);
+            // Same as TlsSyslogFrame
+            buf.append(utf8Length(message)).append(' ').append(message);
+        } finally {
+            stringBuilderRecycler.release(message);
+        }
+    }
+
+    private void formatMessage(final LogEvent event, final StringBuilder buf) {
+        final int start = buf.length();
+        if (!formatGarbageFree(event, buf)) {
+            buf.setLength(start);
+            formatGeneric(event, buf);
+        }
+    }
+
+    /**
+     * Formats the events whose structured data are described by at most two elements, which do not need to be merged:
+     * one from the context data and one from a {@link StructuredDataMessage}.
+     *
+     * @return {@code false} if the event must be formatted by {@link #formatGeneric(LogEvent, StringBuilder)}.
+     */
+    private boolean formatGarbageFree(final LogEvent event, final StringBuilder buf) {
+        final Message message = event.getMessage();
+        if (fieldFormatters != null || message instanceof MessageCollectionMessage) {
+            return false;
+        }
+        appendPriority(buf, event.getLevel());
+        appendTimestamp(buf, event.getTimeMillis());
+        buf.append(staticFields);
+        appendMessageId(buf, message);
+        appendSpace(buf);
+
+        final ReadOnlyStringMap contextData = event.getContextData();
+        if (mdcRequired != null) {
+            checkRequired(contextData);
+        }
+        final boolean hasMdc = includeMdc && !contextData.isEmpty();
+        if (message instanceof StructuredDataMessage) {
+            final StructuredDataMessage data = (StructuredDataMessage) message;
+            final int start = buf.length();
+            appendId(buf, data.getId());
+            final boolean isMdcId =
+                    StringBuilders.equals(buf, start, buf.length() - start, mdcSdIdString, 0, mdcSdIdString.length());
+            buf.setLength(start);
+            if (isMdcId && hasMdc) {
+                // The elements must be merged
+                return false;
+            }
+            // Same order as the generic method: the element of the message comes first
+            appendStructuredElement(buf, data, isMdcId);
+            if (hasMdc) {
+                appendMdcElement(buf, contextData);
+            }
+        } else if (hasMdc) {
+            appendMdcElement(buf, contextData);
+        } else {
+            buf.append('-');
+        }
+
+        final CharSequence text;
+        final StringBuilder formatted = stringBuilderRecycler.acquire();
+        try {
+            if (message instanceof StructuredDataMessage) {
+                text = message.getFormat();
+            } else if (message instanceof StringBuilderFormattable) {
+                ((StringBuilderFormattable) message).formatTo(formatted);
+                text = formatted;
+            } else {
+                text = message.getFormattedMessage();
+            }
+            if (text != null && text.length() > 0) {
+                buf.append(' ');
+                appendEscaped(buf, text, false);
+            }
+            if (exceptionFormatters != null && event.getThrown() != null) {
+                formatted.setLength(0);
+                formatted.append(LF);
+                for (final PatternFormatter formatter : exceptionFormatters) {
+                    formatter.format(event, formatted);
+                }
+                appendEscaped(buf, formatted, false);
+            }
+        } finally {
+            stringBuilderRecycler.release(formatted);
+        }
+        if (includeNewLine) {
+            buf.append(LF);
+        }
+        return true;
+    }
+
+    private void formatGeneric(final LogEvent event, final StringBuilder buf) {
+        appendPriority(buf, event.getLevel());
+        appendTimestamp(buf, event.getTimeMillis());
+        buf.append(staticFields);
+        appendMessageId(buf, event.getMessage());
+        appendSpace(buf);
+        appendStructuredElements(buf, event);
+        appendMessage(buf, event);
+    }
+
+    private void appendMdcElement(final StringBuilder buf, final ReadOnlyStringMap contextData) {
+        buf.append('[').append(mdcSdIdString);
+        contextData.forEach(mdcParamAppender, buf);
+        buf.append(']');
+    }
+
+    private void appendStructuredElement(
+            final StringBuilder buf, final StructuredDataMessage data, final boolean isMdcId) {
+        buf.append('[');
+        appendId(buf, data.getId());
+        data.forEach(isMdcId ? checkedEventParamAppender : eventParamAppender, buf);
+        buf.append(']');
+    }
+
+    /**
+     * Appends the same identifier as {@link #getId(StructuredDataId)}.
+     */
+    private void appendId(final StringBuilder buf, final StructuredDataId id) {
+        if (id == null || id.getName() == null) {
+            buf.append(defaultId);
+        } else {
+            buf.append(id.getName());
+        }
+        String ein = id != null ? id.getEnterpriseNumber() : enterpriseNumber;
+        if (StructuredDataId.RESERVED.equals(ein)) {
+            ein = enterpriseNumber;
+        }
+        if (!StructuredDataId.RESERVED.equals(ein)) {
+            buf.append('@').append(ein);
+        }
+    }
+
+    /**
+     * Escapes the characters of SD-PARAM names and values, then the newlines, like
+     * {@link #escapeNewlines(String, String)} applied to {@link #escapeSDParams(String)}.
+     */
+    private void appendEscaped(final StringBuilder buf, final CharSequence text, final boolean sdParam) {
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (sdParam && (c == '"' || c == ']' || c == '\\')) {
+                buf.append('\\').append(c);
+            } else if (escapeNewLineText != null && c == '\n') {
+                buf.append(escapeNewLineText);
+            } else if (escapeNewLineText != null && c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+                buf.append(escapeNewLineText);
+                i++;
+            } else {
+                buf.append(c);
+            }
+        }
+    }
+
+    /**
+     * Computes the length of the text encoded in UTF-8.
+     */
+    private static int utf8Length(final CharSequence text) {
+        int length = 0;
+        final int size = text.length();
+        for (int i = 0; i < size; i++) {
+            final char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // Replaced with '?'
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
     private void appendPriority(final StringBuilder buffer, final Level logLevel) {
         buffer.append('<');
         buffer.append(Priority.getPriority(facility, logLevel));
@@ -321,7 +552,19 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     }
 
     private void appendTimestamp(final StringBuilder buffer, final long milliseconds) {
-        buffer.append(computeTimeStampString(milliseconds));
+        TimestampCache cache = timestampCache;
+        if (cache == null || milliseconds < cache.start || milliseconds >= cache.start + MILLIS_PER_HOUR) {
+            cache = new TimestampCache(milliseconds, timeZone);
+            timestampCache = cache;
+        }
+        buffer.append(cache.dateHour);
+        final int elapsed = (int) (milliseconds - cache.start);
+        pad(elapsed / MILLIS_PER_MINUTE, TWO_DIGITS, buffer);
+        buffer.append(':');
+        pad(elapsed / MILLIS_PER_SECOND % SECONDS_PER_MINUTE, TWO_DIGITS, buffer);
+        buffer.append('.');
+        pad(elapsed % MILLIS_PER_SECOND, THREE_DIGITS, buffer);
+        buffer.append(cache.offset);
     }
 
     private void appendSpace(final StringBuilder buffer) {
@@ -391,7 +634,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
             return;
         }
 
-        final Map<String, StructuredDataElement> sdElements = new HashMap<>();
+        final Map<String, StructuredDataElement> sdElements = new LinkedHashMap<>();
         final Map<String, String> contextMap = event.getContextData().toMap();
 
         if (mdcRequired != null) {
@@ -434,11 +677,33 @@ public final class Rfc5424Layout extends AbstractStringLayout {
             return;
         }
 
+        // The elements of the message come first, in the order of the message
+        if (isStructured) {
+            if (message instanceof MessageCollectionMessage) {
+                for (final StructuredDataMessage data : ((StructuredDataCollectionMessage) message)) {
+                    formatStructuredElement(sdElements, getId(data.getId()), buffer);
+                }
+            } else {
+                formatStructuredElement(sdElements, getId(((StructuredDataMessage) message).getId()), buffer);
+            }
+        }
+        // Then the other elements, in the order of the configuration
         for (final Map.Entry<String, StructuredDataElement> entry : sdElements.entrySet()) {
             formatStructuredElement(entry.getKey(), entry.getValue(), buffer, listChecker);
         }
     }
 
+    /**
+     * Formats an element and removes it from the elements to format.
+     */
+    private void formatStructuredElement(
+            final Map<String, StructuredDataElement> sdElements, final String id, final StringBuilder buffer) {
+        final StructuredDataElement element = sdElements.remove(id);
+        if (element != null) {
+            formatStructuredElement(id, element, buffer, listChecker);
+        }
+    }
+
     private void addStructuredData(
             final Map<String, StructuredDataElement> sdElements, final StructuredDataMessage data) {
         final Map<String, String> map = data.getData();
@@ -446,7 +711,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         final String sdId = getId(id);
 
         if (sdElements.containsKey(sdId)) {
-            final StructuredDataElement union = sdElements.get(id.toString());
+            final StructuredDataElement union = sdElements.get(sdId);
             union.union(map);
             sdElements.put(sdId, union);
         } else {
@@ -474,71 +739,14 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         return mdcIncludes;
     }
 
-    private String computeTimeStampString(final long now) {
-        final long last;
-        timestampComputationLock.lock();
-        try {
-            last = lastTimestamp;
-            if (now == lastTimestamp) {
-                return timestampStr;
-            }
-        } finally {
-            timestampComputationLock.unlock();
-        }
-
-        final StringBuilder buffer = new StringBuilder();
-        final Calendar cal = new GregorianCalendar();
-        cal.setTimeInMillis(now);
-        buffer.append(Integer.toString(cal.get(Calendar.YEAR)));
-        buffer.append('-');
-        pad(cal.get(Calendar.MONTH) + 1, TWO_DIGITS, buffer);
-        buffer.append('-');
-        pad(cal.get(Calendar.DAY_OF_MONTH), TWO_DIGITS, buffer);
-        buffer.append('T');
-        pad(cal.get(Calendar.HOUR_OF_DAY), TWO_DIGITS, buffer);
-        buffer.append(':');
-        pad(cal.get(Calendar.MINUTE), TWO_DIGITS, buffer);
-        buffer.append(':');
-        pad(cal.get(Calendar.SECOND), TWO_DIGITS, buffer);
-        buffer.append('.');
-        pad(cal.get(Calendar.MILLISECOND), THREE_DIGITS, buffer);
-
-        int tzmin = (cal.get(Calendar.ZONE_OFFSET) + cal.get(Calendar.DST_OFFSET)) / MILLIS_PER_MINUTE;
-        if (tzmin == 0) {
-            buffer.append('Z');
-        } else {
-            if (tzmin < 0) {
-                tzmin = -tzmin;
-                buffer.append('-');
-            } else {
-                buffer.append('+');
-            }
-            final int tzhour = tzmin / MINUTES_PER_HOUR;
-            tzmin -= tzhour * MINUTES_PER_HOUR;
-            pad(tzhour, TWO_DIGITS, buffer);
-            buffer.append(':');
-            pad(tzmin, TWO_DIGITS, buffer);
-        }
-        timestampComputationLock.lock();
-        try {
-            if (last == lastTimestamp) {
-                lastTimestamp = now;
-                timestampStr = buffer.toString();
-            }
-        } finally {
-            timestampComputationLock.unlock();
-        }
-        return buffer.toString();
-    }
-
-    private void pad(final int val, int max, final StringBuilder buf) {
+    private static void pad(final int val, int max, final StringBuilder buf) {
         while (max > 1) {
             if (val < max) {
                 buf.append('0');
             }
             max = max / TWO_DIGITS;
         }
-        buf.append(Integer.toString(val));
+        buf.append(val);
     }
 
     private void formatStructuredElement(
@@ -574,6 +782,15 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         return sb.toString();
     }
 
+    private void checkRequired(final ReadOnlyStringMap contextData) {
+        for (int i = 0; i < mdcRequired.size(); i++) {
+            final String key = mdcRequired.get(i);
+            if (contextData.getValue(key) == null) {
+                throw new LoggingException("Required key " + key + " is missing from the " + mdcId);
+            }
+        }
+    }
+
     private void checkRequired(final Map<String, String> map) {
         for (final String key : mdcRequired) {
             final String value = map.get(key);
@@ -816,6 +1033,84 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         }
     }
 
+    /**
+     * The date, hour and time zone offset of the timestamps of an hour.
+     */
+    private static final class TimestampCache {
+
+        private final long start;
+        private final String dateHour;
+        private final String offset;
+
+        TimestampCache(final long milliseconds, final TimeZone timeZone) {
+            final Calendar cal = new GregorianCalendar(timeZone);
+            cal.setTimeInMillis(milliseconds);
+            final StringBuilder buffer = new StringBuilder();
+            buffer.append(cal.get(Calendar.YEAR));
+            buffer.append('-');
+            pad(cal.get(Calendar.MONTH) + 1, TWO_DIGITS, buffer);
+            buffer.append('-');
+            pad(cal.get(Calendar.DAY_OF_MONTH), TWO_DIGITS, buffer);
+            buffer.append('T');
+            pad(cal.get(Calendar.HOUR_OF_DAY), TWO_DIGITS, buffer);
+            buffer.append(':');
+            this.dateHour = buffer.toString();
+
+            buffer.setLength(0);
+            int tzmin = (cal.get(Calendar.ZONE_OFFSET) + cal.get(Calendar.DST_OFFSET)) / MILLIS_PER_MINUTE;
+            if (tzmin == 0) {
+                buffer.append('Z');
+            } else {
+                if (tzmin < 0) {
+                    tzmin = -tzmin;
+                    buffer.append('-');
+                } else {
+                    buffer.append('+');
+                }
+                final int tzhour = tzmin / MINUTES_PER_HOUR;
+                tzmin -= tzhour * MINUTES_PER_HOUR;
+                pad(tzhour, TWO_DIGITS, buffer);
+                buffer.append(':');
+                pad(tzmin, TWO_DIGITS, buffer);
+            }
+            this.offset = buffer.toString();
+
+            // Resolving the start of the hour with the calendar is ambiguous during the repeated hour of a DST change
+            this.start = milliseconds
+                    - cal.get(Calendar.MINUTE) * MILLIS_PER_MINUTE
+                    - cal.get(Calendar.SECOND) * MILLIS_PER_SECOND
+                    - cal.get(Calendar.MILLISECOND);
+        }
+    }
+
+    /**
+     * Appends the SD-PARAMs of a structured data element.
+     */
+    private final class ParamAppender implements TriConsumer<String, Object, StringBuilder> {
+
+        private final String prefix;
+        private final ListChecker checker;
+
+        ParamAppender(final String prefix, final ListChecker checker) {
+            this.prefix = prefix;
+            this.checker = checker;
+        }
+
+        @Override
+        public void accept(final String key, final Object value, final StringBuilder buf) {
+            if (checker.check(key) && value != null) {
+                buf.append(' ');
+                if (prefix != null) {
+                    buf.append(prefix);
+                }
+                appendEscaped(buf, key, true);
+                buf.append("=\"");
+                appendEscaped(buf, value instanceof CharSequence ? (CharSequence) value : value.toString(), true);
+                buf.append('"');
+            }
+        }
+    }
+
     private class FieldFormatter {
 
         private final Map<String, List<PatternFormatter>> delegateMap;
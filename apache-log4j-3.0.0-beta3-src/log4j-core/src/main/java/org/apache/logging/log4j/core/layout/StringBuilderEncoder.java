@@ -68,7 +68,7 @@ public class StringBuilderEncoder implements Encoder<StringBuilder> {
     @Override
     public void encode(final StringBuilder source, final ByteBufferDestination destination) {
         try {
-            TextEncoderHelper.encodeText(charsetEncoder, charBuffer, byteBuffer, source, destination);
+            TextEncoderHelper.encodeText(charsetEncoder, charBuffer, byteBuffer, source, destination, false);
         } catch (final Exception error) {
             TextEncoderHelper.encodeTextFallback(charset, source, destination, error);
         } finally {
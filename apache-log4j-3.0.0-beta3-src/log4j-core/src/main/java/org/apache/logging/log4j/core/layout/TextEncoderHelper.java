@@ -60,16 +60,33 @@ public class TextEncoderHelper {
             final ByteBuffer byteBuf,
             final StringBuilder text,
             final ByteBufferDestination destination) {
+        encodeText(charsetEncoder, charBuf, byteBuf, text, destination, true);
+    }
+
+    /**
+     * Converts the specified text to bytes and writes the resulting bytes to the specified destination.
+     *
+     * @param sharedBuffer {@code false} if {@code byteBuf} is known not to be the buffer of the destination, which
+     *                     spares a call to {@link ByteBufferDestination#getByteBuffer()} without synchronization
+     * @see #encodeText(CharsetEncoder, CharBuffer, ByteBuffer, StringBuilder, ByteBufferDestination)
+     */
+    static void encodeText(
+            final CharsetEncoder charsetEncoder,
+            final CharBuffer charBuf,
+            final ByteBuffer byteBuf,
+            final StringBuilder text,
+            final ByteBufferDestination destination,
+            final boolean sharedBuffer) {
         charsetEncoder.reset();
         if (text.length() > charBuf.capacity()) {
-            encodeChunkedText(charsetEncoder, charBuf, byteBuf, text, destination);
+            encodeChunkedText(charsetEncoder, charBuf, byteBuf, text, destination, sharedBuffer);
             return;
         }
         charBuf.clear();
         text.getChars(0, text.length(), charBuf.array(), charBuf.arrayOffset());
         charBuf.limit(text.length());
         final CoderResult result = charsetEncoder.encode(charBuf, byteBuf, true);
-        writeEncodedText(charsetEncoder, charBuf, byteBuf, destination, result);
+        writeEncodedText(charsetEncoder, charBuf, byteBuf, destination, result, sharedBuffer);
     }
 
     /**
@@ -85,7 +102,8 @@ public class TextEncoderHelper {
             final CharBuffer charBuf,
             final ByteBuffer byteBuf,
             final ByteBufferDestination destination,
-            CoderResult result) {
+            CoderResult result,
+            final boolean sharedBuffer) {
         if (!result.isUnderflow()) {
             writeChunkedEncodedText(charsetEncoder, charBuf, destination, byteBuf, result);
             return;
@@ -102,7 +120,9 @@ public class TextEncoderHelper {
         // synchronization on the destination object at some level, so the call to destination.getByteBuffer() should
         // be safe. If the byteBuf is an unrelated buffer, the comparison between the buffers should fail despite
         // destination.getByteBuffer() is not protected with the synchronization on the destination object.
-        if (byteBuf != destination.getByteBuffer()) {
+        // Callers that know the byteBuf is an unrelated buffer skip the comparison, since destinations may expect
+        // getByteBuffer() to be called with the synchronization on the destination object only.
+        if (!sharedBuffer || byteBuf != destination.getByteBuffer()) {
             byteBuf.flip();
             destination.writeBytes(byteBuf);
             byteBuf.clear();
@@ -142,7 +162,8 @@ public class TextEncoderHelper {
             final CharBuffer charBuf,
             ByteBuffer byteBuf,
             final StringBuilder text,
-            final ByteBufferDestination destination) {
+            final ByteBufferDestination destination,
+            final boolean sharedBuffer) {
 
         // LOG4J2-1874 ByteBuffer, CharBuffer and CharsetEncoder are thread-local, so no need to synchronize while
         // modifying these objects. Postpone synchronization until accessing the ByteBufferDestination.
@@ -158,7 +179,7 @@ public class TextEncoderHelper {
             result = charsetEncoder.encode(charBuf, byteBuf, endOfInput);
         }
         if (endOfInput) {
-            writeEncodedText(charsetEncoder, charBuf, byteBuf, destination, result);
+            writeEncodedText(charsetEncoder, charBuf, byteBuf, destination, result, sharedBuffer);
             return;
         }
         synchronized (destination) {
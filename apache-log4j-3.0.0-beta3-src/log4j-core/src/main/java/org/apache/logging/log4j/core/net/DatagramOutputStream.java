@@ -23,6 +23,7 @@ import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import org.apache.logging.log4j.Logger;
@@ -47,7 +48,17 @@ public class DatagramOutputStream extends OutputStream {
     private final InetAddress inetAddress;
     private final int port;
 
-    private byte[] data;
+    /**
+     * The content of the next packet, reused across packets.
+     */
+    private byte[] data = new byte[0];
+
+    /**
+     * The number of bytes of the next packet, or {@code -1} if nothing was written since the last packet.
+     */
+    private int size = -1;
+
+    private DatagramPacket packet;
 
     private final byte[] header;
     private final byte[] footer;
@@ -114,15 +125,19 @@ public class DatagramOutputStream extends OutputStream {
     public void flush() throws IOException {
         writeLock.lock();
         try {
-            if (this.data != null && this.datagramSocket != null && this.inetAddress != null) {
+            if (this.size >= 0 && this.datagramSocket != null && this.inetAddress != null) {
                 if (footer != null) {
                     copy(footer, 0, footer.length);
                 }
-                final DatagramPacket packet = new DatagramPacket(data, data.length, inetAddress, port);
+                if (packet == null) {
+                    packet = new DatagramPacket(data, size, inetAddress, port);
+                } else {
+                    packet.setData(data, 0, size);
+                }
                 datagramSocket.send(packet);
             }
         } finally {
-            data = null;
+            size = -1;
             try {
                 if (header != null) {
                     copy(header, 0, header.length);
@@ -138,7 +153,7 @@ public class DatagramOutputStream extends OutputStream {
         writeLock.lock();
         try {
             if (datagramSocket != null) {
-                if (data != null) {
+                if (size >= 0) {
                     flush();
                 }
                 datagramSocket.close();
@@ -150,12 +165,11 @@ public class DatagramOutputStream extends OutputStream {
     }
 
     private void copy(final byte[] bytes, final int offset, final int length) {
-        final int index = data == null ? 0 : data.length;
-        final byte[] copy = new byte[length + index];
-        if (data != null) {
-            System.arraycopy(data, 0, copy, 0, data.length);
+        final int index = Math.max(size, 0);
+        if (index + length > data.length) {
+            data = Arrays.copyOf(data, Math.max(index + length, data.length << 1));
         }
-        System.arraycopy(bytes, offset, copy, index, length);
-        data = copy;
+        System.arraycopy(bytes, offset, data, index, length);
+        size = index + length;
     }
 }
@@ -0,0 +1,560 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.net;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.appender.AppenderLoggingException;
+import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.util.Closer;
+import org.apache.logging.log4j.core.util.Log4jThread;
+import org.apache.logging.log4j.util.Strings;
+
+/**
+ * Manager of UDP connections that sends the events from a background thread.
+ * <p>
+ * The events are copied to an off-heap ring buffer. As with {@link DatagramOutputStream}, the bytes written between
+ * two flushes form a single record, which is never split across datagrams: with immediate flush, each record is an
+ * event. A background thread packs the records waiting in the ring buffer into datagrams of at most
+ * {@code maxPacketSize} bytes and sends them through a non-blocking {@link DatagramChannel}. Packing several records
+ * in a datagram requires a receiver that splits them, for example with newline-delimited or octet-counted framing:
+ * with a {@code maxPacketSize} of {@code 0}, each record is sent in its own datagram.
+ * </p>
+ * <p>
+ * As with {@link DatagramSocketManager}, each datagram starts with the header and ends with the footer of the layout.
+ * The records that do not fit in the ring buffer are dropped and counted.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+public class PipelinedDatagramSocketManager extends AbstractSocketManager {
+
+    /**
+     * The default maximum size of a datagram: the payload of an Ethernet frame, without IP and UDP headers.
+     */
+    public static final int DEFAULT_MAX_PACKET_SIZE = 1472;
+
+    /**
+     * The maximum size of the payload of a UDP datagram.
+     */
+    private static final int MAX_DATAGRAM_SIZE = 65507;
+
+    private static final int LENGTH_SIZE = Integer.BYTES;
+
+    private static final long SEND_RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private static final PipelinedDatagramSocketManagerFactory FACTORY = new PipelinedDatagramSocketManagerFactory();
+
+    private final int maxPacketSize;
+
+    private final byte[] header;
+
+    private final byte[] footer;
+
+    private final DatagramChannel channel;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signaled when records are completed and on close.
+     */
+    private final Condition pending = lock.newCondition();
+
+    /**
+     * The records, each preceded by its length.
+     */
+    private final ByteBuffer ring;
+
+    private final int mask;
+
+    /**
+     * The datagram being built by the sender thread.
+     */
+    private final ByteBuffer packet = ByteBuffer.allocateDirect(MAX_DATAGRAM_SIZE);
+
+    /**
+     * The total number of bytes added to the ring buffer, guarded by {@link #lock}.
+     */
+    private long head;
+
+    /**
+     * The total number of bytes of the complete records, guarded by {@link #lock}.
+     */
+    private long published;
+
+    /**
+     * The total number of bytes sent from the ring buffer, guarded by {@link #lock}.
+     */
+    private long tail;
+
+    /**
+     * The position of the length of the record being written, or {@code -1} if no record was started since the last
+     * flush, guarded by {@link #lock}.
+     */
+    private long recordStart = -1;
+
+    /**
+     * Whether the record being written did not fit in the ring buffer, guarded by {@link #lock}.
+     */
+    private boolean recordDropped;
+
+    /**
+     * Guarded by {@link #lock}.
+     */
+    private boolean closing;
+
+    private long shutdownTimeoutMillis = DEFAULT_SHUTDOWN_TIMEOUT_MILLIS;
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private volatile long sentEvents;
+
+    private volatile long sentPackets;
+
+    private final Sender sender;
+
+    /**
+     * Constructs a new instance and starts its sender thread.
+     *
+     * @param name The unique name of this connection.
+     * @param channel A connected datagram channel.
+     * @param inetAddress The Internet address.
+     * @param host The target host name.
+     * @param port The target port number.
+     * @param layout The layout.
+     * @param bufferSize The size of the buffer used to encode the events.
+     * @param ringBufferSize The size of the ring buffer, rounded up to a power of two.
+     * @param maxPacketSize The maximum size of a datagram containing several events, or {@code 0} to send each event
+     *                      in its own datagram.
+     * @throws IOException if the channel cannot be configured.
+     */
+    public PipelinedDatagramSocketManager(
+            final String name,
+            final DatagramChannel channel,
+            final InetAddress inetAddress,
+            final String host,
+            final int port,
+            final Layout layout,
+            final int bufferSize,
+            final int ringBufferSize,
+            final int maxPacketSize)
+            throws IOException {
+        super(name, OutputStream.nullOutputStream(), inetAddress, host, port, layout, false, bufferSize);
+        this.channel = channel;
+        channel.configureBlocking(false);
+        this.header = layout.getHeader() != null ? layout.getHeader() : new byte[0];
+        this.footer = layout.getFooter() != null ? layout.getFooter() : new byte[0];
+        this.maxPacketSize = Math.min(maxPacketSize, MAX_DATAGRAM_SIZE);
+        final int capacity = Integer.highestOneBit(Math.max(ringBufferSize, 2 * LENGTH_SIZE) - 1) << 1;
+        this.ring = ByteBuffer.allocateDirect(capacity);
+        this.mask = capacity - 1;
+        this.sender = new Sender(name);
+        sender.setDaemon(true);
+        sender.setPriority(Thread.MIN_PRIORITY);
+        sender.start();
+    }
+
+    /**
+     * Obtains a PipelinedDatagramSocketManager.
+     *
+     * @param host The host to connect to.
+     * @param port The port on the host.
+     * @param layout The layout.
+     * @param bufferSize The size of the buffer used to encode the events.
+     * @param ringBufferSize The size of the ring buffer.
+     * @param maxPacketSize The maximum size of a datagram containing several events, or {@code 0} to send each event
+     *                      in its own datagram.
+     * @return A PipelinedDatagramSocketManager.
+     */
+    public static PipelinedDatagramSocketManager getSocketManager(
+            final String host,
+            final int port,
+            final Layout layout,
+            final int bufferSize,
+            final int ringBufferSize,
+            final int maxPacketSize) {
+        if (Strings.isEmpty(host)) {
+            throw new IllegalArgumentException("A host name is required");
+        }
+        if (port <= 0) {
+            throw new IllegalArgumentException("A port value is required");
+        }
+        return (PipelinedDatagramSocketManager) getManager(
+                "PIPELINED-UDP:" + host + ':' + port,
+                new FactoryData(
+                        host,
+                        port,
+                        layout,
+                        bufferSize,
+                        ringBufferSize > 0 ? ringBufferSize : PipelinedTcpSocketManager.DEFAULT_RING_BUFFER_SIZE,
+                        maxPacketSize),
+                FACTORY);
+    }
+
+    /**
+     * Adds the bytes to the record being written, starting a new one if needed.
+     */
+    @Override
+    protected void writeToDestination(final byte[] bytes, final int offset, final int length) {
+        lock.lock();
+        try {
+            if (closing) {
+                throw new AppenderLoggingException("Manager " + getName() + " is closed");
+            }
+            if (recordStart < 0) {
+                recordStart = head;
+                recordDropped = false;
+                if (LENGTH_SIZE > ring.capacity() - (head - tail)) {
+                    recordDropped = true;
+                    return;
+                }
+                head += LENGTH_SIZE;
+            }
+            if (recordDropped) {
+                return;
+            }
+            final int capacity = ring.capacity();
+            if (length > capacity - (head - tail)) {
+                // The bytes already written are discarded with the rest of the record
+                head = recordStart;
+                recordDropped = true;
+                return;
+            }
+            final int index = (int) (head & mask);
+            final int first = Math.min(length, capacity - index);
+            ring.put(index, bytes, offset, first);
+            ring.put(0, bytes, offset + first, length - first);
+            head += length;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Completes the record being written and hands it over to the sender thread.
+     */
+    @Override
+    protected void flushDestination() {
+        lock.lock();
+        try {
+            if (recordStart < 0) {
+                return;
+            }
+            final int length = (int) (head - recordStart - LENGTH_SIZE);
+            if (recordDropped) {
+                if (droppedEvents.getAndIncrement() == 0) {
+                    LOGGER.warn("Ring buffer of {} is full, dropping events", getName());
+                }
+            } else if (length == 0) {
+                head = recordStart;
+            } else {
+                long position = recordStart;
+                for (int i = LENGTH_SIZE - 1; i >= 0; i--) {
+                    ring.put((int) (position++ & mask), (byte) (length >>> (i * Byte.SIZE)));
+                }
+                published = head;
+                pending.signal();
+            }
+            recordStart = -1;
+            recordDropped = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        if (timeout > 0) {
+            shutdownTimeoutMillis = timeUnit.toMillis(timeout);
+        }
+        return super.releaseSub(timeout, timeUnit);
+    }
+
+    /**
+     * Waits for the sender thread to send the pending events and closes the channel.
+     */
+    @Override
+    protected boolean closeOutputStream() {
+        final boolean closed = super.closeOutputStream();
+        lock.lock();
+        try {
+            closing = true;
+            pending.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            sender.join(shutdownTimeoutMillis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Closer.closeSilently(channel);
+        return closed;
+    }
+
+    /**
+     * Returns the number of records dropped because the ring buffer was full or the datagram could not be sent.
+     *
+     * @return The number of dropped events.
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Returns the number of events sent.
+     *
+     * @return The number of events.
+     */
+    public long getSentEvents() {
+        return sentEvents;
+    }
+
+    /**
+     * Returns the number of datagrams sent.
+     *
+     * @return The number of datagrams.
+     */
+    public long getSentPackets() {
+        return sentPackets;
+    }
+
+    public int getMaxPacketSize() {
+        return maxPacketSize;
+    }
+
+    /**
+     * Gets this PipelinedDatagramSocketManager's content format. Specified by:
+     * <ul>
+     * <li>Key: "protocol" Value: "udp"</li>
+     * <li>Key: "direction" Value: "out"</li>
+     * </ul>
+     *
+     * @return Map of content format keys supporting PipelinedDatagramSocketManager
+     */
+    @Override
+    public Map<String, String> getContentFormat() {
+        final Map<String, String> result = new HashMap<>(super.getContentFormat());
+        result.put("protocol", "udp");
+        result.put("direction", "out");
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PipelinedDatagramSocketManager [ringBufferSize=" + ring.capacity() + ", maxPacketSize="
+                + maxPacketSize + ", inetAddress=" + inetAddress + ", host=" + host + ", port=" + port + ", layout="
+                + layout + "]";
+    }
+
+    /**
+     * Packs the records of the ring buffer into datagrams.
+     */
+    private final class Sender extends Log4jThread {
+
+        Sender(final String name) {
+            super("PipelinedDatagramSocketManager-Sender-" + name);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    long position;
+                    final long end;
+                    lock.lock();
+                    try {
+                        while (published == tail && !closing) {
+                            pending.await();
+                        }
+                        if (published == tail) {
+                            return;
+                        }
+                        position = tail;
+                        end = published;
+                    } finally {
+                        lock.unlock();
+                    }
+                    while (position < end) {
+                        position = sendPacket(position, end);
+                        lock.lock();
+                        try {
+                            tail = position;
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                }
+            } catch (final InterruptedException e) {
+                LOGGER.debug("Sender thread of {} interrupted", PipelinedDatagramSocketManager.this.getName());
+            }
+        }
+
+        /**
+         * Sends a datagram with the events starting at a position.
+         *
+         * @return The position of the first event not sent.
+         */
+        private long sendPacket(final long start, final long end) {
+            packet.clear();
+            packet.put(header);
+            long position = start;
+            int events = 0;
+            while (position < end) {
+                final int length = readLength(position);
+                final int size = packet.position() + length + footer.length;
+                final boolean fits = events == 0 ? size <= MAX_DATAGRAM_SIZE : size <= maxPacketSize;
+                if (!fits) {
+                    if (events == 0) {
+                        LOGGER.warn(
+                                "{} dropped an event of {} bytes, larger than a datagram",
+                                PipelinedDatagramSocketManager.this.getName(),
+                                length);
+                        droppedEvents.incrementAndGet();
+                        return position + LENGTH_SIZE + length;
+                    }
+                    break;
+                }
+                copyEvent(position + LENGTH_SIZE, length);
+                position += LENGTH_SIZE + length;
+                events++;
+                if (maxPacketSize <= 0) {
+                    break;
+                }
+            }
+            packet.put(footer);
+            packet.flip();
+            send(events);
+            return position;
+        }
+
+        private int readLength(final long position) {
+            int length = 0;
+            for (int i = 0; i < LENGTH_SIZE; i++) {
+                length = (length << Byte.SIZE) | (ring.get((int) ((position + i) & mask)) & 0xFF);
+            }
+            return length;
+        }
+
+        private void copyEvent(final long start, final int length) {
+            final int index = (int) (start & mask);
+            final int first = Math.min(length, ring.capacity() - index);
+            packet.put(packet.position(), ring, index, first);
+            packet.put(packet.position() + first, ring, 0, length - first);
+            packet.position(packet.position() + length);
+        }
+
+        /**
+         * Sends the datagram, waiting while the send buffer of the socket is full.
+         */
+        private void send(final int events) {
+            try {
+                while (channel.write(packet) == 0) {
+                    LockSupport.parkNanos(SEND_RETRY_NANOS);
+                }
+                sentPackets++;
+                sentEvents += events;
+            } catch (final IOException e) {
+                // An ICMP port unreachable message fails the next write on Linux
+                LOGGER.debug(
+                        "Unable to send datagram of {}: {}",
+                        PipelinedDatagramSocketManager.this.getName(),
+                        e.getMessage());
+                droppedEvents.addAndGet(events);
+            }
+        }
+    }
+
+    /**
+     * Data for the factory.
+     */
+    private static final class FactoryData {
+        private final String host;
+        private final int port;
+        private final Layout layout;
+        private final int bufferSize;
+        private final int ringBufferSize;
+        private final int maxPacketSize;
+
+        FactoryData(
+                final String host,
+                final int port,
+                final Layout layout,
+                final int bufferSize,
+                final int ringBufferSize,
+                final int maxPacketSize) {
+            this.host = host;
+            this.port = port;
+            this.layout = layout;
+            this.bufferSize = bufferSize;
+            this.ringBufferSize = ringBufferSize;
+            this.maxPacketSize = maxPacketSize;
+        }
+    }
+
+    /**
+     * Factory to create a PipelinedDatagramSocketManager.
+     */
+    private static final class PipelinedDatagramSocketManagerFactory
+            implements ManagerFactory<PipelinedDatagramSocketManager, FactoryData> {
+
+        @Override
+        public PipelinedDatagramSocketManager createManager(final String name, final FactoryData data) {
+            final InetAddress inetAddress;
+            try {
+                inetAddress = InetAddress.getByName(data.host);
+            } catch (final UnknownHostException ex) {
+                LOGGER.error("Could not find address of {}: {}", data.host, ex, ex);
+                return null;
+            }
+            DatagramChannel channel = null;
+            try {
+                channel = DatagramChannel.open();
+                channel.connect(new InetSocketAddress(inetAddress, data.port));
+                return new PipelinedDatagramSocketManager(
+                        name,
+                        channel,
+                        inetAddress,
+                        data.host,
+                        data.port,
+                        data.layout,
+                        data.bufferSize,
+                        data.ringBufferSize,
+                        data.maxPacketSize);
+            } catch (final IOException ex) {
+                Closer.closeSilently(channel);
+                LOGGER.error("Could not open datagram channel to {}: {}", data.host, ex, ex);
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,712 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.net;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.appender.AppenderLoggingException;
+import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.util.Closer;
+import org.apache.logging.log4j.core.util.Log4jThread;
+import org.apache.logging.log4j.util.Strings;
+
+/**
+ * Manager of TCP connections that never blocks the logging threads on the network.
+ * <p>
+ * The events are copied to an off-heap ring buffer and sent by a background thread with gathering writes. The
+ * connection is established, and re-established after an error, by the same thread, so a slow or unreachable server
+ * never stalls the application. When the ring buffer is full, the events are appended to an optional spool file,
+ * which is replayed in order once the connection is available again. Without a spool file, the events that do not
+ * fit in the ring buffer are dropped and counted.
+ * </p>
+ * <p>
+ * The events that were being sent when a connection failed are sent again on the next connection: delivery is
+ * at-least-once.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+public class PipelinedTcpSocketManager extends AbstractSocketManager {
+
+    /**
+     * The default size of the ring buffer: 1 MiB.
+     */
+    public static final int DEFAULT_RING_BUFFER_SIZE = 1024 * 1024;
+
+    private static final int DEFAULT_PORT = 4560;
+
+    /**
+     * The time to wait for the pending events to be sent on close, if no timeout is given.
+     */
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * The maximum number of bytes sent from the spool file by a single call.
+     */
+    private static final long SPOOL_TRANSFER_SIZE = 1024 * 1024;
+
+    private static final PipelinedTcpSocketManagerFactory FACTORY = new PipelinedTcpSocketManagerFactory();
+
+    private final int connectTimeoutMillis;
+
+    private final int reconnectionDelayMillis;
+
+    private final SocketOptions socketOptions;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signaled when events are added and on close.
+     */
+    private final Condition pending = lock.newCondition();
+
+    private final ByteBuffer ring;
+
+    private final int mask;
+
+    /**
+     * The views of the ring buffer used by the writer thread for the gathering writes.
+     */
+    private final ByteBuffer[] slices;
+
+    /**
+     * The total number of bytes added to the ring buffer, guarded by {@link #lock}.
+     */
+    private long head;
+
+    /**
+     * The total number of bytes sent from the ring buffer, guarded by {@link #lock}.
+     */
+    private long tail;
+
+    private final Path spoolPath;
+
+    private final FileChannel spool;
+
+    /**
+     * Whether the events go to the spool file, guarded by {@link #lock}. Set when the ring buffer overflows and
+     * cleared when the spool file has been replayed.
+     */
+    private boolean spooling;
+
+    /**
+     * The position of the next byte to replay from the spool file, guarded by {@link #lock}.
+     */
+    private long spoolReadPosition;
+
+    /**
+     * The size of the spool file, guarded by {@link #lock}.
+     */
+    private long spoolWritePosition;
+
+    private volatile long droppedEvents;
+
+    private volatile long replayedBytes;
+
+    private volatile boolean connected;
+
+    /**
+     * Guarded by {@link #lock}.
+     */
+    private boolean closing;
+
+    private long shutdownTimeoutMillis = DEFAULT_SHUTDOWN_TIMEOUT_MILLIS;
+
+    /**
+     * Only accessed by the writer thread, or after it stopped.
+     */
+    private SocketChannel channel;
+
+    private final Writer writer;
+
+    /**
+     * Constructs a new instance and starts its writer thread.
+     *
+     * @param name The unique name of this connection.
+     * @param inetAddress The Internet address.
+     * @param host The target host name.
+     * @param port The target port number.
+     * @param connectTimeoutMillis The connect timeout in milliseconds.
+     * @param reconnectionDelayMillis The time to wait between connection attempts.
+     * @param layout The Layout.
+     * @param bufferSize The size of the buffer used to encode the events.
+     * @param socketOptions The socket options.
+     * @param ringBufferSize The size of the ring buffer, rounded up to a power of two.
+     * @param spoolFile The spool file or {@code null}.
+     * @throws IOException if the spool file cannot be opened.
+     */
+    public PipelinedTcpSocketManager(
+            final String name,
+            final InetAddress inetAddress,
+            final String host,
+            final int port,
+            final int connectTimeoutMillis,
+            final int reconnectionDelayMillis,
+            final Layout layout,
+            final int bufferSize,
+            final SocketOptions socketOptions,
+            final int ringBufferSize,
+            final String spoolFile)
+            throws IOException {
+        super(name, OutputStream.nullOutputStream(), inetAddress, host, port, layout, true, bufferSize);
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.reconnectionDelayMillis = reconnectionDelayMillis;
+        this.socketOptions = socketOptions;
+        final int capacity = ringBufferSize <= 1 ? 1 : Integer.highestOneBit(ringBufferSize - 1) << 1;
+        this.ring = ByteBuffer.allocateDirect(capacity);
+        this.mask = capacity - 1;
+        this.slices = new ByteBuffer[] {ring.duplicate(), ring.duplicate()};
+        if (Strings.isNotEmpty(spoolFile)) {
+            this.spoolPath = Paths.get(spoolFile);
+            final Path parent = spoolPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.spool = FileChannel.open(
+                    spoolPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // The events spooled before a restart are sent first
+            this.spoolWritePosition = spool.size();
+            this.spooling = spoolWritePosition > 0;
+        } else {
+            this.spoolPath = null;
+            this.spool = null;
+        }
+        this.writer = new Writer(name);
+        writer.setDaemon(true);
+        writer.setPriority(Thread.MIN_PRIORITY);
+        writer.start();
+    }
+
+    /**
+     * Obtains a PipelinedTcpSocketManager.
+     *
+     * @param host The host to connect to.
+     * @param port The port on the host.
+     * @param connectTimeoutMillis The connect timeout in milliseconds.
+     * @param reconnectDelayMillis The interval to pause between retries.
+     * @param layout The layout.
+     * @param bufferSize The size of the buffer used to encode the events.
+     * @param socketOptions The socket options.
+     * @param ringBufferSize The size of the ring buffer.
+     * @param spoolFile The spool file or {@code null}.
+     * @return A PipelinedTcpSocketManager.
+     */
+    public static PipelinedTcpSocketManager getSocketManager(
+            final String host,
+            int port,
+            final int connectTimeoutMillis,
+            int reconnectDelayMillis,
+            final Layout layout,
+            final int bufferSize,
+            final SocketOptions socketOptions,
+            final int ringBufferSize,
+            final String spoolFile) {
+        if (Strings.isEmpty(host)) {
+            throw new IllegalArgumentException("A host name is required");
+        }
+        if (port <= 0) {
+            port = DEFAULT_PORT;
+        }
+        if (reconnectDelayMillis <= 0) {
+            reconnectDelayMillis = TcpSocketManager.DEFAULT_RECONNECTION_DELAY_MILLIS;
+        }
+        return (PipelinedTcpSocketManager) getManager(
+                "PIPELINED-TCP:" + host + ':' + port,
+                new FactoryData(
+                        host,
+                        port,
+                        connectTimeoutMillis,
+                        reconnectDelayMillis,
+                        layout,
+                        bufferSize,
+                        socketOptions,
+                        ringBufferSize > 0 ? ringBufferSize : DEFAULT_RING_BUFFER_SIZE,
+                        spoolFile),
+                FACTORY);
+    }
+
+    /**
+     * Adds the bytes to the ring buffer, or to the spool file if the ring buffer is full.
+     */
+    @Override
+    protected void writeToDestination(final byte[] bytes, final int offset, final int length) {
+        lock.lock();
+        try {
+            if (closing) {
+                throw new AppenderLoggingException("Manager " + getName() + " is closed");
+            }
+            if (!spooling && length <= ring.capacity() - (head - tail)) {
+                final int index = (int) (head & mask);
+                final int first = Math.min(length, ring.capacity() - index);
+                ring.put(index, bytes, offset, first);
+                ring.put(0, bytes, offset + first, length - first);
+                head += length;
+            } else if (spool != null) {
+                if (!spooling) {
+                    LOGGER.debug("Ring buffer of {} is full, spooling events to {}", getName(), spoolPath);
+                    spooling = true;
+                }
+                final ByteBuffer source = ByteBuffer.wrap(bytes, offset, length);
+                while (source.hasRemaining()) {
+                    spoolWritePosition += spool.write(source, spoolWritePosition);
+                }
+            } else {
+                if (droppedEvents++ == 0) {
+                    LOGGER.warn("Ring buffer of {} is full, dropping events", getName());
+                }
+                return;
+            }
+            pending.signal();
+        } catch (final IOException e) {
+            throw new AppenderLoggingException("Error writing to spool file " + spoolPath, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        if (timeout > 0) {
+            shutdownTimeoutMillis = timeUnit.toMillis(timeout);
+        }
+        return super.releaseSub(timeout, timeUnit);
+    }
+
+    /**
+     * Waits for the writer thread to send the pending events and closes the connection. The events that could not
+     * be sent are kept in the spool file.
+     */
+    @Override
+    protected boolean closeOutputStream() {
+        final boolean closed = super.closeOutputStream();
+        lock.lock();
+        try {
+            closing = true;
+            pending.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join(shutdownTimeoutMillis);
+            if (writer.isAlive()) {
+                // Aborts a blocked write or connection attempt
+                writer.interrupt();
+                writer.join(shutdownTimeoutMillis);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            LOGGER.error("Writer thread of {} did not stop", getName());
+            return false;
+        }
+        closeChannel();
+        return savePendingEvents() && closed;
+    }
+
+    /**
+     * Moves the events that were not sent to the start of the spool file.
+     */
+    private boolean savePendingEvents() {
+        lock.lock();
+        try {
+            final long ringBytes = head - tail;
+            final long spoolBytes = spoolWritePosition - spoolReadPosition;
+            if (spool == null) {
+                if (ringBytes > 0) {
+                    LOGGER.warn("Discarding {} bytes of events not sent by {}", ringBytes, getName());
+                }
+                return true;
+            }
+            if (ringBytes == 0 && spoolReadPosition == 0) {
+                spool.close();
+                if (spoolBytes == 0) {
+                    Files.deleteIfExists(spoolPath);
+                }
+                return true;
+            }
+            final Path parent = spoolPath.toAbsolutePath().getParent();
+            final Path temp =
+                    Files.createTempFile(parent, spoolPath.getFileName().toString(), ".tmp");
+            try (final FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writeRing(target, tail, (int) ringBytes);
+                long position = spoolReadPosition;
+                while (position < spoolWritePosition) {
+                    position += spool.transferTo(position, spoolWritePosition - position, target);
+                }
+            }
+            spool.close();
+            Files.move(temp, spoolPath, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.debug("Saved {} bytes of events not sent by {} to {}", ringBytes + spoolBytes, getName(), spoolPath);
+            return true;
+        } catch (final IOException e) {
+            logError("Unable to save pending events to " + spoolPath, e);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes a range of the ring buffer to a channel.
+     */
+    private void writeRing(final GatheringByteChannel target, final long start, final int length) throws IOException {
+        final int index = (int) (start & mask);
+        final int first = Math.min(length, ring.capacity() - index);
+        slices[0].limit(index + first).position(index);
+        slices[1].limit(length - first).position(0);
+        while (slices[0].hasRemaining() || slices[1].hasRemaining()) {
+            target.write(slices);
+        }
+    }
+
+    private SocketChannel connect() throws IOException {
+        final List<InetSocketAddress> socketAddresses =
+                TcpSocketManager.TcpSocketManagerFactory.RESOLVER.resolveHost(host, port);
+        IOException exception = null;
+        for (final InetSocketAddress socketAddress : socketAddresses) {
+            final SocketChannel newChannel = SocketChannel.open();
+            try {
+                if (socketOptions != null) {
+                    socketOptions.apply(newChannel.socket());
+                }
+                newChannel.socket().connect(socketAddress, connectTimeoutMillis);
+                return newChannel;
+            } catch (final IOException e) {
+                Closer.closeSilently(newChannel);
+                exception = e;
+            }
+        }
+        throw exception != null ? exception : new UnknownHostException(host);
+    }
+
+    private void closeChannel() {
+        connected = false;
+        if (channel != null) {
+            Closer.closeSilently(channel);
+            channel = null;
+        }
+    }
+
+    /**
+     * Returns the number of events dropped because the ring buffer was full and no spool file is configured.
+     *
+     * @return The number of dropped events.
+     */
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+
+    /**
+     * Returns the number of bytes waiting in the ring buffer.
+     *
+     * @return The number of bytes not sent yet.
+     */
+    public long getPendingBytes() {
+        lock.lock();
+        try {
+            return head - tail;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes waiting in the spool file.
+     *
+     * @return The number of bytes not replayed yet.
+     */
+    public long getSpooledBytes() {
+        lock.lock();
+        try {
+            return spoolWritePosition - spoolReadPosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes sent from the spool file.
+     *
+     * @return The number of replayed bytes.
+     */
+    public long getReplayedBytes() {
+        return replayedBytes;
+    }
+
+    /**
+     * Returns whether the writer thread is connected.
+     *
+     * @return {@code true} if a connection is established.
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public int getReconnectionDelayMillis() {
+        return reconnectionDelayMillis;
+    }
+
+    /**
+     * Gets this PipelinedTcpSocketManager's content format. Specified by:
+     * <ul>
+     * <li>Key: "protocol" Value: "tcp"</li>
+     * <li>Key: "direction" Value: "out"</li>
+     * </ul>
+     *
+     * @return Map of content format keys supporting PipelinedTcpSocketManager
+     */
+    @Override
+    public Map<String, String> getContentFormat() {
+        final Map<String, String> result = new HashMap<>(super.getContentFormat());
+        result.put("protocol", "tcp");
+        result.put("direction", "out");
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PipelinedTcpSocketManager [connectTimeoutMillis=" + connectTimeoutMillis
+                + ", reconnectionDelayMillis=" + reconnectionDelayMillis + ", ringBufferSize=" + ring.capacity()
+                + ", spoolFile=" + spoolPath + ", inetAddress=" + inetAddress + ", host=" + host + ", port=" + port
+                + ", layout=" + layout + "]";
+    }
+
+    /**
+     * Connects to the server and sends the events of the ring buffer, then those of the spool file.
+     */
+    private final class Writer extends Log4jThread {
+
+        Writer(final String name) {
+            super("PipelinedTcpSocketManager-Writer-" + name);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (connected || awaitConnection()) {
+                    final long start;
+                    final int length;
+                    final long spoolStart;
+                    final long spoolEnd;
+                    lock.lock();
+                    try {
+                        while (head == tail && spoolReadPosition == spoolWritePosition && !closing) {
+                            pending.await();
+                        }
+                        if (head == tail && spoolReadPosition == spoolWritePosition) {
+                            // Closing and everything was sent
+                            return;
+                        }
+                        start = tail;
+                        length = (int) (head - tail);
+                        spoolStart = spoolReadPosition;
+                        spoolEnd = spoolWritePosition;
+                    } finally {
+                        lock.unlock();
+                    }
+                    try {
+                        if (length > 0) {
+                            writeRing(channel, start, length);
+                            lock.lock();
+                            try {
+                                tail += length;
+                            } finally {
+                                lock.unlock();
+                            }
+                        } else {
+                            replay(spoolStart, spoolEnd);
+                        }
+                    } catch (final IOException e) {
+                        LOGGER.debug(
+                                "Connection of {} failed: {}",
+                                PipelinedTcpSocketManager.this.getName(),
+                                e.getMessage());
+                        closeChannel();
+                    }
+                }
+            } catch (final InterruptedException e) {
+                LOGGER.debug("Writer thread of {} interrupted", PipelinedTcpSocketManager.this.getName());
+            } finally {
+                closeChannel();
+            }
+        }
+
+        /**
+         * Connects to the server, retrying until a connection is established or the manager is closed.
+         *
+         * @return {@code false} if the manager is closed.
+         */
+        private boolean awaitConnection() throws InterruptedException {
+            while (true) {
+                lock.lock();
+                try {
+                    if (closing) {
+                        return false;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    channel = connect();
+                    connected = true;
+                    LOGGER.debug("Connection of {} established", PipelinedTcpSocketManager.this.getName());
+                    return true;
+                } catch (final IOException e) {
+                    LOGGER.debug(
+                            "Unable to connect {}, retrying in {} ms: {}",
+                            PipelinedTcpSocketManager.this.getName(),
+                            reconnectionDelayMillis,
+                            e.getMessage());
+                }
+                lock.lock();
+                try {
+                    // New events also signal the condition: only closing cuts the delay short
+                    long remainingNanos = TimeUnit.MILLISECONDS.toNanos(reconnectionDelayMillis);
+                    while (!closing && remainingNanos > 0) {
+                        remainingNanos = pending.awaitNanos(remainingNanos);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        /**
+         * Sends a part of the spool file without copying it to the heap.
+         */
+        private void replay(final long start, final long end) throws IOException {
+            final long sent = spool.transferTo(start, Math.min(end - start, SPOOL_TRANSFER_SIZE), channel);
+            lock.lock();
+            try {
+                spoolReadPosition += sent;
+                replayedBytes += sent;
+                if (spoolReadPosition == spoolWritePosition) {
+                    spool.truncate(0);
+                    spoolReadPosition = 0;
+                    spoolWritePosition = 0;
+                    spooling = false;
+                    LOGGER.debug("Spool file {} of {} replayed", spoolPath, PipelinedTcpSocketManager.this.getName());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Data for the factory.
+     */
+    private static final class FactoryData {
+        private final String host;
+        private final int port;
+        private final int connectTimeoutMillis;
+        private final int reconnectDelayMillis;
+        private final Layout layout;
+        private final int bufferSize;
+        private final SocketOptions socketOptions;
+        private final int ringBufferSize;
+        private final String spoolFile;
+
+        FactoryData(
+                final String host,
+                final int port,
+                final int connectTimeoutMillis,
+                final int reconnectDelayMillis,
+                final Layout layout,
+                final int bufferSize,
+                final SocketOptions socketOptions,
+                final int ringBufferSize,
+                final String spoolFile) {
+            this.host = host;
+            this.port = port;
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            this.reconnectDelayMillis = reconnectDelayMillis;
+            this.layout = layout;
+            this.bufferSize = bufferSize;
+            this.socketOptions = socketOptions;
+            this.ringBufferSize = ringBufferSize;
+            this.spoolFile = spoolFile;
+        }
+
+        @Override
+        public String toString() {
+            return "FactoryData [host=" + host + ", port=" + port + ", connectTimeoutMillis=" + connectTimeoutMillis
+                    + ", reconnectDelayMillis=" + reconnectDelayMillis + ", layout=" + layout + ", bufferSize="
+                    + bufferSize + ", socketOptions=" + socketOptions + ", ringBufferSize=" + ringBufferSize
+                    + ", spoolFile=" + spoolFile + "]";
+        }
+    }
+
+    /**
+     * Factory to create a PipelinedTcpSocketManager.
+     */
+    private static final class PipelinedTcpSocketManagerFactory
+            implements ManagerFactory<PipelinedTcpSocketManager, FactoryData> {
+
+        @Override
+        public PipelinedTcpSocketManager createManager(final String name, final FactoryData data) {
+            final InetAddress inetAddress;
+            try {
+                inetAddress = InetAddress.getByName(data.host);
+            } catch (final UnknownHostException ex) {
+                LOGGER.error("Could not find address of {}: {}", data.host, ex, ex);
+                return null;
+            }
+            try {
+                return new PipelinedTcpSocketManager(
+                        name,
+                        inetAddress,
+                        data.host,
+                        data.port,
+                        data.connectTimeoutMillis,
+                        data.reconnectDelayMillis,
+                        data.layout,
+                        data.bufferSize,
+                        data.socketOptions,
+                        data.ringBufferSize,
+                        data.spoolFile);
+            } catch (final IOException ex) {
+                LOGGER.error("Could not open spool file {}: {}", data.spoolFile, ex, ex);
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import org.apache.logging.log4j.core.util.StackTraceCache;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A {@link ThrowableRenderer} decorator reusing the renderings of a {@link ThrowableStackTraceRenderer} stored in a
+ * {@link StackTraceCache}.
+ */
+@NullMarked
+final class ThrowableCachingRenderer implements ThrowableRenderer {
+
+    private final ThrowableRenderer delegate;
+
+    private final StackTraceCache cache;
+
+    ThrowableCachingRenderer(final ThrowableStackTraceRenderer<?> delegate, final StackTraceCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public void renderThrowable(final StringBuilder buffer, final Throwable throwable, final String lineSeparator) {
+
+        // Short-circuit if the throwable cannot be cached
+        final StackTraceCache.@Nullable Key key = cache.createKey(throwable, lineSeparator);
+        if (key == null) {
+            delegate.renderThrowable(buffer, throwable, lineSeparator);
+            return;
+        }
+
+        // Separate the rendering from the preceding content first, since the cached rendering excludes it
+        ThrowableStackTraceRenderer.ensureNewlineSuffix(buffer);
+        @Nullable final String cachedRendering = cache.get(key);
+        if (cachedRendering != null) {
+            buffer.append(cachedRendering);
+        } else {
+            final int startIndex = buffer.length();
+            delegate.renderThrowable(buffer, throwable, lineSeparator);
+            cache.put(key, buffer.substring(startIndex));
+        }
+    }
+
+    StackTraceCache getCache() {
+        return cache;
+    }
+}
@@ -24,8 +24,11 @@ import java.util.List;
 import java.util.function.Function;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.impl.CoreProperties.StackTraceCacheProperties;
 import org.apache.logging.log4j.core.impl.ThrowableFormatOptions;
 import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.util.StackTraceCache;
+import org.apache.logging.log4j.kit.env.PropertyEnvironment;
 import org.apache.logging.log4j.plugins.Namespace;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.jspecify.annotations.NullMarked;
@@ -103,8 +106,8 @@ public class ThrowablePatternConverter extends LogEventPatternConverter {
         this.formatters = Collections.unmodifiableList(suffixFormatters);
 
         // Create the effective renderer
-        this.renderer =
-                createEffectiveRenderer(options, this.options, propertyRendererFactory, stackTraceRendererFactory);
+        this.renderer = createEffectiveRenderer(
+                options, this.options, config, propertyRendererFactory, stackTraceRendererFactory);
     }
 
     /**
@@ -221,6 +224,7 @@ public class ThrowablePatternConverter extends LogEventPatternConverter {
     private static ThrowableRenderer createEffectiveRenderer(
             final String[] rawOptions,
             final ThrowableFormatOptions options,
+            @Nullable final Configuration config,
             @Nullable final ThrowablePropertyRendererFactory propertyRendererFactory,
             @Nullable final ThrowableStackTraceRendererFactory stackTraceRendererFactory) {
 
@@ -236,7 +240,28 @@ public class ThrowablePatternConverter extends LogEventPatternConverter {
         final ThrowableStackTraceRendererFactory effectiveStackTraceRendererFactory = stackTraceRendererFactory != null
                 ? stackTraceRendererFactory
                 : ThrowableStackTraceRendererFactory.INSTANCE;
-        return effectiveStackTraceRendererFactory.createStackTraceRenderer(options);
+        final ThrowableStackTraceRenderer<?> stackTraceRenderer =
+                effectiveStackTraceRendererFactory.createStackTraceRenderer(options);
+
+        // Cache its renderings, if enabled
+        final PropertyEnvironment environment =
+                config != null ? config.getEnvironment() : PropertyEnvironment.getGlobal();
+        final int cacheSize =
+                environment.getProperty(StackTraceCacheProperties.class).size();
+        if (cacheSize > 0 && stackTraceRenderer.maxLineCount > 0) {
+            return new ThrowableCachingRenderer(stackTraceRenderer, new StackTraceCache(cacheSize));
+        }
+        return stackTraceRenderer;
+    }
+
+    /**
+     * Returns the cache of the rendered stack traces, if enabled by the {@code log4j.stackTraceCache.size} property.
+     *
+     * @return the cache, or {@code null} if disabled or if this converter does not render stack traces
+     * @since 3.0.0
+     */
+    public @Nullable StackTraceCache getStackTraceCache() {
+        return renderer instanceof ThrowableCachingRenderer ? ((ThrowableCachingRenderer) renderer).getCache() : null;
     }
 
     /**
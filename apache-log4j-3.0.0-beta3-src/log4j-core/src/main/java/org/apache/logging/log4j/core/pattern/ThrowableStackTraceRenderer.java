@@ -65,7 +65,7 @@ class ThrowableStackTraceRenderer<C extends ThrowableStackTraceRenderer.Context>
         }
     }
 
-    private static void ensureNewlineSuffix(final StringBuilder buffer) {
+    static void ensureNewlineSuffix(final StringBuilder buffer) {
         final int bufferLength = buffer.length();
         if (bufferLength > 0 && buffer.charAt(bufferLength - 1) != '\n') {
             buffer.append(LINE_SEPARATOR);
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util;
+
+import java.lang.StackWalker.StackFrame;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.core.impl.CoreProperties.LocationProperties;
+import org.apache.logging.log4j.kit.env.PropertyEnvironment;
+import org.apache.logging.log4j.util.StackLocatorUtil;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Computes the location of logging calls, remembering how deep the call sites of each logger are in the stack.
+ * <p>
+ * Most of the cost of a location is the materialization of the stack frames by the {@link StackWalker}, which fetches
+ * them in batches: a first batch too small requires more batches, while a batch too large materializes frames that
+ * are never looked at. Since the callers of a logger are usually at the same depth, the depth of the last call site
+ * of each logger is cached and used as the size of the first batch of the next stack walk.
+ * </p>
+ * <p>
+ * The cache can be disabled with the {@code log4j.location.cache} property, in which case the locations are computed
+ * by {@link StackLocatorUtil#calcLocation(String)}.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+@NullMarked
+public final class CallSiteLocator {
+
+    private static final boolean CACHE_ENABLED = PropertyEnvironment.getGlobal()
+            .getProperty(LocationProperties.class)
+            .cache();
+
+    /**
+     * The number of frames added to the depth of a call site, to account for the frames of the stack walker itself.
+     */
+    private static final int DEPTH_MARGIN = 4;
+
+    /**
+     * The difference between the estimated and the actual depth of a call site, beyond which the estimation is
+     * lowered. It prevents the replacement of the stack walker of a logger called at slightly different depths.
+     */
+    private static final int DEPTH_TOLERANCE = 8;
+
+    private static final int MAX_ESTIMATED_DEPTH = 64;
+
+    private static final Walker DEFAULT_WALKER = new Walker(StackWalker.getInstance(), 0);
+
+    private static final ConcurrentMap<String, Walker> WALKERS = new ConcurrentHashMap<>();
+
+    private CallSiteLocator() {}
+
+    /**
+     * Returns the location of the caller of a logger.
+     *
+     * @param fqcn The fully qualified class name of the logger entry point, used to determine the caller class.
+     * @return The first frame following the frames of {@code fqcn}, or {@code null} if {@code fqcn} is not on the
+     * stack.
+     * @see StackLocatorUtil#calcLocation(String)
+     */
+    public static @Nullable StackTraceElement calcLocation(final String fqcn) {
+        if (!CACHE_ENABLED) {
+            return StackLocatorUtil.calcLocation(fqcn);
+        }
+        final Walker walker = WALKERS.getOrDefault(fqcn, DEFAULT_WALKER);
+        return walker.stackWalker.walk(frames -> locate(fqcn, walker, frames));
+    }
+
+    private static @Nullable StackTraceElement locate(
+            final String fqcn, final Walker walker, final Stream<StackFrame> frames) {
+        final Iterator<StackFrame> iterator = frames.iterator();
+        boolean loggerFound = false;
+        int depth = 0;
+        while (iterator.hasNext()) {
+            final StackFrame frame = iterator.next();
+            depth++;
+            if (frame.getClassName().equals(fqcn)) {
+                loggerFound = true;
+            } else if (loggerFound) {
+                updateEstimatedDepth(fqcn, walker, depth);
+                return frame.toStackTraceElement();
+            }
+        }
+        return null;
+    }
+
+    private static void updateEstimatedDepth(final String fqcn, final Walker walker, final int depth) {
+        final int estimatedDepth = Math.min(depth + DEPTH_MARGIN, MAX_ESTIMATED_DEPTH);
+        if (estimatedDepth > walker.estimatedDepth || estimatedDepth + DEPTH_TOLERANCE < walker.estimatedDepth) {
+            WALKERS.put(
+                    fqcn, new Walker(StackWalker.getInstance(Collections.emptySet(), estimatedDepth), estimatedDepth));
+        }
+    }
+
+    private record Walker(StackWalker stackWalker, int estimatedDepth) {}
+}
@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.impl.CoreProperties.ConfigurationWatchProperties;
+import org.apache.logging.log4j.kit.env.PropertyEnvironment;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Monitors the files watched by {@link WatchManager}s using the notifications of the file system.
+ * <p>
+ * The directory of each file is registered once with a {@link WatchService}, whatever the number of managers that
+ * watch files in it. A single thread receives the notifications and, once a file has not been notified for
+ * {@link ConfigurationWatchProperties#debounceMillis()} milliseconds, asks the managers that watch it to check it.
+ * The thread only runs while files are watched.
+ * </p>
+ * <p>
+ * Sources that are not files, symbolic links, files of file systems that do not support notifications and files
+ * whose directory is deleted are not monitored: the managers keep polling them.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+public final class FileWatchEventService implements WatchEventService {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    /**
+     * The shared instances, by debounce period in milliseconds.
+     */
+    private static final Map<Long, FileWatchEventService> INSTANCES = new ConcurrentHashMap<>();
+
+    private final long debounceNanos;
+
+    /**
+     * The watched directories.
+     */
+    private final Map<Path, WatchedDirectory> directories = new HashMap<>();
+
+    private @Nullable WatchService watchService;
+
+    /**
+     * Returns the instance shared by all the managers that use the same debounce period.
+     *
+     * @param environment the environment of the configuration, which provides the debounce period.
+     */
+    public static FileWatchEventService getInstance(final PropertyEnvironment environment) {
+        final long debounceMillis = environment.getProperty(ConfigurationWatchProperties.class).debounceMillis();
+        return INSTANCES.computeIfAbsent(
+                debounceMillis, millis -> new FileWatchEventService(millis, TimeUnit.MILLISECONDS));
+    }
+
+    FileWatchEventService(final long debounce, final TimeUnit unit) {
+        this.debounceNanos = unit.toNanos(debounce);
+    }
+
+    /**
+     * Starts monitoring the file sources of the given manager.
+     */
+    @Override
+    public void subscribe(final WatchManager manager) {
+        for (final Source source : manager.getConfigurationWatchers().keySet()) {
+            watch(manager, source);
+        }
+    }
+
+    /**
+     * Stops monitoring the sources of the given manager.
+     */
+    @Override
+    public synchronized void unsubscribe(final WatchManager manager) {
+        final Iterator<WatchedDirectory> iterator = directories.values().iterator();
+        while (iterator.hasNext()) {
+            final WatchedDirectory directory = iterator.next();
+            directory.files.values().removeIf(sources -> sources.remove(manager) != null && sources.isEmpty());
+            if (directory.files.isEmpty()) {
+                directory.key.cancel();
+                iterator.remove();
+            }
+        }
+        closeIfUnused();
+    }
+
+    /**
+     * Starts monitoring a source of a manager.
+     *
+     * @return {@code true} if the source is monitored, {@code false} if it must be polled.
+     */
+    synchronized boolean watch(final WatchManager manager, final Source source) {
+        final Path file = toPath(source);
+        if (file == null || file.getParent() == null || Files.isSymbolicLink(file)) {
+            return false;
+        }
+        final Path parent = file.getParent();
+        WatchedDirectory directory = directories.get(parent);
+        if (directory == null) {
+            try {
+                if (watchService == null) {
+                    watchService = parent.getFileSystem().newWatchService();
+                    startThread(watchService);
+                }
+                final WatchKey key = parent.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+                directory = new WatchedDirectory(key);
+                directories.put(parent, directory);
+                LOGGER.debug("Watching directory {} for configuration changes", parent);
+            } catch (final IOException | RuntimeException e) {
+                LOGGER.warn("Unable to watch directory {}, configuration file {} will be polled", parent, file, e);
+                closeIfUnused();
+                return false;
+            }
+        }
+        directory.files.computeIfAbsent(file, ignored -> new HashMap<>()).put(manager, source);
+        return true;
+    }
+
+    /**
+     * Stops monitoring a source of a manager.
+     */
+    synchronized void unwatch(final WatchManager manager, final Source source) {
+        final Path file = toPath(source);
+        final WatchedDirectory directory = file != null ? directories.get(file.getParent()) : null;
+        if (directory != null) {
+            final Map<WatchManager, Source> sources = directory.files.get(file);
+            if (sources != null && sources.remove(manager) != null && sources.isEmpty()) {
+                directory.files.remove(file);
+                if (directory.files.isEmpty()) {
+                    directory.key.cancel();
+                    directories.remove(file.getParent());
+                    closeIfUnused();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if a source of a manager is monitored.
+     */
+    synchronized boolean isWatching(final WatchManager manager, final Source source) {
+        final Path file = toPath(source);
+        final WatchedDirectory directory = file != null ? directories.get(file.getParent()) : null;
+        final Map<WatchManager, Source> sources = directory != null ? directory.files.get(file) : null;
+        return sources != null && sources.containsKey(manager);
+    }
+
+    private static @Nullable Path toPath(final Source source) {
+        final File file = source.getFile();
+        return file != null ? file.toPath().toAbsolutePath().normalize() : null;
+    }
+
+    private void startThread(final WatchService service) {
+        Log4jThreadFactory.createDaemonThreadFactory("FileWatchEventService")
+                .newThread(() -> run(service))
+                .start();
+    }
+
+    private void closeIfUnused() {
+        if (directories.isEmpty() && watchService != null) {
+            try {
+                watchService.close();
+            } catch (final IOException e) {
+                LOGGER.warn("Unable to close the watch service", e);
+            }
+            watchService = null;
+        }
+    }
+
+    private void run(final WatchService service) {
+        // Deadlines of the files to check
+        final Map<Path, Long> pending = new HashMap<>();
+        try {
+            while (true) {
+                final WatchKey key;
+                if (pending.isEmpty()) {
+                    key = service.take();
+                } else {
+                    final long timeout = pending.values().stream()
+                                    .mapToLong(Long::longValue)
+                                    .min()
+                                    .getAsLong()
+                            - System.nanoTime();
+                    key = service.poll(Math.max(timeout, 0), TimeUnit.NANOSECONDS);
+                }
+                if (key != null) {
+                    processEvents(key, pending);
+                }
+                final long now = System.nanoTime();
+                final Iterator<Map.Entry<Path, Long>> iterator =
+                        pending.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    final Map.Entry<Path, Long> entry = iterator.next();
+                    if (entry.getValue() - now <= 0) {
+                        iterator.remove();
+                        check(entry.getKey());
+                    }
+                }
+            }
+        } catch (final ClosedWatchServiceException e) {
+            // No more files to watch
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void processEvents(final WatchKey key, final Map<Path, Long> pending) {
+        final Path parent = (Path) key.watchable();
+        final long deadline = System.nanoTime() + debounceNanos;
+        boolean checkAll = false;
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                checkAll = true;
+            } else {
+                final Path file = parent.resolve((Path) event.context());
+                synchronized (this) {
+                    final WatchedDirectory directory = directories.get(parent);
+                    if (directory != null && directory.files.containsKey(file)) {
+                        pending.put(file, deadline);
+                    }
+                }
+            }
+        }
+        if (!key.reset()) {
+            // The directory is no longer accessible, events might have been missed
+            checkAll = reregister(key, parent);
+        }
+        if (checkAll) {
+            synchronized (this) {
+                final WatchedDirectory directory = directories.get(parent);
+                if (directory != null) {
+                    for (final Path file : directory.files.keySet()) {
+                        pending.put(file, deadline);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers again a directory whose key is no longer valid, e.g. because the directory was deleted.
+     *
+     * @return {@code true} if the directory is watched again, {@code false} if its files must be polled.
+     */
+    private synchronized boolean reregister(final WatchKey key, final Path parent) {
+        final WatchedDirectory directory = directories.get(parent);
+        if (directory == null || directory.key != key) {
+            return false;
+        }
+        directories.remove(parent);
+        if (watchService != null && Files.isDirectory(parent)) {
+            try {
+                final WatchedDirectory newDirectory = new WatchedDirectory(
+                        parent.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY));
+                newDirectory.files.putAll(directory.files);
+                directories.put(parent, newDirectory);
+                LOGGER.debug("Watching directory {} again for configuration changes", parent);
+                return true;
+            } catch (final IOException | RuntimeException e) {
+                LOGGER.debug("Unable to watch directory {} again", parent, e);
+            }
+        }
+        LOGGER.warn(
+                "Directory {} is no longer watched, configuration files {} will be polled",
+                parent,
+                directory.files.keySet());
+        closeIfUnused();
+        return false;
+    }
+
+    private void check(final Path file) {
+        final List<Map.Entry<WatchManager, Source>> sources;
+        synchronized (this) {
+            final WatchedDirectory directory = directories.get(file.getParent());
+            final Map<WatchManager, Source> map = directory != null ? directory.files.get(file) : null;
+            if (map == null) {
+                return;
+            }
+            sources = new ArrayList<>(map.entrySet());
+        }
+        for (final Map.Entry<WatchManager, Source> entry : sources) {
+            try {
+                entry.getKey().checkSource(entry.getValue());
+            } catch (final RuntimeException e) {
+                LOGGER.warn("Unable to check configuration file {}", file, e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "FileWatchEventService [debounceNanos=" + debounceNanos + ", directories=" + directories.keySet() + "]";
+    }
+
+    private static final class WatchedDirectory {
+
+        private final WatchKey key;
+
+        /**
+         * The sources of each manager, by file.
+         */
+        private final Map<Path, Map<WatchManager, Source>> files = new HashMap<>();
+
+        private WatchedDirectory(final WatchKey key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A bounded cache of rendered stack traces, to render the same exception logged repeatedly only once.
+ * <p>
+ * A rendering is looked up by a {@link Key} capturing everything a stack trace rendering depends on: the class name,
+ * the localized message, and the stack trace of a {@link Throwable}, its suppressed exceptions and its causes, along
+ * with the shape of this graph and a discriminator, e.g., the line separator. Since the key does not refer to the
+ * throwables nor their classes, the cache does not prevent them from being garbage collected.
+ * </p>
+ * <p>
+ * The renderings are stored in a table of a fixed number of slots, indexed by the hash of their key: a new rendering
+ * replaces the one stored in its slot. A lookup compares the whole key, so a collision causes a miss, never the
+ * rendering of a different stack trace. The cache can be used by several threads concurrently.
+ * </p>
+ * <p>
+ * Throwables overriding {@link Throwable#toString()}, and graphs of more than {@value #MAX_THROWABLE_COUNT}
+ * throwables, are not cached.
+ * </p>
+ *
+ * @since 3.0.0
+ */
+@NullMarked
+public final class StackTraceCache {
+
+    private static final int MAX_THROWABLE_COUNT = 64;
+
+    private static final int ROOT = 0;
+
+    private static final int CAUSE = 1;
+
+    private static final int SUPPRESSED = 2;
+
+    private static final int CIRCULAR = 4;
+
+    private static final ClassValue<Boolean> CACHEABLE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            try {
+                return type.getMethod("toString").getDeclaringClass() == Throwable.class;
+            } catch (final NoSuchMethodException error) {
+                return false;
+            }
+        }
+    };
+
+    private final AtomicReferenceArray<Entry> entries;
+
+    private final int mask;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Creates a cache.
+     *
+     * @param size The maximum number of renderings, rounded up to a power of two.
+     */
+    public StackTraceCache(final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("was expecting a positive size: " + size);
+        }
+        final int capacity = size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Creates the key of the rendering of a throwable.
+     *
+     * @param throwable A throwable.
+     * @param discriminator The other inputs of the rendering, e.g., the line separator.
+     * @return The key, or {@code null} if the throwable cannot be cached.
+     */
+    public @Nullable Key createKey(final Throwable throwable, final String discriminator) {
+        Objects.requireNonNull(throwable, "throwable");
+        Objects.requireNonNull(discriminator, "discriminator");
+        final List<Throwable> visitedThrowables = new ArrayList<>();
+        final List<Node> nodes = new ArrayList<>();
+        if (!collectNodes(throwable, ROOT, 0, visitedThrowables, nodes)) {
+            return null;
+        }
+        return new Key(discriminator, nodes.toArray(new Node[0]));
+    }
+
+    /**
+     * Collects the throwables in the order {@link Throwable#printStackTrace()} renders them.
+     */
+    private static boolean collectNodes(
+            final Throwable throwable,
+            final int kind,
+            final int depth,
+            final List<Throwable> visitedThrowables,
+            final List<Node> nodes) {
+        if (!CACHEABLE.get(throwable.getClass()) || nodes.size() == MAX_THROWABLE_COUNT) {
+            return false;
+        }
+        if (containsIdentical(visitedThrowables, throwable)) {
+            nodes.add(new Node(throwable, kind | CIRCULAR, depth, null));
+            return true;
+        }
+        visitedThrowables.add(throwable);
+        nodes.add(new Node(throwable, kind, depth, throwable.getStackTrace()));
+        for (final Throwable suppressed : throwable.getSuppressed()) {
+            if (!collectNodes(suppressed, SUPPRESSED, depth + 1, visitedThrowables, nodes)) {
+                return false;
+            }
+        }
+        final Throwable cause = throwable.getCause();
+        return cause == null || collectNodes(cause, CAUSE, depth, visitedThrowables, nodes);
+    }
+
+    private static boolean containsIdentical(final List<Throwable> throwables, final Throwable throwable) {
+        // noinspection ForLoopReplaceableByForEach (avoid iterator instantiation)
+        for (int i = 0; i < throwables.size(); i++) {
+            if (throwables.get(i) == throwable) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the rendering of a key.
+     *
+     * @param key A key.
+     * @return The rendering, or {@code null} if it is not cached.
+     */
+    public @Nullable String get(final Key key) {
+        final Entry entry = entries.get(key.hash & mask);
+        if (entry != null && entry.key.equals(key)) {
+            hitCount.increment();
+            return entry.rendering;
+        }
+        missCount.increment();
+        return null;
+    }
+
+    /**
+     * Stores the rendering of a key, replacing the rendering stored in the same slot, if any.
+     *
+     * @param key A key.
+     * @param rendering The rendering.
+     */
+    public void put(final Key key, final String rendering) {
+        Objects.requireNonNull(rendering, "rendering");
+        entries.set(key.hash & mask, new Entry(key, rendering));
+    }
+
+    /**
+     * Returns the number of lookups that found a rendering.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of lookups that did not find a rendering.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * The inputs of the rendering of a throwable.
+     */
+    public static final class Key {
+
+        private final String discriminator;
+
+        private final Node[] nodes;
+
+        private final int hash;
+
+        private Key(final String discriminator, final Node[] nodes) {
+            this.discriminator = discriminator;
+            this.nodes = nodes;
+            int hash = discriminator.hashCode();
+            for (final Node node : nodes) {
+                hash = 31 * hash + node.hashCode();
+            }
+            // Spread the high bits, since the table is indexed by the low ones.
+            this.hash = hash ^ (hash >>> 16);
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) object;
+            return hash == other.hash && discriminator.equals(other.discriminator) && Arrays.equals(nodes, other.nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A throwable in the graph of a {@link Key}.
+     */
+    private static final class Node {
+
+        private final String className;
+
+        private final @Nullable String message;
+
+        private final int kind;
+
+        private final int depth;
+
+        private final StackTraceElement @Nullable [] stackTrace;
+
+        private final int hash;
+
+        private Node(
+                final Throwable throwable,
+                final int kind,
+                final int depth,
+                final StackTraceElement @Nullable [] stackTrace) {
+            this.className = throwable.getClass().getName();
+            this.message = throwable.getLocalizedMessage();
+            this.kind = kind;
+            this.depth = depth;
+            this.stackTrace = stackTrace;
+            int hash = className.hashCode();
+            hash = 31 * hash + Objects.hashCode(message);
+            hash = 31 * hash + kind;
+            hash = 31 * hash + depth;
+            hash = 31 * hash + Arrays.hashCode(stackTrace);
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof Node)) {
+                return false;
+            }
+            final Node other = (Node) object;
+            return hash == other.hash
+                    && kind == other.kind
+                    && depth == other.depth
+                    && className.equals(other.className)
+                    && Objects.equals(message, other.message)
+                    && Arrays.equals(stackTrace, other.stackTrace);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+
+        private final Key key;
+
+        private final String rendering;
+
+        private Entry(final Key key, final String rendering) {
+            this.key = key;
+            this.rendering = rendering;
+        }
+    }
+}
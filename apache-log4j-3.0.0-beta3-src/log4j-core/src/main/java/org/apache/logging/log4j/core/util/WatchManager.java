@@ -42,6 +42,7 @@ import org.apache.logging.log4j.plugins.Named;
 import org.apache.logging.log4j.plugins.Singleton;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.util.ServiceLoaderUtil;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Manages {@link FileWatcher}s.
@@ -109,21 +110,22 @@ public class WatchManager extends AbstractLifeCycle {
         // Use a hard class reference here in case a refactoring changes the class name.
         private final String SIMPLE_NAME = WatchRunnable.class.getSimpleName();
 
+        private final boolean checkAll;
+
+        /**
+         * @param checkAll if {@code false}, the sources monitored by the {@link FileWatchEventService} are skipped.
+         */
+        WatchRunnable(final boolean checkAll) {
+            this.checkAll = checkAll;
+        }
+
         @Override
         public void run() {
             logger.trace("{} run triggered.", SIMPLE_NAME);
             for (final Map.Entry<Source, ConfigurationMonitor> entry : watchers.entrySet()) {
                 final Source source = entry.getKey();
-                final ConfigurationMonitor monitor = entry.getValue();
-                if (monitor.getWatcher().isModified()) {
-                    final long lastModified = monitor.getWatcher().getLastModified();
-                    logger.info(
-                            "Configuration source at `{}` was modified on `{}`, previous modification was on `{}`",
-                            () -> source,
-                            () -> Instant.ofEpochMilli(lastModified),
-                            () -> Instant.ofEpochMilli(monitor.lastModifiedMillis));
-                    monitor.lastModifiedMillis = lastModified;
-                    monitor.getWatcher().modified();
+                if (checkAll || fileWatchService == null || !fileWatchService.isWatching(WatchManager.this, source)) {
+                    check(source, entry.getValue());
                 }
             }
             logger.trace("{} run ended.", SIMPLE_NAME);
@@ -142,11 +144,29 @@ public class WatchManager extends AbstractLifeCycle {
 
     private final ConcurrentMap<Source, ConfigurationMonitor> watchers = new ConcurrentHashMap<>();
 
+    private final @Nullable FileWatchEventService fileWatchService;
+
     @Inject
     public WatchManager(
             final ConfigurationScheduler scheduler,
             final @Named("StatusLogger") org.apache.logging.log4j.Logger statusLogger) {
+        this(scheduler, statusLogger, null);
+    }
+
+    /**
+     * Creates a manager that delegates the monitoring of files to a {@link FileWatchEventService}.
+     *
+     * @param scheduler        the scheduler of the polling task.
+     * @param statusLogger     the logger for the loading of the {@link WatchEventService}s.
+     * @param fileWatchService the service that monitors the file sources, or {@code null} to poll all the sources.
+     * @since 3.0.0
+     */
+    public WatchManager(
+            final ConfigurationScheduler scheduler,
+            final org.apache.logging.log4j.Logger statusLogger,
+            final @Nullable FileWatchEventService fileWatchService) {
         this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+        this.fileWatchService = fileWatchService;
         eventServiceList = ServiceLoaderUtil.safeStream(
                         WatchEventService.class,
                         ServiceLoader.load(WatchEventService.class, WatchManager.class.getClassLoader()),
@@ -155,7 +175,32 @@ public class WatchManager extends AbstractLifeCycle {
     }
 
     public void checkFiles() {
-        new WatchRunnable().run();
+        new WatchRunnable(true).run();
+    }
+
+    /**
+     * Checks a single source, if it is watched.
+     *
+     * @param source the source to check.
+     */
+    void checkSource(final Source source) {
+        final ConfigurationMonitor monitor = watchers.get(source);
+        if (monitor != null) {
+            check(source, monitor);
+        }
+    }
+
+    private void check(final Source source, final ConfigurationMonitor monitor) {
+        if (monitor.getWatcher().isModified()) {
+            final long lastModified = monitor.getWatcher().getLastModified();
+            logger.info(
+                    "Configuration source at `{}` was modified on `{}`, previous modification was on `{}`",
+                    () -> source,
+                    () -> Instant.ofEpochMilli(lastModified),
+                    () -> Instant.ofEpochMilli(monitor.lastModifiedMillis));
+            monitor.lastModifiedMillis = lastModified;
+            monitor.getWatcher().modified();
+        }
     }
 
     /**
@@ -280,7 +325,10 @@ public class WatchManager extends AbstractLifeCycle {
 
         if (intervalSeconds > 0) {
             future = scheduler.scheduleWithFixedDelay(
-                    new WatchRunnable(), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+                    new WatchRunnable(false), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+        if (fileWatchService != null) {
+            fileWatchService.subscribe(this);
         }
         for (final WatchEventService service : eventServiceList) {
             service.subscribe(this);
@@ -290,6 +338,9 @@ public class WatchManager extends AbstractLifeCycle {
     @Override
     public boolean stop(final long timeout, final TimeUnit timeUnit) {
         setStopping();
+        if (fileWatchService != null) {
+            fileWatchService.unsubscribe(this);
+        }
         for (final WatchEventService service : eventServiceList) {
             service.unsubscribe(this);
         }
@@ -301,7 +352,7 @@ public class WatchManager extends AbstractLifeCycle {
     @Override
     public String toString() {
         return "WatchManager [intervalSeconds=" + intervalSeconds + ", watchers=" + watchers + ", scheduler="
-                + scheduler + ", future=" + future + "]";
+                + scheduler + ", future=" + future + ", fileWatchService=" + fileWatchService + "]";
     }
 
     /**
@@ -314,6 +365,9 @@ public class WatchManager extends AbstractLifeCycle {
     public void unwatch(final Source source) {
         logger.debug("Unwatching configuration {}", source);
         watchers.remove(source);
+        if (fileWatchService != null) {
+            fileWatchService.unwatch(this, source);
+        }
     }
 
     /**
@@ -343,6 +397,9 @@ public class WatchManager extends AbstractLifeCycle {
                     lastModified);
         }
         watchers.put(source, new ConfigurationMonitor(lastModified, watcher));
+        if (fileWatchService != null && isStarted()) {
+            fileWatchService.watch(this, source);
+        }
     }
 
     /**
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.gctests;
+
+import static org.apache.logging.log4j.core.test.TestConstants.THREAD_CONTEXT_MAP_GARBAGE_FREE;
+import static org.apache.logging.log4j.core.test.TestConstants.setSystemProperty;
+
+import org.apache.logging.log4j.core.appender.AsyncAppender;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies that a garbage-free Async Appender does not allocate objects in steady state.
+ * <p>
+ * Only the allocations made by the Async Appender and its dispatcher thread are reported.
+ * </p>
+ *
+ * @see <a href="https://github.com/google/allocation-instrumenter">Google Allocation Instrumenter</a>
+ */
+@Tag("allocation")
+@Tag("functional")
+public class GcFreeAsyncAppenderLoggingTest {
+
+    @Test
+    public void testNoAllocationDuringSteadyStateLogging() throws Throwable {
+        GcFreeLoggingTestUtil.runTestWithoutAllocations(getClass());
+    }
+
+    /**
+     * This code runs in a separate process, instrumented with the Google Allocation Instrumenter.
+     */
+    public static void main(final String[] args) throws Exception {
+        setSystemProperty(THREAD_CONTEXT_MAP_GARBAGE_FREE, "true");
+        GcFreeLoggingTestUtil.executeLogging(
+                "gcFreeAsyncAppenderLogging.xml", GcFreeAsyncAppenderLoggingTest.class, AsyncAppender.class.getName());
+    }
+}
@@ -56,6 +56,17 @@ enum GcFreeLoggingTestUtil {
     ;
 
     static void executeLogging(final String configurationFile, final Class<?> testClass) throws Exception {
+        executeLogging(configurationFile, testClass, null);
+    }
+
+    /**
+     * Logs in steady state and reports the allocations.
+     *
+     * @param allocationSite if not {@code null}, only the allocations by classes whose name starts with this prefix
+     *                       are reported
+     */
+    static void executeLogging(final String configurationFile, final Class<?> testClass, final String allocationSite)
+            throws Exception {
 
         setSystemProperty(GC_ENABLE_DIRECT_ENCODERS, "true");
         setSystemProperty(WEB_IS_WEB_APP, "false");
@@ -88,9 +99,11 @@ enum GcFreeLoggingTestUtil {
         ThreadContext.remove("aKey");
         ThreadContext.remove("key2");
 
-        // BlockingWaitStrategy uses ReentrantLock which allocates Node objects. Ignore this.
+        // BlockingWaitStrategy and blocking queues use ReentrantLock which allocates Node objects. Ignore this.
         final String[] exclude = new String[] {
             "java/util/concurrent/locks/AbstractQueuedSynchronizer$Node", //
+            "java/util/concurrent/locks/AbstractQueuedSynchronizer$ExclusiveNode", //
+            "java/util/concurrent/locks/AbstractQueuedSynchronizer$ConditionNode", //
             "com/google/monitoring/runtime/instrumentation/Sampler"
         };
         final AtomicBoolean samplingEnabled = new AtomicBoolean(true);
@@ -103,6 +116,9 @@ enum GcFreeLoggingTestUtil {
                     return; // exclude
                 }
             }
+            if (allocationSite != null && !isAllocatedBy(allocationSite)) {
+                return;
+            }
             System.err.println("I just allocated the object " + newObj + " of type " + desc + " whose size is " + size);
             if (count != -1) {
                 System.err.println("It's an array of size " + count);
@@ -131,6 +147,15 @@ enum GcFreeLoggingTestUtil {
         Thread.sleep(100);
     }
 
+    private static boolean isAllocatedBy(final String allocationSite) {
+        for (final StackTraceElement element : Thread.currentThread().getStackTrace()) {
+            if (element.getClassName().startsWith(allocationSite)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static void singleLoggingIteration(
             final org.apache.logging.log4j.Logger logger,
             final MyCharSeq myCharSeq,
@@ -215,6 +240,33 @@ enum GcFreeLoggingTestUtil {
     }
 
     public static void runTest(final Class<?> cls) throws Exception {
+        final File tempFile = runInstrumented(cls);
+
+        final AtomicInteger lineCounter = new AtomicInteger(0);
+        try (final Stream<String> lines = Files.lines(tempFile.toPath(), Charset.defaultCharset())) {
+            final Pattern pattern =
+                    Pattern.compile(String.format("^FATAL .*\\.%s [main].*", Pattern.quote(cls.getSimpleName())));
+            assertThat(lines.flatMap(l -> {
+                        final int lineNumber = lineCounter.incrementAndGet();
+                        final String line = l.trim();
+                        return pattern.matcher(line).matches() ? Stream.of(lineNumber + ": " + line) : Stream.empty();
+                    }))
+                    .isEmpty();
+        }
+    }
+
+    /**
+     * Runs the {@code main} method of the given class and checks that no allocation was reported.
+     */
+    static void runTestWithoutAllocations(final Class<?> cls) throws Exception {
+        final File tempFile = runInstrumented(cls);
+
+        try (final Stream<String> lines = Files.lines(tempFile.toPath(), Charset.defaultCharset())) {
+            assertThat(lines.filter(line -> line.contains("I just allocated"))).isEmpty();
+        }
+    }
+
+    private static File runInstrumented(final Class<?> cls) throws Exception {
         final String javaHome = getProperty("java.home");
         final String javaBin = javaHome + File.separator + "bin" + File.separator + "java";
         final String classpath = getProperty("java.class.path");
@@ -240,18 +292,7 @@ enum GcFreeLoggingTestUtil {
         final Process process = builder.start();
         process.waitFor();
         process.exitValue();
-
-        final AtomicInteger lineCounter = new AtomicInteger(0);
-        try (final Stream<String> lines = Files.lines(tempFile.toPath(), Charset.defaultCharset())) {
-            final Pattern pattern =
-                    Pattern.compile(String.format("^FATAL .*\\.%s [main].*", Pattern.quote(cls.getSimpleName())));
-            assertThat(lines.flatMap(l -> {
-                        final int lineNumber = lineCounter.incrementAndGet();
-                        final String line = l.trim();
-                        return pattern.matcher(line).matches() ? Stream.of(lineNumber + ": " + line) : Stream.empty();
-                    }))
-                    .isEmpty();
-        }
+        return tempFile;
     }
 
     private static File agentJar() throws Exception {
@@ -23,7 +23,9 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.lang.reflect.Field;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.LoggingException;
@@ -88,4 +90,41 @@ class JCToolsBlockingQueueFactoryTest {
         rewriteTest(context);
         exceptionTest(context);
     }
+
+    @Test
+    @LoggerContextSource("JCToolsBlockingQueueFactoryGarbageFreeTest.xml")
+    public void testGarbageFreeConcurrentLogging(final LoggerContext context) throws InterruptedException {
+        assertJCToolsIsUsed(context);
+        final ExtendedLogger logger = context.getLogger(AsyncAppender.class);
+        final int threadCount = 4;
+        final int messageCount = 1000;
+        final Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final int thread = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < messageCount; j++) {
+                    logger.info("Thread {} message {}", thread, j);
+                }
+            });
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final ListAppender appender = context.getConfiguration().getAppender("LIST");
+        final List<String> messages;
+        try {
+            messages = appender.getMessages(threadCount * messageCount, 10, TimeUnit.SECONDS);
+        } finally {
+            appender.clear();
+        }
+        // Each preallocated event is used by a single thread at a time, so no message is lost or duplicated
+        final Set<String> expected = new HashSet<>();
+        for (int i = 0; i < threadCount; i++) {
+            for (int j = 0; j < messageCount; j++) {
+                expected.add("Thread " + i + " message " + j);
+            }
+        }
+        assertThat(messages).hasSize(threadCount * messageCount).containsExactlyInAnyOrderElementsOf(expected);
+    }
 }
@@ -80,15 +80,18 @@ public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseMan
         @PluginBuilderAttribute
         private long reconnectIntervalMillis = DEFAULT_RECONNECT_INTERVAL_MILLIS;
 
+        @PluginBuilderAttribute
+        private int queueSize;
+
         @Override
         public JdbcAppender build() {
             if (Assert.isEmpty(columnConfigs) && Assert.isEmpty(columnMappings)) {
                 LOGGER.error("Cannot create JdbcAppender without any columns.");
                 return null;
             }
-            final String managerName = "JdbcManager{name=" + getName() + ", bufferSize=" + bufferSize + ", tableName="
-                    + tableName + ", columnConfigs=" + Arrays.toString(columnConfigs) + ", columnMappings="
-                    + Arrays.toString(columnMappings) + '}';
+            final String managerName = "JdbcManager{name=" + getName() + ", bufferSize=" + bufferSize + ", queueSize="
+                    + queueSize + ", tableName=" + tableName + ", columnConfigs=" + Arrays.toString(columnConfigs)
+                    + ", columnMappings=" + Arrays.toString(columnMappings) + '}';
             final JdbcDatabaseManager manager = JdbcDatabaseManager.getManager(
                     managerName,
                     bufferSize,
@@ -100,6 +103,7 @@ public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseMan
                     immediateFail,
                     reconnectIntervalMillis,
                     truncateStrings,
+                    queueSize,
                     getConfiguration());
             if (manager == null) {
                 return null;
@@ -112,6 +116,10 @@ public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseMan
             return reconnectIntervalMillis;
         }
 
+        public int getQueueSize() {
+            return queueSize;
+        }
+
         public boolean isImmediateFail() {
             return immediateFail;
         }
@@ -166,6 +174,20 @@ public final class JdbcAppender extends AbstractDatabaseAppender<JdbcDatabaseMan
             this.reconnectIntervalMillis = reconnectIntervalMillis;
         }
 
+        /**
+         * If an integer greater than 0, log events are handed to a queue of this size and written to the database
+         * by background threads, in batches of at most {@code bufferSize} log events.
+         *
+         * @param queueSize The capacity of the queue.
+         *
+         * @return this
+         * @since 3.0.0
+         */
+        public B setQueueSize(final int queueSize) {
+            this.queueSize = queueSize;
+            return asBuilder();
+        }
+
         /**
          * The name of the database table to insert log events into.
          *
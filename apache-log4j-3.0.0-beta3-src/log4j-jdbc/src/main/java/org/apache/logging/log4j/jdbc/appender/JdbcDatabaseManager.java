@@ -37,7 +37,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.StringLayout;
@@ -46,12 +54,17 @@ import org.apache.logging.log4j.core.appender.ManagerFactory;
 import org.apache.logging.log4j.core.appender.db.AbstractDatabaseManager;
 import org.apache.logging.log4j.core.appender.db.ColumnMapping;
 import org.apache.logging.log4j.core.appender.db.DbAppenderLoggingException;
+import org.apache.logging.log4j.core.async.AsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.DefaultAsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.EventRoute;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.util.Closer;
 import org.apache.logging.log4j.core.util.Log4jThread;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
 import org.apache.logging.log4j.jdbc.convert.DateTypeConverter;
 import org.apache.logging.log4j.message.MapMessage;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.plugins.di.Key;
 import org.apache.logging.log4j.spi.ThreadContextMap;
 import org.apache.logging.log4j.spi.ThreadContextStack;
 import org.apache.logging.log4j.util.IndexedReadOnlyStringMap;
@@ -75,6 +88,7 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         private final boolean retry;
         private final long reconnectIntervalMillis;
         private final boolean truncateStrings;
+        private final int queueSize;
 
         protected FactoryData(
                 final int bufferSize,
@@ -86,6 +100,7 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
                 final boolean immediateFail,
                 final long reconnectIntervalMillis,
                 final boolean truncateStrings,
+                final int queueSize,
                 final Configuration configuration) {
             super(configuration, bufferSize, layout);
             this.connectionSource = connectionSource;
@@ -96,12 +111,13 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
             this.retry = reconnectIntervalMillis > 0;
             this.reconnectIntervalMillis = reconnectIntervalMillis;
             this.truncateStrings = truncateStrings;
+            this.queueSize = queueSize;
         }
 
         @Override
         public String toString() {
             return String.format(
-                    "FactoryData [connectionSource=%s, tableName=%s, columnConfigs=%s, columnMappings=%s, immediateFail=%s, retry=%s, reconnectIntervalMillis=%s, truncateStrings=%s]",
+                    "FactoryData [connectionSource=%s, tableName=%s, columnConfigs=%s, columnMappings=%s, immediateFail=%s, retry=%s, reconnectIntervalMillis=%s, truncateStrings=%s, queueSize=%s]",
                     connectionSource,
                     tableName,
                     Arrays.toString(columnConfigs),
@@ -109,7 +125,8 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
                     immediateFail,
                     retry,
                     reconnectIntervalMillis,
-                    truncateStrings);
+                    truncateStrings,
+                    queueSize);
         }
     }
 
@@ -235,6 +252,256 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         }
     }
 
+    /**
+     * Writes the log events of the pipelined mode on background threads.
+     * <p>
+     * The writer thread takes the events from the queue and binds them to the statement of a batch, while the
+     * committer thread executes and commits the previous batch on another connection. Both batches keep their
+     * connection open and only reconnect after a failure.
+     * </p>
+     */
+    private final class Pipeline {
+
+        private final BlockingQueue<LogEvent> queue;
+        private final Batch[] batches = {new Batch(), new Batch()};
+        private final ExecutorService committer;
+        private final Log4jThread writer;
+        private volatile boolean stopped;
+
+        private Pipeline(final int queueSize) {
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+            this.committer =
+                    Executors.newSingleThreadExecutor(Log4jThreadFactory.createDaemonThreadFactory("JdbcCommitter"));
+            this.writer = new Log4jThread(this::run, "JdbcDatabaseManager-Writer-" + getName());
+            this.writer.setDaemon(true);
+        }
+
+        private void start() {
+            writer.start();
+        }
+
+        /**
+         * Adds the event to the queue or, if the queue is full, lets the {@link AsyncQueueFullPolicy} decide whether
+         * to wait for a free slot, write the event on the current thread or discard it.
+         */
+        private void enqueue(final LogEvent event) {
+            if (queue.offer(event)) {
+                return;
+            }
+            final EventRoute route = asyncQueueFullPolicy.getRoute(writer.getId(), event.getLevel());
+            switch (route) {
+                case DISCARD:
+                    if (discardCount.getAndIncrement() == 0) {
+                        logWarn("Queue of JDBC manager is full, discarding log events", null);
+                    }
+                    break;
+                case ENQUEUE:
+                    try {
+                        queue.put(event);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new AppenderLoggingException(
+                                e, "Interrupted while queuing log event for JDBC manager '%s'", getName());
+                    }
+                    break;
+                case SYNCHRONOUS:
+                    synchronized (JdbcDatabaseManager.this) {
+                        writeThrough(event);
+                    }
+                    break;
+                default:
+            }
+        }
+
+        private void run() {
+            Future<?> pendingCommit = null;
+            int next = 0;
+            while (!stopped || !queue.isEmpty()) {
+                try {
+                    final LogEvent first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    final Batch batch = batches[next];
+                    batch.add(first);
+                    // Keep filling the batch until it is full, or the previous one is committed
+                    while (batch.size() < batchSize) {
+                        final LogEvent event = queue.poll();
+                        if (event != null) {
+                            batch.add(event);
+                        } else if (isDone(pendingCommit)) {
+                            break;
+                        } else {
+                            final LogEvent late = queue.poll(1, TimeUnit.MILLISECONDS);
+                            if (late != null) {
+                                batch.add(late);
+                            }
+                        }
+                    }
+                    awaitCommit(pendingCommit);
+                    pendingCommit = committer.submit(batch::commit);
+                    next ^= 1;
+                } catch (final InterruptedException e) {
+                    // Only stop once the queue is empty
+                }
+            }
+            awaitCommit(pendingCommit);
+        }
+
+        private boolean isDone(final Future<?> commit) {
+            return commit == null || commit.isDone();
+        }
+
+        private void awaitCommit(final Future<?> commit) {
+            if (commit == null) {
+                return;
+            }
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    commit.get();
+                    break;
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                } catch (final ExecutionException e) {
+                    logError("Failed to commit batch of log events", e.getCause());
+                    break;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void stop() {
+            stopped = true;
+            try {
+                writer.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            committer.shutdown();
+            for (final Batch batch : batches) {
+                batch.close(false);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Pipeline [queued=%s, stopped=%s]", queue.size(), stopped);
+        }
+    }
+
+    /**
+     * A batch of log events of the pipelined mode, bound to the statement of its own connection.
+     * <p>
+     * A batch is filled by the writer thread and committed by the committer thread, but never concurrently.
+     * </p>
+     */
+    private final class Batch {
+
+        private final List<LogEvent> events = new ArrayList<>(batchSize);
+        private Connection batchConnection;
+        private PreparedStatement batchStatement;
+        private boolean batchSupported;
+        // Whether all the events are bound to the statement
+        private boolean bound = true;
+
+        private int size() {
+            return events.size();
+        }
+
+        private void add(final LogEvent event) {
+            events.add(event);
+            if (bound) {
+                try {
+                    if (batchStatement == null) {
+                        open();
+                    }
+                    bind(event);
+                } catch (final SQLException | RuntimeException e) {
+                    logger().debug("Cannot bind log event to JDBC statement, will retry on commit: {}", e, e);
+                    bound = false;
+                    close(true);
+                }
+            }
+        }
+
+        @SuppressFBWarnings(
+                value = "SQL_INJECTION_JDBC",
+                justification = "The SQL statement is generated based on the configuration file.")
+        private void open() throws SQLException {
+            batchConnection = getConnectionSource().getConnection();
+            batchSupported = batchConnection.getMetaData().supportsBatchUpdates();
+            batchConnection.setAutoCommit(false);
+            batchStatement = batchConnection.prepareStatement(sqlStatement);
+            if (factoryData.truncateStrings && columnMetaData == null) {
+                initColumnMetaData(batchConnection);
+            }
+        }
+
+        private void bind(final LogEvent event) throws SQLException {
+            bindParameters(batchStatement, event);
+            if (batchSupported) {
+                batchStatement.addBatch();
+            } else if (batchStatement.executeUpdate() == 0) {
+                throw new AppenderLoggingException(
+                        "No records inserted in database table for log event in JDBC manager [%s].", fieldsToString());
+            }
+        }
+
+        private void commit() {
+            try {
+                try {
+                    write();
+                } catch (final SQLException | RuntimeException e) {
+                    close(true);
+                    if (!factoryData.retry) {
+                        throw e;
+                    }
+                    logger().debug("{} writing batch of log events, reconnecting and retrying.", e, e);
+                    bound = false;
+                    write();
+                }
+            } catch (final SQLException | RuntimeException e) {
+                close(true);
+                logError("Failed to write " + events.size() + " log events to the database", e);
+            } finally {
+                events.clear();
+                bound = true;
+            }
+        }
+
+        private void write() throws SQLException {
+            if (!bound) {
+                open();
+                for (final LogEvent event : events) {
+                    bind(event);
+                }
+                bound = true;
+            }
+            if (batchSupported) {
+                batchStatement.executeBatch();
+            }
+            batchConnection.commit();
+        }
+
+        private void close(final boolean rollback) {
+            if (rollback && batchConnection != null) {
+                try {
+                    batchConnection.rollback();
+                } catch (final SQLException e) {
+                    // Be quiet
+                }
+            }
+            // Closing a statement or a connection returns it to the pool when using Apache Commons DBCP.
+            Closer.closeSilently(batchStatement);
+            Closer.closeSilently(batchConnection);
+            batchStatement = null;
+            batchConnection = null;
+        }
+    }
+
     private static final class ResultSetColumnMetaData {
 
         private final String schemaName;
@@ -380,6 +647,13 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
 
     private static final JdbcDatabaseManagerFactory INSTANCE = new JdbcDatabaseManagerFactory();
 
+    /**
+     * The maximum size of a batch in pipelined mode, if no buffer size is configured.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 128;
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
     private static void appendColumnName(final int i, final String columnName, final StringBuilder sb) {
         if (i > 1) {
             sb.append(',');
@@ -452,6 +726,57 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
             final long reconnectIntervalMillis,
             final boolean truncateStrings,
             final Configuration configuration) {
+        return getManager(
+                name,
+                bufferSize,
+                layout,
+                connectionSource,
+                tableName,
+                columnConfigs,
+                columnMappings,
+                immediateFail,
+                reconnectIntervalMillis,
+                truncateStrings,
+                0,
+                configuration);
+    }
+
+    /**
+     * Creates a JDBC manager for use within the {@link JdbcAppender}, or returns a suitable one if it already exists.
+     * <p>
+     * If {@code queueSize} is positive, the manager is pipelined: log events are handed to a bounded queue and
+     * written by background threads, in batches of {@code bufferSize} events.
+     * </p>
+     *
+     * @param name The name of the manager, which should include connection details and hashed passwords where possible.
+     * @param bufferSize The size of the log event buffer or, in pipelined mode, the maximum size of a batch.
+     * @param layout The Appender-level layout
+     * @param connectionSource The source for connections to the database.
+     * @param tableName The name of the database table to insert log events into.
+     * @param columnConfigs Configuration information about the log table columns.
+     * @param columnMappings column mapping configuration (including type conversion).
+     * @param immediateFail Whether or not to fail immediately with a {@link AppenderLoggingException} when connecting
+     * to JDBC fails.
+     * @param reconnectIntervalMillis How often to reconnect to the database when a SQL exception is detected.
+     * @param truncateStrings Whether or not to truncate strings to match column metadata.
+     * @param queueSize The capacity of the queue of log events waiting to be written, or {@code 0} to write log
+     * events on the calling thread.
+     * @return a new or existing JDBC manager as applicable.
+     * @since 3.0.0
+     */
+    public static JdbcDatabaseManager getManager(
+            final String name,
+            final int bufferSize,
+            final Layout layout,
+            final ConnectionSource connectionSource,
+            final String tableName,
+            final ColumnConfig[] columnConfigs,
+            final ColumnMapping[] columnMappings,
+            final boolean immediateFail,
+            final long reconnectIntervalMillis,
+            final boolean truncateStrings,
+            final int queueSize,
+            final Configuration configuration) {
         return getManager(
                 name,
                 new FactoryData(
@@ -464,6 +789,7 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
                         immediateFail,
                         reconnectIntervalMillis,
                         truncateStrings,
+                        queueSize,
                         configuration),
                 getFactory());
     }
@@ -477,16 +803,30 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
     private volatile Reconnector reconnector;
     private volatile boolean isBatchSupported;
     private volatile Map<String, ResultSetColumnMetaData> columnMetaData;
+    private final int batchSize;
+    private volatile Pipeline pipeline;
+    private final AsyncQueueFullPolicy asyncQueueFullPolicy;
+    private final AtomicLong discardCount = new AtomicLong();
 
     private JdbcDatabaseManager(
             final String name,
             final String sqlStatement,
             final List<ColumnConfig> columnConfigs,
             final FactoryData factoryData) {
-        super(name, factoryData.getBufferSize(), factoryData.getLayout(), factoryData.getConfiguration());
+        // In pipelined mode, the events are buffered by the pipeline and not by the superclass
+        super(
+                name,
+                factoryData.queueSize > 0 ? 0 : factoryData.getBufferSize(),
+                factoryData.getLayout(),
+                factoryData.getConfiguration());
         this.sqlStatement = sqlStatement;
         this.columnConfigs = columnConfigs;
         this.factoryData = factoryData;
+        this.batchSize = factoryData.getBufferSize() > 0 ? factoryData.getBufferSize() : DEFAULT_BATCH_SIZE;
+        final Configuration configuration = factoryData.getConfiguration();
+        this.asyncQueueFullPolicy = configuration != null
+                ? configuration.getComponent(Key.forClass(AsyncQueueFullPolicy.class))
+                : new DefaultAsyncQueueFullPolicy();
     }
 
     private void checkConnection() {
@@ -616,7 +956,7 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         this.statement = this.connection.prepareStatement(this.sqlStatement);
         logger().debug("Prepared SQL {}", this.statement);
         if (this.factoryData.truncateStrings) {
-            initColumnMetaData();
+            initColumnMetaData(this.connection);
         }
     }
 
@@ -650,7 +990,7 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
 
     private String fieldsToString() {
         return String.format(
-                "columnConfigs=%s, sqlStatement=%s, factoryData=%s, connection=%s, statement=%s, reconnector=%s, isBatchSupported=%s, columnMetaData=%s",
+                "columnConfigs=%s, sqlStatement=%s, factoryData=%s, connection=%s, statement=%s, reconnector=%s, isBatchSupported=%s, columnMetaData=%s, pipeline=%s",
                 columnConfigs,
                 sqlStatement,
                 factoryData,
@@ -658,7 +998,8 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
                 statement,
                 reconnector,
                 isBatchSupported,
-                columnMetaData);
+                columnMetaData,
+                pipeline);
     }
 
     public ConnectionSource getConnectionSource() {
@@ -673,16 +1014,37 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         return factoryData.tableName;
     }
 
+    /**
+     * Indicates whether log events are written to the database by background threads.
+     *
+     * @return {@code true} if a queue size was configured.
+     * @since 3.0.0
+     */
+    public boolean isPipelined() {
+        return factoryData.queueSize > 0;
+    }
+
+    /**
+     * Returns the number of log events discarded in pipelined mode, because the queue was full and the
+     * {@link AsyncQueueFullPolicy} chose to discard them.
+     *
+     * @return the number of discarded log events
+     * @since 3.0.0
+     */
+    public long getDiscardCount() {
+        return discardCount.get();
+    }
+
     @SuppressFBWarnings(
             value = "SQL_INJECTION_JDBC",
             justification = "The SQL statement is generated based on the configuration file.")
-    private void initColumnMetaData() throws SQLException {
+    private void initColumnMetaData(final Connection connection) throws SQLException {
         // Could use:
         // this.connection.getMetaData().getColumns(catalog, schemaPattern, tableNamePattern, columnNamePattern);
         // But this returns more data than we need for now, so do a SQL SELECT with 0 result rows instead.
         final String sqlSelect = createSqlSelect();
         logger().debug("Getting SQL metadata for table {}: {}", this.factoryData.tableName, sqlSelect);
-        try (final PreparedStatement mdStatement = this.connection.prepareStatement(sqlSelect)) {
+        try (final PreparedStatement mdStatement = connection.prepareStatement(sqlSelect)) {
             final ResultSetMetaData rsMetaData = mdStatement.getMetaData();
             logger().debug("SQL metadata: {}", rsMetaData);
             if (rsMetaData != null) {
@@ -748,7 +1110,7 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         }
     }
 
-    private void setFields(final MapMessage<?, ?> mapMessage) throws SQLException {
+    private void setFields(final PreparedStatement statement, final MapMessage<?, ?> mapMessage) throws SQLException {
         final IndexedReadOnlyStringMap map = mapMessage.getIndexedReadOnlyStringMap();
         final String simpleName = statement.getClass().getName();
         int j = 1; // JDBC indices start at 1
@@ -769,7 +1131,7 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
                                         key,
                                         mapping.getName());
                     }
-                    setStatementObject(j, mapping.getNameKey(), value);
+                    setStatementObject(statement, j, mapping.getNameKey(), value);
                     j++;
                 }
             }
@@ -779,7 +1141,9 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
     /**
      * Sets the given Object in the prepared statement. The value is truncated if needed.
      */
-    private void setStatementObject(final int j, final String nameKey, final Object value) throws SQLException {
+    private void setStatementObject(
+            final PreparedStatement statement, final int j, final String nameKey, final Object value)
+            throws SQLException {
         if (statement == null) {
             throw new AppenderLoggingException("Cannot set a value when the PreparedStatement is null.");
         }
@@ -790,7 +1154,7 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
             // [LOG4J2-2762] [JDBC] MS-SQL Server JDBC driver throws SQLServerException when
             // inserting a null value for a VARBINARY column.
             // Calling setNull() instead of setObject() for null values fixes [LOG4J2-2762].
-            this.statement.setNull(j, columnMetaData.get(nameKey).getType());
+            statement.setNull(j, columnMetaData.get(nameKey).getType());
         } else {
             statement.setObject(j, truncate(nameKey, value));
         }
@@ -798,6 +1162,11 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
 
     @Override
     protected boolean shutdownInternal() {
+        final Pipeline currentPipeline = pipeline;
+        if (currentPipeline != null) {
+            pipeline = null;
+            currentPipeline.stop();
+        }
         if (reconnector != null) {
             reconnector.shutdown();
             reconnector.interrupt();
@@ -808,7 +1177,10 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
 
     @Override
     protected void startupInternal() throws Exception {
-        // empty
+        if (isPipelined()) {
+            pipeline = new Pipeline(factoryData.queueSize);
+            pipeline.start();
+        }
     }
 
     /**
@@ -832,6 +1204,74 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         return value;
     }
 
+    /**
+     * Binds the values of the columns for the given event to the parameters of the given statement.
+     */
+    private void bindParameters(final PreparedStatement statement, final LogEvent event) throws SQLException {
+        // Clear in case there are leftovers.
+        statement.clearParameters();
+        final Message message = event.getMessage();
+        if (message instanceof MapMessage<?, ?>) {
+            setFields(statement, (MapMessage<?, ?>) message);
+        }
+        int j = 1; // JDBC indices start at 1
+        if (this.factoryData.columnMappings != null) {
+            for (final ColumnMapping mapping : this.factoryData.columnMappings) {
+                if (ThreadContextMap.class.isAssignableFrom(mapping.getType())
+                        || ReadOnlyStringMap.class.isAssignableFrom(mapping.getType())) {
+                    statement.setObject(j++, event.getContextData().toMap());
+                } else if (ThreadContextStack.class.isAssignableFrom(mapping.getType())) {
+                    statement.setObject(j++, event.getContextStack().asList());
+                } else if (Date.class.isAssignableFrom(mapping.getType())) {
+                    statement.setObject(
+                            j++,
+                            DateTypeConverter.fromMillis(
+                                    event.getTimeMillis(), mapping.getType().asSubclass(Date.class)));
+                } else {
+                    final StringLayout layout = mapping.getLayout();
+                    if (layout != null) {
+                        if (Clob.class.isAssignableFrom(mapping.getType())) {
+                            statement.setClob(j++, new StringReader(layout.toSerializable(event)));
+                        } else if (NClob.class.isAssignableFrom(mapping.getType())) {
+                            statement.setNClob(j++, new StringReader(layout.toSerializable(event)));
+                        } else {
+                            final Object value = mapping.getTypeConverter().convert(layout.toSerializable(event), null);
+                            setStatementObject(statement, j++, mapping.getNameKey(), value);
+                        }
+                    }
+                }
+            }
+        }
+        for (final ColumnConfig column : this.columnConfigs) {
+            if (column.isEventTimestamp()) {
+                statement.setTimestamp(j++, new Timestamp(event.getTimeMillis()));
+            } else if (column.isClob()) {
+                final Reader reader = new StringReader(column.getLayout().toSerializable(event));
+                if (column.isUnicode()) {
+                    statement.setNClob(j++, reader);
+                } else {
+                    statement.setClob(j++, reader);
+                }
+            } else if (column.isUnicode()) {
+                statement.setNString(
+                        j++,
+                        Objects.toString(
+                                truncate(
+                                        column.getColumnNameKey(),
+                                        column.getLayout().toSerializable(event)),
+                                null));
+            } else {
+                statement.setString(
+                        j++,
+                        Objects.toString(
+                                truncate(
+                                        column.getColumnNameKey(),
+                                        column.getLayout().toSerializable(event)),
+                                null));
+            }
+        }
+    }
+
     @Override
     protected void writeInternal(final LogEvent event) {
         // Don't close StringReaders because of (1) batching, (2) resources are not allocated, and (3) they'll be GC'd
@@ -844,70 +1284,7 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
                         "Cannot write logging event; JDBC manager not connected to the database, running=%s, [%s]).",
                         isRunning(), fieldsToString());
             }
-            // Clear in case there are leftovers.
-            statement.clearParameters();
-            final Message message = event.getMessage();
-            if (message instanceof MapMessage<?, ?>) {
-                setFields((MapMessage<?, ?>) message);
-            }
-            int j = 1; // JDBC indices start at 1
-            if (this.factoryData.columnMappings != null) {
-                for (final ColumnMapping mapping : this.factoryData.columnMappings) {
-                    if (ThreadContextMap.class.isAssignableFrom(mapping.getType())
-                            || ReadOnlyStringMap.class.isAssignableFrom(mapping.getType())) {
-                        this.statement.setObject(j++, event.getContextData().toMap());
-                    } else if (ThreadContextStack.class.isAssignableFrom(mapping.getType())) {
-                        this.statement.setObject(j++, event.getContextStack().asList());
-                    } else if (Date.class.isAssignableFrom(mapping.getType())) {
-                        this.statement.setObject(
-                                j++,
-                                DateTypeConverter.fromMillis(
-                                        event.getTimeMillis(), mapping.getType().asSubclass(Date.class)));
-                    } else {
-                        final StringLayout layout = mapping.getLayout();
-                        if (layout != null) {
-                            if (Clob.class.isAssignableFrom(mapping.getType())) {
-                                this.statement.setClob(j++, new StringReader(layout.toSerializable(event)));
-                            } else if (NClob.class.isAssignableFrom(mapping.getType())) {
-                                this.statement.setNClob(j++, new StringReader(layout.toSerializable(event)));
-                            } else {
-                                final Object value =
-                                        mapping.getTypeConverter().convert(layout.toSerializable(event), null);
-                                setStatementObject(j++, mapping.getNameKey(), value);
-                            }
-                        }
-                    }
-                }
-            }
-            for (final ColumnConfig column : this.columnConfigs) {
-                if (column.isEventTimestamp()) {
-                    this.statement.setTimestamp(j++, new Timestamp(event.getTimeMillis()));
-                } else if (column.isClob()) {
-                    final Reader reader = new StringReader(column.getLayout().toSerializable(event));
-                    if (column.isUnicode()) {
-                        this.statement.setNClob(j++, reader);
-                    } else {
-                        this.statement.setClob(j++, reader);
-                    }
-                } else if (column.isUnicode()) {
-                    this.statement.setNString(
-                            j++,
-                            Objects.toString(
-                                    truncate(
-                                            column.getColumnNameKey(),
-                                            column.getLayout().toSerializable(event)),
-                                    null));
-                } else {
-                    this.statement.setString(
-                            j++,
-                            Objects.toString(
-                                    truncate(
-                                            column.getColumnNameKey(),
-                                            column.getLayout().toSerializable(event)),
-                                    null));
-                }
-            }
-
+            bindParameters(this.statement, event);
             if (isBuffered() && this.isBatchSupported) {
                 logger().debug("addBatch for {}", this.statement);
                 this.statement.addBatch();
@@ -936,6 +1313,23 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         }
     }
 
+    /**
+     * In pipelined mode, hands the event over to the pipeline without holding the lock of this manager.
+     */
+    @Override
+    protected boolean writeUnsynchronized(final LogEvent event) {
+        if (!isPipelined()) {
+            return false;
+        }
+        final Pipeline currentPipeline = pipeline;
+        if (currentPipeline == null) {
+            throw new AppenderLoggingException(
+                    "Cannot write logging event; JDBC manager '%s' is not running.", getName());
+        }
+        currentPipeline.enqueue(event.toImmutable());
+        return true;
+    }
+
     @Override
     protected void writeThrough(final LogEvent event) {
         this.connectAndStart();
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.jdbc.appender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.test.junit.LoggerContextRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+/**
+ * Tests the pipelined mode of {@link JdbcDatabaseManager}, where log events are written by background threads.
+ */
+public class JdbcAppenderPipelinedTest {
+
+    private static final int THREADS = 4;
+    private static final int EVENTS_PER_THREAD = 500;
+
+    private final JdbcRule jdbcRule = new JdbcRule(
+            JdbcH2TestHelper.TEST_CONFIGURATION_SOURCE_MEM_PERM,
+            "CREATE TABLE pipelinedLogEntry (id INTEGER GENERATED BY DEFAULT AS IDENTITY, "
+                    + "level VARCHAR(10), thread VARCHAR(255), message VARCHAR(1024))",
+            "DROP TABLE IF EXISTS pipelinedLogEntry");
+
+    private final LoggerContextRule loggerContextRule = new LoggerContextRule("JdbcAppenderPipelinedTest.xml");
+
+    @Rule
+    public final RuleChain rules = RuleChain.emptyRuleChain().around(jdbcRule).around(loggerContextRule);
+
+    @Test
+    public void testAllEventsWrittenInOrder() throws Exception {
+        final JdbcAppender appender = loggerContextRule.getRequiredAppender("databaseAppender", JdbcAppender.class);
+        assertTrue("The manager should be pipelined.", appender.getManager().isPipelined());
+
+        final Logger logger = loggerContextRule.getLogger(JdbcAppenderPipelinedTest.class);
+        final Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            threads[i] = new Thread(
+                    () -> {
+                        for (int j = 0; j < EVENTS_PER_THREAD; j++) {
+                            logger.info(Integer.toString(j));
+                        }
+                    },
+                    "producer-" + i);
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        // Stopping the appender writes the queued log events
+        appender.stop();
+
+        final Map<String, Integer> lastMessages = new HashMap<>();
+        int rows = 0;
+        try (final Connection connection = jdbcRule.getConnection();
+                final Statement statement = connection.createStatement();
+                final ResultSet resultSet =
+                        statement.executeQuery("SELECT thread, message FROM pipelinedLogEntry ORDER BY id")) {
+            while (resultSet.next()) {
+                final int message = Integer.parseInt(resultSet.getString("message"));
+                final Integer previous = lastMessages.put(resultSet.getString("thread"), message);
+                assertEquals(
+                        "Events of a thread should be written in order.", previous == null ? 0 : previous + 1, message);
+                rows++;
+            }
+        }
+        assertEquals("All the events should be written.", THREADS * EVENTS_PER_THREAD, rows);
+    }
+}
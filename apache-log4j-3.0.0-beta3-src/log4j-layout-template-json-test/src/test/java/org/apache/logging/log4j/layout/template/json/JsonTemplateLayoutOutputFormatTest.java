@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json;
+
+import static org.apache.logging.log4j.layout.template.json.TestHelpers.CONFIGURATION;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
+import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout.OutputFormat;
+import org.apache.logging.log4j.layout.template.json.util.CborEncoder;
+import org.apache.logging.log4j.layout.template.json.util.MessagePackEncoder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class JsonTemplateLayoutOutputFormatTest {
+
+    private static final List<LogEvent> LOG_EVENTS = LogEventFixture.createFullLogEvents(5);
+
+    @Test
+    void JSON_should_be_the_default() {
+        final JsonTemplateLayout layout =
+                JsonTemplateLayout.newBuilder().setConfiguration(CONFIGURATION).build();
+        assertThat(layout.getOutputFormat()).isEqualTo(OutputFormat.JSON);
+        assertThat(layout.getContentType()).isEqualTo("application/json; charset=UTF-8");
+    }
+
+    @ParameterizedTest
+    @EnumSource(
+            value = OutputFormat.class,
+            names = {"CBOR", "MESSAGE_PACK"})
+    void binary_output_should_be_converted_from_JSON(final OutputFormat outputFormat) {
+        final JsonTemplateLayout layout = JsonTemplateLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setOutputFormat(outputFormat)
+                .setStackTraceEnabled(true)
+                .build();
+        assertThat(layout.getContentType())
+                .isEqualTo(outputFormat == OutputFormat.CBOR ? "application/cbor" : "application/x-msgpack");
+        for (final LogEvent logEvent : LOG_EVENTS) {
+
+            // `toSerializable()` renders JSON without a delimiter.
+            final String json = layout.toSerializable(logEvent);
+            assertThat(json).startsWith("{").endsWith("}");
+            final byte[] expectedBytes = outputFormat == OutputFormat.CBOR
+                    ? new CborEncoder().toByteArray(json)
+                    : new MessagePackEncoder().toByteArray(json);
+
+            // Check `toByteArray()` and `encode()` outputs.
+            assertThat(layout.toByteArray(logEvent)).isEqualTo(expectedBytes);
+            assertThat(encode(layout, logEvent)).isEqualTo(expectedBytes);
+        }
+    }
+
+    private static byte[] encode(final JsonTemplateLayout layout, final LogEvent logEvent) {
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(512 * 1024);
+        final ByteBufferDestination byteBufferDestination = new ByteBufferDestination() {
+
+            @Override
+            public ByteBuffer getByteBuffer() {
+                return byteBuffer;
+            }
+
+            @Override
+            public ByteBuffer drain(final ByteBuffer ignored) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void writeBytes(final ByteBuffer data) {
+                ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+            }
+
+            @Override
+            public void writeBytes(final byte[] buffer, final int offset, final int length) {
+                ByteBufferDestinationHelper.writeToUnsynchronized(buffer, offset, length, this);
+            }
+        };
+        layout.encode(logEvent, byteBufferDestination);
+        return Arrays.copyOf(byteBuffer.array(), byteBuffer.position());
+    }
+}
@@ -38,6 +38,7 @@ import java.util.stream.Stream;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout;
+import org.apache.logging.log4j.test.junit.SetTestProperty;
 import org.assertj.core.api.AbstractStringAssert;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -614,6 +615,35 @@ class StackTraceStringResolverTest {
                 .contains(NonAsciiUtf8MethodNameContainingException.NON_ASCII_UTF8_TEXT));
     }
 
+    @Test
+    @SetTestProperty(key = "log4j.stackTraceCache.size", value = "16")
+    void cached_stack_traces_should_get_serialized() {
+
+        // Create the event template.
+        final String eventTemplate = writeJson(asMap(
+                "ex",
+                asMap(
+                        "$resolver", "exception",
+                        "field", "stackTrace",
+                        "stringified", true)));
+
+        // Create the layout.
+        final JsonTemplateLayout layout = JsonTemplateLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setStackTraceEnabled(true)
+                .setEventTemplate(eventTemplate)
+                .build();
+
+        // Check the serialized events of distinct exceptions sharing the same stack trace.
+        for (int i = 0; i < 3; i++) {
+            final Throwable exception = exception1();
+            final LogEvent logEvent =
+                    Log4jLogEvent.newBuilder().setThrown(exception).build();
+            usingSerializedLogEventAccessor(layout, logEvent, accessor -> assertThat(accessor.getString("ex"))
+                    .isEqualTo(stackTrace(exception)));
+        }
+    }
+
     private static final class NonAsciiUtf8MethodNameContainingException extends RuntimeException {
 
         public static final long serialVersionUID = 0;
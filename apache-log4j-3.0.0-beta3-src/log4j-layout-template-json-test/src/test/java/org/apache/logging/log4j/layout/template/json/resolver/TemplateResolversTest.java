@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.resolver;
+
+import static org.apache.logging.log4j.layout.template.json.TestHelpers.CONFIGURATION;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class TemplateResolversTest {
+
+    private static final String MESSAGE = "{'$resolver':'message'}";
+
+    private static final String EXCEPTION = "{'$resolver':'exception','field':'className'}";
+
+    private static final String MDC = "{'$resolver':'mdc','flatten':true}";
+
+    @ParameterizedTest
+    @CsvSource(
+            delimiter = '|',
+            quoteCharacter = '"',
+            value = {
+                // Constants only
+                "{'a':1,'b':[true,null,'x',{},[]],'c':{'d':'e'},'f':null,'g':{}} | false | false"
+                        + " | {'a':1,'b':[true,null,'x',{},[]],'c':{'d':'e'}}",
+                // Leading dynamic field
+                "{'m':" + MESSAGE + ",'a':1,'b':2} | false | false | {'m':'foo','a':1,'b':2}",
+                // Trailing dynamic field
+                "{'a':1,'b':2,'m':" + MESSAGE + "} | false | false | {'a':1,'b':2,'m':'foo'}",
+                // Unresolvable leading field
+                "{'x':" + EXCEPTION + ",'a':1,'m':" + MESSAGE + ",'b':2} | false | false | {'a':1,'m':'foo','b':2}",
+                "{'x':" + EXCEPTION + ",'a':1,'m':" + MESSAGE + ",'b':2} | true | false"
+                        + " | {'x':'java.lang.RuntimeException','a':1,'m':'foo','b':2}",
+                // Unresolvable fields only
+                "{'x':" + EXCEPTION + ",'y':" + EXCEPTION + "} | false | false | {}",
+                "{'x':" + EXCEPTION + ",'y':" + EXCEPTION + "} | true | false"
+                        + " | {'x':'java.lang.RuntimeException','y':'java.lang.RuntimeException'}",
+                // Nested object with unresolvable fields only
+                "{'n':{'x':" + EXCEPTION + "},'a':1} | false | false | {'a':1}",
+                "{'n':{'x':" + EXCEPTION + "},'a':1} | true | false | {'n':{'x':'java.lang.RuntimeException'},'a':1}",
+                // Flattening fields
+                "{'c':" + MDC + "} | false | false | {}",
+                "{'c':" + MDC + "} | false | true | {'k':'v'}",
+                "{'c':" + MDC + ",'a':1} | false | false | {'a':1}",
+                "{'c':" + MDC + ",'a':1} | false | true | {'k':'v','a':1}",
+                "{'a':1,'c':" + MDC + ",'x':" + EXCEPTION + ",'b':2} | false | true | {'a':1,'k':'v','b':2}",
+                "{'x':" + EXCEPTION + ",'c':" + MDC + ",'m':" + MESSAGE + "} | false | false | {'m':'foo'}",
+                "{'x':" + EXCEPTION + ",'c':" + MDC + ",'m':" + MESSAGE + "} | true | true"
+                        + " | {'x':'java.lang.RuntimeException','k':'v','m':'foo'}",
+                // Arrays
+                "{'xs':[1," + MESSAGE + ",'y'," + MESSAGE + "]} | false | false | {'xs':[1,'foo','y','foo']}",
+                "{'xs':[" + MESSAGE + "]} | false | false | {'xs':['foo']}",
+                "{'xs':[{'m':" + MESSAGE + "},{'a':1}]} | false | false | {'xs':[{'m':'foo'},{'a':1}]}",
+                // Root arrays and literals
+                "[1," + MESSAGE + "] | false | false | [1,'foo']",
+                "'foo' | false | false | 'foo'"
+            })
+    void should_render_compiled_template(
+            final String eventTemplate,
+            final boolean thrownPresent,
+            final boolean contextDataPresent,
+            final String expectedJson) {
+
+        // Create the layout.
+        final JsonTemplateLayout layout = JsonTemplateLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setEventTemplate(eventTemplate.replace('\'', '"'))
+                .setEventDelimiter("")
+                .build();
+
+        // Create the log event.
+        final StringMap contextData = new SortedArrayStringMap();
+        if (contextDataPresent) {
+            contextData.putValue("k", "v");
+        }
+        final LogEvent logEvent = Log4jLogEvent.newBuilder()
+                .setMessage(new SimpleMessage("foo"))
+                .setThrown(thrownPresent ? new RuntimeException("bar") : null)
+                .setContextData(contextData)
+                .build();
+
+        // Check the serialized event.
+        assertThat(layout.toSerializable(logEvent)).isEqualTo(expectedJson.replace('\'', '"'));
+    }
+}
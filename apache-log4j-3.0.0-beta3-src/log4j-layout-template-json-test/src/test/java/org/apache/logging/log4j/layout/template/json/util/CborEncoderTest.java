@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import java.util.HexFormat;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Verifies {@link CborEncoder} against the examples of <a href="https://www.rfc-editor.org/rfc/rfc8949.html#appendix-A">RFC
+ * 8949, Appendix A</a>, except for half-precision floating-point numbers, which are encoded in single precision.
+ */
+class CborEncoderTest {
+
+    private final CborEncoder encoder = new CborEncoder();
+
+    @ParameterizedTest
+    @CsvSource(
+            delimiter = '|',
+            value = {
+                "0|00",
+                "1|01",
+                "10|0a",
+                "23|17",
+                "24|1818",
+                "25|1819",
+                "100|1864",
+                "1000|1903e8",
+                "1000000|1a000f4240",
+                "1000000000000|1b000000e8d4a51000",
+                "9223372036854775807|1b7fffffffffffffff",
+                "-1|20",
+                "-10|29",
+                "-100|3863",
+                "-1000|3903e7",
+                "0.0|fa00000000",
+                "-0.0|fa80000000",
+                "1.5|fa3fc00000",
+                "1.1|fb3ff199999999999a",
+                "100000.0|fa47c35000",
+                "3.4028234663852886e+38|fa7f7fffff",
+                "1.0e+300|fb7e37e43c8800759c",
+                "-4.1|fbc010666666666666",
+                "1e2|fa42c80000",
+                "12345678901234567890|fb43e56a95319d63e1",
+                "Infinity|fa7f800000",
+                "-Infinity|faff800000",
+                "NaN|fa7fc00000",
+                "false|f4",
+                "true|f5",
+                "null|f6",
+                "'\"\"'|60",
+                "'\"a\"'|6161",
+                "'\"IETF\"'|6449455446",
+                "'\"\\\"\\\\\"'|62225c",
+                "'\"\\u00fc\"'|62c3bc",
+                "'\"\u6c34\"'|63e6b0b4",
+                "'\"\\ud800\\udd51\"'|64f0908591",
+                "'\"\\ud800\"'|613f",
+                "[]|80",
+                "[1,2,3]|83010203",
+                "'[1,[2,3],[4,5]]'|8301820203820405",
+                "{}|a0",
+                "'{\"a\": 1, \"b\": [2, 3]}'|a26161016162820203",
+                "'[\"a\",{\"b\":\"c\"}]'|826161a161626163",
+            })
+    void toByteArray_should_match_RFC_examples(final String json, final String expectedHex) {
+        Assertions.assertThat(HexFormat.of().formatHex(encoder.toByteArray(json)))
+                .isEqualTo(expectedHex);
+    }
+
+    @Test
+    void long_array_should_have_a_longer_header() {
+        final StringBuilder json = new StringBuilder("[1");
+        for (int i = 2; i <= 25; i++) {
+            json.append(',').append(i);
+        }
+        json.append(']');
+        Assertions.assertThat(HexFormat.of().formatHex(encoder.toByteArray(json)))
+                .isEqualTo("98190102030405060708090a0b0c0d0e0f101112131415161718181819");
+    }
+
+    @Test
+    void long_string_should_have_a_longer_header() {
+        final String value = "x".repeat(300);
+        final byte[] bytes = encoder.toByteArray('"' + value + '"');
+        Assertions.assertThat(HexFormat.of().formatHex(bytes, 0, 3)).isEqualTo("79012c");
+        Assertions.assertThat(bytes).hasSize(3 + 300);
+    }
+
+    @Test
+    void encoder_should_be_reusable() {
+        encoder.toByteArray("{\"a\":[1,2,3]}");
+        Assertions.assertThat(HexFormat.of().formatHex(encoder.toByteArray("[1]")))
+                .isEqualTo("8101");
+    }
+
+    @ParameterizedTest
+    @CsvSource(
+            delimiter = '|',
+            value = {
+                "[1|was expecting 1 more container ends",
+                "]|unbalanced container end",
+                "'\"a'|unterminated string at index 0"
+            })
+    void malformed_JSON_should_fail(final String json, final String expectedMessage) {
+        Assertions.assertThatThrownBy(() -> encoder.toByteArray(json))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(expectedMessage);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import java.util.HexFormat;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class MessagePackEncoderTest {
+
+    private final MessagePackEncoder encoder = new MessagePackEncoder();
+
+    @ParameterizedTest
+    @CsvSource(
+            delimiter = '|',
+            value = {
+                "0|00",
+                "127|7f",
+                "128|cc80",
+                "255|ccff",
+                "256|cd0100",
+                "65535|cdffff",
+                "65536|ce00010000",
+                "4294967296|cf0000000100000000",
+                "-1|ff",
+                "-32|e0",
+                "-33|d0df",
+                "-128|d080",
+                "-129|d1ff7f",
+                "-32769|d2ffff7fff",
+                "-2147483649|d3ffffffff7fffffff",
+                "1.5|ca3fc00000",
+                "1.1|cb3ff199999999999a",
+                "false|c2",
+                "true|c3",
+                "null|c0",
+                "'\"\"'|a0",
+                "'\"a\"'|a161",
+                "'\"\\u00fc\"'|a2c3bc",
+                "[]|90",
+                "'[1,2,3]'|93010203",
+                "{}|80",
+                "'{\"a\":1}'|81a16101",
+                "'{\"a\": [true, null]}'|81a16192c3c0",
+            })
+    void toByteArray_should_match_the_specification(final String json, final String expectedHex) {
+        Assertions.assertThat(HexFormat.of().formatHex(encoder.toByteArray(json)))
+                .isEqualTo(expectedHex);
+    }
+
+    @Test
+    void long_containers_should_have_a_longer_header() {
+        final StringBuilder array = new StringBuilder("[0");
+        final StringBuilder map = new StringBuilder("{\"0\":0");
+        for (int i = 1; i < 16; i++) {
+            array.append(',').append(i);
+            map.append(",\"").append(Integer.toHexString(i)).append("\":").append(i);
+        }
+        array.append(']');
+        map.append('}');
+        Assertions.assertThat(HexFormat.of().formatHex(encoder.toByteArray(array)))
+                .isEqualTo("dc0010000102030405060708090a0b0c0d0e0f");
+        Assertions.assertThat(HexFormat.of().formatHex(encoder.toByteArray(map), 0, 5))
+                .isEqualTo("de0010a130");
+    }
+
+    @Test
+    void long_strings_should_have_a_longer_header() {
+        Assertions.assertThat(HexFormat.of().formatHex(encoder.toByteArray('"' + "x".repeat(32) + '"'), 0, 2))
+                .isEqualTo("d920");
+        Assertions.assertThat(HexFormat.of().formatHex(encoder.toByteArray('"' + "x".repeat(256) + '"'), 0, 3))
+                .isEqualTo("da0100");
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class Utf8StringBuilderEncoderTest {
+
+    private static final int SURROGATE_CODE_POINT = 0x1F600;
+
+    private static final char HI_SURROGATE = Character.highSurrogate(SURROGATE_CODE_POINT);
+
+    private static final char LO_SURROGATE = Character.lowSurrogate(SURROGATE_CODE_POINT);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "foo", "{\"message\":\"Hello, World!\"}", "café", "€100", "日本語", "😀", "a😀b"})
+    void encode_should_match_String_getBytes(final String text) {
+        for (final int bufferSize : new int[] {4, 5, 7, 1024}) {
+            assertEncoding(bufferSize, text);
+        }
+    }
+
+    @Test
+    void unpaired_surrogates_should_be_replaced() {
+        final String[] texts = {
+            String.valueOf(HI_SURROGATE),
+            String.valueOf(LO_SURROGATE),
+            "a" + HI_SURROGATE + "b",
+            "a" + LO_SURROGATE + HI_SURROGATE + "b",
+            "a" + HI_SURROGATE + HI_SURROGATE + LO_SURROGATE
+        };
+        for (final String text : texts) {
+            for (final int bufferSize : new int[] {4, 5, 1024}) {
+                assertEncoding(bufferSize, text);
+            }
+        }
+    }
+
+    @Test
+    void random_text_should_match_String_getBytes() {
+        final Random random = new Random(0);
+        final char[] alphabet = {'a', '"', '\n', 'é', '߿', 'ࠀ', '€', '￿', HI_SURROGATE, LO_SURROGATE};
+        for (int i = 0; i < 1_000; i++) {
+            final StringBuilder text = new StringBuilder();
+            final int length = random.nextInt(100);
+            for (int j = 0; j < length; j++) {
+                text.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            assertEncoding(4 + random.nextInt(64), text.toString());
+        }
+    }
+
+    @Test
+    void short_text_should_be_written_at_once() {
+        final CollectingDestination destination = new CollectingDestination(4);
+        new Utf8StringBuilderEncoder(64).encode(new StringBuilder("café €"), destination);
+        Assertions.assertThat(destination.writeCount).isEqualTo(1);
+        Assertions.assertThat(destination.toString()).isEqualTo("café €");
+    }
+
+    @Test
+    void small_buffer_should_be_rejected() {
+        Assertions.assertThatThrownBy(() -> new Utf8StringBuilderEncoder(3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("was expecting bufferSize >= 4: 3");
+    }
+
+    private static void assertEncoding(final int bufferSize, final String text) {
+        final CollectingDestination destination = new CollectingDestination(16);
+        final Utf8StringBuilderEncoder encoder = new Utf8StringBuilderEncoder(bufferSize);
+        // Encode twice to verify that no state is carried over
+        encoder.encode(new StringBuilder(text), destination);
+        encoder.encode(new StringBuilder(text), destination);
+        final byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
+        final byte[] expectedBytes = new byte[2 * textBytes.length];
+        System.arraycopy(textBytes, 0, expectedBytes, 0, textBytes.length);
+        System.arraycopy(textBytes, 0, expectedBytes, textBytes.length, textBytes.length);
+        Assertions.assertThat(destination.toByteArray())
+                .as("bufferSize=%d, text=%s", bufferSize, text)
+                .isEqualTo(expectedBytes);
+    }
+
+    private static final class CollectingDestination implements ByteBufferDestination {
+
+        private final ByteBuffer byteBuffer;
+
+        private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        private int writeCount;
+
+        private CollectingDestination(final int bufferSize) {
+            this.byteBuffer = ByteBuffer.allocate(bufferSize);
+        }
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return byteBuffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            buf.flip();
+            outputStream.write(buf.array(), buf.arrayOffset(), buf.limit());
+            buf.clear();
+            return buf;
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            writeCount++;
+            while (data.hasRemaining()) {
+                outputStream.write(data.get());
+            }
+        }
+
+        @Override
+        public void writeBytes(final byte[] data, final int offset, final int length) {
+            writeCount++;
+            outputStream.write(data, offset, length);
+        }
+
+        private byte[] toByteArray() {
+            drain(byteBuffer);
+            return outputStream.toByteArray();
+        }
+
+        @Override
+        public String toString() {
+            return new String(toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
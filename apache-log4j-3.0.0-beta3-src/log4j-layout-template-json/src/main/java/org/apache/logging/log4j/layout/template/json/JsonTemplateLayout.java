@@ -17,6 +17,7 @@
 package org.apache.logging.log4j.layout.template.json;
 
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -40,8 +41,12 @@ import org.apache.logging.log4j.layout.template.json.resolver.EventResolverInter
 import org.apache.logging.log4j.layout.template.json.resolver.EventResolverStringSubstitutor;
 import org.apache.logging.log4j.layout.template.json.resolver.TemplateResolver;
 import org.apache.logging.log4j.layout.template.json.resolver.TemplateResolvers;
+import org.apache.logging.log4j.layout.template.json.util.BinaryJsonEncoder;
+import org.apache.logging.log4j.layout.template.json.util.CborEncoder;
 import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
+import org.apache.logging.log4j.layout.template.json.util.MessagePackEncoder;
 import org.apache.logging.log4j.layout.template.json.util.Uris;
+import org.apache.logging.log4j.layout.template.json.util.Utf8StringBuilderEncoder;
 import org.apache.logging.log4j.plugins.Configurable;
 import org.apache.logging.log4j.plugins.Factory;
 import org.apache.logging.log4j.plugins.Namespace;
@@ -59,6 +64,8 @@ public class JsonTemplateLayout implements StringLayout {
 
     private final Charset charset;
 
+    private final OutputFormat outputFormat;
+
     private final String contentType;
 
     private final TemplateResolver<LogEvent> eventResolver;
@@ -73,9 +80,15 @@ public class JsonTemplateLayout implements StringLayout {
 
         final Encoder<StringBuilder> encoder;
 
+        /**
+         * Same as {@link #encoder}, if the output format is binary, otherwise {@code null}.
+         */
+        final BinaryJsonEncoder binaryEncoder;
+
         private Context(final JsonWriter jsonWriter, final Encoder<StringBuilder> encoder) {
             this.jsonWriter = jsonWriter;
             this.encoder = encoder;
+            this.binaryEncoder = encoder instanceof BinaryJsonEncoder ? (BinaryJsonEncoder) encoder : null;
         }
 
         @Override
@@ -86,9 +99,11 @@ public class JsonTemplateLayout implements StringLayout {
 
     private JsonTemplateLayout(final Builder builder) {
         this.charset = builder.charset;
-        this.contentType = "application/json; charset=" + charset;
+        this.outputFormat = builder.outputFormat;
+        this.contentType = outputFormat.getContentType(charset);
         final String eventDelimiterSuffix = builder.getNullEventDelimiterEnabled() ? "\0" : "";
-        this.eventDelimiter = builder.eventDelimiter + eventDelimiterSuffix;
+        // Binary records are self-delimiting
+        this.eventDelimiter = outputFormat == OutputFormat.JSON ? builder.eventDelimiter + eventDelimiterSuffix : "";
         final Configuration configuration = builder.configuration;
         final JsonWriter jsonWriter = JsonWriter.newBuilder()
                 .setMaxStringLength(builder.maxStringLength)
@@ -172,20 +187,27 @@ public class JsonTemplateLayout implements StringLayout {
     }
 
     private static Recycler<Context> createContextRecycler(final Builder builder, final JsonWriter jsonWriter) {
-        final Supplier<Context> supplier = createContextSupplier(builder.charset, jsonWriter);
+        final Supplier<Context> supplier = createContextSupplier(builder.outputFormat, builder.charset, jsonWriter);
         return builder.configuration.getRecyclerFactory().create(supplier, Context::close);
     }
 
-    private static Supplier<Context> createContextSupplier(final Charset charset, final JsonWriter jsonWriter) {
+    private static Supplier<Context> createContextSupplier(
+            final OutputFormat outputFormat, final Charset charset, final JsonWriter jsonWriter) {
         return () -> {
             final JsonWriter clonedJsonWriter = jsonWriter.clone();
-            final Encoder<StringBuilder> encoder = new StringBuilderEncoder(charset);
+            final Encoder<StringBuilder> encoder = outputFormat.createEncoder(charset);
             return new Context(clonedJsonWriter, encoder);
         };
     }
 
+    /**
+     * Encodes the event in the output format.
+     */
     @Override
     public byte[] toByteArray(final LogEvent event) {
+        if (outputFormat != OutputFormat.JSON) {
+            return toBinaryByteArray(event);
+        }
         final String eventJson = toSerializable(event);
         if (eventJson != null) {
             return eventJson.getBytes(charset != null ? charset : Charset.defaultCharset());
@@ -193,6 +215,21 @@ public class JsonTemplateLayout implements StringLayout {
         return null;
     }
 
+    private byte[] toBinaryByteArray(final LogEvent event) {
+        final Recycler<Context> contextRecycler = this.contextRecycler;
+        final Context context = contextRecycler.acquire();
+        final JsonWriter jsonWriter = context.jsonWriter;
+        try {
+            eventResolver.resolve(event, jsonWriter);
+            return context.binaryEncoder.toByteArray(jsonWriter.getStringBuilder());
+        } finally {
+            contextRecycler.release(context);
+        }
+    }
+
+    /**
+     * Renders the event in JSON, even if the output format is binary.
+     */
     @Override
     public String toSerializable(final LogEvent event) {
 
@@ -253,6 +290,10 @@ public class JsonTemplateLayout implements StringLayout {
         return charset;
     }
 
+    public OutputFormat getOutputFormat() {
+        return outputFormat;
+    }
+
     @Override
     public String getContentType() {
         return contentType;
@@ -278,6 +319,9 @@ public class JsonTemplateLayout implements StringLayout {
         @PluginBuilderAttribute
         private Charset charset;
 
+        @PluginBuilderAttribute
+        private OutputFormat outputFormat;
+
         @PluginBuilderAttribute
         private Boolean locationInfoEnabled;
 
@@ -336,6 +380,15 @@ public class JsonTemplateLayout implements StringLayout {
             return this;
         }
 
+        public OutputFormat getOutputFormat() {
+            return outputFormat;
+        }
+
+        public Builder setOutputFormat(final OutputFormat outputFormat) {
+            this.outputFormat = outputFormat;
+            return this;
+        }
+
         public Boolean getLocationInfoEnabled() {
             return locationInfoEnabled;
         }
@@ -459,6 +512,9 @@ public class JsonTemplateLayout implements StringLayout {
             if (charset == null) {
                 charset = props.charset();
             }
+            if (outputFormat == null) {
+                outputFormat = props.outputFormat();
+            }
             if (eventDelimiter == null) {
                 eventDelimiter = props.eventDelimiter();
             }
@@ -513,6 +569,58 @@ public class JsonTemplateLayout implements StringLayout {
         }
     }
 
+    /**
+     * The format of the bytes produced by {@link #encode(LogEvent, ByteBufferDestination)} and
+     * {@link #toByteArray(LogEvent)}.
+     * <p>
+     * Binary formats are converted from the JSON rendered by the event template.
+     * </p>
+     */
+    public enum OutputFormat {
+        JSON {
+            @Override
+            String getContentType(final Charset charset) {
+                return "application/json; charset=" + charset;
+            }
+
+            @Override
+            Encoder<StringBuilder> createEncoder(final Charset charset) {
+                // UTF-8 is encoded without a `CharsetEncoder`
+                return StandardCharsets.UTF_8.equals(charset)
+                        ? new Utf8StringBuilderEncoder()
+                        : new StringBuilderEncoder(charset);
+            }
+        },
+
+        CBOR {
+            @Override
+            String getContentType(final Charset charset) {
+                return "application/cbor";
+            }
+
+            @Override
+            Encoder<StringBuilder> createEncoder(final Charset charset) {
+                return new CborEncoder();
+            }
+        },
+
+        MESSAGE_PACK {
+            @Override
+            String getContentType(final Charset charset) {
+                return "application/x-msgpack";
+            }
+
+            @Override
+            Encoder<StringBuilder> createEncoder(final Charset charset) {
+                return new MessagePackEncoder();
+            }
+        };
+
+        abstract String getContentType(Charset charset);
+
+        abstract Encoder<StringBuilder> createEncoder(Charset charset);
+    }
+
     @Configurable(printObject = true)
     @Plugin("EventTemplateAdditionalField")
     public static final class EventTemplateAdditionalField {
@@ -30,6 +30,7 @@ import org.jspecify.annotations.Nullable;
 @NullMarked
 public record JsonTemplateLayoutProperties(
         @Log4jProperty(defaultValue = "UTF-8") Charset charset,
+        @Log4jProperty(defaultValue = "JSON") JsonTemplateLayout.OutputFormat outputFormat,
         @Log4jProperty(defaultValue = "false") boolean locationInfoEnabled,
         @Log4jProperty(defaultValue = "true") boolean stackTraceEnabled,
         @Log4jProperty(defaultValue = "yyyy-MM-dd'T'HH:mm:ss.SSSZZZ") String timestampFormatPattern,
@@ -24,6 +24,8 @@ import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import org.apache.logging.log4j.core.impl.CoreProperties.StackTraceCacheProperties;
+import org.apache.logging.log4j.core.util.StackTraceCache;
 import org.apache.logging.log4j.kit.recycler.Recycler;
 import org.apache.logging.log4j.kit.recycler.RecyclerFactory;
 import org.apache.logging.log4j.layout.template.json.util.CharSequencePointer;
@@ -49,6 +51,11 @@ final class StackTraceStringResolver implements StackTraceResolver {
 
     private final List<Pattern> groupedTruncationPointMatcherRegexes;
 
+    /**
+     * The cache of the escaped JSON strings, if enabled.
+     */
+    private final StackTraceCache cache;
+
     StackTraceStringResolver(
             final EventResolverContext context,
             final String truncationSuffix,
@@ -64,6 +71,11 @@ final class StackTraceStringResolver implements StackTraceResolver {
         this.truncationSuffix = truncationSuffix;
         this.truncationPointMatcherStrings = truncationPointMatcherStrings;
         this.groupedTruncationPointMatcherRegexes = groupTruncationPointMatcherRegexes(truncationPointMatcherRegexes);
+        final int cacheSize = context.getConfiguration()
+                .getEnvironment()
+                .getProperty(StackTraceCacheProperties.class)
+                .size();
+        this.cache = cacheSize > 0 ? new StackTraceCache(cacheSize) : null;
     }
 
     private static List<Pattern> groupTruncationPointMatcherRegexes(final List<String> regexes) {
@@ -79,6 +91,29 @@ final class StackTraceStringResolver implements StackTraceResolver {
 
     @Override
     public void resolve(final Throwable throwable, final JsonWriter jsonWriter) {
+
+        // Short-circuit if the cache is disabled, or the throwable cannot be cached.
+        final StackTraceCache.Key key = cache != null ? cache.createKey(throwable, "") : null;
+        if (key == null) {
+            resolveUncached(throwable, jsonWriter);
+            return;
+        }
+
+        // Write the cached escaped string, if present.
+        final String cachedJson = cache.get(key);
+        if (cachedJson != null) {
+            jsonWriter.writeRawString(cachedJson);
+            return;
+        }
+
+        // Otherwise, resolve and cache the escaped string.
+        final StringBuilder jsonWriterStringBuilder = jsonWriter.getStringBuilder();
+        final int startIndex = jsonWriterStringBuilder.length();
+        resolveUncached(throwable, jsonWriter);
+        cache.put(key, jsonWriterStringBuilder.substring(startIndex));
+    }
+
+    private void resolveUncached(final Throwable throwable, final JsonWriter jsonWriter) {
         final TruncatingBufferedPrintWriter srcWriter = srcWriterRecycler.acquire();
         try {
             throwable.printStackTrace(srcWriter);
@@ -88,6 +123,10 @@ final class StackTraceStringResolver implements StackTraceResolver {
         }
     }
 
+    StackTraceCache getCache() {
+        return cache;
+    }
+
     private void truncate(
             final TruncatingBufferedPrintWriter srcWriter,
             final Consumer<TruncatingBufferedPrintWriter> effectiveWriterConsumer) {
@@ -21,12 +21,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.apache.logging.log4j.kit.json.JsonReader;
 import org.apache.logging.log4j.layout.template.json.util.JsonWriter;
 
 /**
  * Main class for compiling {@link TemplateResolver}s from a template.
+ * <p>
+ * Parts of the template that do not depend on the resolved value (field names, punctuation, and literal values) are
+ * rendered once at compile time, and adjacent ones are merged into a single pre-escaped string.
+ * Each JSON object and array is compiled into a linear array of instructions alternating between writing such a
+ * constant and resolving a field, instead of a tree of resolvers re-emitting the constant parts for each value.
+ * </p>
  */
 public final class TemplateResolvers {
 
@@ -34,50 +39,41 @@ public final class TemplateResolvers {
 
     private static final String RESOLVER_FIELD_NAME = "$resolver";
 
-    private abstract static class UnresolvableTemplateResolver implements TemplateResolver<Object> {
+    /**
+     * A resolver whose output does not depend on the resolved value.
+     */
+    private static final class ConstantResolver<V> implements TemplateResolver<V> {
 
-        @Override
-        public final boolean isResolvable() {
-            return false;
+        private final String json;
+
+        private final boolean resolvable;
+
+        private ConstantResolver(final String json, final boolean resolvable) {
+            this.json = json;
+            this.resolvable = resolvable;
         }
 
         @Override
-        public final boolean isResolvable(final Object value) {
-            return false;
+        public boolean isResolvable() {
+            return resolvable;
         }
-    }
-
-    private static final TemplateResolver<?> EMPTY_ARRAY_RESOLVER = new EmptyArrayResolver();
-
-    private static final class EmptyArrayResolver extends UnresolvableTemplateResolver {
 
         @Override
-        public void resolve(final Object value, final JsonWriter jsonWriter) {
-            jsonWriter.writeArrayStart();
-            jsonWriter.writeArrayEnd();
+        public boolean isResolvable(final V value) {
+            return resolvable;
         }
-    }
-
-    private static final TemplateResolver<?> EMPTY_OBJECT_RESOLVER = new EmptyObjectResolver();
-
-    private static final class EmptyObjectResolver extends UnresolvableTemplateResolver {
 
         @Override
-        public void resolve(final Object value, final JsonWriter jsonWriter) {
-            jsonWriter.writeObjectStart();
-            jsonWriter.writeObjectEnd();
+        public void resolve(final V ignored, final JsonWriter jsonWriter) {
+            jsonWriter.writeRawString(json);
         }
     }
 
-    private static final TemplateResolver<?> NULL_RESOLVER = new NullResolver();
+    private static final TemplateResolver<?> EMPTY_ARRAY_RESOLVER = new ConstantResolver<>("[]", false);
 
-    private static final class NullResolver extends UnresolvableTemplateResolver {
+    private static final TemplateResolver<?> EMPTY_OBJECT_RESOLVER = new ConstantResolver<>("{}", false);
 
-        @Override
-        public void resolve(final Object value, final JsonWriter jsonWriter) {
-            jsonWriter.writeNull();
-        }
-    }
+    private static final TemplateResolver<?> NULL_RESOLVER = new ConstantResolver<>("null", false);
 
     public static <V, C extends TemplateResolverContext<V, C>> TemplateResolver<V> ofTemplate(
             final C context, final String template) {
@@ -158,29 +154,57 @@ public final class TemplateResolvers {
             return emptyArrayResolver;
         }
 
+        // Merge the constant items and the punctuation between the rest.
+        final List<String> rawStrings = new ArrayList<>();
+        final List<TemplateResolver<V>> dynamicItemResolvers = new ArrayList<>();
+        final StringBuilder rawStringBuilder = new StringBuilder().append('[');
+        for (int itemIndex = 0; itemIndex < itemResolvers.size(); itemIndex++) {
+            if (itemIndex > 0) {
+                rawStringBuilder.append(',');
+            }
+            final TemplateResolver<V> itemResolver = itemResolvers.get(itemIndex);
+            if (itemResolver instanceof ConstantResolver) {
+                rawStringBuilder.append(((ConstantResolver<V>) itemResolver).json);
+            } else {
+                rawStrings.add(rawStringBuilder.toString());
+                rawStringBuilder.setLength(0);
+                dynamicItemResolvers.add(itemResolver);
+            }
+        }
+        rawStringBuilder.append(']');
+        rawStrings.add(rawStringBuilder.toString());
+
+        // Short-circuit if all items are constant.
+        if (dynamicItemResolvers.isEmpty()) {
+            return new ConstantResolver<>(rawStrings.get(0), true);
+        }
+
         // Create a parent resolver collecting each child resolver execution.
-        return new ArrayResolver<>(itemResolvers);
+        return new ArrayResolver<>(rawStrings, dynamicItemResolvers);
     }
 
     private static final class ArrayResolver<V> implements TemplateResolver<V> {
 
-        private final List<TemplateResolver<V>> itemResolvers;
+        /**
+         * The constant parts surrounding each item resolver, i.e., {@code itemResolvers.length + 1} strings.
+         */
+        private final String[] rawStrings;
+
+        private final TemplateResolver<V>[] itemResolvers;
 
-        private ArrayResolver(final List<TemplateResolver<V>> itemResolvers) {
-            this.itemResolvers = itemResolvers;
+        @SuppressWarnings("unchecked")
+        private ArrayResolver(final List<String> rawStrings, final List<TemplateResolver<V>> itemResolvers) {
+            this.rawStrings = rawStrings.toArray(new String[0]);
+            this.itemResolvers = (TemplateResolver<V>[]) itemResolvers.toArray(new TemplateResolver<?>[0]);
         }
 
         @Override
         public void resolve(final V value, final JsonWriter jsonWriter) {
-            jsonWriter.writeArrayStart();
-            for (int itemResolverIndex = 0; itemResolverIndex < itemResolvers.size(); itemResolverIndex++) {
-                if (itemResolverIndex > 0) {
-                    jsonWriter.writeSeparator();
-                }
-                final TemplateResolver<V> itemResolver = itemResolvers.get(itemResolverIndex);
-                itemResolver.resolve(value, jsonWriter);
+            for (int itemResolverIndex = 0; itemResolverIndex < itemResolvers.length; itemResolverIndex++) {
+                jsonWriter.writeRawString(rawStrings[itemResolverIndex]);
+                itemResolvers[itemResolverIndex].resolve(value, jsonWriter);
             }
-            jsonWriter.writeArrayEnd();
+            jsonWriter.writeRawString(rawStrings[itemResolvers.length]);
         }
     }
 
@@ -192,24 +216,6 @@ public final class TemplateResolvers {
             return ofResolver(context, map);
         }
 
-        // Collect field resolver contexts.
-        final List<FieldResolverContext<V>> fieldResolverContexts = populateFieldResolverMethods(context, map);
-
-        // Short-circuit if the object is empty.
-        final int fieldCount = fieldResolverContexts.size();
-        if (fieldCount == 0) {
-            @SuppressWarnings("unchecked")
-            final TemplateResolver<V> emptyObjectResolver = (TemplateResolver<V>) EMPTY_OBJECT_RESOLVER;
-            return emptyObjectResolver;
-        }
-
-        // Create the resolver.
-        return new MapResolver<>(fieldResolverContexts);
-    }
-
-    private static <V, C extends TemplateResolverContext<V, C>>
-            List<FieldResolverContext<V>> populateFieldResolverMethods(final C context, final Map<String, Object> map) {
-
         // Create resolver for each object field.
         final List<String> fieldNames = new ArrayList<>();
         final List<TemplateResolver<V>> fieldResolvers = new ArrayList<>();
@@ -222,106 +228,186 @@ public final class TemplateResolvers {
             }
         });
 
-        // Prepare field names to avoid escape and truncation costs at runtime.
-        final List<String> fieldPrefixes = fieldNames.stream()
-                .map(fieldName -> {
-                    try (final JsonWriter jsonWriter = context.getJsonWriter()) {
-                        jsonWriter.writeString(fieldName);
-                        jsonWriter.getStringBuilder().append(':');
-                        return jsonWriter.getStringBuilder().toString();
-                    }
-                })
-                .collect(Collectors.toList());
-
-        // Collect field resolver contexts.
+        // Short-circuit if the object is empty.
         final int fieldCount = fieldNames.size();
-        return IntStream.range(0, fieldCount)
-                .mapToObj(fieldIndex -> {
-                    final TemplateResolver<V> fieldResolver = fieldResolvers.get(fieldIndex);
-                    final FieldResolverMethod<V> fieldResolverMethod;
-                    final boolean flattening = fieldResolver.isFlattening();
-                    if (flattening) {
-                        fieldResolverMethod = new FlatteningFieldResolverMethod<>(fieldResolver);
-                    } else {
-                        final String fieldPrefix = fieldPrefixes.get(fieldIndex);
-                        fieldResolverMethod = new PrefixedFieldResolverMethod<>(fieldPrefix, fieldResolver);
-                    }
-                    return new FieldResolverContext<>(fieldResolver, fieldResolverMethod);
-                })
-                .collect(Collectors.toList());
+        if (fieldCount == 0) {
+            @SuppressWarnings("unchecked")
+            final TemplateResolver<V> emptyObjectResolver = (TemplateResolver<V>) EMPTY_OBJECT_RESOLVER;
+            return emptyObjectResolver;
+        }
+
+        // Compile the fields, preparing field names to avoid escape and truncation costs at runtime.
+        final MapResolverCompiler<V> compiler = new MapResolverCompiler<>();
+        for (int fieldIndex = 0; fieldIndex < fieldCount; fieldIndex++) {
+            final TemplateResolver<V> fieldResolver = fieldResolvers.get(fieldIndex);
+            if (fieldResolver.isFlattening()) {
+                compiler.addFlatteningField(fieldResolver);
+            } else {
+                final String fieldName = fieldNames.get(fieldIndex);
+                final JsonWriter jsonWriter = context.getJsonWriter();
+                final String fieldPrefix = jsonWriter.use(() -> {
+                    jsonWriter.writeString(fieldName);
+                    jsonWriter.getStringBuilder().append(':');
+                });
+                compiler.addField(fieldPrefix, fieldResolver);
+            }
+        }
+        return compiler.compile();
     }
 
-    private static final class FieldResolverContext<V> {
+    /**
+     * Compiles the fields of a JSON object into the instructions of a {@link MapResolver}.
+     * <p>
+     * Whether a separator is needed before a field is known at compile time, unless one of the preceding fields is
+     * not resolvable for every value.
+     * </p>
+     */
+    private static final class MapResolverCompiler<V> {
 
-        private final TemplateResolver<V> resolver;
+        private final List<Byte> opcodes = new ArrayList<>();
 
-        private final FieldResolverMethod<V> resolverMethod;
+        private final List<String> rawStrings = new ArrayList<>();
 
-        private FieldResolverContext(final TemplateResolver<V> resolver, final FieldResolverMethod<V> resolverMethod) {
-            this.resolver = resolver;
-            this.resolverMethod = resolverMethod;
-        }
-    }
+        private final List<String> succeedingRawStrings = new ArrayList<>();
 
-    @FunctionalInterface
-    private interface FieldResolverMethod<V> {
+        private final List<TemplateResolver<V>> resolvers = new ArrayList<>();
 
-        boolean resolve(V value, JsonWriter jsonWriter, boolean succeedingEntry);
-    }
+        private final StringBuilder pendingRawString = new StringBuilder().append('{');
 
-    private static final class FlatteningFieldResolverMethod<V> implements FieldResolverMethod<V> {
+        /**
+         * Indicates if the pending raw string contains a field, starting with a separator determined at runtime.
+         */
+        private boolean pendingSeparatedEntries = false;
 
-        private final TemplateResolver<V> fieldResolver;
+        /**
+         * Indicates if the pending raw string contains a field.
+         */
+        private boolean pendingEntries = false;
 
-        private FlatteningFieldResolverMethod(final TemplateResolver<V> fieldResolver) {
-            this.fieldResolver = fieldResolver;
-        }
+        /**
+         * Indicates if a field is always written before the current position.
+         */
+        private boolean entryWritten = false;
 
-        @Override
-        public boolean resolve(final V value, final JsonWriter jsonWriter, final boolean succeedingEntry) {
-            final boolean resolvable = fieldResolver.isResolvable(value);
-            if (!resolvable) {
-                return false;
-            }
-            final StringBuilder jsonWriterStringBuilder = jsonWriter.getStringBuilder();
-            final int initLength = jsonWriterStringBuilder.length();
-            fieldResolver.resolve(value, jsonWriter, succeedingEntry);
-            return jsonWriterStringBuilder.length() > initLength;
-        }
-    }
+        /**
+         * Indicates if a field might be written before the current position.
+         */
+        private boolean entryMaybeWritten = false;
 
-    private static final class PrefixedFieldResolverMethod<V> implements FieldResolverMethod<V> {
+        private boolean constantEntryPresent = false;
 
-        private final String fieldPrefix;
+        private void addField(final String fieldPrefix, final TemplateResolver<V> fieldResolver) {
+            if (fieldResolver instanceof ConstantResolver) {
+                addConstantField(fieldPrefix, ((ConstantResolver<V>) fieldResolver).json);
+            } else {
+                flush();
+                add(MapResolver.RESOLVE_FIELD, fieldPrefix, ',' + fieldPrefix, fieldResolver);
+                entryMaybeWritten = true;
+            }
+        }
 
-        private final TemplateResolver<V> fieldResolver;
+        private void addConstantField(final String fieldPrefix, final String json) {
+            if (entryWritten) {
+                pendingRawString.append(',');
+            } else if (entryMaybeWritten) {
+                // The pending raw string is empty, since it was flushed by the preceding dynamic field.
+                pendingSeparatedEntries = true;
+            }
+            pendingRawString.append(fieldPrefix).append(json);
+            pendingEntries = true;
+            entryWritten = true;
+            constantEntryPresent = true;
+        }
 
-        private PrefixedFieldResolverMethod(final String fieldPrefix, final TemplateResolver<V> fieldResolver) {
-            this.fieldPrefix = fieldPrefix;
-            this.fieldResolver = fieldResolver;
+        private void addFlatteningField(final TemplateResolver<V> fieldResolver) {
+            flush();
+            add(MapResolver.RESOLVE_FLATTENING_FIELD, null, null, fieldResolver);
+            entryMaybeWritten = true;
         }
 
-        @Override
-        public boolean resolve(final V value, final JsonWriter jsonWriter, final boolean succeedingEntry) {
-            final boolean resolvable = fieldResolver.isResolvable(value);
-            if (!resolvable) {
-                return false;
+        private void flush() {
+            if (pendingRawString.length() == 0) {
+                return;
             }
-            if (succeedingEntry) {
-                jsonWriter.writeSeparator();
+            final byte opcode = pendingSeparatedEntries
+                    ? MapResolver.WRITE_SEPARATED_ENTRIES
+                    : pendingEntries ? MapResolver.WRITE_ENTRIES : MapResolver.WRITE_RAW_STRING;
+            add(opcode, pendingRawString.toString(), null, null);
+            pendingRawString.setLength(0);
+            pendingSeparatedEntries = false;
+            pendingEntries = false;
+        }
+
+        private void add(
+                final byte opcode,
+                final String rawString,
+                final String succeedingRawString,
+                final TemplateResolver<V> resolver) {
+            opcodes.add(opcode);
+            rawStrings.add(rawString);
+            succeedingRawStrings.add(succeedingRawString);
+            resolvers.add(resolver);
+        }
+
+        private TemplateResolver<V> compile() {
+            pendingRawString.append('}');
+            if (opcodes.isEmpty()) {
+                return new ConstantResolver<>(pendingRawString.toString(), true);
             }
-            jsonWriter.writeRawString(fieldPrefix);
-            fieldResolver.resolve(value, jsonWriter, succeedingEntry);
-            return true;
+            flush();
+            return new MapResolver<>(this);
         }
     }
 
     private static final class MapResolver<V> implements TemplateResolver<V> {
 
-        private final List<FieldResolverContext<V>> fieldResolverContexts;
+        /**
+         * Writes {@code rawStrings[i]}.
+         */
+        private static final byte WRITE_RAW_STRING = 0;
+
+        /**
+         * Writes {@code rawStrings[i]}, which contains a field.
+         */
+        private static final byte WRITE_ENTRIES = 1;
 
-        private MapResolver(final List<FieldResolverContext<V>> fieldResolverContexts) {
-            this.fieldResolverContexts = fieldResolverContexts;
+        /**
+         * Writes a separator if a field is already written, and then {@code rawStrings[i]}, which contains a field.
+         */
+        private static final byte WRITE_SEPARATED_ENTRIES = 2;
+
+        /**
+         * Writes {@code rawStrings[i]}, or {@code succeedingRawStrings[i]} if a field is already written, followed by
+         * the resolution of {@code resolvers[i]}, if the latter is resolvable.
+         */
+        private static final byte RESOLVE_FIELD = 3;
+
+        /**
+         * Writes the resolution of the flattening {@code resolvers[i]}, if the latter is resolvable.
+         */
+        private static final byte RESOLVE_FLATTENING_FIELD = 4;
+
+        private final byte[] opcodes;
+
+        private final String[] rawStrings;
+
+        private final String[] succeedingRawStrings;
+
+        private final TemplateResolver<V>[] resolvers;
+
+        private final boolean constantEntryPresent;
+
+        @SuppressWarnings("unchecked")
+        private MapResolver(final MapResolverCompiler<V> compiler) {
+            final int instructionCount = compiler.opcodes.size();
+            this.opcodes = new byte[instructionCount];
+            for (int instructionIndex = 0; instructionIndex < instructionCount; instructionIndex++) {
+                opcodes[instructionIndex] = compiler.opcodes.get(instructionIndex);
+            }
+            this.rawStrings = compiler.rawStrings.toArray(new String[0]);
+            this.succeedingRawStrings = compiler.succeedingRawStrings.toArray(new String[0]);
+            this.resolvers = (TemplateResolver<V>[]) compiler.resolvers.toArray(new TemplateResolver<?>[0]);
+            this.constantEntryPresent = compiler.constantEntryPresent;
         }
 
         @Override
@@ -340,12 +426,11 @@ public final class TemplateResolvers {
          */
         @Override
         public boolean isResolvable(final V value) {
-            final int fieldCount = fieldResolverContexts.size();
-            // noinspection ForLoopReplaceableByForEach (avoid iterator instantiation)
-            for (int fieldIndex = 0; fieldIndex < fieldCount; fieldIndex++) {
-                final TemplateResolver<V> fieldResolver = fieldResolverContexts.get(fieldIndex).resolver;
-                final boolean resolvable = fieldResolver.isResolvable(value);
-                if (resolvable) {
+            if (constantEntryPresent) {
+                return true;
+            }
+            for (final TemplateResolver<V> resolver : resolvers) {
+                if (resolver != null && resolver.isResolvable(value)) {
                     return true;
                 }
             }
@@ -357,22 +442,60 @@ public final class TemplateResolvers {
          */
         @Override
         public void resolve(final V value, final JsonWriter jsonWriter) {
-            jsonWriter.writeObjectStart();
-            final int fieldCount = fieldResolverContexts.size();
-            for (int resolvedFieldCount = 0, fieldIndex = 0; fieldIndex < fieldCount; fieldIndex++) {
-                final FieldResolverContext<V> fieldResolverContext = fieldResolverContexts.get(fieldIndex);
-                final boolean resolvable = fieldResolverContext.resolver.isResolvable(value);
-                if (!resolvable) {
-                    continue;
-                }
-                final boolean succeedingEntry = resolvedFieldCount > 0;
-                final boolean resolved =
-                        fieldResolverContext.resolverMethod.resolve(value, jsonWriter, succeedingEntry);
-                if (resolved) {
-                    resolvedFieldCount++;
+            boolean succeedingEntry = false;
+            for (int instructionIndex = 0; instructionIndex < opcodes.length; instructionIndex++) {
+                switch (opcodes[instructionIndex]) {
+                    case WRITE_RAW_STRING:
+                        jsonWriter.writeRawString(rawStrings[instructionIndex]);
+                        break;
+                    case WRITE_ENTRIES:
+                        jsonWriter.writeRawString(rawStrings[instructionIndex]);
+                        succeedingEntry = true;
+                        break;
+                    case WRITE_SEPARATED_ENTRIES:
+                        if (succeedingEntry) {
+                            jsonWriter.writeSeparator();
+                        }
+                        jsonWriter.writeRawString(rawStrings[instructionIndex]);
+                        succeedingEntry = true;
+                        break;
+                    case RESOLVE_FIELD:
+                        succeedingEntry |= resolveField(value, jsonWriter, instructionIndex, succeedingEntry);
+                        break;
+                    case RESOLVE_FLATTENING_FIELD:
+                        succeedingEntry |= resolveFlatteningField(value, jsonWriter, instructionIndex, succeedingEntry);
+                        break;
+                    default:
+                        throw new IllegalStateException("unknown opcode: " + opcodes[instructionIndex]);
                 }
             }
-            jsonWriter.writeObjectEnd();
+        }
+
+        private boolean resolveField(
+                final V value, final JsonWriter jsonWriter, final int instructionIndex, final boolean succeedingEntry) {
+            final TemplateResolver<V> fieldResolver = resolvers[instructionIndex];
+            final boolean resolvable = fieldResolver.isResolvable(value);
+            if (!resolvable) {
+                return false;
+            }
+            final String fieldPrefix =
+                    succeedingEntry ? succeedingRawStrings[instructionIndex] : rawStrings[instructionIndex];
+            jsonWriter.writeRawString(fieldPrefix);
+            fieldResolver.resolve(value, jsonWriter, succeedingEntry);
+            return true;
+        }
+
+        private boolean resolveFlatteningField(
+                final V value, final JsonWriter jsonWriter, final int instructionIndex, final boolean succeedingEntry) {
+            final TemplateResolver<V> fieldResolver = resolvers[instructionIndex];
+            final boolean resolvable = fieldResolver.isResolvable(value);
+            if (!resolvable) {
+                return false;
+            }
+            final StringBuilder jsonWriterStringBuilder = jsonWriter.getStringBuilder();
+            final int initLength = jsonWriterStringBuilder.length();
+            fieldResolver.resolve(value, jsonWriter, succeedingEntry);
+            return jsonWriterStringBuilder.length() > initLength;
         }
     }
 
@@ -422,7 +545,7 @@ public final class TemplateResolvers {
                     final String escapedReplacedText =
                             contextJsonWriter.use(() -> contextJsonWriter.writeString(replacedText));
                     // Create a resolver dedicated to the escaped replacement.
-                    return new RawStringResolver<>(escapedReplacedText);
+                    return new ConstantResolver<>(escapedReplacedText, true);
                 }
             }
 
@@ -437,7 +560,7 @@ public final class TemplateResolvers {
         // Write the field value as is.
         else {
             final String escapedFieldValue = contextJsonWriter.use(() -> contextJsonWriter.writeString(fieldValue));
-            return new RawStringResolver<>(escapedFieldValue);
+            return new ConstantResolver<>(escapedFieldValue, true);
         }
     }
 
@@ -460,53 +583,11 @@ public final class TemplateResolvers {
         }
     }
 
-    private static final class RawStringResolver<V> implements TemplateResolver<V> {
-
-        private final String rawString;
-
-        private RawStringResolver(final String rawString) {
-            this.rawString = rawString;
-        }
-
-        @Override
-        public void resolve(final V ignored, final JsonWriter jsonWriter) {
-            jsonWriter.writeRawString(rawString);
-        }
-    }
-
     private static <V> TemplateResolver<V> ofNumber(final Number number) {
-        return new NumberResolver<>(number);
-    }
-
-    private static final class NumberResolver<V> implements TemplateResolver<V> {
-
-        private final String numberString;
-
-        private NumberResolver(final Number number) {
-            this.numberString = String.valueOf(number);
-        }
-
-        @Override
-        public void resolve(final V ignored, final JsonWriter jsonWriter) {
-            jsonWriter.writeRawString(numberString);
-        }
+        return new ConstantResolver<>(String.valueOf(number), true);
     }
 
     private static <V> TemplateResolver<V> ofBoolean(final boolean value) {
-        return new BooleanResolver<>(value);
-    }
-
-    private static final class BooleanResolver<V> implements TemplateResolver<V> {
-
-        private final boolean value;
-
-        private BooleanResolver(final boolean value) {
-            this.value = value;
-        }
-
-        @Override
-        public void resolve(final V ignored, final JsonWriter jsonWriter) {
-            jsonWriter.writeBoolean(value);
-        }
+        return new ConstantResolver<>(String.valueOf(value), true);
     }
 }
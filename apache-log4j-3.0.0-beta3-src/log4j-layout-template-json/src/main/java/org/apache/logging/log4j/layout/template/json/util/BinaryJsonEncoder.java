@@ -0,0 +1,512 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import java.util.Arrays;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.Encoder;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.kit.recycler.RecyclerFactory;
+
+/**
+ * {@link Encoder} converting JSON texts, e.g., rendered by {@link JsonWriter}, to a binary format.
+ * <p>
+ * The text is parsed in a single pass and the binary record is built in a reusable byte array, which is written to
+ * the destination at once.
+ * Since binary formats write the size of containers and strings before their content, strings are scanned twice and
+ * container headers are patched when the container ends.
+ * </p>
+ * <p>
+ * Numbers without fraction and exponent are encoded as integers, others as floating-point numbers.
+ * Parsing numbers with more than 18 significant digits, or whose decimal exponent exceeds 22, allocates a
+ * {@link String}.
+ * Unpaired surrogates are replaced with {@code ?}.
+ * </p>
+ * <p>
+ * <b>{@link #encode(StringBuilder, ByteBufferDestination) encode()} is not thread-safe!</b>
+ * Users are expected to recycle instances, e.g., using a {@link RecyclerFactory}.
+ * </p>
+ *
+ * @see CborEncoder
+ * @see MessagePackEncoder
+ */
+public abstract class BinaryJsonEncoder implements Encoder<StringBuilder> {
+
+    private static final int MAX_FAST_PATH_DIGITS = 18;
+
+    private static final long MAX_EXACT_DOUBLE_MANTISSA = 1L << 53;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19,
+        1e20, 1e21, 1e22
+    };
+
+    private static final byte REPLACEMENT = '?';
+
+    private byte[] buffer;
+
+    private int position;
+
+    /**
+     * The positions of the headers of the open containers.
+     */
+    private int[] containerPositions;
+
+    /**
+     * The number of separators found in each open container.
+     */
+    private int[] containerSeparatorCounts;
+
+    private int depth;
+
+    /**
+     * The index following the last decoded string.
+     */
+    private int stringEndIndex;
+
+    BinaryJsonEncoder() {
+        this.buffer = new byte[Constants.ENCODER_BYTE_BUFFER_SIZE];
+        this.containerPositions = new int[8];
+        this.containerSeparatorCounts = new int[8];
+    }
+
+    /**
+     * Converts the given JSON text and writes the result to the given destination.
+     * <p>
+     * <b>This method is not thread-safe!</b>
+     * </p>
+     *
+     * @param source a JSON text
+     * @param destination a destination
+     */
+    @Override
+    public void encode(final StringBuilder source, final ByteBufferDestination destination) {
+        final int length = convert(source);
+        destination.writeBytes(buffer, 0, length);
+    }
+
+    /**
+     * Converts the given JSON text.
+     * <p>
+     * <b>This method is not thread-safe!</b>
+     * </p>
+     *
+     * @param json a JSON text
+     * @return the binary record
+     */
+    public byte[] toByteArray(final CharSequence json) {
+        final int length = convert(json);
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private int convert(final CharSequence json) {
+        position = 0;
+        depth = 0;
+        final int length = json.length();
+        int index = 0;
+        while (index < length) {
+            final char c = json.charAt(index);
+            switch (c) {
+                case '{':
+                case '[':
+                    openContainer();
+                    index++;
+                    break;
+                case '}':
+                    closeContainer(true);
+                    index++;
+                    break;
+                case ']':
+                    closeContainer(false);
+                    index++;
+                    break;
+                case ',':
+                    if (depth == 0) {
+                        throw unexpectedCharacter(json, index);
+                    }
+                    containerSeparatorCounts[depth - 1]++;
+                    index++;
+                    break;
+                case ':':
+                case ' ':
+                case '\t':
+                case '\n':
+                case '\r':
+                    index++;
+                    break;
+                case '"':
+                    index = writeString(json, index + 1);
+                    break;
+                case 't':
+                    index = skipLiteral(json, index, "true");
+                    writeBoolean(true);
+                    break;
+                case 'f':
+                    index = skipLiteral(json, index, "false");
+                    writeBoolean(false);
+                    break;
+                case 'n':
+                    index = skipLiteral(json, index, "null");
+                    writeNull();
+                    break;
+                    // `JsonWriter` writes non-finite floating-point numbers as is
+                case 'N':
+                    index = skipLiteral(json, index, "NaN");
+                    writeFloat(Double.NaN);
+                    break;
+                case 'I':
+                    index = skipLiteral(json, index, "Infinity");
+                    writeFloat(Double.POSITIVE_INFINITY);
+                    break;
+                default:
+                    index = writeNumber(json, index);
+            }
+        }
+        if (depth != 0) {
+            throw new IllegalArgumentException("was expecting " + depth + " more container ends");
+        }
+        return position;
+    }
+
+    private void openContainer() {
+        if (depth == containerPositions.length) {
+            containerPositions = Arrays.copyOf(containerPositions, 2 * depth);
+            containerSeparatorCounts = Arrays.copyOf(containerSeparatorCounts, 2 * depth);
+        }
+        containerPositions[depth] = position;
+        containerSeparatorCounts[depth] = 0;
+        depth++;
+        // Reserve a single byte for the header, enough for small containers
+        ensureCapacity(1);
+        position++;
+    }
+
+    private void closeContainer(final boolean map) {
+        if (depth == 0) {
+            throw new IllegalArgumentException("unbalanced container end");
+        }
+        depth--;
+        final int headerPosition = containerPositions[depth];
+        final int contentPosition = headerPosition + 1;
+        final int size = position > contentPosition ? containerSeparatorCounts[depth] + 1 : 0;
+        final int headerSize = containerHeaderSize(size);
+        if (headerSize > 1) {
+            final int shift = headerSize - 1;
+            ensureCapacity(shift);
+            System.arraycopy(buffer, contentPosition, buffer, contentPosition + shift, position - contentPosition);
+            position += shift;
+        }
+        putContainerHeader(headerPosition, map, size);
+    }
+
+    private static int skipLiteral(final CharSequence json, final int startIndex, final String literal) {
+        final int endIndex = startIndex + literal.length();
+        if (endIndex > json.length()) {
+            throw unexpectedCharacter(json, startIndex);
+        }
+        for (int i = 1; i < literal.length(); i++) {
+            if (json.charAt(startIndex + i) != literal.charAt(i)) {
+                throw unexpectedCharacter(json, startIndex + i);
+            }
+        }
+        return endIndex;
+    }
+
+    private int writeString(final CharSequence json, final int startIndex) {
+        final int byteCount = decodeString(json, startIndex, false);
+        writeStringHeader(byteCount);
+        ensureCapacity(byteCount);
+        decodeString(json, startIndex, true);
+        return stringEndIndex;
+    }
+
+    /**
+     * Decodes the JSON string starting at the given index, right after the opening quote, to UTF-8.
+     *
+     * @param write if {@code false}, the bytes are only counted
+     * @return the number of bytes
+     */
+    private int decodeString(final CharSequence json, final int startIndex, final boolean write) {
+        final int length = json.length();
+        final byte[] buffer = this.buffer;
+        int position = this.position;
+        int index = startIndex;
+        char highSurrogate = 0;
+        while (true) {
+            if (index >= length) {
+                throw new IllegalArgumentException("unterminated string at index " + (startIndex - 1));
+            }
+            char c = json.charAt(index++);
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                if (index >= length) {
+                    throw new IllegalArgumentException("unterminated string at index " + (startIndex - 1));
+                }
+                final char escape = json.charAt(index++);
+                switch (escape) {
+                    case 'b':
+                        c = '\b';
+                        break;
+                    case 'f':
+                        c = '\f';
+                        break;
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'u':
+                        c = parseHex(json, index);
+                        index += 4;
+                        break;
+                    default:
+                        c = escape;
+                }
+            }
+            if (highSurrogate != 0) {
+                if (Character.isLowSurrogate(c)) {
+                    if (write) {
+                        final int codePoint = Character.toCodePoint(highSurrogate, c);
+                        buffer[position] = (byte) (0xF0 | (codePoint >> 18));
+                        buffer[position + 1] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                        buffer[position + 2] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                        buffer[position + 3] = (byte) (0x80 | (codePoint & 0x3F));
+                    }
+                    position += 4;
+                    highSurrogate = 0;
+                    continue;
+                }
+                if (write) {
+                    buffer[position] = REPLACEMENT;
+                }
+                position++;
+                highSurrogate = 0;
+            }
+            if (c < 0x80) {
+                if (write) {
+                    buffer[position] = (byte) c;
+                }
+                position++;
+            } else if (c < 0x800) {
+                if (write) {
+                    buffer[position] = (byte) (0xC0 | (c >> 6));
+                    buffer[position + 1] = (byte) (0x80 | (c & 0x3F));
+                }
+                position += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                highSurrogate = c;
+            } else if (Character.isLowSurrogate(c)) {
+                if (write) {
+                    buffer[position] = REPLACEMENT;
+                }
+                position++;
+            } else {
+                if (write) {
+                    buffer[position] = (byte) (0xE0 | (c >> 12));
+                    buffer[position + 1] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[position + 2] = (byte) (0x80 | (c & 0x3F));
+                }
+                position += 3;
+            }
+        }
+        if (highSurrogate != 0) {
+            if (write) {
+                buffer[position] = REPLACEMENT;
+            }
+            position++;
+        }
+        final int byteCount = position - this.position;
+        if (write) {
+            this.position = position;
+        }
+        stringEndIndex = index;
+        return byteCount;
+    }
+
+    private static char parseHex(final CharSequence json, final int startIndex) {
+        if (startIndex + 4 > json.length()) {
+            throw new IllegalArgumentException("truncated unicode escape at index " + (startIndex - 2));
+        }
+        int value = 0;
+        for (int i = startIndex; i < startIndex + 4; i++) {
+            final int digit = Character.digit(json.charAt(i), 16);
+            if (digit < 0) {
+                throw unexpectedCharacter(json, i);
+            }
+            value = (value << 4) | digit;
+        }
+        return (char) value;
+    }
+
+    private int writeNumber(final CharSequence json, final int startIndex) {
+        final int length = json.length();
+        int index = startIndex;
+        final boolean negative = json.charAt(index) == '-';
+        if (negative) {
+            index++;
+            if (index < length && json.charAt(index) == 'I') {
+                final int endIndex = skipLiteral(json, index, "Infinity");
+                writeFloat(Double.NEGATIVE_INFINITY);
+                return endIndex;
+            }
+        }
+
+        // Read the integral and fractional digits.
+        long mantissa = 0;
+        int significantDigitCount = 0;
+        int fractionDigitCount = 0;
+        int digitCount = 0;
+        boolean fraction = false;
+        for (; index < length; index++) {
+            final char c = json.charAt(index);
+            if (c >= '0' && c <= '9') {
+                digitCount++;
+                if (mantissa != 0 || c != '0') {
+                    significantDigitCount++;
+                    mantissa = 10 * mantissa + (c - '0');
+                }
+                if (fraction) {
+                    fractionDigitCount++;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digitCount == 0) {
+            throw unexpectedCharacter(json, startIndex);
+        }
+
+        // Read the exponent.
+        int exponent = 0;
+        boolean exponentPresent = false;
+        if (index < length && (json.charAt(index) == 'e' || json.charAt(index) == 'E')) {
+            exponentPresent = true;
+            index++;
+            boolean negativeExponent = false;
+            if (index < length && (json.charAt(index) == '+' || json.charAt(index) == '-')) {
+                negativeExponent = json.charAt(index) == '-';
+                index++;
+            }
+            final int exponentStartIndex = index;
+            for (; index < length && json.charAt(index) >= '0' && json.charAt(index) <= '9'; index++) {
+                exponent = Math.min(10 * exponent + (json.charAt(index) - '0'), 10_000);
+            }
+            if (index == exponentStartIndex) {
+                throw unexpectedCharacter(json, index);
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+
+        // Write the number.
+        if (significantDigitCount > MAX_FAST_PATH_DIGITS) {
+            writeNumber(json.subSequence(startIndex, index).toString(), fraction || exponentPresent);
+        } else if (!fraction && !exponentPresent) {
+            writeInteger(negative ? -mantissa : mantissa);
+        } else {
+            final int decimalExponent = exponent - fractionDigitCount;
+            if (mantissa <= MAX_EXACT_DOUBLE_MANTISSA && Math.abs(decimalExponent) < POWERS_OF_TEN.length) {
+                // Both operands are exact, hence the result is correctly rounded.
+                final double magnitude = decimalExponent < 0
+                        ? mantissa / POWERS_OF_TEN[-decimalExponent]
+                        : mantissa * POWERS_OF_TEN[decimalExponent];
+                writeFloat(negative ? -magnitude : magnitude);
+            } else {
+                writeNumber(json.subSequence(startIndex, index).toString(), true);
+            }
+        }
+        return index;
+    }
+
+    private void writeNumber(final String number, final boolean floatingPoint) {
+        if (!floatingPoint) {
+            try {
+                writeInteger(Long.parseLong(number));
+                return;
+            } catch (final NumberFormatException ignored) {
+                // Does not fit into a long
+            }
+        }
+        writeFloat(Double.parseDouble(number));
+    }
+
+    private static IllegalArgumentException unexpectedCharacter(final CharSequence json, final int index) {
+        return new IllegalArgumentException("unexpected character at index " + index + ": " + json.charAt(index));
+    }
+
+    final void ensureCapacity(final int byteCount) {
+        final int requiredCapacity = Math.addExact(position, byteCount);
+        if (requiredCapacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(requiredCapacity, 2 * buffer.length));
+        }
+    }
+
+    /**
+     * Appends the given byte, after {@link #ensureCapacity(int)} is called.
+     */
+    final void write(final int value) {
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Appends the given number of the lowest bytes of the given value in big-endian order, after
+     * {@link #ensureCapacity(int)} is called.
+     */
+    final void write(final long value, final int byteCount) {
+        put(position, value, byteCount);
+        position += byteCount;
+    }
+
+    /**
+     * Writes the given number of the lowest bytes of the given value in big-endian order, at the given position.
+     */
+    final void put(final int index, final long value, final int byteCount) {
+        for (int i = 0; i < byteCount; i++) {
+            buffer[index + i] = (byte) (value >>> (8 * (byteCount - 1 - i)));
+        }
+    }
+
+    /**
+     * Returns the size of the header of a container with the given number of elements or entries.
+     */
+    abstract int containerHeaderSize(int size);
+
+    /**
+     * Writes the header of a container at the given position.
+     * The header must have the size returned by {@link #containerHeaderSize(int)}.
+     */
+    abstract void putContainerHeader(int index, boolean map, int size);
+
+    abstract void writeStringHeader(int byteCount);
+
+    abstract void writeInteger(long value);
+
+    abstract void writeFloat(double value);
+
+    abstract void writeBoolean(boolean value);
+
+    abstract void writeNull();
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+/**
+ * Converts JSON texts to <a href="https://www.rfc-editor.org/rfc/rfc8949.html">CBOR</a>.
+ * <p>
+ * Containers and strings are encoded with definite lengths, and floating-point numbers in single precision, if no
+ * precision is lost.
+ * </p>
+ */
+public final class CborEncoder extends BinaryJsonEncoder {
+
+    private static final int MAJOR_TYPE_UNSIGNED_INTEGER = 0;
+
+    private static final int MAJOR_TYPE_NEGATIVE_INTEGER = 1;
+
+    private static final int MAJOR_TYPE_TEXT_STRING = 3;
+
+    private static final int MAJOR_TYPE_ARRAY = 4;
+
+    private static final int MAJOR_TYPE_MAP = 5;
+
+    private static final int FALSE = 0xF4;
+
+    private static final int TRUE = 0xF5;
+
+    private static final int NULL = 0xF6;
+
+    private static final int SINGLE_PRECISION_FLOAT = 0xFA;
+
+    private static final int DOUBLE_PRECISION_FLOAT = 0xFB;
+
+    /**
+     * The largest argument stored in the initial byte.
+     */
+    private static final int MAX_IMMEDIATE_ARGUMENT = 23;
+
+    /**
+     * The additional information denoting a one-byte argument.
+     * The following values denote two, four and eight-byte arguments.
+     */
+    private static final int ONE_BYTE_ARGUMENT = 24;
+
+    @Override
+    int containerHeaderSize(final int size) {
+        return headerSize(size);
+    }
+
+    @Override
+    void putContainerHeader(final int index, final boolean map, final int size) {
+        putHeader(index, map ? MAJOR_TYPE_MAP : MAJOR_TYPE_ARRAY, size);
+    }
+
+    @Override
+    void writeStringHeader(final int byteCount) {
+        writeHeader(MAJOR_TYPE_TEXT_STRING, byteCount);
+    }
+
+    @Override
+    void writeInteger(final long value) {
+        if (value >= 0) {
+            writeHeader(MAJOR_TYPE_UNSIGNED_INTEGER, value);
+        } else {
+            writeHeader(MAJOR_TYPE_NEGATIVE_INTEGER, -1 - value);
+        }
+    }
+
+    @Override
+    void writeFloat(final double value) {
+        final float floatValue = (float) value;
+        if (floatValue == value || Double.isNaN(value)) {
+            ensureCapacity(5);
+            write(SINGLE_PRECISION_FLOAT);
+            write(Float.floatToIntBits(floatValue), 4);
+        } else {
+            ensureCapacity(9);
+            write(DOUBLE_PRECISION_FLOAT);
+            write(Double.doubleToLongBits(value), 8);
+        }
+    }
+
+    @Override
+    void writeBoolean(final boolean value) {
+        ensureCapacity(1);
+        write(value ? TRUE : FALSE);
+    }
+
+    @Override
+    void writeNull() {
+        ensureCapacity(1);
+        write(NULL);
+    }
+
+    /**
+     * Returns the size of a header with the given unsigned argument.
+     */
+    private static int headerSize(final long argument) {
+        if (Long.compareUnsigned(argument, MAX_IMMEDIATE_ARGUMENT) <= 0) {
+            return 1;
+        } else if (Long.compareUnsigned(argument, 0xFFL) <= 0) {
+            return 2;
+        } else if (Long.compareUnsigned(argument, 0xFFFFL) <= 0) {
+            return 3;
+        } else if (Long.compareUnsigned(argument, 0xFFFF_FFFFL) <= 0) {
+            return 5;
+        }
+        return 9;
+    }
+
+    private void writeHeader(final int majorType, final long argument) {
+        final int headerSize = headerSize(argument);
+        ensureCapacity(headerSize);
+        if (headerSize == 1) {
+            write((majorType << 5) | (int) argument);
+        } else {
+            final int argumentSize = headerSize - 1;
+            write((majorType << 5) | (ONE_BYTE_ARGUMENT + Integer.numberOfTrailingZeros(argumentSize)));
+            write(argument, argumentSize);
+        }
+    }
+
+    private void putHeader(final int index, final int majorType, final long argument) {
+        final int headerSize = headerSize(argument);
+        if (headerSize == 1) {
+            put(index, (majorType << 5) | argument, 1);
+        } else {
+            final int argumentSize = headerSize - 1;
+            put(index, (majorType << 5) | (ONE_BYTE_ARGUMENT + Integer.numberOfTrailingZeros(argumentSize)), 1);
+            put(index + 1, argument, argumentSize);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+/**
+ * Converts JSON texts to <a href="https://github.com/msgpack/msgpack/blob/master/spec.md">MessagePack</a>.
+ * <p>
+ * Integers are encoded in the smallest format, and floating-point numbers in single precision, if no precision is
+ * lost.
+ * </p>
+ */
+public final class MessagePackEncoder extends BinaryJsonEncoder {
+
+    private static final int POSITIVE_FIXINT_MAX = 0x7F;
+
+    private static final int NEGATIVE_FIXINT_MIN = -32;
+
+    private static final int FIXMAP = 0x80;
+
+    private static final int FIXARRAY = 0x90;
+
+    private static final int FIXSTR = 0xA0;
+
+    private static final int FIXCONTAINER_MAX_SIZE = 15;
+
+    private static final int FIXSTR_MAX_SIZE = 31;
+
+    private static final int NIL = 0xC0;
+
+    private static final int FALSE = 0xC2;
+
+    private static final int TRUE = 0xC3;
+
+    private static final int FLOAT32 = 0xCA;
+
+    private static final int FLOAT64 = 0xCB;
+
+    private static final int UINT8 = 0xCC;
+
+    private static final int UINT16 = 0xCD;
+
+    private static final int UINT32 = 0xCE;
+
+    private static final int UINT64 = 0xCF;
+
+    private static final int INT8 = 0xD0;
+
+    private static final int INT16 = 0xD1;
+
+    private static final int INT32 = 0xD2;
+
+    private static final int INT64 = 0xD3;
+
+    private static final int STR8 = 0xD9;
+
+    private static final int STR16 = 0xDA;
+
+    private static final int STR32 = 0xDB;
+
+    private static final int ARRAY16 = 0xDC;
+
+    private static final int ARRAY32 = 0xDD;
+
+    private static final int MAP16 = 0xDE;
+
+    private static final int MAP32 = 0xDF;
+
+    @Override
+    int containerHeaderSize(final int size) {
+        if (size <= FIXCONTAINER_MAX_SIZE) {
+            return 1;
+        } else if (size <= 0xFFFF) {
+            return 3;
+        }
+        return 5;
+    }
+
+    @Override
+    void putContainerHeader(final int index, final boolean map, final int size) {
+        if (size <= FIXCONTAINER_MAX_SIZE) {
+            put(index, (map ? FIXMAP : FIXARRAY) | size, 1);
+        } else if (size <= 0xFFFF) {
+            put(index, map ? MAP16 : ARRAY16, 1);
+            put(index + 1, size, 2);
+        } else {
+            put(index, map ? MAP32 : ARRAY32, 1);
+            put(index + 1, size, 4);
+        }
+    }
+
+    @Override
+    void writeStringHeader(final int byteCount) {
+        ensureCapacity(5);
+        if (byteCount <= FIXSTR_MAX_SIZE) {
+            write(FIXSTR | byteCount);
+        } else if (byteCount <= 0xFF) {
+            write(STR8);
+            write(byteCount, 1);
+        } else if (byteCount <= 0xFFFF) {
+            write(STR16);
+            write(byteCount, 2);
+        } else {
+            write(STR32);
+            write(byteCount, 4);
+        }
+    }
+
+    @Override
+    void writeInteger(final long value) {
+        ensureCapacity(9);
+        if (value >= 0) {
+            if (value <= POSITIVE_FIXINT_MAX) {
+                write((int) value);
+            } else if (value <= 0xFF) {
+                write(UINT8);
+                write(value, 1);
+            } else if (value <= 0xFFFF) {
+                write(UINT16);
+                write(value, 2);
+            } else if (value <= 0xFFFF_FFFFL) {
+                write(UINT32);
+                write(value, 4);
+            } else {
+                write(UINT64);
+                write(value, 8);
+            }
+        } else if (value >= NEGATIVE_FIXINT_MIN) {
+            write((int) value);
+        } else if (value >= Byte.MIN_VALUE) {
+            write(INT8);
+            write(value, 1);
+        } else if (value >= Short.MIN_VALUE) {
+            write(INT16);
+            write(value, 2);
+        } else if (value >= Integer.MIN_VALUE) {
+            write(INT32);
+            write(value, 4);
+        } else {
+            write(INT64);
+            write(value, 8);
+        }
+    }
+
+    @Override
+    void writeFloat(final double value) {
+        final float floatValue = (float) value;
+        if (floatValue == value || Double.isNaN(value)) {
+            ensureCapacity(5);
+            write(FLOAT32);
+            write(Float.floatToIntBits(floatValue), 4);
+        } else {
+            ensureCapacity(9);
+            write(FLOAT64);
+            write(Double.doubleToLongBits(value), 8);
+        }
+    }
+
+    @Override
+    void writeBoolean(final boolean value) {
+        ensureCapacity(1);
+        write(value ? TRUE : FALSE);
+    }
+
+    @Override
+    void writeNull() {
+        ensureCapacity(1);
+        write(NIL);
+    }
+}
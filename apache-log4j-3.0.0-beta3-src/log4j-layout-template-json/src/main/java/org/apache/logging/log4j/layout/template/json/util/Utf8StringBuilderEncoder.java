@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json.util;
+
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.Encoder;
+import org.apache.logging.log4j.core.layout.StringBuilderEncoder;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.kit.recycler.RecyclerFactory;
+
+/**
+ * {@link Encoder} writing the UTF-8 encoding of {@link StringBuilder}s.
+ * <p>
+ * Unlike {@link StringBuilderEncoder}, it neither copies the text into a {@link java.nio.CharBuffer}, nor uses a
+ * {@link CharsetEncoder}: the characters of the text are transcoded into a byte array, with a fast path for ASCII
+ * characters. The text itself must still be rendered as characters first.
+ * Unpaired surrogates are replaced with {@code ?}, as {@link StandardCharsets#UTF_8} does.
+ * </p>
+ * <p>
+ * <b>{@link #encode(StringBuilder, ByteBufferDestination) encode()} is not thread-safe!</b>
+ * Users are expected to recycle {@link Utf8StringBuilderEncoder} instances, e.g., using a {@link RecyclerFactory}.
+ * </p>
+ */
+public final class Utf8StringBuilderEncoder implements Encoder<StringBuilder> {
+
+    /**
+     * The maximum number of bytes a single {@code char} is encoded to.
+     * A surrogate pair is encoded to four bytes, two per {@code char}.
+     */
+    private static final int MAX_BYTES_PER_CHAR = 3;
+
+    /**
+     * The maximum number of bytes a single code point is encoded to.
+     */
+    private static final int MAX_BYTES_PER_CODE_POINT = 4;
+
+    private static final byte REPLACEMENT = '?';
+
+    private final byte[] buffer;
+
+    public Utf8StringBuilderEncoder() {
+        this(Constants.ENCODER_BYTE_BUFFER_SIZE);
+    }
+
+    public Utf8StringBuilderEncoder(final int bufferSize) {
+        if (bufferSize < MAX_BYTES_PER_CODE_POINT) {
+            throw new IllegalArgumentException(
+                    "was expecting bufferSize >= " + MAX_BYTES_PER_CODE_POINT + ": " + bufferSize);
+        }
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Encodes the given source to the given destination.
+     * <p>
+     * If the encoded text fits into the buffer, the destination is written to once, without synchronizing on it.
+     * Otherwise, the text is written in chunks while synchronizing on the destination.
+     * </p>
+     *
+     * @param source a source
+     * @param destination a destination
+     */
+    @Override
+    public void encode(final StringBuilder source, final ByteBufferDestination destination) {
+        if ((long) source.length() * MAX_BYTES_PER_CHAR <= buffer.length - MAX_BYTES_PER_CODE_POINT) {
+            encodeText(source, destination);
+        } else {
+            synchronized (destination) {
+                encodeText(source, destination);
+            }
+        }
+    }
+
+    private void encodeText(final StringBuilder source, final ByteBufferDestination destination) {
+        final byte[] buffer = this.buffer;
+        final int flushThreshold = buffer.length - MAX_BYTES_PER_CODE_POINT;
+        final int length = source.length();
+        int position = 0;
+        int index = 0;
+        while (index < length) {
+            if (position > flushThreshold) {
+                destination.writeBytes(buffer, 0, position);
+                position = 0;
+            }
+
+            // Fast path for ASCII characters
+            final int asciiLimit = Math.min(length, index + buffer.length - position);
+            char c;
+            while (index < asciiLimit && (c = source.charAt(index)) < 0x80) {
+                buffer[position++] = (byte) c;
+                index++;
+            }
+            if (index == asciiLimit) {
+                continue;
+            }
+
+            // Slow path for the rest
+            if (position > flushThreshold) {
+                destination.writeBytes(buffer, 0, position);
+                position = 0;
+            }
+            c = source.charAt(index++);
+            if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c)
+                    && index < length
+                    && Character.isLowSurrogate(source.charAt(index))) {
+                final int codePoint = Character.toCodePoint(c, source.charAt(index++));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                buffer[position++] = REPLACEMENT;
+            }
+        }
+        if (position > 0) {
+            destination.writeBytes(buffer, 0, position);
+        }
+    }
+}
@@ -53,6 +53,16 @@ public class JsonTemplateLayoutBenchmark {
         return benchmark(state, state.getJtl4EcsLayout(), state.getLiteLogEvents());
     }
 
+    @Benchmark
+    public static int fullJtl4GelfLayout(final JsonTemplateLayoutBenchmarkState state) {
+        return benchmark(state, state.getJtl4GelfLayout(), state.getFullLogEvents());
+    }
+
+    @Benchmark
+    public static int liteJtl4GelfLayout(final JsonTemplateLayoutBenchmarkState state) {
+        return benchmark(state, state.getJtl4GelfLayout(), state.getLiteLogEvents());
+    }
+
     private static int benchmark(
             final JsonTemplateLayoutBenchmarkState state, final Layout layout, final List<LogEvent> logEvents) {
         final int logEventIndex = state.nextLogEventIndex();
@@ -41,6 +41,8 @@ public class JsonTemplateLayoutBenchmarkState {
 
     private final Layout jtl4EcsLayout;
 
+    private final Layout jtl4GelfLayout;
+
     private final List<LogEvent> fullLogEvents;
 
     private final List<LogEvent> liteLogEvents;
@@ -50,6 +52,7 @@ public class JsonTemplateLayoutBenchmarkState {
     public JsonTemplateLayoutBenchmarkState() {
         this.byteBufferDestination = new BlackHoleByteBufferDestination(1024 * 512);
         this.jtl4EcsLayout = createJtl4EcsLayout();
+        this.jtl4GelfLayout = createJtl4GelfLayout();
         this.fullLogEvents = LogEventFixture.createFullLogEvents(LOG_EVENT_COUNT);
         this.liteLogEvents = LogEventFixture.createLiteLogEvents(LOG_EVENT_COUNT);
     }
@@ -69,6 +72,14 @@ public class JsonTemplateLayoutBenchmarkState {
                 .build();
     }
 
+    private static JsonTemplateLayout createJtl4GelfLayout() {
+        return JsonTemplateLayout.newBuilder()
+                .setConfiguration(CONFIGURATION)
+                .setCharset(CHARSET)
+                .setEventTemplateUri("classpath:GelfLayout.json")
+                .build();
+    }
+
     ByteBufferDestination getByteBufferDestination() {
         return byteBufferDestination;
     }
@@ -77,6 +88,10 @@ public class JsonTemplateLayoutBenchmarkState {
         return jtl4EcsLayout;
     }
 
+    Layout getJtl4GelfLayout() {
+        return jtl4GelfLayout;
+    }
+
     List<LogEvent> getFullLogEvents() {
         return fullLogEvents;
     }
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.Encoder;
+import org.apache.logging.log4j.core.layout.StringBuilderEncoder;
+import org.apache.logging.log4j.layout.template.json.util.Utf8StringBuilderEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the encoders used by {@link JsonTemplateLayout#encode(LogEvent, ByteBufferDestination)} to convert the
+ * rendered JSON to UTF-8: the generic {@link StringBuilderEncoder} and {@link Utf8StringBuilderEncoder}.
+ * <p>
+ * You can run this test as follows:
+ * <pre>{@code
+ * java \
+ *     -jar log4j-perf/target/benchmarks.jar \
+ *     -f 2 \
+ *     -wi 3 -w 20s \
+ *     -i 5 -r 30s \
+ *     -prof gc \
+ *     ".*JsonTemplateLayoutEncoderBenchmark.*"
+ * }</pre>
+ * </p>
+ */
+@State(Scope.Thread)
+public class JsonTemplateLayoutEncoderBenchmark {
+
+    private final Encoder<StringBuilder> stringBuilderEncoder = new StringBuilderEncoder(StandardCharsets.UTF_8);
+
+    private final Encoder<StringBuilder> utf8StringBuilderEncoder = new Utf8StringBuilderEncoder();
+
+    private final ByteBufferDestination destination = new BlackHoleByteBufferDestination(1024 * 512);
+
+    private final List<StringBuilder> fullJsons;
+
+    private final List<StringBuilder> liteJsons;
+
+    private int jsonIndex = 0;
+
+    public JsonTemplateLayoutEncoderBenchmark() {
+        final JsonTemplateLayoutBenchmarkState state = new JsonTemplateLayoutBenchmarkState();
+        final Layout layout = state.getJtl4EcsLayout();
+        this.fullJsons = render(layout, state.getFullLogEvents());
+        this.liteJsons = render(layout, state.getLiteLogEvents());
+    }
+
+    private static List<StringBuilder> render(final Layout layout, final List<LogEvent> logEvents) {
+        return logEvents.stream()
+                .map(logEvent -> new StringBuilder(new String(layout.toByteArray(logEvent), StandardCharsets.UTF_8)))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int fullStringBuilderEncoder() {
+        return benchmark(stringBuilderEncoder, fullJsons);
+    }
+
+    @Benchmark
+    public int fullUtf8StringBuilderEncoder() {
+        return benchmark(utf8StringBuilderEncoder, fullJsons);
+    }
+
+    @Benchmark
+    public int liteStringBuilderEncoder() {
+        return benchmark(stringBuilderEncoder, liteJsons);
+    }
+
+    @Benchmark
+    public int liteUtf8StringBuilderEncoder() {
+        return benchmark(utf8StringBuilderEncoder, liteJsons);
+    }
+
+    private int benchmark(final Encoder<StringBuilder> encoder, final List<StringBuilder> jsons) {
+        final StringBuilder json = jsons.get(jsonIndex);
+        jsonIndex = (jsonIndex + 1) % jsons.size();
+        encoder.encode(json, destination);
+        return destination.getByteBuffer().position();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.layout.template.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout.EventTemplateAdditionalField;
+import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout.OutputFormat;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the throughput and the record size of the {@link OutputFormat}s of {@link JsonTemplateLayout}, using the
+ * ECS event template.
+ * <p>
+ * The {@code bytes} counter reports the bytes written per second: dividing it by the operations per second gives the
+ * average record size of each format.
+ * </p>
+ * <p>
+ * You can run this test as follows:
+ * <pre>{@code
+ * java \
+ *     -jar log4j-perf/target/benchmarks.jar \
+ *     -f 2 \
+ *     -wi 3 -w 20s \
+ *     -i 5 -r 30s \
+ *     -prof gc \
+ *     ".*JsonTemplateLayoutOutputFormatBenchmark.*"
+ * }</pre>
+ * </p>
+ */
+@State(Scope.Thread)
+public class JsonTemplateLayoutOutputFormatBenchmark {
+
+    @Param({"JSON", "CBOR", "MESSAGE_PACK"})
+    public OutputFormat outputFormat;
+
+    private final ByteBufferDestination destination = new BlackHoleByteBufferDestination(1024 * 512);
+
+    private final JsonTemplateLayoutBenchmarkState state = new JsonTemplateLayoutBenchmarkState();
+
+    private JsonTemplateLayout layout;
+
+    private int[] fullSizes;
+
+    private int[] liteSizes;
+
+    private int logEventIndex = 0;
+
+    @Setup
+    public void setUp() {
+        final EventTemplateAdditionalField[] additionalFields = new EventTemplateAdditionalField[] {
+            EventTemplateAdditionalField.newBuilder()
+                    .setKey("service.name")
+                    .setValue("benchmark")
+                    .build()
+        };
+        layout = JsonTemplateLayout.newBuilder()
+                .setConfiguration(new DefaultConfiguration())
+                .setCharset(StandardCharsets.UTF_8)
+                .setOutputFormat(outputFormat)
+                .setEventTemplateUri("classpath:EcsLayout.json")
+                .setEventTemplateAdditionalFields(additionalFields)
+                .build();
+        fullSizes = sizes(layout, state.getFullLogEvents());
+        liteSizes = sizes(layout, state.getLiteLogEvents());
+    }
+
+    private static int[] sizes(final JsonTemplateLayout layout, final List<LogEvent> logEvents) {
+        return logEvents.stream()
+                .mapToInt(logEvent -> layout.toByteArray(logEvent).length)
+                .toArray();
+    }
+
+    @Benchmark
+    public int full(final Bytes bytes) {
+        return benchmark(state.getFullLogEvents(), fullSizes, bytes);
+    }
+
+    @Benchmark
+    public int lite(final Bytes bytes) {
+        return benchmark(state.getLiteLogEvents(), liteSizes, bytes);
+    }
+
+    private int benchmark(final List<LogEvent> logEvents, final int[] sizes, final Bytes bytes) {
+        final LogEvent logEvent = logEvents.get(logEventIndex);
+        bytes.bytes += sizes[logEventIndex];
+        logEventIndex = (logEventIndex + 1) % logEvents.size();
+        layout.encode(logEvent, destination);
+        return destination.getByteBuffer().position();
+    }
+
+    /**
+     * The bytes written during an iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+
+        public long bytes;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AsyncAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.apache.logging.log4j.perf.util.BenchmarkMessageParams;
+import org.apache.logging.log4j.plugins.di.DI;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Measures the throughput of the Async Appender depending on the blocking queue and on the maximum number of events
+ * dispatched at once.
+ * <p>
+ * A batch size of {@code 1} dispatches the events one at a time, like {@link AsyncAppenderLog4j2Benchmark}. The
+ * {@code dispatchedBatches} secondary result counts the batches dispatched during an iteration: the throughput divided
+ * by this rate is the average size of a batch.
+ * </p>
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*AsyncAppenderBatchBenchmark.*" -f 1 -wi 10 -i 20
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+@Threads(4)
+public class AsyncAppenderBatchBenchmark {
+
+    private static final int QUEUE_SIZE = 262144;
+
+    @Param({"ArrayBlockingQueue", "JCToolsBlockingQueue", "DisruptorBlockingQueue"})
+    public String queueFactory;
+
+    @Param({"1", "32", "128", "1024"})
+    public int batchSize;
+
+    private LoggerContext context;
+    private Logger logger;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext(
+                AsyncAppenderBatchBenchmark.class.getSimpleName(), null, (String) null, DI.createInitializedFactory());
+        context.start(createConfiguration(queueFactory, batchSize));
+        logger = context.getLogger(AsyncAppenderBatchBenchmark.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    private long countDispatchedBatches() {
+        final AsyncAppender appender = context.getConfiguration().getAppender("Async");
+        return Arrays.stream(appender.getBatchSizeHistogram()).sum();
+    }
+
+    private static Configuration createConfiguration(final String queueFactory, final int batchSize) {
+        final ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder()
+                .setStatusLevel(Level.ERROR)
+                .setConfigurationName(AsyncAppenderBatchBenchmark.class.getSimpleName());
+        builder.add(builder.newAppender("NoOp", "CountingNoOp"));
+        builder.add(builder.newAppender("Async", "Async")
+                .addAttribute("blocking", true)
+                .addAttribute("bufferSize", QUEUE_SIZE)
+                .addAttribute("batchSize", batchSize)
+                .addComponent(builder.newAppenderRef("NoOp"))
+                .addComponent(builder.newComponent(queueFactory)));
+        builder.add(builder.newRootLogger(Level.INFO).add(builder.newAppenderRef("Async")));
+        return builder.build(false);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughputSimple(final Dispatched dispatched) {
+        logger.info(BenchmarkMessageParams.TEST);
+    }
+
+    /**
+     * The batches dispatched during an iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Dispatched {
+
+        public long dispatchedBatches;
+
+        private long batchesAtStart;
+
+        @Setup(org.openjdk.jmh.annotations.Level.Iteration)
+        public void start(final AsyncAppenderBatchBenchmark benchmark) {
+            batchesAtStart = benchmark.countDispatchedBatches();
+        }
+
+        @TearDown(org.openjdk.jmh.annotations.Level.Iteration)
+        public void stop(final AsyncAppenderBatchBenchmark benchmark, final ThreadParams threadParams) {
+            // The counters of all the threads are summed up: only one thread counts the shared batches
+            dispatchedBatches =
+                    threadParams.getThreadIndex() == 0 ? benchmark.countDispatchedBatches() - batchesAtStart : 0;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -49,14 +50,22 @@ import org.openjdk.jmh.annotations.TearDown;
 @State(Scope.Thread)
 public class AsyncLoggersLocationBenchmark {
 
+    /**
+     * Whether the depth of the call sites is cached to compute locations, only effective in a forked JVM.
+     */
+    @Param({"true", "false"})
+    public String locationCache;
+
     Logger logger;
 
     @Setup(Level.Trial)
     public void up() {
-        System.setProperty("log4j.configurationFile", "perf-WithoutAnyAppender-location.xml");
-        System.setProperty("Log4jContextSelector", "org.apache.logging.log4j.core.async.AsyncLoggerContextSelector");
-        System.setProperty("AsyncLogger.RingBufferSize", "262144");
-        System.setProperty("log4j.async.logger.waitStrategy", "Yield");
+        System.setProperty("log4j.configuration.location", "perf-WithoutAnyAppender-location.xml");
+        System.setProperty(
+                "log4j.loggerContext.selector", "org.apache.logging.log4j.async.logger.AsyncLoggerContextSelector");
+        System.setProperty("log4j.async.logger.ringBuffer.size", "262144");
+        System.setProperty("log4j.async.logger.waitStrategy.type", "Yield");
+        System.setProperty("log4j.location.cache", locationCache);
         // System.setProperty("log4j.format.msg.async", "true");
 
         logger = LogManager.getLogger(getClass());
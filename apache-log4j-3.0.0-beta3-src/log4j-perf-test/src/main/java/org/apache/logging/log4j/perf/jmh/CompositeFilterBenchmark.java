@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.MarkerFilter;
+import org.apache.logging.log4j.core.filter.NeutralFilter;
+import org.apache.logging.log4j.core.filter.ThreadContextMapFilter;
+import org.apache.logging.log4j.core.filter.ThresholdFilter;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the evaluation of chains of filters, like the ones used by {@link MarkerFilterBenchmark} and
+ * {@link MDCFilterBenchmark}, by a compiled {@link CompositeFilter} and by a loop over the same filters.
+ * <p>
+ * The chains contain a {@link ThresholdFilter} at the end, preceded by {@link ThreadContextMapFilter}s,
+ * {@link MarkerFilter}s and {@link NeutralFilter}s. Events below the threshold are rejected, the others go through
+ * the whole chain.
+ * </p>
+ */
+// HOW TO RUN THIS TEST
+// single thread:
+// java -jar target/benchmarks.jar ".*CompositeFilterBenchmark.*" -f 1 -i 5 -wi 5 -bm sample -tu ns
+//
+// multiple threads (for example, 4 threads):
+// java -jar target/benchmarks.jar ".*CompositeFilterBenchmark.*" -f 1 -i 5 -wi 5 -t 4 -si true -bm sample -tu ns
+@State(Scope.Benchmark)
+public class CompositeFilterBenchmark {
+
+    @Param({"1", "2", "5", "10"})
+    public int length;
+
+    private CompositeFilter compositeFilter;
+
+    private Filter[] filters;
+
+    private LogEvent rejectedEvent;
+
+    private LogEvent acceptedEvent;
+
+    @Setup
+    public void setUp() {
+        final List<Filter> chain = new ArrayList<>(length);
+        for (int i = 0; i < length - 1; i++) {
+            switch (i % 3) {
+                case 0:
+                    chain.add(ThreadContextMapFilter.newBuilder()
+                            .setPairs(new KeyValuePair[] {new KeyValuePair("user" + i, "Apache")})
+                            .setOnMatch(Result.NEUTRAL)
+                            .setOnMismatch(Result.DENY)
+                            .get());
+                    break;
+                case 1:
+                    chain.add(MarkerFilter.createFilter("NOISY", Result.DENY, Result.NEUTRAL));
+                    break;
+                default:
+                    chain.add(NeutralFilter.INSTANCE);
+            }
+        }
+        chain.add(ThresholdFilter.createFilter(Level.WARN, Result.NEUTRAL, Result.DENY));
+        filters = chain.toArray(Filter.EMPTY_ARRAY);
+        compositeFilter = CompositeFilter.createFilters(filters);
+
+        final StringMap contextData = ContextDataFactory.createContextData();
+        for (int i = 0; i < length; i++) {
+            contextData.putValue("user" + i, "Apache");
+        }
+        rejectedEvent = event(Level.INFO, contextData);
+        acceptedEvent = event(Level.WARN, contextData);
+    }
+
+    private static LogEvent event(final Level level, final StringMap contextData) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName(CompositeFilterBenchmark.class.getName())
+                .setLevel(level)
+                .setMessage(new SimpleMessage("This is a test"))
+                .setContextData(contextData)
+                .build();
+    }
+
+    private Result filterLoop(final LogEvent event) {
+        Result result = Result.NEUTRAL;
+        for (int i = 0; i < filters.length; i++) {
+            result = filters[i].filter(event);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Result compiledRejected() {
+        return compositeFilter.filter(rejectedEvent);
+    }
+
+    @Benchmark
+    public Result compiledAccepted() {
+        return compositeFilter.filter(acceptedEvent);
+    }
+
+    @Benchmark
+    public Result loopRejected() {
+        return filterLoop(rejectedEvent);
+    }
+
+    @Benchmark
+    public Result loopAccepted() {
+        return filterLoop(acceptedEvent);
+    }
+}
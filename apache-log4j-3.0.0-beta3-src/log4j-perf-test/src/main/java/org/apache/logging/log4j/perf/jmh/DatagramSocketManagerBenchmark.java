@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.net.AbstractSocketManager;
+import org.apache.logging.log4j.core.net.DatagramSocketManager;
+import org.apache.logging.log4j.core.net.PipelinedDatagramSocketManager;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the events and datagrams per second sent by a {@link DatagramSocketManager} and a
+ * {@link PipelinedDatagramSocketManager} to a loopback receiver.
+ * <p>
+ * The {@code receivedEvents} and {@code receivedPackets} secondary results count what the receiver got: with UDP, the
+ * events that are written but never received are lost.
+ * </p>
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*DatagramSocketManagerBenchmark.*" -f 1 -wi 5 -i 10 -t 1
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+public class DatagramSocketManagerBenchmark {
+
+    private static final byte[] EVENT = "<14>1 2024-01-01T00:00:00.000Z host app 42 - - Processed request 42 in 3 ms\n"
+            .getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * {@code -1} for a {@link DatagramSocketManager}, otherwise the maximum packet size of a
+     * {@link PipelinedDatagramSocketManager}.
+     */
+    @Param({"-1", "0", "1472"})
+    public int maxPacketSize;
+
+    private final AtomicLong receivedPackets = new AtomicLong();
+
+    private final AtomicLong receivedEvents = new AtomicLong();
+
+    private DatagramSocket receiver;
+
+    private AbstractSocketManager manager;
+
+    @Setup
+    public void setUp() throws IOException {
+        receiver = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        receiver.setReceiveBufferSize(4 * 1024 * 1024);
+        final Thread thread = new Thread(this::receive, "DatagramSocketManagerBenchmark-Receiver");
+        thread.setDaemon(true);
+        thread.start();
+        final String host = receiver.getLocalAddress().getHostAddress();
+        final int port = receiver.getLocalPort();
+        final PatternLayout layout = PatternLayout.createDefaultLayout();
+        manager = maxPacketSize < 0
+                ? DatagramSocketManager.getSocketManager(host, port, layout, 8192)
+                : PipelinedDatagramSocketManager.getSocketManager(host, port, layout, 8192, 0, maxPacketSize);
+    }
+
+    private void receive() {
+        final DatagramPacket packet = new DatagramPacket(new byte[65536], 65536);
+        try {
+            while (true) {
+                receiver.receive(packet);
+                final byte[] data = packet.getData();
+                int events = 0;
+                for (int i = packet.getOffset(); i < packet.getOffset() + packet.getLength(); i++) {
+                    if (data[i] == '\n') {
+                        events++;
+                    }
+                }
+                receivedPackets.incrementAndGet();
+                receivedEvents.addAndGet(events);
+            }
+        } catch (final IOException ignored) {
+            // closed
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        manager.stop(1, TimeUnit.SECONDS);
+        receiver.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void send(final Received received) {
+        manager.writeBytes(EVENT, 0, EVENT.length);
+        manager.flush();
+    }
+
+    /**
+     * The events and datagrams received during an iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Received {
+
+        public long receivedEvents;
+
+        public long receivedPackets;
+
+        private long eventsAtStart;
+
+        private long packetsAtStart;
+
+        @Setup(Level.Iteration)
+        public void start(final DatagramSocketManagerBenchmark benchmark) {
+            eventsAtStart = benchmark.receivedEvents.get();
+            packetsAtStart = benchmark.receivedPackets.get();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop(final DatagramSocketManagerBenchmark benchmark) {
+            receivedEvents = benchmark.receivedEvents.get() - eventsAtStart;
+            receivedPackets = benchmark.receivedPackets.get() - packetsAtStart;
+        }
+    }
+}
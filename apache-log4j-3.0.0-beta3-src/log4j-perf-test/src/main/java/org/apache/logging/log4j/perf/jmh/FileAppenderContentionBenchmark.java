@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.apache.logging.log4j.plugins.di.DI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares the throughput of contended File Appenders that take the manager lock for each event with File Appenders
+ * that copy events into a lock-free buffer.
+ */
+// HOW TO RUN THIS TEST
+// java -jar log4j-perf/target/benchmarks.jar ".*FileAppenderContentionBenchmark.*" -f 1 -wi 10 -i 20
+//
+// RUNNING THIS TEST WITH 16 THREADS:
+// java -jar log4j-perf/target/benchmarks.jar ".*FileAppenderContentionBenchmark.*" -f 1 -wi 10 -i 20 -t 16
+@State(Scope.Benchmark)
+@Threads(8)
+public class FileAppenderContentionBenchmark {
+
+    public static final String MESSAGE = "This is a debug message";
+
+    private static final String LOCKED_FILE = "target/testContentionLocked.log";
+    private static final String CONCURRENT_FILE = "target/testContentionConcurrent.log";
+
+    @Param({"false", "true"})
+    public boolean immediateFlush;
+
+    private LoggerContext context;
+    private Logger lockedLogger;
+    private Logger concurrentLogger;
+
+    @Setup
+    public void setUp() {
+        deleteLogFiles();
+        context = new LoggerContext(
+                FileAppenderContentionBenchmark.class.getSimpleName(),
+                null,
+                (String) null,
+                DI.createInitializedFactory());
+        context.start(createConfiguration(immediateFlush));
+        lockedLogger = context.getLogger("Locked");
+        concurrentLogger = context.getLogger("Concurrent");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        deleteLogFiles();
+    }
+
+    private static void deleteLogFiles() {
+        new File(LOCKED_FILE).delete();
+        new File(CONCURRENT_FILE).delete();
+    }
+
+    private static Configuration createConfiguration(final boolean immediateFlush) {
+        final ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder()
+                .setStatusLevel(Level.ERROR)
+                .setConfigurationName(FileAppenderContentionBenchmark.class.getSimpleName());
+        builder.add(builder.newAppender("Locked", "File")
+                .addAttribute("fileName", LOCKED_FILE)
+                .addAttribute("immediateFlush", immediateFlush)
+                .add(builder.newLayout("PatternLayout").addAttribute("pattern", "%d %p %c{1.} [%t] %m%n")));
+        builder.add(builder.newAppender("Concurrent", "File")
+                .addAttribute("fileName", CONCURRENT_FILE)
+                .addAttribute("immediateFlush", immediateFlush)
+                .addAttribute("concurrentBufferSize", 256 * 1024)
+                .add(builder.newLayout("PatternLayout").addAttribute("pattern", "%d %p %c{1.} [%t] %m%n")));
+        builder.add(builder.newLogger("Locked", Level.DEBUG)
+                .addAttribute("additivity", false)
+                .add(builder.newAppenderRef("Locked")));
+        builder.add(builder.newLogger("Concurrent", Level.DEBUG)
+                .addAttribute("additivity", false)
+                .add(builder.newAppenderRef("Concurrent")));
+        builder.add(builder.newRootLogger(Level.OFF));
+        return builder.build(false);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void locked() {
+        lockedLogger.debug(MESSAGE);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void concurrentBuffer() {
+        concurrentLogger.debug(MESSAGE);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.apache.logging.log4j.plugins.di.DI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures the throughput of File and RandomAccessFile Appenders whose events are all forced to the storage device,
+ * depending on the group commit interval.
+ */
+// HOW TO RUN THIS TEST
+// java -jar log4j-perf/target/benchmarks.jar ".*FileAppenderGroupCommitBenchmark.*" -f 1 -wi 5 -i 10
+//
+// RUNNING THIS TEST WITH 64 THREADS:
+// java -jar log4j-perf/target/benchmarks.jar ".*FileAppenderGroupCommitBenchmark.*" -f 1 -wi 5 -i 10 -t 64
+@State(Scope.Benchmark)
+@Threads(16)
+public class FileAppenderGroupCommitBenchmark {
+
+    public static final String MESSAGE = "This is an audit message";
+
+    private static final String FILE = "target/testGroupCommit.log";
+    private static final String RANDOM_ACCESS_FILE = "target/testGroupCommitRandom.log";
+
+    @Param({"1", "5", "20"})
+    public long syncIntervalMillis;
+
+    private LoggerContext context;
+    private Logger fileLogger;
+    private Logger randomAccessFileLogger;
+
+    @Setup
+    public void setUp() {
+        deleteLogFiles();
+        context = new LoggerContext(
+                FileAppenderGroupCommitBenchmark.class.getSimpleName(),
+                null,
+                (String) null,
+                DI.createInitializedFactory());
+        context.start(createConfiguration(syncIntervalMillis));
+        fileLogger = context.getLogger("File");
+        randomAccessFileLogger = context.getLogger("RandomAccessFile");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        deleteLogFiles();
+    }
+
+    private static void deleteLogFiles() {
+        new File(FILE).delete();
+        new File(RANDOM_ACCESS_FILE).delete();
+    }
+
+    private static Configuration createConfiguration(final long syncIntervalMillis) {
+        final ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder()
+                .setStatusLevel(Level.ERROR)
+                .setConfigurationName(FileAppenderGroupCommitBenchmark.class.getSimpleName());
+        builder.add(builder.newAppender("File", "File")
+                .addAttribute("fileName", FILE)
+                .addAttribute("immediateFlush", false)
+                .addAttribute("syncIntervalMillis", syncIntervalMillis)
+                .add(builder.newLayout("PatternLayout").addAttribute("pattern", "%d %p %c{1.} [%t] %m%n")));
+        builder.add(builder.newAppender("RandomAccessFile", "RandomAccessFile")
+                .addAttribute("fileName", RANDOM_ACCESS_FILE)
+                .addAttribute("immediateFlush", false)
+                .addAttribute("syncIntervalMillis", syncIntervalMillis)
+                .add(builder.newLayout("PatternLayout").addAttribute("pattern", "%d %p %c{1.} [%t] %m%n")));
+        builder.add(builder.newLogger("File", Level.INFO)
+                .addAttribute("additivity", false)
+                .add(builder.newAppenderRef("File")));
+        builder.add(builder.newLogger("RandomAccessFile", Level.INFO)
+                .addAttribute("additivity", false)
+                .add(builder.newAppenderRef("RandomAccessFile")));
+        builder.add(builder.newRootLogger(Level.OFF));
+        return builder.build(false);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void file() {
+        fileLogger.info(MESSAGE);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void randomAccessFile() {
+        randomAccessFileLogger.info(MESSAGE);
+    }
+}
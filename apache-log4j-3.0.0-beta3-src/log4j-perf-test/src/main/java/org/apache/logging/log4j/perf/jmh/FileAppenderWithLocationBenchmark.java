@@ -25,6 +25,7 @@ import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -45,6 +46,12 @@ public class FileAppenderWithLocationBenchmark {
     public static final String MESSAGE = "This is a debug message";
     private FileHandler julFileHandler;
 
+    /**
+     * Whether Log4j 2 caches the depth of the call sites to compute locations, only effective in a forked JVM.
+     */
+    @Param({"true", "false"})
+    public String locationCache;
+
     Logger log4j2Logger;
     Logger log4j2RandomLogger;
     org.slf4j.Logger slf4jLogger;
@@ -52,9 +59,10 @@ public class FileAppenderWithLocationBenchmark {
 
     @Setup
     public void setUp() throws Exception {
-        System.setProperty("log4j.configurationFile", "log4j2-perfloc.xml");
+        System.setProperty("log4j.configuration.location", "log4j2-perfloc.xml");
         System.setProperty("log4j.configuration", "log4j12-perfloc.xml");
         System.setProperty("logback.configurationFile", "logback-perfloc.xml");
+        System.setProperty("log4j.location.cache", locationCache);
 
         deleteLogFiles();
 
@@ -66,9 +74,10 @@ public class FileAppenderWithLocationBenchmark {
 
     @TearDown
     public void tearDown() {
-        System.clearProperty("log4j.configurationFile");
+        System.clearProperty("log4j.configuration.location");
         System.clearProperty("log4j.configuration");
         System.clearProperty("logback.configurationFile");
+        System.clearProperty("log4j.location.cache");
 
         deleteLogFiles();
     }
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import org.apache.logging.log4j.core.appender.rolling.action.internal.GzCompressAction;
+import org.apache.logging.log4j.core.appender.rolling.action.internal.ParallelGzCompressAction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the time needed to compress an archived log file with the GZ action and the parallel GZ action, depending
+ * on the number of threads.
+ * <p>
+ * The throughput in MB/s is {@link #FILE_SIZE_MB} divided by the average time in seconds.
+ * </p>
+ */
+// HOW TO RUN THIS TEST
+// java -jar log4j-perf/target/benchmarks.jar ".*GzCompressActionBenchmark.*" -f 1 -wi 3 -i 5
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GzCompressActionBenchmark {
+
+    public static final int FILE_SIZE_MB = 64;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"1048576"})
+    public int blockSize;
+
+    private Path directory;
+    private Path original;
+    private Path source;
+    private Path destination;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory(GzCompressActionBenchmark.class.getSimpleName());
+        original = directory.resolve("original.log");
+        source = directory.resolve("app.log");
+        destination = directory.resolve("app.log.gz");
+        final long size = FILE_SIZE_MB * 1024L * 1024L;
+        try (final OutputStream output = Files.newOutputStream(original)) {
+            long written = 0;
+            for (int i = 0; written < size; i++) {
+                final byte[] line = ("2024-01-01 00:00:00,000 INFO  [worker-" + (i % 16)
+                                + "] org.apache.logging.Service - Processed request " + i + " in " + (i % 997)
+                                + " ms\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                output.write(line);
+                written += line.length;
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copySource() throws IOException {
+        // The compress actions delete their source
+        Files.copy(original, source, StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(destination);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(original);
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(destination);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public boolean gz() throws IOException {
+        return new GzCompressAction(source, destination, Deflater.DEFAULT_COMPRESSION).execute();
+    }
+
+    @Benchmark
+    public boolean parallelGz() throws IOException {
+        return new ParallelGzCompressAction(source, destination, Deflater.DEFAULT_COMPRESSION, threads, blockSize)
+                .execute();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.apache.logging.log4j.plugins.di.DI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the throughput of the HTTP Appender sending one request per event with its batching mode, against a local
+ * HTTP server.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*HttpAppenderBenchmark.*" -f 1 -wi 5 -i 5
+//
+// RUNNING THIS TEST WITH 4 THREADS:
+// java -jar log4j-perf/target/benchmarks.jar ".*HttpAppenderBenchmark.*" -f 1 -wi 5 -i 5 -t 4
+//
+@State(Scope.Benchmark)
+public class HttpAppenderBenchmark {
+
+    public static final String MESSAGE = "This is a debug message";
+
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private LoggerContext context;
+    private Logger perEventLogger;
+    private Logger batchedLogger;
+    private Logger batchedJsonArrayLogger;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            try (final InputStream body = exchange.getRequestBody()) {
+                body.readAllBytes();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+
+        context = new LoggerContext(
+                HttpAppenderBenchmark.class.getSimpleName(), null, (String) null, DI.createInitializedFactory());
+        context.start(
+                createConfiguration("http://localhost:" + server.getAddress().getPort() + "/"));
+        perEventLogger = context.getLogger("PerEvent");
+        batchedLogger = context.getLogger("Batched");
+        batchedJsonArrayLogger = context.getLogger("BatchedJsonArray");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private static Configuration createConfiguration(final String url) {
+        final ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder()
+                .setStatusLevel(Level.ERROR)
+                .setConfigurationName(HttpAppenderBenchmark.class.getSimpleName());
+        builder.add(builder.newAppender("PerEvent", "Http")
+                .addAttribute("url", url)
+                .add(builder.newLayout("PatternLayout").addAttribute("pattern", "%d %p %c{1.} [%t] %m%n")));
+        builder.add(builder.newAppender("Batched", "Http")
+                .addAttribute("url", url)
+                .addAttribute("batchSize", 500)
+                .add(builder.newLayout("PatternLayout").addAttribute("pattern", "%d %p %c{1.} [%t] %m%n")));
+        builder.add(builder.newAppender("BatchedJsonArray", "Http")
+                .addAttribute("url", url)
+                .addAttribute("batchSize", 500)
+                .addAttribute("batchFormat", "JSON_ARRAY")
+                .add(builder.newLayout("PatternLayout")
+                        .addAttribute(
+                                "pattern", "{\"timestamp\":\"%d\",\"level\":\"%p\",\"message\":\"%enc{%m}{JSON}\"}")));
+        builder.add(builder.newLogger("PerEvent", Level.DEBUG)
+                .addAttribute("additivity", false)
+                .add(builder.newAppenderRef("PerEvent")));
+        builder.add(builder.newLogger("Batched", Level.DEBUG)
+                .addAttribute("additivity", false)
+                .add(builder.newAppenderRef("Batched")));
+        builder.add(builder.newLogger("BatchedJsonArray", Level.DEBUG)
+                .addAttribute("additivity", false)
+                .add(builder.newAppenderRef("BatchedJsonArray")));
+        builder.add(builder.newRootLogger(Level.OFF));
+        return builder.build(false);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void perEvent() {
+        perEventLogger.debug(MESSAGE);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void batched() {
+        batchedLogger.debug(MESSAGE);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void batchedJsonArray() {
+        batchedJsonArrayLogger.debug(MESSAGE);
+    }
+}
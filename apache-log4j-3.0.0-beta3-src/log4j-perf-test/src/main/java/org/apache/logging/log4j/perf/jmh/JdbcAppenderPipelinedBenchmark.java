@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.builder.api.AppenderComponentBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.apache.logging.log4j.core.util.Closer;
+import org.apache.logging.log4j.plugins.di.DI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares a buffered JDBC Appender, where the logging thread that fills the buffer writes the batch, with a
+ * pipelined one, where batches are written by background threads.
+ * <p>
+ * Each log event inserts one row in an H2 database: the throughput benchmarks measure rows/s and the sample time
+ * benchmarks the latency of the producers. The setup is the H2 part of {@link JdbcAppenderBenchmark}.
+ * </p>
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*JdbcAppenderPipelinedBenchmark.*" -f 1 -wi 5 -i 5
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+@Threads(4)
+public class JdbcAppenderPipelinedBenchmark {
+
+    private static final int BATCH_SIZE = 128;
+    private static final int QUEUE_SIZE = 4096;
+
+    private Connection connection;
+    private LoggerContext context;
+    private Logger bufferedLogger;
+    private Logger pipelinedLogger;
+
+    @Setup
+    public void setUp() throws Exception {
+        connection = JdbcAppenderBenchmark.getConnectionH2();
+        createTable("bufferedLogEntry");
+        createTable("pipelinedLogEntry");
+        context = new LoggerContext(
+                JdbcAppenderPipelinedBenchmark.class.getSimpleName(),
+                null,
+                (String) null,
+                DI.createInitializedFactory());
+        context.start(createConfiguration());
+        bufferedLogger = context.getLogger("Buffered");
+        pipelinedLogger = context.getLogger("Pipelined");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        try (final Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        } catch (final SQLException ignore) {
+            // ignore
+        } finally {
+            Closer.closeSilently(connection);
+        }
+    }
+
+    private void createTable(final String tableName) throws SQLException {
+        try (final Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE " + tableName + " ( "
+                    + "id INTEGER GENERATED ALWAYS AS IDENTITY, eventDate DATETIME, level NVARCHAR(10), "
+                    + "logger NVARCHAR(255), message VARCHAR(1024) )");
+        }
+    }
+
+    private static Configuration createConfiguration() {
+        final ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder()
+                .setStatusLevel(Level.ERROR)
+                .setConfigurationName(JdbcAppenderPipelinedBenchmark.class.getSimpleName());
+        builder.add(newJdbcAppender(builder, "Buffered", "bufferedLogEntry"));
+        builder.add(newJdbcAppender(builder, "Pipelined", "pipelinedLogEntry").addAttribute("queueSize", QUEUE_SIZE));
+        builder.add(builder.newLogger("Buffered", Level.INFO)
+                .addAttribute("additivity", false)
+                .add(builder.newAppenderRef("Buffered")));
+        builder.add(builder.newLogger("Pipelined", Level.INFO)
+                .addAttribute("additivity", false)
+                .add(builder.newAppenderRef("Pipelined")));
+        builder.add(builder.newRootLogger(Level.OFF));
+        return builder.build(false);
+    }
+
+    private static AppenderComponentBuilder newJdbcAppender(
+            final ConfigurationBuilder<BuiltConfiguration> builder, final String name, final String tableName) {
+        return builder.newAppender(name, "JDBC")
+                .addAttribute("tableName", tableName)
+                .addAttribute("bufferSize", BATCH_SIZE)
+                .addComponent(builder.newComponent("ConnectionFactory")
+                        .addAttribute("class", JdbcAppenderBenchmark.class.getName())
+                        .addAttribute("method", "getConnectionH2"))
+                .addComponent(builder.newComponent("Column")
+                        .addAttribute("name", "eventDate")
+                        .addAttribute("isEventTimestamp", true))
+                .addComponent(builder.newComponent("Column")
+                        .addAttribute("name", "level")
+                        .addAttribute("pattern", "%level"))
+                .addComponent(builder.newComponent("Column")
+                        .addAttribute("name", "logger")
+                        .addAttribute("pattern", "%logger"))
+                .addComponent(builder.newComponent("Column")
+                        .addAttribute("name", "message")
+                        .addAttribute("pattern", "%message")
+                        .addAttribute("isUnicode", false));
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void throughputBuffered() {
+        bufferedLogger.info("Test message");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void throughputPipelined() {
+        pipelinedLogger.info("Test message");
+    }
+
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Benchmark
+    public void responseTimeBuffered() {
+        bufferedLogger.info("Test message");
+    }
+
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Benchmark
+    public void responseTimePipelined() {
+        pipelinedLogger.info("Test message");
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.apache.logging.log4j.plugins.di.DI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the time needed to update the configuration of all the loggers of a context, depending on the number of
+ * loggers, and the cost of finding the configuration of a single logger.
+ * <p>
+ * The {@code legacyLookup} benchmark reproduces the former lookup, which removed one segment at a time from the
+ * logger name and looked up each prefix in a map.
+ * </p>
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*LoggerConfigLookupBenchmark.*" -f 1 -wi 5 -i 10
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+public class LoggerConfigLookupBenchmark {
+
+    private static final int TENANTS = 100;
+
+    @Param({"1000", "10000", "40000"})
+    public int loggerCount;
+
+    private LoggerContext context;
+    private Configuration configuration;
+    private Map<String, LoggerConfig> loggerConfigs;
+    private String[] loggerNames;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext(
+                LoggerConfigLookupBenchmark.class.getSimpleName(), null, (String) null, DI.createInitializedFactory());
+        context.start(createConfiguration());
+        configuration = context.getConfiguration();
+        loggerConfigs = configuration.getLoggers();
+        loggerNames = new String[loggerCount];
+        for (int i = 0; i < loggerCount; i++) {
+            loggerNames[i] = "com.example.tenant" + (i % TENANTS) + ".orders.service.Component" + i;
+            context.getLogger(loggerNames[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    private static Configuration createConfiguration() {
+        final ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder()
+                .setStatusLevel(Level.ERROR)
+                .setConfigurationName(LoggerConfigLookupBenchmark.class.getSimpleName());
+        builder.add(builder.newLogger("com.example", Level.INFO));
+        for (int tenant = 0; tenant < TENANTS; tenant += 2) {
+            builder.add(builder.newLogger("com.example.tenant" + tenant + ".orders", Level.DEBUG));
+        }
+        builder.add(builder.newRootLogger(Level.OFF));
+        return builder.build(false);
+    }
+
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void updateLoggers() {
+        context.updateLoggers();
+    }
+
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Benchmark
+    public LoggerConfig lookup() {
+        return configuration.getLoggerConfig(nextLoggerName());
+    }
+
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Benchmark
+    public LoggerConfig legacyLookup() {
+        final String loggerName = nextLoggerName();
+        LoggerConfig loggerConfig = loggerConfigs.get(loggerName);
+        if (loggerConfig != null) {
+            return loggerConfig;
+        }
+        String substr = loggerName;
+        while (!substr.isEmpty()) {
+            final int i = substr.lastIndexOf('.');
+            substr = i > 0 ? substr.substring(0, i) : "";
+            loggerConfig = loggerConfigs.get(substr);
+            if (loggerConfig != null) {
+                return loggerConfig;
+            }
+        }
+        return configuration.getRootLogger();
+    }
+
+    private String nextLoggerName() {
+        final String loggerName = loggerNames[index];
+        index = index + 1 == loggerNames.length ? 0 : index + 1;
+        return loggerName;
+    }
+}
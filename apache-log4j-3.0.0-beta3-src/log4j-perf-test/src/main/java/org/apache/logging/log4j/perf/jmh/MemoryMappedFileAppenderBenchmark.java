@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.apache.logging.log4j.plugins.di.DI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the latency distribution of the MemoryMappedFile Appender when it remaps its region on the logging thread
+ * with the segmented mode, which maps the next region in the background.
+ * <p>
+ * The region length is small, so that many events cross a region boundary: compare the p0.99 and p0.999 percentiles.
+ * </p>
+ */
+// HOW TO RUN THIS TEST
+// java -jar log4j-perf/target/benchmarks.jar ".*MemoryMappedFileAppenderBenchmark.*" -f 1 -wi 5 -i 10
+//
+// RUNNING THIS TEST WITH 4 THREADS:
+// java -jar log4j-perf/target/benchmarks.jar ".*MemoryMappedFileAppenderBenchmark.*" -f 1 -wi 5 -i 10 -t 4
+@State(Scope.Benchmark)
+public class MemoryMappedFileAppenderBenchmark {
+
+    public static final String MESSAGE = "This is a debug message";
+
+    private static final String REMAP_FILE = "target/testMappedRemap.log";
+    private static final String SEGMENTED_FILE = "target/testMappedSegmented.log";
+
+    @Param({"1048576", "8388608"})
+    public int regionLength;
+
+    private LoggerContext context;
+    private Logger remapLogger;
+    private Logger segmentedLogger;
+
+    @Setup
+    public void setUp() {
+        deleteLogFiles();
+        context = new LoggerContext(
+                MemoryMappedFileAppenderBenchmark.class.getSimpleName(),
+                null,
+                (String) null,
+                DI.createInitializedFactory());
+        context.start(createConfiguration(regionLength));
+        remapLogger = context.getLogger("Remap");
+        segmentedLogger = context.getLogger("Segmented");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+        deleteLogFiles();
+    }
+
+    private static void deleteLogFiles() {
+        new File(REMAP_FILE).delete();
+        new File(SEGMENTED_FILE).delete();
+    }
+
+    private static Configuration createConfiguration(final int regionLength) {
+        final ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder()
+                .setStatusLevel(Level.ERROR)
+                .setConfigurationName(MemoryMappedFileAppenderBenchmark.class.getSimpleName());
+        builder.add(builder.newAppender("Remap", "MemoryMappedFile")
+                .addAttribute("fileName", REMAP_FILE)
+                .addAttribute("regionLength", regionLength)
+                .add(builder.newLayout("PatternLayout").addAttribute("pattern", "%d %p %c{1.} [%t] %m%n")));
+        builder.add(builder.newAppender("Segmented", "MemoryMappedFile")
+                .addAttribute("fileName", SEGMENTED_FILE)
+                .addAttribute("regionLength", regionLength)
+                .addAttribute("segmented", true)
+                .add(builder.newLayout("PatternLayout").addAttribute("pattern", "%d %p %c{1.} [%t] %m%n")));
+        builder.add(builder.newLogger("Remap", Level.DEBUG)
+                .addAttribute("additivity", false)
+                .add(builder.newAppenderRef("Remap")));
+        builder.add(builder.newLogger("Segmented", Level.DEBUG)
+                .addAttribute("additivity", false)
+                .add(builder.newAppenderRef("Segmented")));
+        builder.add(builder.newRootLogger(Level.OFF));
+        return builder.build(false);
+    }
+
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Benchmark
+    public void remap() {
+        remapLogger.debug(MESSAGE);
+    }
+
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Benchmark
+    public void segmented() {
+        segmentedLogger.debug(MESSAGE);
+    }
+}
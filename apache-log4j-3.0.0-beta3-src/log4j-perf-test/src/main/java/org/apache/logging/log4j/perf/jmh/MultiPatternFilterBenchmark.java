@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.MultiPatternFilter;
+import org.apache.logging.log4j.core.filter.MultiPatternFilter.MatchPattern;
+import org.apache.logging.log4j.core.filter.RegexFilter;
+import org.apache.logging.log4j.core.filter.StringMatchFilter;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares a chain of {@link StringMatchFilter}s or {@link RegexFilter}s with a single {@link MultiPatternFilter}
+ * searching the same patterns, on an event that matches none of them.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*MultiPatternFilterBenchmark.*" -f 1 -wi 5 -i 10
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+public class MultiPatternFilterBenchmark {
+
+    private static final LogEvent EVENT = Log4jLogEvent.newBuilder()
+            .setLoggerName(MultiPatternFilterBenchmark.class.getName())
+            .setLevel(Level.INFO)
+            .setMessage(new ParameterizedMessage(
+                    "User {} requested {} from {} and the request completed in {} ms",
+                    "alice",
+                    "/api/v1/orders",
+                    "192.168.1.42",
+                    27))
+            .build();
+
+    @Param({"1", "10", "100"})
+    public int patternCount;
+
+    private Filter stringMatchFilters;
+
+    private Filter literalMultiPatternFilter;
+
+    private Filter regexFilters;
+
+    private Filter regexMultiPatternFilter;
+
+    @Setup
+    public void setUp() throws Exception {
+        final Filter[] stringMatch = new Filter[patternCount];
+        final Filter[] regex = new Filter[patternCount];
+        final MatchPattern[] literals = new MatchPattern[patternCount];
+        final MatchPattern[] regexes = new MatchPattern[patternCount];
+        for (int i = 0; i < patternCount; i++) {
+            final String literal = "error code " + i;
+            stringMatch[i] = StringMatchFilter.newBuilder()
+                    .setMatchString(literal)
+                    .setOnMatch(Result.DENY)
+                    .setOnMismatch(Result.NEUTRAL)
+                    .build();
+            regex[i] = RegexFilter.createFilter(
+                    ".*timeout " + i + " after \\d+ ms.*", null, false, Result.DENY, Result.NEUTRAL);
+            literals[i] = MatchPattern.createPattern(literal, null);
+            regexes[i] = MatchPattern.createPattern(null, "timeout " + i + " after \\d+ ms");
+        }
+        stringMatchFilters = CompositeFilter.createFilters(stringMatch);
+        regexFilters = CompositeFilter.createFilters(regex);
+        literalMultiPatternFilter = multiPatternFilter(literals);
+        regexMultiPatternFilter = multiPatternFilter(regexes);
+    }
+
+    private static Filter multiPatternFilter(final MatchPattern[] patterns) {
+        return MultiPatternFilter.newBuilder()
+                .setPatterns(patterns)
+                .setConfiguration(new DefaultConfiguration())
+                .setOnMatch(Result.DENY)
+                .setOnMismatch(Result.NEUTRAL)
+                .build();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Result stringMatchFilters() {
+        return stringMatchFilters.filter(EVENT);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Result literalMultiPatternFilter() {
+        return literalMultiPatternFilter.filter(EVENT);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Result regexFilters() {
+        return regexFilters.filter(EVENT);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Result regexMultiPatternFilter() {
+        return regexMultiPatternFilter.filter(EVENT);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.filter.BurstFilter;
+import org.apache.logging.log4j.core.filter.RateLimitFilter;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares the throughput of {@link BurstFilter} and {@link RateLimitFilter} with 32 threads filtering events at
+ * once.
+ * <p>
+ * With a low rate almost all the events are rejected, like during an error storm. With a high rate almost all the
+ * events are accepted.
+ * </p>
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*RateLimitFilterBenchmark.*" -f 1 -wi 5 -i 10
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+@Threads(32)
+public class RateLimitFilterBenchmark {
+
+    private static final LogEvent EVENT = Log4jLogEvent.newBuilder()
+            .setLoggerName(RateLimitFilterBenchmark.class.getName())
+            .setLevel(Level.INFO)
+            .setMessage(new SimpleMessage("Test message"))
+            .build();
+
+    @Param({"BurstFilter", "RateLimitFilter"})
+    public String filterType;
+
+    @Param({"100", "1000000000"})
+    public float rate;
+
+    private Filter filter;
+
+    @Setup
+    public void setUp() {
+        final long maxBurst = (long) Math.min(rate, 1000);
+        filter = "BurstFilter".equals(filterType)
+                ? BurstFilter.newBuilder()
+                        .setLevel(Level.INFO)
+                        .setRate(rate)
+                        .setMaxBurst(maxBurst)
+                        .build()
+                : RateLimitFilter.newBuilder()
+                        .setLevel(Level.INFO)
+                        .setRate(rate)
+                        .setMaxBurst(maxBurst)
+                        .build();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Filter.Result filter() {
+        return filter.filter(EVENT);
+    }
+}
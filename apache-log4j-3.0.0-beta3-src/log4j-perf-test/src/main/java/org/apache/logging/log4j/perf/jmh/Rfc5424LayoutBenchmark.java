@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
+import org.apache.logging.log4j.core.layout.Rfc5424Layout;
+import org.apache.logging.log4j.core.net.Facility;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.message.StructuredDataMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares formatting an event with {@link Rfc5424Layout} to a {@link String} and encoding it directly to a
+ * {@link ByteBufferDestination}.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// single thread:
+// java -jar log4j-perf/target/benchmarks.jar ".*Rfc5424LayoutBenchmark.*" -f 1 -wi 5 -i 10 -prof gc
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class Rfc5424LayoutBenchmark {
+
+    private final Rfc5424Layout layout = Rfc5424Layout.newBuilder()
+            .setFacility(Facility.LOCAL0)
+            .setId("Event")
+            .setEin("18060")
+            .setIncludeMDC(true)
+            .setMdcId("RequestContext")
+            .setAppName("ATM")
+            .setEscapeNL("#012")
+            .build();
+
+    private final LogEvent simpleEvent = createEvent(new SimpleMessage("Transfer Complete"));
+
+    private final LogEvent structuredDataEvent = createEvent(createStructuredDataMessage());
+
+    private final Destination destination = new Destination();
+
+    private static StructuredDataMessage createStructuredDataMessage() {
+        final StructuredDataMessage message = new StructuredDataMessage("Transfer", "Transfer Complete", "Audit");
+        message.put("ToAccount", "123456");
+        message.put("FromAccount", "123457");
+        message.put("Amount", "200.00");
+        return message;
+    }
+
+    private static LogEvent createEvent(final Message message) {
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("loginId", "JohnDoe");
+        contextData.putValue("ipAddress", "192.168.0.120");
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("com.mycom.myproject.mypackage.MyClass")
+                .setLevel(Level.INFO)
+                .setMessage(message)
+                .setContextData(contextData)
+                .setTimeMillis(System.currentTimeMillis())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] toByteArraySimple() {
+        return layout.toByteArray(simpleEvent);
+    }
+
+    @Benchmark
+    public long encodeSimple() {
+        layout.encode(simpleEvent, destination);
+        return destination.count;
+    }
+
+    @Benchmark
+    public byte[] toByteArrayStructuredData() {
+        return layout.toByteArray(structuredDataEvent);
+    }
+
+    @Benchmark
+    public long encodeStructuredData() {
+        layout.encode(structuredDataEvent, destination);
+        return destination.count;
+    }
+
+    private static final class Destination implements ByteBufferDestination {
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(256 * 1024);
+
+        private long count;
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            buf.flip();
+            count += buf.limit();
+            buf.clear();
+            return buf;
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+        }
+
+        @Override
+        public void writeBytes(final byte[] data, final int offset, final int length) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.builder.api.AppenderComponentBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.apache.logging.log4j.plugins.di.DI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares a direct write Rolling File Appender that compresses its files on rollover with one that compresses the
+ * log events while they are written.
+ * <p>
+ * The compression on rollover runs on a separate thread, so the throughput of the first benchmark does not include
+ * its cost, but the CPU and disk usage of the machine should be compared as well.
+ * </p>
+ */
+// HOW TO RUN THIS TEST
+// java -jar log4j-perf/target/benchmarks.jar ".*RollingFileAppenderCompressOnWriteBenchmark.*" -f 1 -wi 5 -i 10
+//
+// RUNNING THIS TEST WITH 4 THREADS:
+// java -jar log4j-perf/target/benchmarks.jar ".*RollingFileAppenderCompressOnWriteBenchmark.*" -f 1 -wi 5 -i 10 -t 4
+@State(Scope.Benchmark)
+public class RollingFileAppenderCompressOnWriteBenchmark {
+
+    public static final String MESSAGE = "This is a debug message";
+
+    private static final String COMPRESS_ON_ROLLOVER_DIR = "target/compressOnRollover";
+    private static final String COMPRESS_ON_WRITE_DIR = "target/compressOnWrite";
+
+    private LoggerContext context;
+    private Logger compressOnRolloverLogger;
+    private Logger compressOnWriteLogger;
+
+    @Setup
+    public void setUp() throws IOException {
+        deleteLogFiles();
+        context = new LoggerContext(
+                RollingFileAppenderCompressOnWriteBenchmark.class.getSimpleName(),
+                null,
+                (String) null,
+                DI.createInitializedFactory());
+        context.start(createConfiguration());
+        compressOnRolloverLogger = context.getLogger("CompressOnRollover");
+        compressOnWriteLogger = context.getLogger("CompressOnWrite");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        deleteLogFiles();
+    }
+
+    private static void deleteLogFiles() throws IOException {
+        for (final String dir : new String[] {COMPRESS_ON_ROLLOVER_DIR, COMPRESS_ON_WRITE_DIR}) {
+            final Path path = Paths.get(dir);
+            if (Files.exists(path)) {
+                try (final Stream<Path> files = Files.walk(path)) {
+                    for (final Path file :
+                            files.sorted(Comparator.reverseOrder()).toArray(Path[]::new)) {
+                        Files.delete(file);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Configuration createConfiguration() {
+        final ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder()
+                .setStatusLevel(Level.ERROR)
+                .setConfigurationName(RollingFileAppenderCompressOnWriteBenchmark.class.getSimpleName());
+        builder.add(newRollingFileAppender(builder, "CompressOnRollover", COMPRESS_ON_ROLLOVER_DIR, false));
+        builder.add(newRollingFileAppender(builder, "CompressOnWrite", COMPRESS_ON_WRITE_DIR, true));
+        builder.add(builder.newLogger("CompressOnRollover", Level.DEBUG)
+                .addAttribute("additivity", false)
+                .add(builder.newAppenderRef("CompressOnRollover")));
+        builder.add(builder.newLogger("CompressOnWrite", Level.DEBUG)
+                .addAttribute("additivity", false)
+                .add(builder.newAppenderRef("CompressOnWrite")));
+        builder.add(builder.newRootLogger(Level.OFF));
+        return builder.build(false);
+    }
+
+    private static AppenderComponentBuilder newRollingFileAppender(
+            final ConfigurationBuilder<BuiltConfiguration> builder,
+            final String name,
+            final String dir,
+            final boolean compressOnWrite) {
+        return builder.newAppender(name, "RollingFile")
+                .addAttribute("filePattern", dir + "/app-%i.log.gz")
+                .addAttribute("immediateFlush", false)
+                .add(builder.newLayout("PatternLayout").addAttribute("pattern", "%d %p %c{1.} [%t] %m%n"))
+                .addComponent(builder.newComponent("SizeBasedTriggeringPolicy").addAttribute("size", "64 MB"))
+                .addComponent(builder.newComponent("DirectWriteRolloverStrategy")
+                        .addAttribute("maxFiles", 3)
+                        .addAttribute("compressOnWrite", compressOnWrite));
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void compressOnRollover() {
+        compressOnRolloverLogger.debug(MESSAGE);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Benchmark
+    public void compressOnWrite() {
+        compressOnWriteLogger.debug(MESSAGE);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.net.AbstractSocketManager;
+import org.apache.logging.log4j.core.net.PipelinedTcpSocketManager;
+import org.apache.logging.log4j.core.net.TcpSocketManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the throughput of a {@link TcpSocketManager} and a {@link PipelinedTcpSocketManager} writing to a loopback
+ * server that discards its input.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*SocketManagerBenchmark.*" -f 1 -wi 5 -i 10 -t 4
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+public class SocketManagerBenchmark {
+
+    private static final byte[] EVENT =
+            "2024-01-01 00:00:00,000 INFO  [main] org.example.Service - Processed request 42 in 3 ms\n"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"false", "true"})
+    public boolean pipelined;
+
+    private ServerSocket serverSocket;
+
+    private AbstractSocketManager manager;
+
+    @Setup
+    public void setUp() throws IOException {
+        serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        final Thread reader = new Thread(this::discard, "SocketManagerBenchmark-Reader");
+        reader.setDaemon(true);
+        reader.start();
+        final String host = serverSocket.getInetAddress().getHostAddress();
+        final int port = serverSocket.getLocalPort();
+        manager = pipelined
+                ? PipelinedTcpSocketManager.getSocketManager(
+                        host, port, 0, 0, PatternLayout.createDefaultLayout(), 8192, null, 0, null)
+                : TcpSocketManager.getSocketManager(
+                        host, port, 0, 0, false, PatternLayout.createDefaultLayout(), 8192, null);
+    }
+
+    private void discard() {
+        final byte[] buffer = new byte[64 * 1024];
+        try (final Socket socket = serverSocket.accept();
+                final InputStream input = socket.getInputStream()) {
+            while (input.read(buffer) >= 0) {
+                // discard
+            }
+        } catch (final IOException ignored) {
+            // closed
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        manager.stop(1, TimeUnit.SECONDS);
+        serverSocket.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void writeAndFlush() {
+        manager.writeBytes(EVENT, 0, EVENT.length);
+        manager.flush();
+    }
+}
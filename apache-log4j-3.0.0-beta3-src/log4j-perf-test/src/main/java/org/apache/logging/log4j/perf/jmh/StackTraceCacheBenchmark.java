@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.core.util.StackTraceCache;
+import org.apache.logging.log4j.layout.template.json.JsonTemplateLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares rendering the same exception repeatedly with and without a {@link StackTraceCache}, using the
+ * {@code %ex} and {@code %xEx} converters of {@link PatternLayout} and the ECS template of {@link JsonTemplateLayout}.
+ * <p>
+ * Each event carries a distinct exception instance, thrown from the same place with the same message.
+ * </p>
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// single thread:
+// java -jar log4j-perf/target/benchmarks.jar ".*StackTraceCacheBenchmark.*" -wi 5 -i 10 -prof gc
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StackTraceCacheBenchmark {
+
+    private static final String CACHE_DISABLED = "-Dlog4j.stackTraceCache.size=0";
+
+    private static final String CACHE_ENABLED = "-Dlog4j.stackTraceCache.size=64";
+
+    private static final int EVENT_COUNT = 128;
+
+    private final PatternLayout patternLayout = createPatternLayout("%m%n%ex");
+
+    private final PatternLayout extendedPatternLayout = createPatternLayout("%m%n%xEx");
+
+    private final JsonTemplateLayout jsonTemplateLayout = JsonTemplateLayout.newBuilder()
+            .setConfiguration(new DefaultConfiguration())
+            .setEventTemplateUri("classpath:EcsLayout.json")
+            .build();
+
+    private final List<LogEvent> events = createEvents();
+
+    private int eventIndex = 0;
+
+    private static PatternLayout createPatternLayout(final String pattern) {
+        return PatternLayout.newBuilder()
+                .setConfiguration(new DefaultConfiguration())
+                .setPattern(pattern)
+                .build();
+    }
+
+    private static List<LogEvent> createEvents() {
+        final List<LogEvent> events = new ArrayList<>(EVENT_COUNT);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            events.add(Log4jLogEvent.newBuilder()
+                    .setLoggerName(StackTraceCacheBenchmark.class.getName())
+                    .setLevel(Level.ERROR)
+                    .setMessage(new SimpleMessage("Request failed"))
+                    .setThrown(createThrowable())
+                    .build());
+        }
+        return events;
+    }
+
+    private static Throwable createThrowable() {
+        try {
+            Integer.parseInt("not a number");
+            throw new AssertionError();
+        } catch (final NumberFormatException cause) {
+            return new IllegalStateException("Connection refused", cause);
+        }
+    }
+
+    private LogEvent nextEvent() {
+        final LogEvent event = events.get(eventIndex);
+        eventIndex = (eventIndex + 1) % EVENT_COUNT;
+        return event;
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = CACHE_DISABLED)
+    public String patternLayoutUncached() {
+        return patternLayout.toSerializable(nextEvent());
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = CACHE_ENABLED)
+    public String patternLayoutCached() {
+        return patternLayout.toSerializable(nextEvent());
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = CACHE_DISABLED)
+    public String extendedPatternLayoutUncached() {
+        return extendedPatternLayout.toSerializable(nextEvent());
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = CACHE_ENABLED)
+    public String extendedPatternLayoutCached() {
+        return extendedPatternLayout.toSerializable(nextEvent());
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = CACHE_DISABLED)
+    public String jsonTemplateLayoutUncached() {
+        return jsonTemplateLayout.toSerializable(nextEvent());
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = CACHE_ENABLED)
+    public String jsonTemplateLayoutCached() {
+        return jsonTemplateLayout.toSerializable(nextEvent());
+    }
+}
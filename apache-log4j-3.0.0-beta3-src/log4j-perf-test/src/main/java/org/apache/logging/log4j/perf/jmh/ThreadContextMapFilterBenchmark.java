@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.filter.ThreadContextMapFilter;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks a {@link ThreadContextMapFilter} with an allow-list of many values for a key, compared with a linear
+ * search of the same values.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*ThreadContextMapFilterBenchmark.*" -f 1 -wi 5 -i 10
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+public class ThreadContextMapFilterBenchmark {
+
+    private static final String KEY = "tenant";
+
+    @Param({"10", "1000", "100000"})
+    public int valueCount;
+
+    private ThreadContextMapFilter filter;
+
+    private List<String> values;
+
+    private LogEvent allowedEvent;
+
+    private LogEvent rejectedEvent;
+
+    @Setup
+    public void setUp() {
+        final KeyValuePair[] pairs = new KeyValuePair[valueCount];
+        values = new ArrayList<>(valueCount);
+        for (int i = 0; i < valueCount; i++) {
+            final String value = "tenant-" + i;
+            pairs[i] = new KeyValuePair(KEY, value);
+            values.add(value);
+        }
+        filter = ThreadContextMapFilter.newBuilder()
+                .setPairs(pairs)
+                .setOnMatch(Result.NEUTRAL)
+                .setOnMismatch(Result.DENY)
+                .get();
+        allowedEvent = event("tenant-" + (valueCount - 1));
+        rejectedEvent = event("unknown-tenant");
+    }
+
+    private static LogEvent event(final String tenant) {
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue(KEY, tenant);
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName(ThreadContextMapFilterBenchmark.class.getName())
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage("This is a test"))
+                .setContextData(contextData)
+                .build();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Result filterAllowed() {
+        return filter.filter(allowedEvent);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Result filterRejected() {
+        return filter.filter(rejectedEvent);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean linearSearchAllowed() {
+        return values.contains(allowedEvent.getContextData().<String>getValue(KEY));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean linearSearchRejected() {
+        return values.contains(rejectedEvent.getContextData().<String>getValue(KEY));
+    }
+}
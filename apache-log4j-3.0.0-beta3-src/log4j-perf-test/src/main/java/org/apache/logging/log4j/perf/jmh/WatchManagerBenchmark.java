@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to you under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.core.config.ConfigurationScheduler;
+import org.apache.logging.log4j.core.util.FileWatchEventService;
+import org.apache.logging.log4j.core.util.WatchManager;
+import org.apache.logging.log4j.kit.env.PropertyEnvironment;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the time between the modification of a configuration file and its notification to the
+ * {@link WatchManager}, when the files are polled every second or monitored by the {@link FileWatchEventService}.
+ * <p>
+ * Each configuration file is watched by its own manager, like the configurations of many logger contexts. The CPU
+ * time used by the monitoring threads, per second of the trial, is printed at the end of each trial.
+ * </p>
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*WatchManagerBenchmark.*" -f 1 -wi 2 -i 5 -r 10s
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Benchmark)
+public class WatchManagerBenchmark {
+
+    private static final int INTERVAL_SECONDS = 1;
+
+    @Param({"false", "true"})
+    public boolean useWatchService;
+
+    @Param({"1", "100", "1000"})
+    public int configurations;
+
+    private final Semaphore notifications = new Semaphore(0);
+    private final List<WatchManager> watchManagers = new ArrayList<>();
+    private ConfigurationScheduler scheduler;
+    private Path directory;
+    private Path modifiedFile;
+    private long modifications;
+    private long startNanos;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory(WatchManagerBenchmark.class.getSimpleName());
+        scheduler = new ConfigurationScheduler();
+        final FileWatchEventService fileWatchService =
+                useWatchService ? FileWatchEventService.getInstance(PropertyEnvironment.getGlobal()) : null;
+        for (int i = 0; i < configurations; i++) {
+            final Path file = Files.writeString(directory.resolve("log4j2-" + i + ".xml"), "<Configuration/>");
+            final WatchManager watchManager = new WatchManager(scheduler, StatusLogger.getLogger(), fileWatchService);
+            watchManager.setIntervalSeconds(INTERVAL_SECONDS);
+            watchManager.watchFile(file.toFile(), ignored -> notifications.release());
+            watchManagers.add(watchManager);
+        }
+        modifiedFile = directory.resolve("log4j2-0.xml");
+        scheduler.start();
+        watchManagers.forEach(WatchManager::start);
+        startNanos = System.nanoTime();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        System.out.printf(
+                "Monitoring CPU time: %.3f ms/s%n",
+                monitoringCpuNanos() / 1_000_000.0 / (elapsedNanos / 1_000_000_000.0));
+        watchManagers.forEach(WatchManager::stop);
+        watchManagers.clear();
+        scheduler.stop();
+        try (final Stream<Path> files = Files.list(directory)) {
+            for (final Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static long monitoringCpuNanos() {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuNanos = 0;
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            final String name = thread.getName();
+            if (name.contains("Scheduled") || name.contains("FileWatchEventService")) {
+                cpuNanos += Math.max(threads.getThreadCpuTime(thread.getId()), 0);
+            }
+        }
+        return cpuNanos;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void reactionLatency() throws Exception {
+        // Changes the last modification time, even within the resolution of the file system
+        Files.setLastModifiedTime(modifiedFile, FileTime.fromMillis(++modifications * 1000));
+        notifications.acquire();
+    }
+}